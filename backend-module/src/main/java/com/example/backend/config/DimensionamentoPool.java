@@ -0,0 +1,47 @@
+package com.example.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+
+/**
+ * Fixa o tamanho dos pools Hikari da aplicação em {@code núcleos do banco × (1 + razão de espera)},
+ * com {@code minimumIdle} igual ao máximo. A razão de espera é o tempo que uma transação passa
+ * esperando (I/O, locks de linhas diferentes) dividido pelo tempo em que o banco trabalha nela: com
+ * 1,0 a conta é a de {@code 2 × núcleos} recomendada para o PostgreSQL, e transferências que esperam
+ * lock pedem mais conexões para manter os núcleos ocupados. Espera pela mesma linha não melhora com
+ * mais conexões; essa fica limitada pelo {@code lock_timeout} e pela retentativa. Roda antes de quem
+ * embrulha o {@code DataSource} (perfil de SQL), enquanto o bean ainda é o próprio pool.
+ */
+@Slf4j
+public class DimensionamentoPool implements BeanPostProcessor, Ordered {
+
+    private final int tamanho;
+
+    public DimensionamentoPool(int nucleosBanco, double razaoEspera) {
+        if (nucleosBanco < 1 || razaoEspera < 0) {
+            throw new IllegalArgumentException("Núcleos do banco devem ser ao menos 1 e a razão de espera não pode ser negativa.");
+        }
+        this.tamanho = Math.max(2, (int) Math.ceil(nucleosBanco * (1 + razaoEspera)));
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource pool) {
+            pool.setMaximumPoolSize(tamanho);
+            pool.setMinimumIdle(tamanho);
+            log.info("Pool de conexões {} dimensionado em {} conexões", beanName, tamanho);
+        }
+        return bean;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.backend.config;
+
+import com.example.backend.domain.event.BeneficioAlteradoEvent;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Janela em que uma leitura de réplica pode ainda não enxergar uma gravação: até
+ * {@code beneficio.replicas.atraso-max-ms} depois dela, o atraso que a verificação das réplicas tolera.
+ * Os caches locais consultam a janela antes de guardar o que leram; senão, uma leitura atrasada logo
+ * depois da invalidação voltaria a guardar o estado anterior até a próxima gravação. Sem réplicas, ou
+ * com as leituras da thread forçadas no primário, tudo pode ser guardado.
+ */
+@Component
+public class JanelaReplicacao {
+
+    private final ObjectProvider<RoteamentoDataSource> roteamento;
+    private final AtomicLong ultimaGravacao = new AtomicLong();
+
+    public JanelaReplicacao(ObjectProvider<RoteamentoDataSource> roteamento) {
+        this.roteamento = roteamento;
+    }
+
+    /** Abre a janela ainda dentro da transação, antes de os caches serem invalidados no commit. */
+    @EventListener
+    public void aoGravar(BeneficioAlteradoEvent evento) {
+        registrarGravacao();
+    }
+
+    /** E a reabre no commit, de onde o atraso da réplica é contado. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoConfirmar(BeneficioAlteradoEvent evento) {
+        registrarGravacao();
+    }
+
+    /** Para gravações que não publicam {@link BeneficioAlteradoEvent}, como a compactação do livro de movimentos. */
+    public void registrarGravacao() {
+        ultimaGravacao.accumulateAndGet(System.currentTimeMillis(), Math::max);
+    }
+
+    /** Se o que a thread acabou de ler pode ir para um cache local, dada a última gravação desta instância. */
+    public boolean podeGuardar() {
+        return podeGuardar(ultimaGravacao.get());
+    }
+
+    /** Se o que a thread acabou de ler pode ir para um cache, dada uma gravação feita em {@code gravadaEm} (epoch ms). */
+    public boolean podeGuardar(long gravadaEm) {
+        RoteamentoDataSource dataSource = roteamento.getIfAvailable();
+        return dataSource == null
+                || !dataSource.leituraEmReplica()
+                || System.currentTimeMillis() - gravadaEm >= dataSource.getAtrasoMaximo().toMillis();
+    }
+}
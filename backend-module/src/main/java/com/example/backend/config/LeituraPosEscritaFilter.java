@@ -0,0 +1,73 @@
+package com.example.backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Leitura das próprias gravações com réplicas: toda requisição que grava (POST, PUT, PATCH, DELETE)
+ * devolve o cookie {@value #COOKIE} com o instante até quando as leituras desse cliente vão ao
+ * primário, e as requisições com o cookie ainda válido leem do primário, sem esperar a réplica
+ * alcançar a gravação. A própria requisição que grava também lê do primário.
+ */
+public class LeituraPosEscritaFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "leitura-primario-ate";
+
+    private static final Set<String> METODOS_ESCRITA = Set.of(
+            HttpMethod.POST.name(), HttpMethod.PUT.name(), HttpMethod.PATCH.name(), HttpMethod.DELETE.name());
+
+    private final Duration janela;
+
+    public LeituraPosEscritaFilter(Duration janela) {
+        this.janela = janela;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean escrita = METODOS_ESCRITA.contains(request.getMethod());
+        if (escrita) {
+            ResponseCookie cookie = ResponseCookie.from(COOKIE, String.valueOf(System.currentTimeMillis() + janela.toMillis()))
+                    .path("/")
+                    .maxAge(janela)
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        }
+
+        RoteamentoDataSource.usarPrimario(escrita || dentroDaJanela(request));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RoteamentoDataSource.usarPrimario(false);
+        }
+    }
+
+    private boolean dentroDaJanela(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return false;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
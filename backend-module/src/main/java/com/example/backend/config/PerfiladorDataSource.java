@@ -0,0 +1,162 @@
+package com.example.backend.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Proxy JDBC que mede os statements sorteados pelo {@link PerfiladorSql}: tempo de cada
+ * {@code execute*} (no PostgreSQL, sem {@code fetchSize}, inclui trazer as linhas), binds informados
+ * desde a execução anterior (somados entre os itens de um lote), linhas alteradas e linhas lidas do
+ * {@code ResultSet}. Statements não sorteados são devolvidos sem proxy. {@code unwrap} segue para o
+ * objeto real, então o COPY da importação continua chegando à conexão do driver.
+ */
+public class PerfiladorDataSource extends DelegatingDataSource {
+
+    private final PerfiladorSql perfilador;
+
+    public PerfiladorDataSource(DataSource alvo, PerfiladorSql perfilador) {
+        super(alvo);
+        this.perfilador = perfilador;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return conexao(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return conexao(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection conexao(Connection alvo) {
+        return proxy(Connection.class, alvo, (proxy, metodo, args) -> {
+            Object resultado = invocar(alvo, metodo, args);
+            if (resultado instanceof Statement statement && perfilador.amostrar()) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String texto ? texto : null;
+                return statement(statement, sql);
+            }
+            return resultado;
+        });
+    }
+
+    private Statement statement(Statement alvo, String sql) {
+        Class<? extends Statement> tipo = alvo instanceof CallableStatement ? CallableStatement.class
+                : alvo instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return proxy(tipo, alvo, new MedicaoStatement(alvo, sql));
+    }
+
+    private ResultSet resultSet(ResultSet alvo, PerfiladorSql.Estatistica estatistica) {
+        return proxy(ResultSet.class, alvo, (proxy, metodo, args) -> {
+            Object resultado = invocar(alvo, metodo, args);
+            if (Boolean.TRUE.equals(resultado) && metodo.getName().equals("next")) {
+                estatistica.somarLinha();
+            }
+            return resultado;
+        });
+    }
+
+    private final class MedicaoStatement implements InvocationHandler {
+
+        private final Statement alvo;
+        private final String sql;
+        private String sqlLote;
+        private long binds;
+        private PerfiladorSql.Estatistica ultima;
+
+        MedicaoStatement(Statement alvo, String sql) {
+            this.alvo = alvo;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            String nome = metodo.getName();
+            if (nome.startsWith("execute")) {
+                return executar(metodo, args);
+            }
+            if (nome.equals("getResultSet") && ultima != null) {
+                ResultSet resultado = (ResultSet) invocar(alvo, metodo, args);
+                return resultado == null ? null : resultSet(resultado, ultima);
+            }
+            if (nome.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                binds++;
+            } else if (nome.equals("addBatch") && args != null && sqlLote == null) {
+                sqlLote = (String) args[0];
+            }
+            return invocar(alvo, metodo, args);
+        }
+
+        private Object executar(Method metodo, Object[] args) throws Throwable {
+            String executada = args != null && args.length > 0 && args[0] instanceof String texto ? texto
+                    : sql != null ? sql : sqlLote;
+            long bindsExecucao = binds;
+            binds = 0;
+            sqlLote = null;
+            long inicio = System.nanoTime();
+            Object resultado;
+            try {
+                resultado = invocar(alvo, metodo, args);
+            } catch (SQLException e) {
+                registrar(executada, System.nanoTime() - inicio, bindsExecucao, 0, e);
+                throw e;
+            }
+            registrar(executada, System.nanoTime() - inicio, bindsExecucao, linhas(resultado), null);
+            if (resultado instanceof ResultSet resultSet && ultima != null) {
+                return resultSet(resultSet, ultima);
+            }
+            return resultado;
+        }
+
+        private void registrar(String executada, long nanos, long bindsExecucao, long linhas, SQLException erro) {
+            ultima = executada == null ? null : perfilador.registrar(executada, nanos, bindsExecucao, linhas, erro);
+        }
+    }
+
+    /** Linhas alteradas por {@code executeUpdate}/{@code executeBatch}; as lidas contam no {@code ResultSet}. */
+    static long linhas(Object resultado) {
+        long linhas = 0;
+        if (resultado instanceof Number numero) {
+            linhas = Math.max(numero.longValue(), 0);
+        } else if (resultado instanceof int[] lote) {
+            for (int alteradas : lote) {
+                linhas += Math.max(alteradas, 0);
+            }
+        } else if (resultado instanceof long[] lote) {
+            for (long alteradas : lote) {
+                linhas += Math.max(alteradas, 0);
+            }
+        }
+        return linhas;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> tipo, Object alvo, InvocationHandler tratador) {
+        return (T) Proxy.newProxyInstance(PerfiladorDataSource.class.getClassLoader(), new Class<?>[]{tipo},
+                (proxy, metodo, args) -> switch (metodo.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> alvo.toString();
+                    default -> tratador.invoke(proxy, metodo, args);
+                });
+    }
+
+    private static Object invocar(Object alvo, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
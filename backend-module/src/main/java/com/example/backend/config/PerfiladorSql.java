@@ -0,0 +1,281 @@
+package com.example.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Perfil das instruções SQL executadas pelo {@link PerfiladorDataSource}, agrupadas pela SQL
+ * normalizada (literais viram {@code ?}, listas {@code IN (?, ?, ...)} viram {@code IN (?...)}). Por
+ * instrução guarda execuções, tempo total e máximo, binds, linhas e, nas que bloqueiam linhas, o excesso
+ * sobre a execução mais rápida.
+ *
+ * <p>Só uma fração {@code amostragem} dos statements é medida (a decisão é tomada ao preparar o
+ * statement; os não sorteados nem passam pelo proxy) e as contagens são extrapoladas por ela. Os dados
+ * cobrem de uma a duas janelas: a cada {@code janela} a atual vira a anterior e a mais antiga é
+ * descartada. Instruções diferentes além de {@code maxInstrucoes} por janela são somadas em
+ * {@value #OUTRAS}, que conta como bloqueante se alguma das instruções somadas bloqueia linhas, mas sem
+ * excesso: os tempos são de instruções diferentes.
+ *
+ * <p>O perfil não mede espera por lock: o JDBC não a separa do tempo de execução. Para as instruções que
+ * bloqueiam linhas ({@code UPDATE}, {@code DELETE}, {@code SELECT ... FOR UPDATE/SHARE}) registra o
+ * excesso, o que cada execução levou além da execução mais rápida da mesma instrução, que soma a espera
+ * por lock com qualquer outra variação (cache frio, I/O, carga). Falhas por timeout de lock, deadlock ou
+ * conflito de serialização são contadas à parte.
+ */
+@Slf4j
+public class PerfiladorSql {
+
+    static final String OUTRAS = "(outras)";
+
+    private static final Pattern LITERAL_TEXTO = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern LITERAL_NUMERO = Pattern.compile("(?<![\\w.$])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern LISTA = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+    private static final Pattern BLOQUEIO = Pattern.compile(
+            "^(update|delete)\\b|\\bfor\\s+(no\\s+key\\s+)?(update|share)\\b", Pattern.CASE_INSENSITIVE);
+    /** Timeout de lock e deadlock no PostgreSQL e no H2, e falha de serialização. */
+    private static final Set<String> ESTADOS_BLOQUEIO = Set.of("55P03", "40P01", "40001", "HYT00");
+
+    private final double amostragem;
+    private final double peso;
+    private final int maxInstrucoes;
+    private final long janelaNanos;
+    private final long lentaNanos;
+    private final Map<String, String> normalizadas = new ConcurrentHashMap<>();
+    private volatile Janela atual;
+    private volatile Janela anterior;
+
+    public PerfiladorSql(double amostragem, int maxInstrucoes, long janelaMs, long lentaMs) {
+        if (amostragem <= 0 || amostragem > 1 || maxInstrucoes < 1 || janelaMs < 1) {
+            throw new IllegalArgumentException("Amostragem deve estar em (0, 1], e instruções e janela devem ser positivas.");
+        }
+        this.amostragem = amostragem;
+        this.peso = 1 / amostragem;
+        this.maxInstrucoes = maxInstrucoes;
+        this.janelaNanos = TimeUnit.MILLISECONDS.toNanos(janelaMs);
+        this.lentaNanos = lentaMs > 0 ? TimeUnit.MILLISECONDS.toNanos(lentaMs) : Long.MAX_VALUE;
+        this.atual = new Janela();
+        this.anterior = atual;
+    }
+
+    public double getAmostragem() {
+        return amostragem;
+    }
+
+    /** Sorteia se o próximo statement será medido. */
+    public boolean amostrar() {
+        return amostragem >= 1 || ThreadLocalRandom.current().nextDouble() < amostragem;
+    }
+
+    /**
+     * Registra uma execução; a estatística devolvida recebe as linhas lidas depois, conforme o
+     * {@code ResultSet} é percorrido.
+     */
+    public Estatistica registrar(String sql, long nanos, long binds, long linhas, SQLException erro) {
+        String normalizada = normalizada(sql);
+        Estatistica estatistica = janela().estatistica(normalizada);
+        estatistica.registrar(normalizada, nanos, binds, linhas, erro);
+        if (nanos >= lentaNanos) {
+            log.warn("SQL lenta ({} ms, {} binds): {}", TimeUnit.NANOSECONDS.toMillis(nanos), binds, normalizada);
+        }
+        return estatistica;
+    }
+
+    /**
+     * As {@code limite} instruções com os maiores valores na ordem pedida, somando as duas janelas. Na
+     * ordem {@link Ordem#BLOQUEANTES} só entram as instruções que bloqueiam linhas ou falharam por lock.
+     */
+    public List<InstrucaoSql> top(Ordem ordem, int limite) {
+        Map<String, InstrucaoSql> instrucoes = new HashMap<>();
+        Janela janelaAnterior = anterior;
+        Janela janelaAtual = atual;
+        if (janelaAnterior != janelaAtual) {
+            janelaAnterior.instrucoes.forEach((sql, estatistica) -> instrucoes.put(sql, estatistica.resumo(sql)));
+        }
+        janelaAtual.instrucoes.forEach((sql, estatistica) ->
+                instrucoes.merge(sql, estatistica.resumo(sql), InstrucaoSql::mais));
+        return instrucoes.values().stream()
+                .filter(instrucao -> ordem != Ordem.BLOQUEANTES || instrucao.bloqueia() || instrucao.falhasBloqueio() > 0)
+                .sorted(ordem.comparador.reversed())
+                .limit(limite)
+                .toList();
+    }
+
+    /** Início do período coberto pelo {@link #top}. */
+    public Instant desde() {
+        return anterior.inicio;
+    }
+
+    public synchronized void limpar() {
+        atual = new Janela();
+        anterior = atual;
+    }
+
+    static String normalizar(String sql) {
+        String normalizada = LITERAL_TEXTO.matcher(sql).replaceAll("?");
+        normalizada = LITERAL_NUMERO.matcher(normalizada).replaceAll("?");
+        normalizada = LISTA.matcher(normalizada).replaceAll("(?...)");
+        return ESPACOS.matcher(normalizada).replaceAll(" ").trim();
+    }
+
+    private String normalizada(String sql) {
+        String normalizada = normalizadas.get(sql);
+        if (normalizada == null) {
+            normalizada = normalizar(sql);
+            // SQLs montadas com literais podem ser infinitas: o cache só guarda até o limite.
+            if (normalizadas.size() < maxInstrucoes * 4) {
+                normalizadas.put(sql, normalizada);
+            }
+        }
+        return normalizada;
+    }
+
+    private Janela janela() {
+        Janela janela = atual;
+        if (System.nanoTime() - janela.inicioNanos < janelaNanos) {
+            return janela;
+        }
+        synchronized (this) {
+            if (atual == janela) {
+                anterior = janela;
+                atual = new Janela();
+            }
+            return atual;
+        }
+    }
+
+    /** Ordenações do {@link #top}. */
+    public enum Ordem {
+        TEMPO(Comparator.comparingDouble(InstrucaoSql::tempoTotalMs)),
+        MEDIA(Comparator.comparingDouble(InstrucaoSql::tempoMedioMs)),
+        MAXIMO(Comparator.comparingDouble(InstrucaoSql::tempoMaximoMs)),
+        EXECUCOES(Comparator.comparingLong(InstrucaoSql::execucoes)),
+        LINHAS(Comparator.comparingLong(InstrucaoSql::linhas)),
+        BLOQUEANTES(Comparator.comparingDouble(InstrucaoSql::excessoMs)
+                .thenComparingLong(InstrucaoSql::falhasBloqueio));
+
+        private final Comparator<InstrucaoSql> comparador;
+
+        Ordem(Comparator<InstrucaoSql> comparador) {
+            this.comparador = comparador;
+        }
+    }
+
+    /** Resumo de uma instrução; execuções, tempos, linhas e binds já extrapolados pela amostragem. */
+    public record InstrucaoSql(String sql, boolean bloqueia, long execucoes, long amostras, double tempoTotalMs,
+                               double tempoMedioMs, double tempoMaximoMs, long linhas, double linhasPorExecucao,
+                               double bindsPorExecucao, double excessoMs, long falhas, long falhasBloqueio) {
+
+        static InstrucaoSql de(String sql, boolean bloqueia, double execucoes, long amostras, double tempoTotalMs,
+                               double tempoMaximoMs, double linhas, double binds, double excessoMs, long falhas,
+                               long falhasBloqueio) {
+            double divisor = Math.max(execucoes, 1);
+            return new InstrucaoSql(sql, bloqueia, Math.round(execucoes), amostras, arredondar(tempoTotalMs),
+                    arredondar(tempoTotalMs / divisor), arredondar(tempoMaximoMs), Math.round(linhas),
+                    arredondar(linhas / divisor), arredondar(binds / divisor), arredondar(excessoMs),
+                    falhas, falhasBloqueio);
+        }
+
+        InstrucaoSql mais(InstrucaoSql outra) {
+            return de(sql, bloqueia || outra.bloqueia, execucoes + outra.execucoes, amostras + outra.amostras,
+                    tempoTotalMs + outra.tempoTotalMs, Math.max(tempoMaximoMs, outra.tempoMaximoMs), linhas + outra.linhas,
+                    bindsPorExecucao * execucoes + outra.bindsPorExecucao * outra.execucoes,
+                    excessoMs + outra.excessoMs, falhas + outra.falhas,
+                    falhasBloqueio + outra.falhasBloqueio);
+        }
+
+        private static double arredondar(double valor) {
+            return Math.round(valor * 1000) / 1000.0;
+        }
+    }
+
+    /** Acumuladores de uma instrução em uma janela, ou das instruções somadas em {@value #OUTRAS}. */
+    public static final class Estatistica {
+
+        private final boolean agregada;
+        private volatile boolean bloqueia;
+        private final LongAdder amostras = new LongAdder();
+        private final DoubleAdder execucoes = new DoubleAdder();
+        private final DoubleAdder tempoNanos = new DoubleAdder();
+        private final LongAccumulator maximoNanos = new LongAccumulator(Math::max, 0);
+        private final LongAccumulator minimoNanos = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        private final DoubleAdder linhas = new DoubleAdder();
+        private final DoubleAdder binds = new DoubleAdder();
+        private final DoubleAdder excessoNanos = new DoubleAdder();
+        private final LongAdder falhas = new LongAdder();
+        private final LongAdder falhasBloqueio = new LongAdder();
+        private final double peso;
+
+        Estatistica(boolean agregada, boolean bloqueia, double peso) {
+            this.agregada = agregada;
+            this.bloqueia = bloqueia;
+            this.peso = peso;
+        }
+
+        void registrar(String sql, long nanos, long bindsExecucao, long linhasExecucao, SQLException erro) {
+            amostras.increment();
+            execucoes.add(peso);
+            tempoNanos.add(nanos * peso);
+            maximoNanos.accumulate(nanos);
+            binds.add(bindsExecucao * peso);
+            linhas.add(linhasExecucao * peso);
+            if (agregada) {
+                if (!bloqueia && BLOQUEIO.matcher(sql).find()) {
+                    bloqueia = true;
+                }
+            } else if (bloqueia) {
+                minimoNanos.accumulate(nanos);
+                excessoNanos.add((nanos - minimoNanos.get()) * peso);
+            }
+            if (erro != null) {
+                falhas.increment();
+                if (ESTADOS_BLOQUEIO.contains(erro.getSQLState())) {
+                    falhasBloqueio.increment();
+                }
+            }
+        }
+
+        /** Uma linha lida do {@code ResultSet}. */
+        public void somarLinha() {
+            linhas.add(peso);
+        }
+
+        InstrucaoSql resumo(String sql) {
+            return InstrucaoSql.de(sql, bloqueia, execucoes.sum(), amostras.sum(), tempoNanos.sum() / 1e6,
+                    maximoNanos.get() / 1e6, linhas.sum(), binds.sum(), excessoNanos.sum() / 1e6,
+                    falhas.sum(), falhasBloqueio.sum());
+        }
+    }
+
+    private final class Janela {
+
+        private final Instant inicio = Instant.now();
+        private final long inicioNanos = System.nanoTime();
+        private final Map<String, Estatistica> instrucoes = new ConcurrentHashMap<>();
+
+        Estatistica estatistica(String sql) {
+            Estatistica estatistica = instrucoes.get(sql);
+            if (estatistica != null) {
+                return estatistica;
+            }
+            if (instrucoes.size() >= maxInstrucoes) {
+                return instrucoes.computeIfAbsent(OUTRAS, nome -> new Estatistica(true, false, peso));
+            }
+            return instrucoes.computeIfAbsent(sql, nome -> new Estatistica(false, BLOQUEIO.matcher(nome).find(), peso));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.backend.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Perfil de SQL ({@code beneficio.sql.perfil.*}, ligado por padrão): embrulha o {@code dataSource} da
+ * aplicação no {@link PerfiladorDataSource} e publica o resultado em {@code /actuator/sql}. Substitui o
+ * {@code show-sql} e o log TRACE dos binds; só as instruções acima de {@code lenta-ms} vão para o log.
+ */
+@Configuration
+@ConditionalOnProperty(name = "beneficio.sql.perfil.enabled", havingValue = "true", matchIfMissing = true)
+public class PerfiladorSqlConfig {
+
+    @Bean
+    public PerfiladorSql perfiladorSql(@Value("${beneficio.sql.perfil.amostragem:1.0}") double amostragem,
+                                       @Value("${beneficio.sql.perfil.max-instrucoes:500}") int maxInstrucoes,
+                                       @Value("${beneficio.sql.perfil.janela-ms:600000}") long janelaMs,
+                                       @Value("${beneficio.sql.perfil.lenta-ms:500}") long lentaMs) {
+        return new PerfiladorSql(amostragem, maxInstrucoes, janelaMs, lentaMs);
+    }
+
+    @Bean
+    @ConditionalOnAvailableEndpoint(endpoint = PerfiladorSqlEndpoint.class)
+    public PerfiladorSqlEndpoint perfiladorSqlEndpoint(PerfiladorSql perfiladorSql,
+                                                       @Value("${beneficio.sql.perfil.top:20}") int top) {
+        return new PerfiladorSqlEndpoint(perfiladorSql, top);
+    }
+
+    /**
+     * Só o bean {@code dataSource}: com réplicas de leitura ele é o proxy que roteia, e o perfil cobre
+     * primário e réplicas. Roda depois dos que configuram o pool ({@link DimensionamentoPool}).
+     */
+    @Bean
+    public static BeanPostProcessor perfiladorDataSourcePostProcessor(ObjectProvider<PerfiladorSql> perfiladorSql) {
+        return new EmbrulhoDataSource(perfiladorSql);
+    }
+
+    private static final class EmbrulhoDataSource implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<PerfiladorSql> perfiladorSql;
+
+        EmbrulhoDataSource(ObjectProvider<PerfiladorSql> perfiladorSql) {
+            this.perfiladorSql = perfiladorSql;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                    && !(bean instanceof PerfiladorDataSource)) {
+                return new PerfiladorDataSource(dataSource, perfiladorSql.getObject());
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
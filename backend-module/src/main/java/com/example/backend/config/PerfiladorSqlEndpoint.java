@@ -0,0 +1,64 @@
+package com.example.backend.config;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * {@code /actuator/sql}: as instruções que mais somam tempo, as mais executadas e as que bloqueiam
+ * linhas, pelo excesso sobre a execução mais rápida. {@code /actuator/sql/{ordem}} ordena por
+ * {@code tempo}, {@code media}, {@code maximo}, {@code execucoes}, {@code linhas} ou {@code bloqueantes};
+ * {@code limite} muda o tamanho das listas e {@code DELETE} zera o perfil. Fora da exposição padrão.
+ */
+@Endpoint(id = "sql")
+public class PerfiladorSqlEndpoint {
+
+    private final PerfiladorSql perfilador;
+    private final int limitePadrao;
+
+    public PerfiladorSqlEndpoint(PerfiladorSql perfilador, int limitePadrao) {
+        this.perfilador = perfilador;
+        this.limitePadrao = limitePadrao;
+    }
+
+    @ReadOperation
+    public ResumoSql resumo(@Nullable Integer limite) {
+        int tamanho = limite(limite);
+        return new ResumoSql(perfilador.desde(), perfilador.getAmostragem(),
+                perfilador.top(PerfiladorSql.Ordem.TEMPO, tamanho),
+                perfilador.top(PerfiladorSql.Ordem.EXECUCOES, tamanho),
+                perfilador.top(PerfiladorSql.Ordem.BLOQUEANTES, tamanho));
+    }
+
+    /** Ordem desconhecida responde 404. */
+    @ReadOperation
+    public List<PerfiladorSql.InstrucaoSql> ordenado(@Selector String ordem, @Nullable Integer limite) {
+        PerfiladorSql.Ordem criterio;
+        try {
+            criterio = PerfiladorSql.Ordem.valueOf(ordem.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return perfilador.top(criterio, limite(limite));
+    }
+
+    @DeleteOperation
+    public void limpar() {
+        perfilador.limpar();
+    }
+
+    private int limite(Integer limite) {
+        return limite == null || limite < 1 ? limitePadrao : limite;
+    }
+
+    public record ResumoSql(Instant desde, double amostragem, List<PerfiladorSql.InstrucaoSql> lentas,
+                            List<PerfiladorSql.InstrucaoSql> frequentes,
+                            List<PerfiladorSql.InstrucaoSql> bloqueantes) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Dimensionamento do pool de conexões pelo banco ({@code beneficio.datasource.pool.dimensionar=true},
+ * ligado no perfil {@code prod}). Sem ele vale o {@code spring.datasource.hikari.maximum-pool-size}.
+ * Espera, ocupação e tempo de aquisição do pool saem nas métricas {@code hikaricp.connections.*}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "beneficio.datasource.pool.dimensionar", havingValue = "true")
+public class PoolConexoesConfig {
+
+    @Bean
+    public static DimensionamentoPool dimensionamentoPool(
+            @Value("${beneficio.datasource.pool.nucleos-banco:4}") int nucleosBanco,
+            @Value("${beneficio.datasource.pool.razao-espera:1.0}") double razaoEspera) {
+        return new DimensionamentoPool(nucleosBanco, razaoEspera);
+    }
+}
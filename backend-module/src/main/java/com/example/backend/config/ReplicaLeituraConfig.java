@@ -0,0 +1,115 @@
+package com.example.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réplicas de leitura ({@code beneficio.replicas.enabled=true}): as transações {@code readOnly}
+ * (listagens, busca, exportação, contagens) leem das réplicas em {@code beneficio.replicas.urls} e o
+ * resto vai ao {@code spring.datasource.url}. O pool do primário continua configurado por
+ * {@code spring.datasource.hikari.*}; as réplicas herdam dele as propriedades do driver e os timeouts
+ * de validação e de vida das conexões, e usuário e senha quando não informados.
+ */
+@Configuration
+@ConditionalOnProperty(name = "beneficio.replicas.enabled", havingValue = "true")
+public class ReplicaLeituraConfig {
+
+    @Value("${beneficio.replicas.urls:}")
+    private String[] urls = {};
+
+    @Value("${beneficio.replicas.username:}")
+    private String username;
+
+    @Value("${beneficio.replicas.password:}")
+    private String password;
+
+    @Value("${beneficio.replicas.pool-size:10}")
+    private int tamanhoPool = 10;
+
+    @Value("${beneficio.replicas.connection-timeout-ms:1000}")
+    private long connectionTimeoutMs = 1000;
+
+    @Value("${beneficio.replicas.verificacao-ms:5000}")
+    private long verificacaoMs = 5000;
+
+    @Value("${beneficio.replicas.atraso-max-ms:5000}")
+    private long atrasoMaximoMs = 5000;
+
+    @Value("${beneficio.replicas.leitura-pos-escrita-ms:5000}")
+    private long leituraPosEscritaMs = 5000;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primarioDataSource(DataSourceProperties propriedades) {
+        return propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public RoteamentoDataSource roteamentoDataSource(HikariDataSource primarioDataSource,
+                                                     DataSourceProperties propriedades,
+                                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            if (!StringUtils.hasText(url)) {
+                continue;
+            }
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(url.trim())
+                    .username(StringUtils.hasText(username) ? username : propriedades.determineUsername())
+                    .password(StringUtils.hasText(username) ? password : propriedades.determinePassword())
+                    .build();
+            replica.setPoolName("replica-" + replicas.size());
+            replica.setMaximumPoolSize(tamanhoPool);
+            replica.setConnectionTimeout(connectionTimeoutMs);
+            replica.setReadOnly(true);
+            replica.setInitializationFailTimeout(-1);
+            replica.setValidationTimeout(primarioDataSource.getValidationTimeout());
+            replica.setMaxLifetime(primarioDataSource.getMaxLifetime());
+            replica.setKeepaliveTime(primarioDataSource.getKeepaliveTime());
+            replica.setDataSourceProperties(primarioDataSource.getDataSourceProperties());
+            meterRegistry.ifAvailable(replica::setMetricRegistry);
+            replicas.add(replica);
+        }
+
+        RoteamentoDataSource roteamento = new RoteamentoDataSource(primarioDataSource, replicas,
+                Duration.ofMillis(atrasoMaximoMs));
+        roteamento.iniciarVerificacao(Duration.ofMillis(verificacaoMs));
+        return roteamento;
+    }
+
+    /**
+     * A conexão real só é pedida no primeiro comando SQL, quando a transação já está marcada como só
+     * de leitura e o roteamento sabe para onde ir.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(RoteamentoDataSource roteamentoDataSource) {
+        return new LazyConnectionDataSourceProxy(roteamentoDataSource);
+    }
+
+    @Bean
+    public FilterRegistrationBean<LeituraPosEscritaFilter> leituraPosEscritaFilter() {
+        FilterRegistrationBean<LeituraPosEscritaFilter> registro = new FilterRegistrationBean<>(
+                new LeituraPosEscritaFilter(Duration.ofMillis(leituraPosEscritaMs)));
+        registro.setEnabled(leituraPosEscritaMs > 0);
+        return registro;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.backend.config;
+
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Repete o método quando a transação falha por deadlock, timeout de lock ou conflito de
+ * serialização/versão ({@link ConcurrencyFailureException}), com backoff exponencial
+ * aleatório e limitado. Deve ser usado junto com {@code @Transactional}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Retryable(retryFor = ConcurrencyFailureException.class,
+        maxAttemptsExpression = "${beneficio.transfer.retry.max-attempts:4}",
+        backoff = @Backoff(delayExpression = "${beneficio.transfer.retry.delay-ms:20}",
+                maxDelayExpression = "${beneficio.transfer.retry.max-delay-ms:500}",
+                multiplier = 2,
+                random = true))
+public @interface RetentativaConcorrencia {
+}
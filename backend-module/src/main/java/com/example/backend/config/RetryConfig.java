@@ -0,0 +1,13 @@
+package com.example.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.annotation.EnableRetry;
+
+/**
+ * Habilita o {@code @Retryable}. O interceptor de retentativa tem precedência sobre o
+ * de {@code @Transactional}, então cada tentativa roda em uma transação nova.
+ */
+@Configuration
+@EnableRetry
+public class RetryConfig {
+}
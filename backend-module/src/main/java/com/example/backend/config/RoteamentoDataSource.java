@@ -0,0 +1,172 @@
+package com.example.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Encaminha as conexões de transações {@code readOnly} para as réplicas de leitura, em rodízio entre as
+ * saudáveis, e todo o resto para o primário. Sem réplica saudável, ou com {@link #usarPrimario} ligado na
+ * thread, a leitura vai ao primário. Uma réplica que falha ao entregar conexão sai do rodízio na hora e
+ * volta quando a verificação periódica ({@code Connection.isValid} e, no PostgreSQL, o atraso da
+ * replicação) passar.
+ * <p>
+ * Precisa ficar atrás de um {@code LazyConnectionDataSourceProxy}: o Hibernate pede a conexão ao abrir a
+ * transação, antes de o Spring marcá-la como só de leitura.
+ */
+@Slf4j
+public class RoteamentoDataSource extends AbstractDataSource implements DisposableBean {
+
+    static final String CONSULTA_ATRASO = "SELECT CASE WHEN NOT pg_is_in_recovery() " +
+            "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private static final ThreadLocal<Boolean> PRIMARIO = new ThreadLocal<>();
+
+    private final DataSource primario;
+    private final List<Replica> replicas;
+    private final Duration atrasoMaximo;
+    private final AtomicInteger proxima = new AtomicInteger();
+    private ScheduledExecutorService verificacao;
+
+    public RoteamentoDataSource(DataSource primario, List<DataSource> replicas, Duration atrasoMaximo) {
+        this.primario = primario;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.atrasoMaximo = atrasoMaximo;
+    }
+
+    /** Força (ou libera) o primário para as leituras da thread atual, ex.: logo após uma gravação do cliente. */
+    public static void usarPrimario(boolean primario) {
+        if (primario) {
+            PRIMARIO.set(Boolean.TRUE);
+        } else {
+            PRIMARIO.remove();
+        }
+    }
+
+    /** Inicia a verificação das réplicas a cada {@code intervalo}, em uma thread daemon. */
+    public void iniciarVerificacao(Duration intervalo) {
+        CustomizableThreadFactory fabrica = new CustomizableThreadFactory("replica-verificacao-");
+        fabrica.setDaemon(true);
+        verificacao = Executors.newSingleThreadScheduledExecutor(fabrica);
+        verificacao.scheduleWithFixedDelay(this::verificarReplicas, 0, intervalo.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return leitura() ? conexaoDeLeitura(null, null) : primario.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return leitura() ? conexaoDeLeitura(username, password) : primario.getConnection(username, password);
+    }
+
+    /** Se as transações só de leitura da thread atual vão às réplicas: há réplicas e o primário não foi forçado. */
+    public boolean leituraEmReplica() {
+        return !replicas.isEmpty() && PRIMARIO.get() == null;
+    }
+
+    /** Atraso de replicação tolerado: acima dele a réplica sai do rodízio na próxima verificação. */
+    public Duration getAtrasoMaximo() {
+        return atrasoMaximo;
+    }
+
+    /** Réplicas em condições de receber leituras. */
+    public long replicasSaudaveis() {
+        return replicas.stream().filter(replica -> replica.saudavel).count();
+    }
+
+    /** Testa cada réplica e atualiza o rodízio. Chamado pela verificação periódica. */
+    void verificarReplicas() {
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(i);
+            String falha = verificar(replica.dataSource);
+            if (falha == null && !replica.saudavel) {
+                log.info("Réplica {} de volta ao rodízio de leituras", i);
+            } else if (falha != null && replica.saudavel) {
+                log.warn("Réplica {} fora do rodízio de leituras: {}", i, falha);
+            }
+            replica.saudavel = falha == null;
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (verificacao != null) {
+            verificacao.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable pool) {
+                pool.close();
+            }
+        }
+    }
+
+    private boolean leitura() {
+        return leituraEmReplica() && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private Connection conexaoDeLeitura(String username, String password) throws SQLException {
+        int inicio = Math.floorMod(proxima.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((inicio + i) % replicas.size());
+            if (!replica.saudavel) {
+                continue;
+            }
+            try {
+                return username == null
+                        ? replica.dataSource.getConnection()
+                        : replica.dataSource.getConnection(username, password);
+            } catch (SQLException e) {
+                replica.saudavel = false;
+                log.warn("Réplica {} fora do rodízio de leituras: {}", replicas.indexOf(replica), e.getMessage());
+            }
+        }
+        return username == null ? primario.getConnection() : primario.getConnection(username, password);
+    }
+
+    /** @return o motivo da falha, ou {@code null} se a réplica pode receber leituras */
+    private String verificar(DataSource dataSource) {
+        try (Connection conexao = dataSource.getConnection()) {
+            if (!conexao.isValid(2)) {
+                return "conexão inválida";
+            }
+            if (!"PostgreSQL".equals(conexao.getMetaData().getDatabaseProductName())) {
+                return null;
+            }
+            try (Statement statement = conexao.createStatement();
+                 ResultSet resultado = statement.executeQuery(CONSULTA_ATRASO)) {
+                resultado.next();
+                long atrasoMs = resultado.getLong(1);
+                return atrasoMs > atrasoMaximo.toMillis() ? "atraso de replicação de " + atrasoMs + " ms" : null;
+            }
+        } catch (SQLException | RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static final class Replica {
+
+        private final DataSource dataSource;
+        private volatile boolean saudavel = true;
+
+        private Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
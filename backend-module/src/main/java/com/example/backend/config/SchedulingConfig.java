@@ -0,0 +1,15 @@
+package com.example.backend.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita as tarefas agendadas (compactação do livro de movimentos). Desligável com
+ * {@code beneficio.agendamento.enabled=false}.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "beneficio.agendamento.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
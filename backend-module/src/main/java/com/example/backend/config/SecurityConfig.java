@@ -1,16 +1,24 @@
 package com.example.backend.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.info.InfoEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
+import java.util.List;
 
 @Configuration
 @EnableWebSecurity
@@ -31,12 +39,18 @@ public class SecurityConfig {
     @Value("${cors.allow-credentials}")
     private boolean allowCredentials;
 
+    /** Redes (CIDR) que acessam o actuator além de {@code health} e {@code info}. */
+    @Value("${beneficio.actuator.redes:127.0.0.1/32,::1/128}")
+    private String[] redesActuator;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class, InfoEndpoint.class)).permitAll()
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).access(daRede(redesActuator))
                         .anyRequest().permitAll()
                 )
                 .headers(headers -> headers
@@ -46,6 +60,13 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /** Pelo endereço de origem da requisição; atrás de um proxy é o do proxy. */
+    private static AuthorizationManager<RequestAuthorizationContext> daRede(String[] redes) {
+        List<IpAddressMatcher> permitidas = Arrays.stream(redes).map(String::trim).map(IpAddressMatcher::new).toList();
+        return (autenticacao, contexto) -> new AuthorizationDecision(
+                permitidas.stream().anyMatch(rede -> rede.matches(contexto.getRequest())));
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration config = new CorsConfiguration();
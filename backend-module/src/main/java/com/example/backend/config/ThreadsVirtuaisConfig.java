@@ -0,0 +1,39 @@
+package com.example.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Modo de threads virtuais. Com {@code spring.threads.virtual.enabled=true} em Java 21+ o Spring Boot
+ * já troca o Tomcat, o executor de {@code @Async} e o agendador de {@code @Scheduled} por threads
+ * virtuais; aqui ficam as threads criadas pela própria aplicação e o monitoramento de pinning.
+ * Em Java 17 a propriedade é ignorada e tudo continua em threads de plataforma.
+ */
+@Configuration
+public class ThreadsVirtuaisConfig {
+
+    @Bean
+    public ThreadFactory filaTransferenciaThreadFactory(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new VirtualThreadTaskExecutor("transferencia-fila-").getVirtualThreadFactory();
+        }
+        CustomizableThreadFactory fabrica = new CustomizableThreadFactory("transferencia-fila-");
+        fabrica.setDaemon(true);
+        return fabrica;
+    }
+
+    @Bean
+    public ThreadsVirtuaisMetrics threadsVirtuaisMetrics(
+            Environment environment,
+            @Value("${beneficio.threads.virtual.pinned-limiar-ms:20}") long limiarMs) {
+        return new ThreadsVirtuaisMetrics(Threading.VIRTUAL.isActive(environment), Duration.ofMillis(limiarMs));
+    }
+}
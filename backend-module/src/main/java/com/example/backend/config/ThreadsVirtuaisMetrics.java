@@ -0,0 +1,81 @@
+package com.example.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+
+/**
+ * Publica como métricas os eventos JFR de threads virtuais: {@code jdk.VirtualThreadPinned} (thread
+ * virtual presa à thread portadora, normalmente por {@code synchronized} ou código nativo durante uma
+ * operação bloqueante) e {@code jdk.VirtualThreadSubmitFailed}. Os medidores são registrados sempre,
+ * mas a gravação JFR só é iniciada com threads virtuais ativas.
+ */
+@Slf4j
+public class ThreadsVirtuaisMetrics implements MeterBinder, DisposableBean {
+
+    static final String EVENTO_PINNED = "jdk.VirtualThreadPinned";
+    static final String EVENTO_SUBMIT_FAILED = "jdk.VirtualThreadSubmitFailed";
+
+    private final boolean ativo;
+    private final Duration limiar;
+    private RecordingStream gravacao;
+
+    public ThreadsVirtuaisMetrics(boolean ativo, Duration limiar) {
+        this.ativo = ativo;
+        this.limiar = limiar;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Timer pinned = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Períodos em que uma thread virtual ficou presa à thread portadora")
+                .register(registry);
+        Counter falhas = Counter.builder("jvm.threads.virtual.submit.failed")
+                .description("Threads virtuais que não puderam ser agendadas")
+                .register(registry);
+
+        if (!ativo || gravacao != null) {
+            return;
+        }
+
+        gravacao = new RecordingStream();
+        gravacao.enable(EVENTO_PINNED).withThreshold(limiar).withStackTrace();
+        gravacao.enable(EVENTO_SUBMIT_FAILED);
+        gravacao.onEvent(EVENTO_PINNED, evento -> {
+            pinned.record(evento.getDuration());
+            if (log.isDebugEnabled()) {
+                log.debug("Thread virtual presa por {} ms em {}", evento.getDuration().toMillis(), origem(evento));
+            }
+        });
+        gravacao.onEvent(EVENTO_SUBMIT_FAILED, evento -> falhas.increment());
+        gravacao.startAsync();
+    }
+
+    @Override
+    public void destroy() {
+        if (gravacao != null) {
+            gravacao.close();
+        }
+    }
+
+    private static String origem(RecordedEvent evento) {
+        if (evento.getStackTrace() == null) {
+            return "?";
+        }
+        for (RecordedFrame frame : evento.getStackTrace().getFrames()) {
+            if (frame.isJavaFrame()) {
+                return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber();
+            }
+        }
+        return "?";
+    }
+}
@@ -3,8 +3,22 @@ package com.example.backend.controller;
 import com.example.backend.exception.DuplicateException;
 import com.example.backend.exception.ResourceNotFoundException;
 import com.example.backend.model.dto.BeneficioDTO;
-import com.example.backend.model.entidades.Beneficio;
+import com.example.backend.model.dto.ImportacaoResultadoDTO;
+import com.example.backend.model.dto.PaginaContagemDTO;
+import com.example.backend.model.dto.PaginaCursorDTO;
+import com.example.backend.model.dto.TransferenciaAssincronaDTO;
+import com.example.backend.model.dto.TransferenciaDTO;
+import com.example.backend.model.dto.TransferenciaLoteDTO;
+import com.example.backend.model.dto.TransferenciaResultadoDTO;
+import com.example.backend.model.dto.VersaoBeneficioDTO;
+import com.example.backend.model.entidades.BeneficioMovimento;
+import com.example.backend.model.enums.TipoContagem;
+import com.example.backend.model.enums.FormatoArquivo;
 import com.example.backend.service.BeneficioService;
+import com.example.backend.service.ExportacaoBeneficioService;
+import com.example.backend.service.ImportacaoBeneficioService;
+import com.example.backend.service.TransferenciaAssincronaService;
+import com.example.backend.service.VersaoBeneficioService;
 import com.example.backend.util.ApiGenericResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,14 +27,24 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.AllArgsConstructor;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.validation.Valid;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.net.URI;
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/v1/beneficios")
@@ -28,35 +52,151 @@ import java.util.*;
 public class BeneficioController {
 
     private final BeneficioService service;
+    private final TransferenciaAssincronaService transferenciaAssincronaService;
+    private final VersaoBeneficioService versaoService;
+    private final ExportacaoBeneficioService exportacaoService;
+    private final ImportacaoBeneficioService importacaoService;
 
     @GetMapping
     @Operation(summary = "Obter todos Beneficios",
-            description = "Retorna sem paginação")
-    public ResponseEntity<ApiGenericResponse<List<BeneficioDTO>>> listarTodos() {
+            description = "Retorna sem paginação. Responde 304 sem corpo quando o If-None-Match ou o " +
+                    "If-Modified-Since ainda correspondem à versão atual dos beneficios.")
+    public ResponseEntity<ApiGenericResponse<List<BeneficioDTO>>> listarTodos(WebRequest request) {
+        if (naoModificado(request)) {
+            return null;
+        }
         List<BeneficioDTO> lista = service.listarTodos();
-        return ResponseEntity.ok(new ApiGenericResponse<>(true,
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(new ApiGenericResponse<>(true,
                 "Beneficios consultados com sucesso!",
                 lista));
     }
 
     @Operation(summary = "Obter Beneficios paginados",
-            description = "Obter Beneficios paginados")
+            description = "Obter Beneficios paginados. O total vem de uma contagem EXATA (guardada por filtro), " +
+                    "ESTIMADA pelas estatísticas do banco ou NENHUMA; tipoContagem informa qual foi usada. " +
+                    "Responde 304 sem corpo quando os beneficios não mudaram desde o ETag enviado.")
     @ApiResponse(responseCode = "200",
             description = "Beneficios recuperados com paginação",
             content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = Page.class)))
     @GetMapping("/pageable")
-    public ResponseEntity<Page<Beneficio>> listarPaginado(
+    public ResponseEntity<PaginaContagemDTO<BeneficioDTO>> listarPaginado(
             @RequestParam(required = false) String nome,
             @RequestParam(required = false) String descricao,
             @RequestParam(required = false) BigDecimal valor,
             @RequestParam(required = false) Boolean ativo,
             @RequestParam(required = false) String search,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) TipoContagem contagem,
+            WebRequest request
+    ) {
+        if (naoModificado(request)) {
+            return null;
+        }
+        PaginaContagemDTO<BeneficioDTO> listaPaginada = service.listarPaginado(nome, descricao, valor, ativo, search, page, size, contagem);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(listaPaginada);
+    }
+
+    @Operation(summary = "Obter Beneficios por cursor",
+            description = "Listagem por keyset, sem OFFSET: envie after vazio na primeira chamada e depois o " +
+                    "proximoCursor da resposta anterior. O total só é contado com count=true.",
+            parameters = {
+                    @Parameter(name = "after", description = "Cursor opaco da página anterior (vazio na primeira)", required = true),
+                    @Parameter(name = "count", description = "Inclui o total de registros com os filtros")
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Beneficios recuperados a partir do cursor",
+                            content = @Content(schema = @Schema(implementation = PaginaCursorDTO.class))),
+                    @ApiResponse(responseCode = "400", description = "Cursor ou tamanho de página inválido",
+                            content = @Content(schema = @Schema(implementation = ApiGenericResponse.class)))
+            })
+    @GetMapping(value = "/pageable", params = "after")
+    public ResponseEntity<?> listarPorCursor(
+            @RequestParam(required = false) String nome,
+            @RequestParam(required = false) String descricao,
+            @RequestParam(required = false) BigDecimal valor,
+            @RequestParam(required = false) Boolean ativo,
+            @RequestParam(required = false) String search,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean count,
+            WebRequest request
+    ) {
+        if (naoModificado(request)) {
+            return null;
+        }
+        try {
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                    .body(service.listarPorCursor(nome, descricao, valor, ativo, search, after, size, count));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiGenericResponse<>(false, e.getMessage(), null));
+        }
+    }
+
+    @Operation(summary = "Exportar Beneficios",
+            description = "Todos os beneficios que atendem aos filtros da listagem, em ordem de id, em NDJSON " +
+                    "(um BeneficioDTO por linha) ou CSV. A resposta é escrita enquanto o banco é lido, com memória " +
+                    "constante; basta fechar a conexão para cancelar.",
+            parameters = {
+                    @Parameter(name = "formato", description = "NDJSON (padrão) ou CSV")
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Exportação em andamento",
+                            content = {@Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")})
+            })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @RequestParam(required = false) String nome,
+            @RequestParam(required = false) String descricao,
+            @RequestParam(required = false) BigDecimal valor,
+            @RequestParam(required = false) Boolean ativo,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "NDJSON") FormatoArquivo formato
     ) {
-        Page<Beneficio> listaPaginada = service.listarPaginado(nome, descricao, valor, ativo, search, page, size);
-        return ResponseEntity.ok(listaPaginada);
+        StreamingResponseBody corpo = saida ->
+                exportacaoService.exportar(nome, descricao, valor, ativo, search, formato, saida);
+        return ResponseEntity.ok()
+                .contentType(formato.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("beneficios." + formato.getExtensao())
+                        .build()
+                        .toString())
+                .body(corpo);
+    }
+
+    @Operation(summary = "Importar beneficios em lote (CSV ou NDJSON)",
+            description = "Lê o corpo da requisição enquanto chega, no formato do Content-Type. O CSV precisa do " +
+                    "cabeçalho com nome, descricao e valor (ativo é opcional); id e version são ignorados, então " +
+                    "um arquivo exportado pode ser importado de volta. Registros inválidos ou com nome já " +
+                    "cadastrado são rejeitados sem impedir os demais.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Importação concluída, com os registros rejeitados",
+                            content = @Content(schema = @Schema(implementation = ApiGenericResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Cabeçalho do CSV inválido",
+                            content = @Content(schema = @Schema(implementation = ApiGenericResponse.class))),
+                    @ApiResponse(responseCode = "500", description = "Erro interno no servidor",
+                            content = @Content(schema = @Schema(implementation = ApiGenericResponse.class)))
+            })
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ApiGenericResponse<ImportacaoResultadoDTO>> importar(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType tipo,
+            InputStream corpo) {
+        FormatoArquivo formato = FormatoArquivo.CSV.getMediaType().isCompatibleWith(tipo)
+                ? FormatoArquivo.CSV : FormatoArquivo.NDJSON;
+        try {
+            ImportacaoResultadoDTO resultado = importacaoService.importar(formato, corpo);
+            return ResponseEntity.ok(new ApiGenericResponse<>(true,
+                    "Importação concluída: " + resultado.getImportados() + " de " + resultado.getRegistros() +
+                            " registros importados.", resultado));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiGenericResponse<>(false, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiGenericResponse<>(false, "Erro interno ao tentar importar beneficios.", null));
+        }
     }
 
     @Operation(summary = "Criar novo Beneficio",
@@ -111,6 +251,9 @@ public class BeneficioController {
         } catch (DuplicateException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new ApiGenericResponse<>(false, e.getMessage(), null));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ApiGenericResponse<>(false, "Beneficio alterado concorrentemente, tente novamente.", null));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiGenericResponse<>(false, "Erro interno ao tentar alterar um beneficio.", null));
@@ -148,6 +291,74 @@ public class BeneficioController {
         }
     }
 
+    @Operation(summary = "Extrato de movimentos de um beneficio",
+            description = "Lançamentos do livro de movimentos, do mais recente para o mais antigo",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Movimentos consultados com sucesso",
+                            content = @Content(schema = @Schema(implementation = ApiGenericResponse.class))),
+                    @ApiResponse(responseCode = "404", description = "Beneficio não encontrado",
+                            content = @Content(schema = @Schema(implementation = ApiGenericResponse.class))),
+                    @ApiResponse(responseCode = "500", description = "Erro interno no servidor",
+                            content = @Content(schema = @Schema(implementation = ApiGenericResponse.class)))
+            })
+    @GetMapping("/{id}/movimentos")
+    public ResponseEntity<ApiGenericResponse<Page<BeneficioMovimento>>> listarMovimentos(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest request) {
+        if (naoModificado(request)) {
+            return null;
+        }
+        try {
+            Page<BeneficioMovimento> movimentos = service.listarMovimentos(id, page, size);
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache())
+                    .body(new ApiGenericResponse<>(true, "Movimentos consultados com sucesso!", movimentos));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiGenericResponse<>(false, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiGenericResponse<>(false, "Erro interno ao tentar consultar os movimentos do beneficio.", null));
+        }
+    }
+
+    @Operation(summary = "Particionar saldo de um beneficio",
+            description = "Distribui o saldo em N partições para reduzir a contenção em beneficios muito " +
+                    "movimentados. Com quantidade=0 o saldo volta para uma única linha.",
+            parameters = {
+                    @Parameter(name = "id", description = "ID do beneficio", required = true),
+                    @Parameter(name = "quantidade", description = "Quantidade de partições (0 a 256)", required = true),
+            },
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Saldo particionado com sucesso",
+                            content = @Content(schema = @Schema(implementation = ApiGenericResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Quantidade de partições inválida",
+                            content = @Content(schema = @Schema(implementation = ApiGenericResponse.class))),
+                    @ApiResponse(responseCode = "404", description = "Beneficio não encontrado ou inativo",
+                            content = @Content(schema = @Schema(implementation = ApiGenericResponse.class))),
+                    @ApiResponse(responseCode = "500", description = "Erro interno no servidor",
+                            content = @Content(schema = @Schema(implementation = ApiGenericResponse.class)))
+            })
+    @PutMapping("/{id}/particoes")
+    public ResponseEntity<ApiGenericResponse<Void>> particionarSaldo(
+            @PathVariable Long id,
+            @RequestParam int quantidade) {
+        try {
+            service.particionarSaldo(id, quantidade);
+            return ResponseEntity.ok(new ApiGenericResponse<>(true, "Saldo particionado com sucesso!", null));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiGenericResponse<>(false, e.getMessage(), null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiGenericResponse<>(false, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiGenericResponse<>(false, "Erro interno ao tentar particionar o saldo do beneficio.", null));
+        }
+    }
+
     @Operation(summary = "Transferência de saldos entre beneficios",
             parameters = {
                     @Parameter(name = "fromId", description = "ID do beneficio origem", required = true),
@@ -161,6 +372,8 @@ public class BeneficioController {
                             content = @Content(schema = @Schema(implementation = ApiGenericResponse.class))),
                     @ApiResponse(responseCode = "404", description = "Beneficio de origem ou destino não encontrada ou inativo",
                             content = @Content(schema = @Schema(implementation = ApiGenericResponse.class))),
+                    @ApiResponse(responseCode = "409", description = "Conflito de concorrência persistente após as retentativas",
+                            content = @Content(schema = @Schema(implementation = ApiGenericResponse.class))),
                     @ApiResponse(responseCode = "500", description = "Erro interno no servidor",
                             content = @Content(schema = @Schema(implementation = ApiGenericResponse.class)))
             })
@@ -178,9 +391,107 @@ public class BeneficioController {
         } catch (IllegalArgumentException | IllegalStateException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new ApiGenericResponse<>(false, e.getMessage(), null));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ApiGenericResponse<>(false, "Transferência não concluída por concorrência, tente novamente.", null));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiGenericResponse<>(false, "Erro interno ao tentar transferir saldo de um beneficio.", null));
         }
     }
+
+    @Operation(summary = "Transferência de saldos em lote",
+            description = "Aplica todas as transferências em uma única transação. Com atomico=true qualquer falha " +
+                    "desfaz o lote; com atomico=false cada transferência falha isoladamente.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Lote processado, com o resultado de cada transferência",
+                            content = @Content(schema = @Schema(implementation = ApiGenericResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Lote inválido ou transferência de lote atômico não executada",
+                            content = @Content(schema = @Schema(implementation = ApiGenericResponse.class))),
+                    @ApiResponse(responseCode = "500", description = "Erro interno no servidor",
+                            content = @Content(schema = @Schema(implementation = ApiGenericResponse.class)))
+            })
+    @PostMapping("/transfers:batch")
+    public ResponseEntity<ApiGenericResponse<List<TransferenciaResultadoDTO>>> transferirLote(
+            @RequestBody @Valid TransferenciaLoteDTO lote) {
+        try {
+            List<TransferenciaResultadoDTO> resultados = service.transferirLote(lote.getTransferencias(), lote.isAtomico());
+            long executadas = resultados.stream().filter(TransferenciaResultadoDTO::isSucesso).count();
+            return ResponseEntity.ok(new ApiGenericResponse<>(true,
+                    "Lote processado: " + executadas + " de " + resultados.size() + " transferências executadas.",
+                    resultados));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiGenericResponse<>(false, e.getMessage(), null));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ApiGenericResponse<>(false, "Lote não concluído por concorrência, tente novamente.", null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiGenericResponse<>(false, "Erro interno ao tentar transferir saldos em lote.", null));
+        }
+    }
+
+    @Operation(summary = "Transferência assíncrona de saldo",
+            description = "Enfileira a transferência e retorna 202 com o identificador para consulta da situação. " +
+                    "As transferências são aplicadas em lotes, com um commit por lote.",
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Transferência enfileirada",
+                            content = @Content(schema = @Schema(implementation = ApiGenericResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Transferência inválida",
+                            content = @Content(schema = @Schema(implementation = ApiGenericResponse.class))),
+                    @ApiResponse(responseCode = "503", description = "Fila de transferências cheia",
+                            content = @Content(schema = @Schema(implementation = ApiGenericResponse.class))),
+                    @ApiResponse(responseCode = "500", description = "Erro interno no servidor",
+                            content = @Content(schema = @Schema(implementation = ApiGenericResponse.class)))
+            })
+    @PostMapping("/transfers:async")
+    public ResponseEntity<ApiGenericResponse<TransferenciaAssincronaDTO>> transferirAssincrono(
+            @RequestBody @Valid TransferenciaDTO transferencia) {
+        try {
+            TransferenciaAssincronaDTO situacao = transferenciaAssincronaService.enviar(transferencia);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/beneficios/transfers/" + situacao.getId()))
+                    .body(new ApiGenericResponse<>(true, "Transferência enfileirada com sucesso!", situacao));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiGenericResponse<>(false, e.getMessage(), null));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ApiGenericResponse<>(false, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiGenericResponse<>(false, "Erro interno ao tentar enfileirar a transferência.", null));
+        }
+    }
+
+    @Operation(summary = "Situação de uma transferência assíncrona",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Situação da transferência",
+                            content = @Content(schema = @Schema(implementation = ApiGenericResponse.class))),
+                    @ApiResponse(responseCode = "404", description = "Transferência não encontrada ou expirada",
+                            content = @Content(schema = @Schema(implementation = ApiGenericResponse.class)))
+            })
+    @GetMapping("/transfers/{id}")
+    public ResponseEntity<ApiGenericResponse<TransferenciaAssincronaDTO>> consultarTransferencia(@PathVariable String id) {
+        return transferenciaAssincronaService.consultar(id)
+                .map(situacao -> ResponseEntity.ok(
+                        new ApiGenericResponse<>(true, "Transferência consultada com sucesso!", situacao)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new ApiGenericResponse<>(false, "Transferência não encontrada ou expirada.", null)));
+    }
+
+    /**
+     * Confere o If-None-Match / If-Modified-Since com a versão atual dos beneficios, lida antes de
+     * qualquer consulta. Se ainda correspondem, a resposta já fica como 304 e nada é consultado nem
+     * serializado; senão, o ETag e o Last-Modified vão na resposta, a não ser logo depois de uma
+     * gravação, quando a listagem pode vir de uma réplica atrasada.
+     */
+    private boolean naoModificado(WebRequest request) {
+        VersaoBeneficioDTO versao = versaoService.atual();
+        if (!versaoService.validavel(versao)) {
+            return false;
+        }
+        return request.checkNotModified(versaoService.etag(versao), versaoService.ultimaModificacao(versao));
+    }
 }
@@ -0,0 +1,45 @@
+package com.example.backend.domain.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Publicado pelo {@code BeneficioService} ao gravar beneficios; os ouvintes reagem depois do commit
+ * para descartar o que guardaram a partir do estado anterior.
+ */
+@Getter
+@AllArgsConstructor
+public class BeneficioAlteradoEvent {
+
+    private final Collection<Long> ids;
+
+    /** Só o saldo mudou (transferências); nome, descrição e situação continuam os mesmos. */
+    private final boolean somenteSaldo;
+
+    /** Nomes afetados pela gravação: o anterior e o novo, quando o nome muda. */
+    private final Collection<String> nomes;
+
+    /**
+     * Só inclusões de beneficios novos (importação em lote): nada que foi guardado antes da gravação
+     * se refere a esses ids, só aos nomes.
+     */
+    private final boolean somenteInclusao;
+
+    public static BeneficioAlteradoEvent cadastro(Long id, String... nomes) {
+        return new BeneficioAlteradoEvent(List.of(id), false,
+                Arrays.stream(nomes).filter(Objects::nonNull).distinct().toList(), false);
+    }
+
+    public static BeneficioAlteradoEvent saldo(Collection<Long> ids) {
+        return new BeneficioAlteradoEvent(List.copyOf(ids), true, List.of(), false);
+    }
+
+    public static BeneficioAlteradoEvent inclusoes(Collection<Long> ids, Collection<String> nomes) {
+        return new BeneficioAlteradoEvent(List.copyOf(ids), false, List.copyOf(nomes), true);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.backend.domain.repository;
+
+import com.example.backend.model.dto.SaldoPendenteDTO;
+import com.example.backend.model.entidades.BeneficioMovimento;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BeneficioMovimentoRepository extends JpaRepository<BeneficioMovimento, Long> {
+
+    Page<BeneficioMovimento> findAllByBeneficioId(Long beneficioId, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM BeneficioMovimento m WHERE m.beneficioId = :beneficioId AND m.compactado = false ORDER BY m.id")
+    List<BeneficioMovimento> findPendentesForUpdate(@Param("beneficioId") Long beneficioId);
+
+    @Query("SELECT new com.example.backend.model.dto.SaldoPendenteDTO(m.beneficioId, SUM(m.valor)) " +
+            "FROM BeneficioMovimento m WHERE m.beneficioId IN :ids AND m.compactado = false GROUP BY m.beneficioId")
+    List<SaldoPendenteDTO> somarPendentes(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Lock consultivo da transação no PostgreSQL, por beneficio de origem: serializa só a verificação de
+     * saldo dos débitos do mesmo beneficio, sem bloquear a linha para créditos e leituras.
+     */
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(:beneficioId)) l", nativeQuery = true)
+    Integer bloquearDebitos(@Param("beneficioId") Long beneficioId);
+
+    /** Lançamentos de beneficios que não existem mais ficam de fora: não há onde incorporá-los. */
+    @Query("SELECT DISTINCT m.beneficioId FROM BeneficioMovimento m WHERE m.compactado = false " +
+            "AND EXISTS (SELECT 1 FROM Beneficio b WHERE b.id = m.beneficioId)")
+    List<Long> findBeneficiosComPendentes(Pageable pageable);
+}
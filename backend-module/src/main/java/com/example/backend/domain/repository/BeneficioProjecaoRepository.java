@@ -0,0 +1,21 @@
+package com.example.backend.domain.repository;
+
+import com.example.backend.model.dto.BeneficioDTO;
+import com.example.backend.model.entidades.Beneficio;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Listagens por {@link Specification} projetadas direto em {@link BeneficioDTO}: sem entidades no
+ * contexto de persistência, sem cópia para a verificação de alterações e sem conversão depois.
+ */
+public interface BeneficioProjecaoRepository {
+
+    /**
+     * @param ordem ordem da consulta; {@code Sort.unsorted()} mantém a ordem da {@code spec} (relevância
+     *              da busca textual) ou, se ela não ordena, id decrescente
+     */
+    List<BeneficioDTO> findDTOs(Specification<Beneficio> spec, Sort ordem, long offset, int limite);
+}
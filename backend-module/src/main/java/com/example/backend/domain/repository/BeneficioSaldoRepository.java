@@ -0,0 +1,41 @@
+package com.example.backend.domain.repository;
+
+import com.example.backend.model.entidades.BeneficioSaldo;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface BeneficioSaldoRepository extends JpaRepository<BeneficioSaldo, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM BeneficioSaldo s WHERE s.beneficioId = :beneficioId ORDER BY s.particao")
+    List<BeneficioSaldo> findAllByBeneficioIdForUpdate(@Param("beneficioId") Long beneficioId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BeneficioSaldo s SET s.valor = s.valor - :amount " +
+            "WHERE s.beneficioId = :beneficioId AND s.particao = :particao AND s.valor >= :amount")
+    int debitar(@Param("beneficioId") Long beneficioId,
+                @Param("particao") int particao,
+                @Param("amount") BigDecimal amount);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BeneficioSaldo s SET s.valor = s.valor + :amount " +
+            "WHERE s.beneficioId = :beneficioId AND s.particao = :particao")
+    int creditar(@Param("beneficioId") Long beneficioId,
+                 @Param("particao") int particao,
+                 @Param("amount") BigDecimal amount);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BeneficioSaldo s SET s.valor = 0 WHERE s.beneficioId = :beneficioId")
+    int zerar(@Param("beneficioId") Long beneficioId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM BeneficioSaldo s WHERE s.beneficioId = :beneficioId")
+    int deleteAllByBeneficioId(@Param("beneficioId") Long beneficioId);
+}
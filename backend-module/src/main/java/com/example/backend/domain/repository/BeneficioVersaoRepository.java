@@ -0,0 +1,25 @@
+package com.example.backend.domain.repository;
+
+import com.example.backend.model.dto.VersaoBeneficioDTO;
+import com.example.backend.model.entidades.BeneficioVersao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface BeneficioVersaoRepository extends JpaRepository<BeneficioVersao, Integer> {
+
+    @Query("SELECT new com.example.backend.model.dto.VersaoBeneficioDTO(COALESCE(SUM(v.numero), 0), " +
+            "COALESCE(MAX(v.alteradaEm), 0)) FROM BeneficioVersao v")
+    VersaoBeneficioDTO findVersao();
+
+    /**
+     * Participa da transação em andamento, para a versão nova ficar visível junto com as gravações. O
+     * flush antes do UPDATE faz do lock da faixa o último da transação: quem o segura só espera o commit.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BeneficioVersao v SET v.numero = v.numero + 1, v.alteradaEm = :agora WHERE v.faixa = :faixa")
+    int incrementar(@Param("faixa") int faixa, @Param("agora") long agora);
+}
@@ -1,16 +1,45 @@
 package com.example.backend.domain.repository;
 
+import com.example.backend.model.dto.BeneficioDTO;
+import com.example.backend.model.dto.BeneficioParticaoDTO;
+import com.example.backend.model.dto.DocumentoBuscaDTO;
 import com.example.backend.model.entidades.Beneficio;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface BeneficiosRepository extends JpaRepository<Beneficio, Long>, JpaSpecificationExecutor<Beneficio> {
+public interface BeneficiosRepository extends JpaRepository<Beneficio, Long>, JpaSpecificationExecutor<Beneficio>,
+        BeneficioProjecaoRepository {
+
+    /** Todos os beneficios projetados em {@link BeneficioDTO}, com o mesmo saldo do {@code getValor()}. */
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query("SELECT new com.example.backend.model.dto.BeneficioDTO(b.id, b.nome, b.descricao, " +
+            "b.valor + b.saldoParticoes + b.saldoPendente, b.ativo, b.version) FROM Beneficio b")
+    List<BeneficioDTO> findAllDTOs();
+
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query("SELECT new com.example.backend.model.dto.BeneficioDTO(b.id, b.nome, b.descricao, " +
+            "b.valor + b.saldoParticoes + b.saldoPendente, b.ativo, b.version) FROM Beneficio b WHERE b.id IN :ids")
+    List<BeneficioDTO> findDTOsByIdIn(@Param("ids") Collection<Long> ids);
 
     boolean existsByNome(String nome);
 
@@ -18,8 +47,54 @@ public interface BeneficiosRepository extends JpaRepository<Beneficio, Long>, Jp
 
     Optional<Beneficio> findByIdAndAtivoTrue(Long id);
 
+    boolean existsByIdAndAtivoTrue(Long id);
+
+    @Query("SELECT new com.example.backend.model.dto.BeneficioParticaoDTO(b.id, b.ativo, b.particoes) " +
+            "FROM Beneficio b WHERE b.id IN :ids AND b.particoes > 0")
+    List<BeneficioParticaoDTO> findAllParticionadosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT b.id FROM Beneficio b WHERE b.particoes > 0 ORDER BY b.id")
+    List<Long> findIdsParticionados();
+
+    @Query("SELECT new com.example.backend.model.dto.DocumentoBuscaDTO(b.id, b.nome, b.descricao, b.ativo, " +
+            "b.valor + b.saldoParticoes + b.saldoPendente) FROM Beneficio b WHERE b.id > :depoisDe ORDER BY b.id")
+    List<DocumentoBuscaDTO> findDocumentosBusca(@Param("depoisDe") Long depoisDe, Pageable pageable);
+
+    @Query("SELECT new com.example.backend.model.dto.DocumentoBuscaDTO(b.id, b.nome, b.descricao, b.ativo, " +
+            "b.valor + b.saldoParticoes + b.saldoPendente) FROM Beneficio b WHERE b.id IN :ids")
+    List<DocumentoBuscaDTO> findDocumentosBuscaByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Beneficio b WHERE b.id = :id")
+    Optional<Beneficio> findByIdForUpdate(@Param("id") Long id);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT b FROM Beneficio b where b.id = :id AND b.ativo = true")
     Optional<Beneficio> findByIdAndAtivoTrueForUpdate(@Param("id") Long id);
 
+    /**
+     * {@code SELECT ... FOR SHARE} no PostgreSQL: impede exclusão e alteração (inclusive a inativação)
+     * até o fim da transação sem serializar quem só lê ou também compartilha a linha.
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT b FROM Beneficio b where b.id = :id AND b.ativo = true")
+    Optional<Beneficio> findByIdAndAtivoTrueForShare(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Beneficio b WHERE b.id IN :ids AND b.ativo = true ORDER BY b.id")
+    List<Beneficio> findAllByIdInAndAtivoTrueForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Beneficio b SET b.valor = b.valor - :amount, b.version = b.version + 1 " +
+            "WHERE b.id = :id AND b.ativo = true " +
+            "AND b.valor + COALESCE((SELECT SUM(m.valor) FROM BeneficioMovimento m " +
+            "WHERE m.beneficioId = b.id AND m.compactado = false), 0) >= :amount " +
+            "AND (b.particoes IS NULL OR b.particoes = 0)")
+    int debitar(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query("UPDATE Beneficio b SET b.valor = b.valor + :amount, b.version = b.version + 1 " +
+            "WHERE b.id = :id AND b.ativo = true")
+    int creditar(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
 }
@@ -1,6 +1,7 @@
 package com.example.backend.domain.specification;
 
 import com.example.backend.model.entidades.Beneficio;
+import jakarta.persistence.criteria.Expression;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
@@ -23,7 +24,7 @@ public class BeneficioSpecification {
 
     public static Specification<Beneficio> hasValor(BigDecimal valor) {
         return (root, query, cb) ->
-                valor == null ? null : cb.equal(root.get("valor"), valor);
+                valor == null ? null : cb.equal(cb.sum(cb.sum(root.get("valor"), root.get("saldoParticoes")), root.get("saldoPendente")), valor);
     }
 
     public static Specification<Beneficio> isAtivo(Boolean ativo) {
@@ -31,6 +32,12 @@ public class BeneficioSpecification {
                 ativo == null ? null : cb.equal(root.get("ativo"), ativo);
     }
 
+    /** Seek da listagem por cursor: registros anteriores ao último id entregue (ordem decrescente). */
+    public static Specification<Beneficio> idMenorQue(Long id) {
+        return (root, query, cb) ->
+                id == null ? null : cb.lessThan(root.get("id"), id);
+    }
+
     public static Specification<Beneficio> globalSearch(String search) {
         if (search == null || search.isBlank()) return null;
 
@@ -43,4 +50,36 @@ public class BeneficioSpecification {
         };
     }
 
+    /**
+     * Busca global ordenada por relevância (maior primeiro, depois id decrescente). Com {@code trigrama}
+     * a relevância é o {@code word_similarity} do pg_trgm, com peso dobrado no nome, e os LIKE usam os
+     * índices GIN de trigramas; sem ele (H2) a relevância é: nome igual, nome começando pelo termo, nome
+     * contendo o termo e, por fim, só a descrição contendo o termo. A ordenação só é aplicada na consulta
+     * dos registros, não na contagem, e é substituída por um {@code Sort} explícito.
+     */
+    public static Specification<Beneficio> globalSearch(String search, boolean trigrama) {
+        if (search == null || search.isBlank()) return null;
+
+        String termo = search.toLowerCase();
+        return (root, query, cb) -> {
+            Expression<String> nome = cb.lower(root.get("nome"));
+            Expression<String> descricao = cb.lower(root.get("descricao"));
+            String pattern = "%" + termo + "%";
+
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                Expression<?> relevancia = trigrama
+                        ? cb.sum(
+                                cb.prod(cb.function("word_similarity", Double.class, cb.literal(termo), nome), 2.0),
+                                cb.function("word_similarity", Double.class, cb.literal(termo), descricao))
+                        : cb.<Integer>selectCase()
+                                .when(cb.equal(nome, termo), 4)
+                                .when(cb.like(nome, termo + "%"), 3)
+                                .when(cb.like(nome, pattern), 2)
+                                .otherwise(1);
+                query.orderBy(cb.desc(relevancia), cb.desc(root.get("id")));
+            }
+            return cb.or(cb.like(nome, pattern), cb.like(descricao, pattern));
+        };
+    }
+
 }
@@ -0,0 +1,8 @@
+package com.example.backend.exception;
+
+/** Continua sendo um {@link IllegalArgumentException}: os controllers seguem respondendo 400. */
+public class SaldoInsuficienteException extends IllegalArgumentException {
+    public SaldoInsuficienteException() {
+        super("Saldo insuficiente no benefício de origem.");
+    }
+}
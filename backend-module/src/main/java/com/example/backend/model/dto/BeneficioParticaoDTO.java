@@ -0,0 +1,20 @@
+package com.example.backend.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resumo de um beneficio particionado, lido sem carregar a entidade.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BeneficioParticaoDTO {
+
+    private Long id;
+
+    private Boolean ativo;
+
+    private Integer particoes;
+}
@@ -0,0 +1,27 @@
+package com.example.backend.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Campos de um beneficio usados pelo índice de busca em memória, com o saldo total (valor, partições
+ * e movimentos pendentes) já somado pelo banco.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DocumentoBuscaDTO {
+
+    private Long id;
+
+    private String nome;
+
+    private String descricao;
+
+    private Boolean ativo;
+
+    private BigDecimal valor;
+}
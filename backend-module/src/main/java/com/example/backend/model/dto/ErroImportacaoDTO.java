@@ -0,0 +1,16 @@
+package com.example.backend.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Registro rejeitado na importação, pela linha do arquivo em que começa. */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ErroImportacaoDTO {
+
+    private long linha;
+
+    private String mensagem;
+}
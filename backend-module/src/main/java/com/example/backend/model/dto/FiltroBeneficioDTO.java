@@ -0,0 +1,40 @@
+package com.example.backend.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Filtros da listagem normalizados como a {@code BeneficioSpecification} os aplica (texto em
+ * minúsculas, em branco = sem filtro), usados como chave do cache de contagem.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FiltroBeneficioDTO {
+
+    private String nome;
+
+    private String descricao;
+
+    private BigDecimal valor;
+
+    private Boolean ativo;
+
+    private String search;
+
+    public static FiltroBeneficioDTO de(String nome, String descricao, BigDecimal valor, Boolean ativo, String search) {
+        return new FiltroBeneficioDTO(normalizar(nome), normalizar(descricao),
+                valor == null ? null : valor.stripTrailingZeros(), ativo, normalizar(search));
+    }
+
+    public boolean semFiltros() {
+        return nome == null && descricao == null && valor == null && ativo == null && search == null;
+    }
+
+    private static String normalizar(String texto) {
+        return texto == null || texto.isBlank() ? null : texto.toLowerCase();
+    }
+}
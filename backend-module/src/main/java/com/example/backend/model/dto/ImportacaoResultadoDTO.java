@@ -0,0 +1,29 @@
+package com.example.backend.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Resultado de uma importação em lote. {@code erros} traz no máximo
+ * {@code beneficio.importacao.max-erros} registros; {@code rejeitados} conta todos.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportacaoResultadoDTO {
+
+    private long registros;
+
+    private long importados;
+
+    private long rejeitados;
+
+    private long duracaoMs;
+
+    private long registrosPorSegundo;
+
+    private List<ErroImportacaoDTO> erros;
+}
@@ -0,0 +1,22 @@
+package com.example.backend.model.dto;
+
+import com.example.backend.model.enums.TipoContagem;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/** Página da listagem com a indicação de como {@code totalElements} foi obtido. */
+public class PaginaContagemDTO<T> extends PageImpl<T> {
+
+    private final TipoContagem tipoContagem;
+
+    public PaginaContagemDTO(List<T> content, Pageable pageable, long total, TipoContagem tipoContagem) {
+        super(content, pageable, total);
+        this.tipoContagem = tipoContagem;
+    }
+
+    public TipoContagem getTipoContagem() {
+        return tipoContagem;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.backend.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Página de uma listagem por cursor (keyset)")
+public class PaginaCursorDTO<T> {
+
+    private List<T> content;
+
+    private int size;
+
+    @Schema(description = "Cursor opaco da próxima página; nulo quando não há mais registros")
+    private String proximoCursor;
+
+    @Schema(description = "Total de registros com os filtros; só preenchido com count=true")
+    private Long totalElements;
+}
@@ -0,0 +1,20 @@
+package com.example.backend.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Soma dos lançamentos ainda não compactados de um beneficio.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SaldoPendenteDTO {
+
+    private Long beneficioId;
+
+    private BigDecimal valor;
+}
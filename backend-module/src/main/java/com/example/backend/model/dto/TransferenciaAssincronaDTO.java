@@ -0,0 +1,34 @@
+package com.example.backend.model.dto;
+
+import com.example.backend.model.enums.StatusTransferencia;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Situação de uma transferência assíncrona")
+public class TransferenciaAssincronaDTO {
+
+    @Schema(description = "Identificador da transferência", example = "4f9c2a0e-8d1b-4c7e-9a55-0b6f3f7d2c11")
+    private String id;
+
+    private Long fromId;
+
+    private Long toId;
+
+    private BigDecimal amount;
+
+    private StatusTransferencia status;
+
+    private String mensagem;
+
+    private LocalDateTime criadaEm;
+
+    private LocalDateTime concluidaEm;
+}
@@ -0,0 +1,28 @@
+package com.example.backend.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "DTO de uma transferência entre beneficios")
+public class TransferenciaDTO {
+
+    @NotNull(message = "O campo fromId é obrigatório")
+    @Schema(description = "ID do beneficio origem", example = "1")
+    private Long fromId;
+
+    @NotNull(message = "O campo toId é obrigatório")
+    @Schema(description = "ID do beneficio destino", example = "2")
+    private Long toId;
+
+    @NotNull(message = "O campo amount é obrigatório")
+    @Schema(description = "Valor para transferência", example = "100")
+    private BigDecimal amount;
+}
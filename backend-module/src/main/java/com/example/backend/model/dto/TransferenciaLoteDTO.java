@@ -0,0 +1,26 @@
+package com.example.backend.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "DTO de um lote de transferências entre beneficios")
+public class TransferenciaLoteDTO {
+
+    @Valid
+    @NotEmpty(message = "O lote deve conter ao menos uma transferência")
+    @Schema(description = "Transferências aplicadas na ordem informada")
+    private List<TransferenciaDTO> transferencias;
+
+    @Schema(description = "Se verdadeiro, qualquer falha desfaz o lote inteiro; se falso, cada item falha isoladamente",
+            example = "true")
+    private boolean atomico = true;
+}
@@ -0,0 +1,38 @@
+package com.example.backend.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Resultado de uma transferência de um lote")
+public class TransferenciaResultadoDTO {
+
+    @Schema(description = "Posição da transferência no lote", example = "0")
+    private int indice;
+
+    private Long fromId;
+
+    private Long toId;
+
+    private BigDecimal amount;
+
+    private boolean sucesso;
+
+    private String mensagem;
+
+    public static TransferenciaResultadoDTO sucesso(int indice, TransferenciaDTO transferencia) {
+        return new TransferenciaResultadoDTO(indice, transferencia.getFromId(), transferencia.getToId(),
+                transferencia.getAmount(), true, "Transferência executada com sucesso!");
+    }
+
+    public static TransferenciaResultadoDTO falha(int indice, TransferenciaDTO transferencia, String mensagem) {
+        return new TransferenciaResultadoDTO(indice, transferencia.getFromId(), transferencia.getToId(),
+                transferencia.getAmount(), false, mensagem);
+    }
+}
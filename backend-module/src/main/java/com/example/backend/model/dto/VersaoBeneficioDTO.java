@@ -0,0 +1,27 @@
+package com.example.backend.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Versão da tabela de beneficios: soma das faixas de {@code BENEFICIO_VERSAO} e o instante (epoch ms)
+ * da última alteração.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class VersaoBeneficioDTO {
+
+    private Long numero;
+
+    private Long alteradaEm;
+
+    /** Instância e quantas transferências ela confirmou desde que subiu; nulo se nenhuma. */
+    private String saldoLocal;
+
+    public VersaoBeneficioDTO(Long numero, Long alteradaEm) {
+        this.numero = numero;
+        this.alteradaEm = alteradaEm;
+    }
+}
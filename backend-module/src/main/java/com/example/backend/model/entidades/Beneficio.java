@@ -1,22 +1,41 @@
 package com.example.backend.model.entidades;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Formula;
+import org.hibernate.annotations.Synchronize;
 
 import java.math.BigDecimal;
 
+/**
+ * Guardado no cache de segundo nível (região {@code beneficio}). As fórmulas de saldo leem
+ * {@code beneficio_saldo} e {@code beneficio_movimento}: o {@code @Synchronize} inclui essas tabelas
+ * nos espaços das consultas, para o cache de consultas descartar resultados quando elas mudam, e as
+ * entradas de cada beneficio são travadas pelo {@code CacheSegundoNivelService} nas transações que
+ * alteram o saldo.
+ */
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "beneficio")
+@Table(name = "beneficio", indexes = @Index(name = "ix_beneficio_nome", columnList = "NOME"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "beneficio")
+@Synchronize({"beneficio_saldo", "beneficio_movimento"})
 public class Beneficio {
 
+    /**
+     * Da sequência em blocos de 50 (otimizador pooled-lo): uma ida ao banco a cada 50 ids e os INSERTs
+     * agrupados em lotes JDBC, o que IDENTITY não permite. INSERTs fora do Hibernate usam o
+     * {@code nextval} da sequência, que reserva um bloco inteiro e nunca colide com os ids da aplicação.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "beneficio_seq")
+    @SequenceGenerator(name = "beneficio_seq", sequenceName = "beneficio_seq", allocationSize = 50)
     @Column(name = "ID")
     private Long id;
 
@@ -32,6 +51,87 @@ public class Beneficio {
     @Column(name = "ATIVO", columnDefinition = "bool default true")
     private Boolean ativo;
 
+    @Version
     @Column(name = "VERSION", columnDefinition = "bigint default 0")
     private Long version = 0L;
+
+    /**
+     * Quantidade de partições de saldo ({@link BeneficioSaldo}); nulo ou zero quando o saldo
+     * fica inteiro em {@code VALOR}.
+     */
+    @JsonIgnore
+    @Column(name = "PARTICOES", columnDefinition = "int default 0")
+    private Integer particoes;
+
+    /** Soma das partições; o {@code CASE} evita a subconsulta nos beneficios não particionados. */
+    @JsonIgnore
+    @Formula("(CASE WHEN PARTICOES > 0 THEN " +
+            "(SELECT COALESCE(SUM(s.VALOR), 0) FROM BENEFICIO_SALDO s WHERE s.BENEFICIO_ID = ID) " +
+            "ELSE 0 END)")
+    private BigDecimal saldoParticoes;
+
+    /**
+     * Soma dos lançamentos de {@link BeneficioMovimento} ainda não compactados em {@code VALOR}, em
+     * qualquer modo de transferência: lançamentos de antes de uma troca de modo continuam no saldo até a
+     * compactação. A subconsulta usa o índice parcial dos pendentes ({@code db/schema.sql}).
+     */
+    @JsonIgnore
+    @Formula("(SELECT COALESCE(SUM(m.VALOR), 0) FROM BENEFICIO_MOVIMENTO m " +
+            "WHERE m.BENEFICIO_ID = ID AND m.COMPACTADO = false)")
+    private BigDecimal saldoPendente;
+
+    public Beneficio(Long id, String nome, String descricao, BigDecimal valor, Boolean ativo, Long version) {
+        this.id = id;
+        this.nome = nome;
+        this.descricao = descricao;
+        this.valor = valor;
+        this.ativo = ativo;
+        this.version = version;
+    }
+
+    /**
+     * Saldo total do beneficio: {@code VALOR}, mais os movimentos pendentes de compactação e a
+     * soma das partições, quando particionado.
+     */
+    public BigDecimal getValor() {
+        if (valor == null || saldoParticoes == null) {
+            return getSaldoBase();
+        }
+        return getSaldoBase().add(saldoParticoes);
+    }
+
+    /** Saldo gravado em {@code VALOR}, sem as partições e sem os movimentos pendentes. */
+    @JsonIgnore
+    public BigDecimal getValorBase() {
+        return valor;
+    }
+
+    /** {@code VALOR} mais os movimentos pendentes, sem as partições. */
+    @JsonIgnore
+    public BigDecimal getSaldoBase() {
+        if (valor == null || saldoPendente == null) {
+            return valor;
+        }
+        return valor.add(saldoPendente);
+    }
+
+    @JsonIgnore
+    public boolean isComMovimentosPendentes() {
+        return saldoPendente != null && saldoPendente.signum() != 0;
+    }
+
+    @JsonIgnore
+    public boolean isParticionado() {
+        return particoes != null && particoes > 0;
+    }
+
+    /** Debita de {@code VALOR}; o saldo das partições não é alterado. */
+    public void debitar(BigDecimal amount) {
+        valor = valor.subtract(amount);
+    }
+
+    /** Credita em {@code VALOR}; o saldo das partições não é alterado. */
+    public void creditar(BigDecimal amount) {
+        valor = valor.add(amount);
+    }
 }
@@ -0,0 +1,53 @@
+package com.example.backend.model.entidades;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Lançamento do livro de movimentos: débito (valor negativo) ou crédito (valor positivo) de uma
+ * transferência. Os lançamentos nunca são alterados, exceto pela marca {@code COMPACTADO} quando
+ * o compactador os incorpora ao {@code VALOR} do beneficio.
+ * <p>
+ * O índice dos pendentes, {@code IX_BENEFICIO_MOVIMENTO_PENDENTE}, é parcial
+ * ({@code WHERE COMPACTADO = FALSE}) e só existe no {@code db/schema.sql}: o {@code @Index} não
+ * expressa o filtro, e um índice completo com o mesmo nome cresceria com todo o histórico.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "beneficio_movimento",
+        indexes = @Index(name = "IX_BENEFICIO_MOVIMENTO_BENEFICIO", columnList = "BENEFICIO_ID"))
+public class BeneficioMovimento {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "beneficio_movimento_seq")
+    @SequenceGenerator(name = "beneficio_movimento_seq", sequenceName = "beneficio_movimento_seq", allocationSize = 50)
+    @Column(name = "ID")
+    private Long id;
+
+    @Column(name = "BENEFICIO_ID", nullable = false)
+    private Long beneficioId;
+
+    @Column(name = "TRANSFERENCIA", nullable = false, length = 36)
+    private String transferencia;
+
+    @Column(name = "VALOR", nullable = false, precision = 15, scale = 2)
+    private BigDecimal valor;
+
+    @Column(name = "DATA_HORA", nullable = false)
+    private LocalDateTime dataHora;
+
+    @Column(name = "COMPACTADO", nullable = false)
+    private Boolean compactado = false;
+
+    public BeneficioMovimento(Long beneficioId, String transferencia, BigDecimal valor) {
+        this.beneficioId = beneficioId;
+        this.transferencia = transferencia;
+        this.valor = valor;
+        this.dataHora = LocalDateTime.now();
+    }
+}
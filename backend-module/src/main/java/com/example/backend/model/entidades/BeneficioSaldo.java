@@ -0,0 +1,37 @@
+package com.example.backend.model.entidades;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Partição do saldo de um beneficio particionado. O saldo do beneficio é o seu {@code VALOR}
+ * mais a soma das partições; créditos e débitos de beneficios muito disputados travam apenas
+ * uma partição em vez da linha do beneficio.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "beneficio_saldo",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"BENEFICIO_ID", "PARTICAO"}))
+public class BeneficioSaldo {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "beneficio_saldo_seq")
+    @SequenceGenerator(name = "beneficio_saldo_seq", sequenceName = "beneficio_saldo_seq", allocationSize = 50)
+    @Column(name = "ID")
+    private Long id;
+
+    @Column(name = "BENEFICIO_ID", nullable = false)
+    private Long beneficioId;
+
+    @Column(name = "PARTICAO", nullable = false)
+    private Integer particao;
+
+    @Column(name = "VALOR", nullable = false, precision = 15, scale = 2)
+    private BigDecimal valor;
+}
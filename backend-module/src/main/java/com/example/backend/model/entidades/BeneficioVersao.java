@@ -0,0 +1,30 @@
+package com.example.backend.model.entidades;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Faixa da versão da tabela de beneficios. A versão é a soma das faixas: cada transação que grava
+ * beneficios incrementa uma faixa antes do commit, e faixas separadas evitam que todas as gravações
+ * disputem o lock de uma única linha até o commit, como nas partições de saldo.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "beneficio_versao")
+public class BeneficioVersao {
+
+    @Id
+    @Column(name = "FAIXA")
+    private Integer faixa;
+
+    @Column(name = "NUMERO", nullable = false)
+    private Long numero;
+
+    /** Instante (epoch ms) do último incremento da faixa. */
+    @Column(name = "ALTERADA_EM", nullable = false)
+    private Long alteradaEm;
+}
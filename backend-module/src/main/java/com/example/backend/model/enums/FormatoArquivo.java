@@ -0,0 +1,29 @@
+package com.example.backend.model.enums;
+
+import org.springframework.http.MediaType;
+
+/** Formato dos arquivos de exportação e importação de beneficios. */
+public enum FormatoArquivo {
+
+    /** Um objeto JSON por linha, com os mesmos campos do {@code BeneficioDTO}. */
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+
+    /** CSV com cabeçalho, separado por vírgula (RFC 4180). */
+    CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+    private final MediaType mediaType;
+    private final String extensao;
+
+    FormatoArquivo(MediaType mediaType, String extensao) {
+        this.mediaType = mediaType;
+        this.extensao = extensao;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtensao() {
+        return extensao;
+    }
+}
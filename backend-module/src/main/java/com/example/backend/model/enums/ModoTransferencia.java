@@ -0,0 +1,26 @@
+package com.example.backend.model.enums;
+
+/**
+ * Estratégia de controle de concorrência das transferências, definida por
+ * {@code beneficio.transfer.mode}.
+ */
+public enum ModoTransferencia {
+
+    /** Bloqueia as linhas com SELECT ... FOR UPDATE antes de validar o saldo. */
+    PESSIMISTA,
+
+    /** Lê sem bloqueio e grava com UPDATE condicionado à VERSION lida, repetindo em conflito. */
+    OTIMISTA,
+
+    /**
+     * Débito e crédito como UPDATEs atômicos guardados por {@code ativo} e {@code valor >= :amount},
+     * sem carregar as entidades.
+     */
+    ATOMICO,
+
+    /**
+     * Grava lançamentos de débito e crédito no livro de movimentos sem alterar {@code VALOR};
+     * só a linha da origem é bloqueada.
+     */
+    MOVIMENTO
+}
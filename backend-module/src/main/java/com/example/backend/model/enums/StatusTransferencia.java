@@ -0,0 +1,16 @@
+package com.example.backend.model.enums;
+
+/**
+ * Situação de uma transferência enviada para a fila assíncrona.
+ */
+public enum StatusTransferencia {
+
+    /** Na fila, aguardando o próximo lote do worker. */
+    PENDENTE,
+
+    /** Aplicada e confirmada no banco. */
+    CONCLUIDA,
+
+    /** Rejeitada pelas regras de transferência ou por erro no processamento. */
+    FALHA
+}
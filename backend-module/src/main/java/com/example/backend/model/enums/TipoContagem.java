@@ -0,0 +1,21 @@
+package com.example.backend.model.enums;
+
+/**
+ * Como o total de registros da listagem paginada é obtido, escolhido pelo parâmetro
+ * {@code contagem} ou por {@code beneficio.listagem.contagem}.
+ */
+public enum TipoContagem {
+
+    /** COUNT(*) com os filtros, guardado por filtro até a próxima alteração de beneficio. */
+    EXATA,
+
+    /**
+     * Estimativa das estatísticas do planejador (PostgreSQL: {@code pg_class.reltuples} sem filtros e
+     * EXPLAIN com filtros de texto/situação; H2: {@code ROW_COUNT_ESTIMATE} sem filtros). Cai na
+     * contagem exata quando o filtro não é estimável ou a tabela é pequena.
+     */
+    ESTIMADA,
+
+    /** Não conta: o total informado é só o mínimo conhecido, suficiente para saber se há próxima página. */
+    NENHUMA
+}
@@ -0,0 +1,71 @@
+package com.example.backend.service;
+
+import com.example.backend.config.JanelaReplicacao;
+import com.example.backend.domain.repository.BeneficioMovimentoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Incorpora periodicamente os lançamentos pendentes do livro de movimentos ao {@code VALOR} dos
+ * beneficios. Cada beneficio é compactado em uma transação própria, para não segurar o lock de
+ * vários beneficios ao mesmo tempo. A compactação muda a {@code version} dos beneficios e, por isso,
+ * também a versão da listagem ({@link VersaoBeneficioService}).
+ */
+@Slf4j
+@Component
+public class BeneficioMovimentoCompactador {
+
+    private final BeneficioMovimentoRepository movimentoRepository;
+    private final BeneficioMovimentoService movimentoService;
+    private final VersaoBeneficioService versaoService;
+    private final JanelaReplicacao janelaReplicacao;
+
+    @Value("${beneficio.movimento.compactacao.lote:500}")
+    private int lote = 500;
+
+    public BeneficioMovimentoCompactador(BeneficioMovimentoRepository movimentoRepository,
+                                         BeneficioMovimentoService movimentoService,
+                                         VersaoBeneficioService versaoService,
+                                         JanelaReplicacao janelaReplicacao) {
+        this.movimentoRepository = movimentoRepository;
+        this.movimentoService = movimentoService;
+        this.versaoService = versaoService;
+        this.janelaReplicacao = janelaReplicacao;
+    }
+
+    @Scheduled(fixedDelayString = "${beneficio.movimento.compactacao.intervalo-ms:5000}")
+    public void compactarAgendado() {
+        try {
+            compactarPendentes();
+        } catch (RuntimeException e) {
+            log.warn("Falha na compactação do livro de movimentos: {}", e.getMessage());
+        }
+    }
+
+    /** @return quantidade de lançamentos compactados */
+    public int compactarPendentes() {
+        int compactados = 0;
+        Long ultimo = null;
+        List<Long> beneficios;
+        do {
+            beneficios = movimentoRepository.findBeneficiosComPendentes(PageRequest.of(0, lote));
+            for (Long beneficioId : beneficios) {
+                int lancamentos = movimentoService.compactar(beneficioId);
+                if (lancamentos > 0) {
+                    janelaReplicacao.registrarGravacao();
+                    compactados += lancamentos;
+                    ultimo = beneficioId;
+                }
+            }
+        } while (beneficios.size() == lote);
+        if (ultimo != null) {
+            versaoService.registrarAlteracao(ultimo);
+        }
+        return compactados;
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.backend.service;
+
+import com.example.backend.config.RetentativaConcorrencia;
+import com.example.backend.domain.repository.BeneficioMovimentoRepository;
+import com.example.backend.domain.repository.BeneficiosRepository;
+import com.example.backend.exception.ResourceNotFoundException;
+import com.example.backend.exception.SaldoInsuficienteException;
+import com.example.backend.model.dto.SaldoPendenteDTO;
+import com.example.backend.model.entidades.Beneficio;
+import com.example.backend.model.entidades.BeneficioMovimento;
+import com.example.backend.model.entidades.BeneficioSaldo;
+import com.example.backend.util.BancoDados;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Livro de movimentos: cada transferência grava um lançamento de débito e um de crédito em
+ * {@link BeneficioMovimento} em vez de reescrever {@code VALOR}. O saldo lido é {@code VALOR}
+ * (o último snapshot) mais os lançamentos pendentes, e o compactador incorpora periodicamente
+ * os pendentes ao snapshot.
+ */
+@Slf4j
+@Service
+public class BeneficioMovimentoService {
+
+    private final BeneficiosRepository repository;
+    private final BeneficioMovimentoRepository movimentoRepository;
+    private final BeneficioParticaoService particaoService;
+    private final BancoDados bancoDados;
+
+    public BeneficioMovimentoService(BeneficiosRepository repository,
+                                     BeneficioMovimentoRepository movimentoRepository,
+                                     BeneficioParticaoService particaoService,
+                                     BancoDados bancoDados) {
+        this.repository = repository;
+        this.movimentoRepository = movimentoRepository;
+        this.particaoService = particaoService;
+        this.bancoDados = bancoDados;
+    }
+
+    /**
+     * No PostgreSQL as linhas da origem e do destino recebem só um lock compartilhado: créditos, leituras
+     * e débitos de outras origens não se bloqueiam, mas nenhuma das duas pode ser editada, compactada,
+     * excluída ou inativada até o commit, então {@code VALOR} não muda e o crédito nunca fica órfão. Os
+     * débitos da mesma origem esperam apenas o lock consultivo dela, tomado antes dos locks de linha (quem
+     * espera por ele não segura nenhuma linha) e mantido até o commit: o lançamento de um débito só fica
+     * visível para a verificação seguinte depois de confirmado. No H2, sem lock compartilhado nem
+     * consultivo, a origem é bloqueada para escrita. Os locks de linha seguem a ordem de ID, como no modo
+     * pessimista.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void transferir(Long fromId, Long toId, BigDecimal amount) {
+        boolean consultivo = bancoDados.isPostgres();
+        if (consultivo) {
+            movimentoRepository.bloquearDebitos(fromId);
+        }
+        if (toId < fromId) {
+            bloquearDestino(toId);
+        }
+        Beneficio from = (consultivo ? repository.findByIdAndAtivoTrueForShare(fromId) : repository.findByIdAndAtivoTrueForUpdate(fromId))
+                .orElseThrow(() -> new ResourceNotFoundException("Beneficio de origem não encontrada ou inativo."));
+        if (toId > fromId) {
+            bloquearDestino(toId);
+        }
+        atualizarPendentes(List.of(from));
+
+        String transferencia = UUID.randomUUID().toString();
+        List<BeneficioMovimento> lancamentos = new ArrayList<>();
+
+        if (from.isParticionado()) {
+            if (consultivo) {
+                // Particionado depois do desvio do BeneficioService: a retentativa desvia pelas partições.
+                throw new PessimisticLockingFailureException("Beneficio de origem particionado durante a transferência.");
+            }
+            // O débito precisa sair das partições também: usa o mesmo débito bloqueado do modo pessimista.
+            List<BeneficioSaldo> saldos = particaoService.bloquearParticoes(List.of(from)).get(fromId);
+            if (!particaoService.debitarBloqueado(from, saldos, amount)) {
+                throw new SaldoInsuficienteException();
+            }
+        } else {
+            if (from.getValor().compareTo(amount) < 0) {
+                throw new SaldoInsuficienteException();
+            }
+            lancamentos.add(new BeneficioMovimento(fromId, transferencia, amount.negate()));
+        }
+
+        lancamentos.add(new BeneficioMovimento(toId, transferencia, amount));
+        movimentoRepository.saveAll(lancamentos);
+    }
+
+    /**
+     * Incorpora os lançamentos pendentes ao {@code VALOR} do beneficio. A exclusão incorpora os
+     * pendentes antes de remover a linha; se ainda assim sobrarem lançamentos de um beneficio que não
+     * existe (ex.: excluído direto no banco), eles continuam pendentes para conciliação, e não são
+     * descartados.
+     *
+     * @return quantidade de lançamentos compactados
+     */
+    @Transactional
+    @RetentativaConcorrencia
+    public int compactar(Long beneficioId) {
+        Optional<Beneficio> beneficio = repository.findByIdForUpdate(beneficioId);
+        if (beneficio.isEmpty()) {
+            log.warn("Lançamentos pendentes do beneficio {}, que não existe, mantidos para conciliação", beneficioId);
+            return 0;
+        }
+        return incorporarPendentes(beneficio.get());
+    }
+
+    /** Incorpora os pendentes em um beneficio cuja linha já está bloqueada ou será regravada. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int incorporarPendentes(Beneficio beneficio) {
+        List<BeneficioMovimento> pendentes = movimentoRepository.findPendentesForUpdate(beneficio.getId());
+        BigDecimal delta = BigDecimal.ZERO;
+        for (BeneficioMovimento movimento : pendentes) {
+            delta = delta.add(movimento.getValor());
+        }
+
+        beneficio.creditar(delta);
+        beneficio.setSaldoPendente(BigDecimal.ZERO);
+        return marcarCompactados(pendentes);
+    }
+
+    /**
+     * Relê o saldo pendente de beneficios recém-bloqueados. A fórmula {@code saldoPendente} é
+     * avaliada no snapshot do {@code SELECT ... FOR UPDATE/SHARE}, que pode ser anterior à concessão do
+     * lock: sem a releitura, os lançamentos ou a compactação de quem acabou de liberar a linha
+     * ficariam de fora e a verificação de saldo usaria um valor desatualizado.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void atualizarPendentes(Collection<Beneficio> bloqueados) {
+        if (bloqueados.isEmpty()) {
+            return;
+        }
+        Map<Long, BigDecimal> pendentes = new HashMap<>();
+        List<Long> ids = bloqueados.stream().map(Beneficio::getId).toList();
+        for (SaldoPendenteDTO saldo : movimentoRepository.somarPendentes(ids)) {
+            pendentes.put(saldo.getBeneficioId(), saldo.getValor());
+        }
+        for (Beneficio beneficio : bloqueados) {
+            beneficio.setSaldoPendente(pendentes.getOrDefault(beneficio.getId(), BigDecimal.ZERO));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Page<BeneficioMovimento> listarMovimentos(Long beneficioId, int page, int size) {
+        if (!repository.existsById(beneficioId)) {
+            throw new ResourceNotFoundException("Benefício não encontrado!");
+        }
+        return movimentoRepository.findAllByBeneficioId(beneficioId,
+                PageRequest.of(page, size, Sort.by("id").descending()));
+    }
+
+    private void bloquearDestino(Long toId) {
+        if (repository.findByIdAndAtivoTrueForShare(toId).isEmpty()) {
+            throw new ResourceNotFoundException("Beneficio de destino não encontrada ou inativo.");
+        }
+    }
+
+    private int marcarCompactados(List<BeneficioMovimento> pendentes) {
+        pendentes.forEach(movimento -> movimento.setCompactado(true));
+        return pendentes.size();
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.backend.service;
+
+import com.example.backend.domain.repository.BeneficioSaldoRepository;
+import com.example.backend.domain.repository.BeneficiosRepository;
+import com.example.backend.exception.ResourceNotFoundException;
+import com.example.backend.exception.SaldoInsuficienteException;
+import com.example.backend.model.dto.BeneficioParticaoDTO;
+import com.example.backend.model.entidades.Beneficio;
+import com.example.backend.model.entidades.BeneficioSaldo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Saldo particionado: o saldo de um beneficio muito disputado é dividido entre N linhas de
+ * {@link BeneficioSaldo}. Créditos vão para uma partição aleatória e débitos procuram uma
+ * partição com saldo suficiente, então transferências simultâneas no mesmo beneficio travam
+ * linhas diferentes. Só quando nenhuma partição cobre o débito sozinha o beneficio inteiro é
+ * bloqueado e o valor é retirado de várias partições.
+ */
+@Slf4j
+@Service
+public class BeneficioParticaoService {
+
+    public static final int MAX_PARTICOES = 256;
+
+    private final BeneficiosRepository repository;
+    private final BeneficioSaldoRepository saldoRepository;
+
+    @Value("${beneficio.particoes.enabled:false}")
+    private boolean particoesHabilitadas;
+
+    public BeneficioParticaoService(BeneficiosRepository repository, BeneficioSaldoRepository saldoRepository) {
+        this.repository = repository;
+        this.saldoRepository = saldoRepository;
+    }
+
+    /**
+     * Redistribui o saldo do beneficio em {@code particoes} partições iguais; o resto da divisão
+     * fica em {@code VALOR}. Com zero partições o saldo volta inteiro para {@code VALOR}, o único uso
+     * permitido com {@code beneficio.particoes.enabled=false}.
+     */
+    @Transactional
+    public void particionar(Long id, int particoes) {
+        if (particoes < 0 || particoes > MAX_PARTICOES) {
+            throw new IllegalArgumentException("A quantidade de partições deve estar entre 0 e " + MAX_PARTICOES + ".");
+        }
+        if (particoes > 0 && !particoesHabilitadas) {
+            throw new IllegalArgumentException("Saldo particionado desabilitado (beneficio.particoes.enabled=false).");
+        }
+
+        Beneficio beneficio = repository.findAllByIdInAndAtivoTrueForUpdate(List.of(id)).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Beneficio não encontrado ou inativo."));
+        redistribuir(beneficio, particoes);
+    }
+
+    /**
+     * Com {@code beneficio.particoes.enabled=false}, devolve para {@code VALOR} o saldo das partições
+     * criadas antes de desligar, inclusive de beneficios inativos: sem o desvio, os débitos e créditos
+     * desses beneficios passariam a disputar a linha e as partições ao mesmo tempo. O saldo lido não
+     * muda, já que {@code saldoParticoes} soma as partições até elas serem removidas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void incorporarParticoes() {
+        if (particoesHabilitadas) {
+            return;
+        }
+        List<Long> particionados = repository.findIdsParticionados();
+        for (Long id : particionados) {
+            repository.findByIdForUpdate(id).ifPresent(beneficio -> redistribuir(beneficio, 0));
+        }
+        if (!particionados.isEmpty()) {
+            log.warn("Partições de {} beneficios incorporadas em VALOR (beneficio.particoes.enabled=false)", particionados.size());
+        }
+    }
+
+    private void redistribuir(Beneficio beneficio, int particoes) {
+        Long id = beneficio.getId();
+        List<BeneficioSaldo> existentes = saldoRepository.findAllByBeneficioIdForUpdate(id);
+        BigDecimal total = beneficio.getSaldoBase();
+        for (BeneficioSaldo saldo : existentes) {
+            total = total.add(saldo.getValor());
+        }
+
+        BigDecimal porParticao = particoes == 0
+                ? BigDecimal.ZERO
+                : total.divide(BigDecimal.valueOf(particoes), 2, RoundingMode.DOWN);
+
+        List<BeneficioSaldo> remover = new ArrayList<>();
+        BeneficioSaldo[] porIndice = new BeneficioSaldo[particoes];
+        for (BeneficioSaldo saldo : existentes) {
+            if (saldo.getParticao() < particoes) {
+                porIndice[saldo.getParticao()] = saldo;
+            } else {
+                remover.add(saldo);
+            }
+        }
+        saldoRepository.deleteAll(remover);
+
+        for (int i = 0; i < particoes; i++) {
+            BeneficioSaldo saldo = porIndice[i] != null ? porIndice[i] : new BeneficioSaldo(null, id, i, null);
+            saldo.setValor(porParticao);
+            saldoRepository.save(saldo);
+        }
+
+        BigDecimal distribuido = porParticao.multiply(BigDecimal.valueOf(particoes));
+        // Movimentos pendentes continuam somados a VALOR até a compactação; o resto já os considera.
+        BigDecimal pendente = beneficio.getSaldoBase().subtract(beneficio.getValorBase());
+        beneficio.setValor(total.subtract(distribuido).subtract(pendente));
+        beneficio.setSaldoParticoes(particoes == 0 ? null : distribuido);
+        beneficio.setParticoes(particoes);
+    }
+
+    /**
+     * Transferência em que ao menos um dos lados é particionado, sem bloquear a linha do
+     * beneficio particionado. O lado não particionado usa os UPDATEs guardados do modo atômico.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void transferir(Long fromId, Long toId, BigDecimal amount, Collection<BeneficioParticaoDTO> particionados) {
+        BeneficioParticaoDTO origem = null;
+        BeneficioParticaoDTO destino = null;
+        for (BeneficioParticaoDTO beneficio : particionados) {
+            if (beneficio.getId().equals(fromId)) origem = beneficio;
+            if (beneficio.getId().equals(toId)) destino = beneficio;
+        }
+
+        if (origem != null && !Boolean.TRUE.equals(origem.getAtivo())) {
+            throw new ResourceNotFoundException("Beneficio de origem não encontrada ou inativo.");
+        }
+        if (destino != null && !Boolean.TRUE.equals(destino.getAtivo())) {
+            throw new ResourceNotFoundException("Beneficio de destino não encontrada ou inativo.");
+        }
+
+        // Mesma ordem de locks dos outros modos: o beneficio de menor ID primeiro.
+        if (fromId < toId) {
+            debitarOrigem(fromId, origem, amount);
+            creditarDestino(toId, destino, amount);
+        } else {
+            creditarDestino(toId, destino, amount);
+            debitarOrigem(fromId, origem, amount);
+        }
+    }
+
+    private void debitarOrigem(Long fromId, BeneficioParticaoDTO origem, BigDecimal amount) {
+        boolean debitado = origem != null
+                ? debitar(origem, amount)
+                : repository.debitar(fromId, amount) == 1;
+        if (!debitado) {
+            if (origem == null && repository.findByIdAndAtivoTrue(fromId).isEmpty()) {
+                throw new ResourceNotFoundException("Beneficio de origem não encontrada ou inativo.");
+            }
+            throw new SaldoInsuficienteException();
+        }
+    }
+
+    private void creditarDestino(Long toId, BeneficioParticaoDTO destino, BigDecimal amount) {
+        boolean creditado = destino != null
+                ? creditarParticionado(destino, amount)
+                : repository.creditar(toId, amount) == 1;
+        if (!creditado) {
+            throw new ResourceNotFoundException("Beneficio de destino não encontrada ou inativo.");
+        }
+    }
+
+    /**
+     * Bloqueia as partições dos beneficios particionados informados, em ordem de ID do beneficio.
+     * Usado quando a linha do beneficio já está bloqueada e o débito é calculado em memória.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<Long, List<BeneficioSaldo>> bloquearParticoes(Collection<Beneficio> beneficios) {
+        Map<Long, List<BeneficioSaldo>> bloqueadas = new HashMap<>();
+        beneficios.stream()
+                .filter(Beneficio::isParticionado)
+                .map(Beneficio::getId)
+                .sorted()
+                .forEach(id -> bloqueadas.put(id, saldoRepository.findAllByBeneficioIdForUpdate(id)));
+        return bloqueadas;
+    }
+
+    /**
+     * Debita em memória de um beneficio cuja linha e partições já estão bloqueadas: primeiro de
+     * {@code VALOR} (considerando os movimentos pendentes), depois das partições, sem deixar
+     * nenhuma delas negativa.
+     *
+     * @return {@code false} se o saldo total não cobre o débito
+     */
+    public boolean debitarBloqueado(Beneficio beneficio, List<BeneficioSaldo> saldos, BigDecimal amount) {
+        BigDecimal base = beneficio.getSaldoBase().max(BigDecimal.ZERO);
+        BigDecimal particoes = BigDecimal.ZERO;
+        for (BeneficioSaldo saldo : saldos) {
+            particoes = particoes.add(saldo.getValor());
+        }
+        if (base.add(particoes).compareTo(amount) < 0) {
+            return false;
+        }
+
+        BigDecimal restante = amount;
+        BigDecimal daBase = base.min(restante);
+        beneficio.debitar(daBase);
+        restante = restante.subtract(daBase);
+
+        for (BeneficioSaldo saldo : saldos) {
+            if (restante.signum() == 0) break;
+            BigDecimal retirado = saldo.getValor().min(restante);
+            saldo.setValor(saldo.getValor().subtract(retirado));
+            particoes = particoes.subtract(retirado);
+            restante = restante.subtract(retirado);
+        }
+        beneficio.setSaldoParticoes(particoes);
+        return true;
+    }
+
+    /** Zera as partições; usado quando o saldo do beneficio é redefinido por inteiro. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void zerarParticoes(Beneficio beneficio) {
+        saldoRepository.zerar(beneficio.getId());
+        beneficio.setSaldoParticoes(BigDecimal.ZERO);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removerParticoes(Long beneficioId) {
+        saldoRepository.deleteAllByBeneficioId(beneficioId);
+    }
+
+    /**
+     * Debita de uma partição com saldo suficiente, começando por uma partição aleatória.
+     *
+     * @return {@code false} se o saldo total não cobre o débito
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean debitar(BeneficioParticaoDTO origem, BigDecimal amount) {
+        int particoes = origem.getParticoes();
+        int inicio = ThreadLocalRandom.current().nextInt(particoes);
+        for (int i = 0; i < particoes; i++) {
+            if (saldoRepository.debitar(origem.getId(), (inicio + i) % particoes, amount) == 1) {
+                return true;
+            }
+        }
+
+        // Nenhuma partição cobre o débito sozinha: bloqueia o beneficio inteiro e junta os saldos.
+        Beneficio bloqueado = repository.findAllByIdInAndAtivoTrueForUpdate(List.of(origem.getId())).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Beneficio de origem não encontrada ou inativo."));
+        return debitarBloqueado(bloqueado, saldoRepository.findAllByBeneficioIdForUpdate(origem.getId()), amount);
+    }
+
+    private boolean creditarParticionado(BeneficioParticaoDTO destino, BigDecimal amount) {
+        int particao = ThreadLocalRandom.current().nextInt(destino.getParticoes());
+        return saldoRepository.creditar(destino.getId(), particao, amount) == 1
+                || repository.creditar(destino.getId(), amount) == 1;
+    }
+}
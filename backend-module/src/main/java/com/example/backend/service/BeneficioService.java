@@ -1,11 +1,28 @@
 package com.example.backend.service;
 
+import com.example.backend.config.RetentativaConcorrencia;
+import com.example.backend.domain.event.BeneficioAlteradoEvent;
 import com.example.backend.domain.specification.BeneficioSpecification;
 import com.example.backend.exception.DuplicateException;
 import com.example.backend.exception.ResourceNotFoundException;
+import com.example.backend.exception.SaldoInsuficienteException;
 import com.example.backend.model.dto.BeneficioDTO;
+import com.example.backend.model.dto.BeneficioParticaoDTO;
+import com.example.backend.model.dto.FiltroBeneficioDTO;
+import com.example.backend.model.dto.PaginaContagemDTO;
+import com.example.backend.model.dto.PaginaCursorDTO;
+import com.example.backend.model.dto.TransferenciaDTO;
+import com.example.backend.model.dto.TransferenciaResultadoDTO;
 import com.example.backend.model.entidades.Beneficio;
+import com.example.backend.model.entidades.BeneficioMovimento;
+import com.example.backend.model.entidades.BeneficioSaldo;
+import com.example.backend.model.enums.ModoTransferencia;
+import com.example.backend.model.enums.TipoContagem;
 import com.example.backend.domain.repository.BeneficiosRepository;
+import com.example.backend.util.CursorPaginacao;
+import com.example.backend.util.IndiceNgrama;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -15,41 +32,164 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Page;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class BeneficioService {
 
+    private static final int LOTE_BLOQUEIO = 1000;
+
     private final BeneficiosRepository repository;
+    private final BeneficioParticaoService particaoService;
+    private final BeneficioMovimentoService movimentoService;
+    private final ContagemBeneficioService contagemService;
+    private final BuscaTextualService buscaTextual;
+    private final IndiceBuscaService indiceBusca;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MetricasBeneficio metricas;
+
+    @Value("${beneficio.transfer.mode:PESSIMISTA}")
+    private ModoTransferencia modoTransferencia = ModoTransferencia.PESSIMISTA;
+
+    @Value("${beneficio.particoes.enabled:false}")
+    private boolean particoesHabilitadas;
 
-    public BeneficioService(BeneficiosRepository repository) {
+    @Value("${beneficio.listagem.contagem:EXATA}")
+    private TipoContagem contagemPadrao = TipoContagem.EXATA;
+
+    public BeneficioService(BeneficiosRepository repository,
+                            BeneficioParticaoService particaoService,
+                            BeneficioMovimentoService movimentoService,
+                            ContagemBeneficioService contagemService,
+                            BuscaTextualService buscaTextual,
+                            IndiceBuscaService indiceBusca,
+                            ApplicationEventPublisher eventPublisher,
+                            MetricasBeneficio metricas) {
         this.repository = repository;
+        this.particaoService = particaoService;
+        this.movimentoService = movimentoService;
+        this.contagemService = contagemService;
+        this.buscaTextual = buscaTextual;
+        this.indiceBusca = indiceBusca;
+        this.eventPublisher = eventPublisher;
+        this.metricas = metricas;
     }
 
+    /**
+     * As listagens são projetadas direto em {@link BeneficioDTO}, em transações só de leitura (flush
+     * manual): nenhuma entidade passa pelo contexto de persistência.
+     */
+    @Transactional(readOnly = true)
     public List<BeneficioDTO> listarTodos() {
-        List<Beneficio> beneficio = repository.findAll();
-        return beneficio.stream().map(this::convertToDTO).toList();
+        return repository.findAllDTOs();
     }
 
-    public Page<Beneficio> listarPaginado(
+    /**
+     * Busca {@code size} registros sem o COUNT(*) do {@code findAll(spec, pageable)} e obtém o total
+     * conforme {@code contagem} (nulo = {@code beneficio.listagem.contagem}). Na última página o total
+     * já é conhecido e nada é contado. Com {@code search} a ordem é a relevância da busca textual e,
+     * com o índice em memória pronto, filtros, ordem e total saem dele e o banco só lê a página.
+     */
+    @Transactional(readOnly = true)
+    public PaginaContagemDTO<BeneficioDTO> listarPaginado(
             String nome,
             String descricao,
             BigDecimal valor,
             Boolean ativo,
             String search,
             int page,
-            int size
+            int size,
+            TipoContagem contagem
+    ) {
+        FiltroBeneficioDTO filtro = FiltroBeneficioDTO.de(nome, descricao, valor, ativo, search);
+        Sort ordem = filtro.getSearch() == null ? Sort.by("id").descending() : Sort.unsorted();
+        Pageable pageable = PageRequest.of(page, size, ordem);
+
+        Optional<IndiceNgrama.Resultado> indexado = filtro.getSearch() == null
+                ? Optional.empty()
+                : indiceBusca.buscar(filtro, (int) pageable.getOffset(), size);
+        if (indexado.isPresent()) {
+            return new PaginaContagemDTO<>(hidratar(indexado.get().ids()), pageable, indexado.get().total(), TipoContagem.EXATA);
+        }
+
+        Specification<Beneficio> spec = filtros(nome, descricao, valor, ativo, search);
+
+        List<BeneficioDTO> encontrados = repository.findDTOs(spec, ordem, pageable.getOffset(), size + 1);
+        boolean haMais = encontrados.size() > size;
+        List<BeneficioDTO> conteudo = haMais ? encontrados.subList(0, size) : encontrados;
+        long minimo = pageable.getOffset() + conteudo.size() + (haMais ? 1 : 0);
+
+        if (!haMais && (!conteudo.isEmpty() || pageable.getOffset() == 0)) {
+            return new PaginaContagemDTO<>(conteudo, pageable, minimo, TipoContagem.EXATA);
+        }
+
+        return switch (contagem != null ? contagem : contagemPadrao) {
+            case NENHUMA -> new PaginaContagemDTO<>(conteudo, pageable, minimo, TipoContagem.NENHUMA);
+            case ESTIMADA -> contagemService.estimar(filtro)
+                    .map(estimativa -> new PaginaContagemDTO<>(conteudo, pageable, Math.max(estimativa, minimo), TipoContagem.ESTIMADA))
+                    .orElseGet(() -> new PaginaContagemDTO<>(conteudo, pageable, contagemService.contarExato(filtro, spec), TipoContagem.EXATA));
+            case EXATA -> new PaginaContagemDTO<>(conteudo, pageable, contagemService.contarExato(filtro, spec), TipoContagem.EXATA);
+        };
+    }
+
+    /**
+     * Listagem por keyset: busca {@code size + 1} registros com id menor que o do cursor, sem OFFSET,
+     * e só conta o total quando {@code contar} for verdadeiro.
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<BeneficioDTO> listarPorCursor(
+            String nome,
+            String descricao,
+            BigDecimal valor,
+            Boolean ativo,
+            String search,
+            String after,
+            int size,
+            boolean contar
     ) {
-        Specification<Beneficio> spec = Specification
+        if (size < 1) {
+            throw new IllegalArgumentException("O tamanho da página deve ser maior que zero.");
+        }
+        Specification<Beneficio> spec = filtros(nome, descricao, valor, ativo, search);
+        Long ultimoId = CursorPaginacao.decodificar(after);
+
+        List<BeneficioDTO> encontrados = repository.findDTOs(spec.and(BeneficioSpecification.idMenorQue(ultimoId)),
+                Sort.by("id").descending(), 0, size + 1);
+
+        boolean haMais = encontrados.size() > size;
+        List<BeneficioDTO> pagina = haMais ? encontrados.subList(0, size) : encontrados;
+        String proximoCursor = haMais ? CursorPaginacao.codificar(pagina.get(size - 1).getId()) : null;
+        Long total = contar ? contagemService.contarExato(FiltroBeneficioDTO.de(nome, descricao, valor, ativo, search), spec) : null;
+
+        return new PaginaCursorDTO<>(pagina, size, proximoCursor, total);
+    }
+
+    /** Lê os beneficios da página mantendo a ordem dos ids; os excluídos nesse meio tempo ficam de fora. */
+    private List<BeneficioDTO> hidratar(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, BeneficioDTO> porId = repository.findDTOsByIdIn(ids).stream()
+                .collect(Collectors.toMap(BeneficioDTO::getId, Function.identity()));
+        return ids.stream().map(porId::get).filter(Objects::nonNull).toList();
+    }
+
+    private Specification<Beneficio> filtros(String nome, String descricao, BigDecimal valor, Boolean ativo, String search) {
+        return Specification
                 .where(BeneficioSpecification.hasNome(nome))
                 .and(BeneficioSpecification.hasDescricao(descricao))
                 .and(BeneficioSpecification.hasValor(valor))
                 .and(BeneficioSpecification.isAtivo(ativo))
-                .and(BeneficioSpecification.globalSearch(search));
-
-        Pageable pageable = PageRequest.of(page, size, Sort.by("id").descending());
-
-        return repository.findAll(spec, pageable);
+                .and(buscaTextual.globalSearch(search));
     }
 
     @Transactional
@@ -60,64 +200,284 @@ public class BeneficioService {
 
         Beneficio beneficio = convertToEntity(dto);
         beneficio = repository.save(beneficio);
+        eventPublisher.publishEvent(BeneficioAlteradoEvent.cadastro(beneficio.getId(), beneficio.getNome()));
 
         return convertToDTO(beneficio);
     }
 
+    /**
+     * Lê o beneficio sem bloqueio e grava com o update versionado ({@code @Version}): uma transferência
+     * ou compactação concorrente faz o update falhar e o {@code @RetentativaConcorrencia} repete a
+     * alteração. Só no modo {@code MOVIMENTO} a linha é bloqueada, porque os lançamentos não alteram a
+     * versão: o lock espera os créditos e débitos em andamento terminarem antes da edição ou da inativação.
+     */
     @Transactional
+    @RetentativaConcorrencia
     public BeneficioDTO atualizarBeneficio(Long id, BeneficioDTO dto) {
-        Beneficio existente = repository.findByIdAndAtivoTrue(id)
+        Optional<Beneficio> encontrado = modoTransferencia == ModoTransferencia.MOVIMENTO
+                ? repository.findByIdAndAtivoTrueForUpdate(id)
+                : repository.findByIdAndAtivoTrue(id);
+        Beneficio existente = encontrado
                 .orElseThrow(() -> new ResourceNotFoundException("Beneficio não encontrado ou inativo."));
+        movimentoService.atualizarPendentes(List.of(existente));
 
         if (repository.existsByNomeAndIdNotAndAtivoTrue(dto.getNome(), id)) {
             throw new DuplicateException("Já existe um beneficio cadastrado com esse nome.");
         }
 
+        if (existente.isParticionado()) {
+            particaoService.zerarParticoes(existente);
+        }
+        if (existente.isComMovimentosPendentes()) {
+            movimentoService.incorporarPendentes(existente);
+        }
+
+        String nomeAnterior = existente.getNome();
         existente.setNome(dto.getNome());
         existente.setDescricao(dto.getDescricao());
         existente.setValor(dto.getValor());
         existente.setAtivo(dto.getAtivo());
 
         Beneficio beneficioAtualizado = repository.save(existente);
+        eventPublisher.publishEvent(BeneficioAlteradoEvent.cadastro(id, nomeAnterior, dto.getNome()));
         return convertToDTO(beneficioAtualizado);
     }
 
     @Transactional
     public void excluirBeneficio(Long id) {
-        Beneficio beneficio = repository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Benefício não encontrado!"));;
+        Beneficio beneficio = repository.findByIdForUpdate(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Benefício não encontrado!"));
 
+        if (beneficio.isParticionado()) {
+            particaoService.removerParticoes(id);
+        }
+        // Sem isso os lançamentos pendentes ficariam sem beneficio para o compactador.
+        movimentoService.incorporarPendentes(beneficio);
         repository.delete(beneficio);
+        eventPublisher.publishEvent(BeneficioAlteradoEvent.cadastro(id, beneficio.getNome()));
+    }
+
+    public Page<BeneficioMovimento> listarMovimentos(Long id, int page, int size) {
+        return movimentoService.listarMovimentos(id, page, size);
     }
 
     @Transactional
+    public void particionarSaldo(Long id, int particoes) {
+        eventPublisher.publishEvent(BeneficioAlteradoEvent.saldo(List.of(id)));
+        particaoService.particionar(id, particoes);
+    }
+
+    @Transactional
+    @RetentativaConcorrencia
     public void transfer(Long fromId, Long toId, BigDecimal amount) {
-        if (fromId.equals(toId)) {
-            throw new IllegalArgumentException("Não é possível transferir par o mesmo benefício.");
+        metricas.medirCommit();
+        validarTransferencia(fromId, toId, amount);
+        eventPublisher.publishEvent(BeneficioAlteradoEvent.saldo(List.of(fromId, toId)));
+
+        // Beneficios particionados são desviados antes de qualquer lock na linha do beneficio.
+        if (particoesHabilitadas) {
+            List<BeneficioParticaoDTO> particionados = repository.findAllParticionadosByIdIn(List.of(fromId, toId));
+            if (!particionados.isEmpty()) {
+                particaoService.transferir(fromId, toId, amount, particionados);
+                return;
+            }
         }
 
-        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("O valor da transferência deve ser maior que zero.");
+        switch (modoTransferencia) {
+            case OTIMISTA -> transferirOtimista(fromId, toId, amount);
+            case ATOMICO -> transferirAtomico(fromId, toId, amount);
+            case MOVIMENTO -> movimentoService.transferir(fromId, toId, amount);
+            default -> transferirPessimista(fromId, toId, amount);
         }
+    }
 
-        Beneficio from = repository.findByIdAndAtivoTrueForUpdate(fromId)
+    private void transferirPessimista(Long fromId, Long toId, BigDecimal amount) {
+        Map<Long, Beneficio> bloqueados = bloquearBeneficios(List.of(fromId, toId));
+
+        Beneficio from = bloqueados.get(fromId);
+        if (from == null) {
+            throw new ResourceNotFoundException("Beneficio de origem não encontrada ou inativo.");
+        }
+
+        Beneficio to = bloqueados.get(toId);
+        if (to == null) {
+            throw new ResourceNotFoundException("Beneficio de destino não encontrada ou inativo.");
+        }
+
+        Map<Long, List<BeneficioSaldo>> particoes = metricas.bloqueio()
+                .record(() -> particaoService.bloquearParticoes(bloqueados.values()));
+        metricas.saldo().record(() -> aplicarTransferencia(from, to, amount, particoes));
+
+        repository.save(from);
+        repository.save(to);
+    }
+
+    /**
+     * Lê os beneficios sem bloqueio; no flush o {@code @Version} gera
+     * {@code UPDATE ... WHERE ID = ? AND VERSION = ?}. Se outra transação alterou a linha
+     * nesse meio tempo o update não afeta nenhuma linha, a transação falha com
+     * {@link org.springframework.orm.ObjectOptimisticLockingFailureException} e o
+     * {@code @RetentativaConcorrencia} repete a transferência com os valores atuais.
+     */
+    private void transferirOtimista(Long fromId, Long toId, BigDecimal amount) {
+        Beneficio from = repository.findByIdAndAtivoTrue(fromId)
                 .orElseThrow(() -> new ResourceNotFoundException("Beneficio de origem não encontrada ou inativo."));
 
-        Beneficio to = repository.findByIdAndAtivoTrueForUpdate(toId)
+        Beneficio to = repository.findByIdAndAtivoTrue(toId)
                 .orElseThrow(() -> new ResourceNotFoundException("Beneficio de destino não encontrada ou inativo."));
 
-        if (from.getValor().compareTo(amount) < 0) {
-            throw new IllegalArgumentException("Saldo insuficiente no benefício de origem.");
+        if (from.isParticionado() || to.isParticionado()) {
+            particaoService.transferir(fromId, toId, amount, resumoParticoes(from, to));
+            return;
         }
 
-        from.setValor(from.getValor().subtract(amount));
-        to.setValor(to.getValor().add(amount));
+        metricas.saldo().record(() -> aplicarTransferencia(from, to, amount, Map.of()));
 
         repository.save(from);
         repository.save(to);
     }
 
-    private BeneficioDTO convertToDTO(Beneficio beneficio) {
+    /**
+     * Executa a transferência como dois UPDATEs guardados, sem carregar as entidades. Cada UPDATE
+     * trava só a própria linha; os dois são emitidos em ordem de ID para manter a mesma ordem de
+     * locks dos outros modos. Se algum não afetar linha a exceção desfaz o que já foi aplicado e a
+     * causa é apurada só nesse caminho de erro, com as mesmas mensagens do modo pessimista.
+     */
+    private void transferirAtomico(Long fromId, Long toId, BigDecimal amount) {
+        boolean aplicada = fromId < toId
+                ? debitarAtomico(fromId, amount) && repository.creditar(toId, amount) == 1
+                : repository.creditar(toId, amount) == 1 && debitarAtomico(fromId, amount);
+
+        if (!aplicada) {
+            if (repository.findByIdAndAtivoTrue(fromId).isEmpty()) {
+                throw new ResourceNotFoundException("Beneficio de origem não encontrada ou inativo.");
+            }
+            if (repository.findByIdAndAtivoTrue(toId).isEmpty()) {
+                throw new ResourceNotFoundException("Beneficio de destino não encontrada ou inativo.");
+            }
+            throw new SaldoInsuficienteException();
+        }
+    }
+
+    /**
+     * O débito guardado ignora beneficios particionados; só quando ele falha é verificado se a
+     * origem é particionada, e nesse caso o débito sai das partições.
+     */
+    private boolean debitarAtomico(Long fromId, BigDecimal amount) {
+        if (repository.debitar(fromId, amount) == 1) {
+            return true;
+        }
+        List<BeneficioParticaoDTO> particionados = repository.findAllParticionadosByIdIn(List.of(fromId));
+        return !particionados.isEmpty()
+                && Boolean.TRUE.equals(particionados.get(0).getAtivo())
+                && particaoService.debitar(particionados.get(0), amount);
+    }
+
+    @Transactional
+    @RetentativaConcorrencia
+    public List<TransferenciaResultadoDTO> transferirLote(List<TransferenciaDTO> transferencias, boolean atomico) {
+        metricas.medirCommit();
+        List<Long> ids = new ArrayList<>(transferencias.size() * 2);
+        for (TransferenciaDTO transferencia : transferencias) {
+            if (transferencia.getFromId() != null) ids.add(transferencia.getFromId());
+            if (transferencia.getToId() != null) ids.add(transferencia.getToId());
+        }
+
+        Map<Long, Beneficio> bloqueados = bloquearBeneficios(ids);
+        eventPublisher.publishEvent(BeneficioAlteradoEvent.saldo(bloqueados.keySet()));
+        Map<Long, List<BeneficioSaldo>> particoes = metricas.bloqueio()
+                .record(() -> particaoService.bloquearParticoes(bloqueados.values()));
+        List<TransferenciaResultadoDTO> resultados = new ArrayList<>(transferencias.size());
+
+        for (int i = 0; i < transferencias.size(); i++) {
+            TransferenciaDTO transferencia = transferencias.get(i);
+            try {
+                validarTransferencia(transferencia.getFromId(), transferencia.getToId(), transferencia.getAmount());
+
+                Beneficio from = bloqueados.get(transferencia.getFromId());
+                if (from == null) {
+                    throw new ResourceNotFoundException("Beneficio de origem não encontrada ou inativo.");
+                }
+
+                Beneficio to = bloqueados.get(transferencia.getToId());
+                if (to == null) {
+                    throw new ResourceNotFoundException("Beneficio de destino não encontrada ou inativo.");
+                }
+
+                metricas.saldo().record(() -> aplicarTransferencia(from, to, transferencia.getAmount(), particoes));
+                resultados.add(TransferenciaResultadoDTO.sucesso(i, transferencia));
+            } catch (IllegalArgumentException | ResourceNotFoundException e) {
+                if (atomico) {
+                    throw new IllegalArgumentException("Transferência " + i + " do lote não executada: " + e.getMessage(), e);
+                }
+                metricas.registrarFalha("transferirLote", e);
+                resultados.add(TransferenciaResultadoDTO.falha(i, transferencia, e.getMessage()));
+            }
+        }
+
+        return resultados;
+    }
+
+    /**
+     * Bloqueia os beneficios ativos informados sempre em ordem crescente de ID, em consultas
+     * de até {@value #LOTE_BLOQUEIO} IDs. Como todas as transações adquirem os locks na mesma
+     * ordem, transferências cruzadas (A→B e B→A) não entram em deadlock.
+     */
+    private Map<Long, Beneficio> bloquearBeneficios(Collection<Long> ids) {
+        List<Long> ordenados = new ArrayList<>(new TreeSet<>(ids));
+
+        Map<Long, Beneficio> bloqueados = new HashMap<>(ordenados.size() * 2);
+        for (int inicio = 0; inicio < ordenados.size(); inicio += LOTE_BLOQUEIO) {
+            List<Long> lote = ordenados.subList(inicio, Math.min(inicio + LOTE_BLOQUEIO, ordenados.size()));
+            for (Beneficio beneficio : metricas.bloqueio().record(() -> repository.findAllByIdInAndAtivoTrueForUpdate(lote))) {
+                bloqueados.put(beneficio.getId(), beneficio);
+            }
+        }
+        metricas.saldo().record(() -> movimentoService.atualizarPendentes(bloqueados.values()));
+        return bloqueados;
+    }
+
+    void validarTransferencia(Long fromId, Long toId, BigDecimal amount) {
+        if (fromId.equals(toId)) {
+            throw new IllegalArgumentException("Não é possível transferir par o mesmo benefício.");
+        }
+
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("O valor da transferência deve ser maior que zero.");
+        }
+    }
+
+    /**
+     * Aplica a transferência em memória sobre beneficios já bloqueados. Para origem particionada
+     * o débito considera as partições bloqueadas em {@code particoes}.
+     */
+    private void aplicarTransferencia(Beneficio from, Beneficio to, BigDecimal amount,
+                                      Map<Long, List<BeneficioSaldo>> particoes) {
+        if (from.isParticionado()) {
+            if (!particaoService.debitarBloqueado(from, particoes.getOrDefault(from.getId(), List.of()), amount)) {
+                throw new SaldoInsuficienteException();
+            }
+        } else {
+            if (from.getValor().compareTo(amount) < 0) {
+                throw new SaldoInsuficienteException();
+            }
+            from.debitar(amount);
+        }
+
+        to.creditar(amount);
+    }
+
+    private static List<BeneficioParticaoDTO> resumoParticoes(Beneficio... beneficios) {
+        List<BeneficioParticaoDTO> resumo = new ArrayList<>();
+        for (Beneficio beneficio : beneficios) {
+            if (beneficio.isParticionado()) {
+                resumo.add(new BeneficioParticaoDTO(beneficio.getId(), beneficio.getAtivo(), beneficio.getParticoes()));
+            }
+        }
+        return resumo;
+    }
+
+    BeneficioDTO convertToDTO(Beneficio beneficio) {
         BeneficioDTO dto = new BeneficioDTO();
 
         dto.setId(beneficio.getId());
@@ -130,7 +490,7 @@ public class BeneficioService {
         return dto;
     }
 
-    private Beneficio convertToEntity(BeneficioDTO dto) {
+    Beneficio convertToEntity(BeneficioDTO dto) {
         Beneficio beneficio = new Beneficio();
 
         beneficio.setId(dto.getId());
@@ -0,0 +1,90 @@
+package com.example.backend.service;
+
+import com.example.backend.domain.specification.BeneficioSpecification;
+import com.example.backend.model.entidades.Beneficio;
+import com.example.backend.util.BancoDados;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Busca textual em nome e descrição. No PostgreSQL, com a extensão pg_trgm instalada, ordena pela
+ * similaridade; os índices GIN de trigramas sobre {@code lower(nome)} e {@code lower(descricao)}, que
+ * atendem os {@code LIKE '%termo%'} sem varrer a tabela, são criados pelo {@code db/schema.sql}
+ * ({@code CREATE INDEX CONCURRENTLY}), não pela aplicação. Nos demais bancos (H2) usa os mesmos LIKE
+ * com uma relevância por posição do termo.
+ */
+@Slf4j
+@Service
+public class BuscaTextualService {
+
+    private static final List<String> INDICES_TRIGRAMA = List.of("ix_beneficio_nome_trgm", "ix_beneficio_descricao_trgm");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BancoDados bancoDados;
+    private volatile boolean trigrama;
+
+    @Value("${beneficio.busca.trigrama.enabled:true}")
+    private boolean trigramaHabilitado = true;
+
+    public BuscaTextualService(JdbcTemplate jdbcTemplate, BancoDados bancoDados) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.bancoDados = bancoDados;
+    }
+
+    /**
+     * Só verifica a extensão e os índices, sem DDL: a aplicação sobe sem bloquear a tabela nem exigir
+     * permissão de criar extensão. Sem a extensão a busca segue com os LIKE e a relevância por posição;
+     * sem os índices (ou com um {@code CONCURRENTLY} que falhou e deixou o índice inválido) segue por
+     * similaridade, varrendo a tabela.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void verificarIndices() {
+        if (!trigramaHabilitado || !bancoDados.isPostgres()) {
+            return;
+        }
+        trigrama = extensaoInstalada();
+        if (!trigrama) {
+            log.warn("Extensão pg_trgm ausente, a busca textual seguirá sem trigramas (veja db/schema.sql).");
+            return;
+        }
+        List<String> validos = indicesValidos();
+        if (!validos.containsAll(INDICES_TRIGRAMA)) {
+            log.warn("Índices de trigramas ausentes ou inválidos, a busca textual varrerá a tabela: encontrados {} de {} (veja db/schema.sql).",
+                    validos, INDICES_TRIGRAMA);
+        }
+    }
+
+    public boolean isTrigrama() {
+        return trigrama;
+    }
+
+    public Specification<Beneficio> globalSearch(String search) {
+        return BeneficioSpecification.globalSearch(search, trigrama);
+    }
+
+    private List<String> indicesValidos() {
+        try {
+            return jdbcTemplate.queryForList("SELECT c.relname FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid " +
+                    "WHERE i.indisvalid AND c.relname IN ('" + String.join("', '", INDICES_TRIGRAMA) + "')", String.class);
+        } catch (DataAccessException e) {
+            return List.of();
+        }
+    }
+
+    private boolean extensaoInstalada() {
+        try {
+            return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm')", Boolean.class));
+        } catch (DataAccessException e) {
+            return false;
+        }
+    }
+}
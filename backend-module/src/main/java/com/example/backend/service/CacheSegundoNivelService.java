@@ -0,0 +1,58 @@
+package com.example.backend.service;
+
+import com.example.backend.domain.event.BeneficioAlteradoEvent;
+import com.example.backend.model.entidades.Beneficio;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Mantém o cache de segundo nível de {@link Beneficio} coerente com o saldo. As fórmulas de saldo
+ * dependem de partições e lançamentos que o Hibernate não associa ao beneficio, e a entidade alterada
+ * na transação carrega os valores das fórmulas de quando foi lida. Por isso, toda transação que
+ * publica um {@link BeneficioAlteradoEvent} trava as entradas dos beneficios envolvidos até terminar,
+ * do mesmo jeito que o Hibernate faz nos próprios UPDATEs: enquanto travadas as leituras vão ao banco,
+ * nada é gravado no cache (nem o estado da entidade alterada, nem uma leitura iniciada antes do
+ * commit) e a próxima leitura depois do fim da transação repõe o beneficio lido do banco.
+ */
+@Service
+public class CacheSegundoNivelService {
+
+    private final EntityManager entityManager;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CacheSegundoNivelService(EntityManager entityManager, EntityManagerFactory entityManagerFactory) {
+        this.entityManager = entityManager;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /** Síncrono, dentro da transação que publicou o evento. */
+    @EventListener
+    public void aoAlterarBeneficio(BeneficioAlteradoEvent evento) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(Beneficio.class);
+        EntityDataAccess acesso = persister.getCacheAccessStrategy();
+        // Beneficios recém-incluídos ainda não podem estar no cache.
+        if (acesso == null || evento.isSomenteInclusao()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            evento.getIds().forEach(id -> entityManagerFactory.getCache().evict(Beneficio.class, id));
+            return;
+        }
+
+        SessionImplementor sessao = entityManager.unwrap(SessionImplementor.class);
+        for (Long id : evento.getIds()) {
+            Object chave = acesso.generateCacheKey(id, persister, sessionFactory, null);
+            SoftLock trava = acesso.lockItem(sessao, chave, null);
+            sessao.getActionQueue().registerProcess((sucesso, sessaoAtual) -> acesso.unlockItem(sessaoAtual, chave, trava));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.backend.service;
+
+import com.example.backend.config.JanelaReplicacao;
+import com.example.backend.domain.event.BeneficioAlteradoEvent;
+import com.example.backend.domain.repository.BeneficiosRepository;
+import com.example.backend.model.dto.FiltroBeneficioDTO;
+import com.example.backend.model.entidades.Beneficio;
+import com.example.backend.util.BancoDados;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Totais da listagem paginada: contagem exata guardada por filtro normalizado e descartada quando
+ * um beneficio é gravado, ou estimativa a partir das estatísticas do planejador do banco.
+ */
+@Slf4j
+@Service
+public class ContagemBeneficioService {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final BeneficiosRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final BancoDados bancoDados;
+    private final JanelaReplicacao janelaReplicacao;
+    private final Map<FiltroBeneficioDTO, ContagemGuardada> contagens = new ConcurrentHashMap<>();
+    private final AtomicLong geracao = new AtomicLong();
+
+    @Value("${beneficio.listagem.contagem.ttl-ms:60000}")
+    private long ttlMs = 60000;
+
+    @Value("${beneficio.listagem.contagem.max-filtros:1000}")
+    private int maxFiltros = 1000;
+
+    @Value("${beneficio.listagem.contagem.estimativa-minima:10000}")
+    private long estimativaMinima = 10000;
+
+    public ContagemBeneficioService(BeneficiosRepository repository, JdbcTemplate jdbcTemplate, BancoDados bancoDados,
+                                    JanelaReplicacao janelaReplicacao) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.bancoDados = bancoDados;
+        this.janelaReplicacao = janelaReplicacao;
+    }
+
+    /**
+     * COUNT(*) com os filtros, reaproveitado até a próxima gravação de beneficio ou o TTL (rede de
+     * segurança para gravações feitas fora do serviço). A geração impede guardar uma contagem que
+     * começou antes de uma invalidação, e a {@link JanelaReplicacao} uma lida de réplica logo depois
+     * dela, que pode não enxergar a gravação.
+     */
+    public long contarExato(FiltroBeneficioDTO filtro, Specification<Beneficio> spec) {
+        long agora = System.currentTimeMillis();
+        ContagemGuardada guardada = contagens.get(filtro);
+        if (guardada != null && agora - guardada.instante() < ttlMs) {
+            return guardada.total();
+        }
+
+        long geracaoLida = geracao.get();
+        long total = repository.count(spec);
+        if (geracao.get() == geracaoLida && janelaReplicacao.podeGuardar()) {
+            if (contagens.size() >= maxFiltros) {
+                contagens.clear();
+            }
+            contagens.put(filtro, new ContagemGuardada(total, agora));
+        }
+        return total;
+    }
+
+    /**
+     * Estimativa do total pelas estatísticas do planejador. Vazio quando o banco ou o filtro não
+     * permitem estimar (o filtro de valor soma colunas calculadas) ou quando a estimativa fica abaixo
+     * de {@code estimativa-minima}, onde a contagem exata é barata e a estatística é pouco confiável.
+     */
+    public Optional<Long> estimar(FiltroBeneficioDTO filtro) {
+        if (filtro.getValor() != null) {
+            return Optional.empty();
+        }
+        try {
+            Long estimativa = null;
+            if (bancoDados.isPostgres()) {
+                estimativa = filtro.semFiltros() ? estimarTabelaPostgres() : estimarPlanoPostgres(filtro);
+            } else if (bancoDados.isH2() && filtro.semFiltros()) {
+                estimativa = estimarTabelaH2();
+            }
+            return Optional.ofNullable(estimativa).filter(total -> total >= estimativaMinima);
+        } catch (DataAccessException e) {
+            log.warn("Falha ao estimar o total de beneficios: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarBeneficio(BeneficioAlteradoEvent evento) {
+        geracao.incrementAndGet();
+        if (evento.isSomenteSaldo()) {
+            // Transferências só mudam o resultado do filtro por valor.
+            contagens.keySet().removeIf(filtro -> filtro.getValor() != null);
+        } else {
+            contagens.clear();
+        }
+    }
+
+    private Long estimarTabelaPostgres() {
+        Long reltuples = jdbcTemplate.queryForObject(
+                "SELECT reltuples::bigint FROM pg_class WHERE oid = 'beneficio'::regclass", Long.class);
+        // -1: tabela ainda não analisada.
+        return reltuples == null || reltuples < 0 ? null : reltuples;
+    }
+
+    private Long estimarPlanoPostgres(FiltroBeneficioDTO filtro) {
+        StringBuilder sql = new StringBuilder("EXPLAIN (FORMAT JSON) SELECT 1 FROM beneficio WHERE 1 = 1");
+        List<Object> parametros = new ArrayList<>();
+        if (filtro.getNome() != null) {
+            sql.append(" AND LOWER(nome) LIKE ?");
+            parametros.add("%" + filtro.getNome() + "%");
+        }
+        if (filtro.getDescricao() != null) {
+            sql.append(" AND LOWER(descricao) LIKE ?");
+            parametros.add("%" + filtro.getDescricao() + "%");
+        }
+        if (filtro.getAtivo() != null) {
+            sql.append(" AND ativo = ?");
+            parametros.add(filtro.getAtivo());
+        }
+        if (filtro.getSearch() != null) {
+            sql.append(" AND (LOWER(nome) LIKE ? OR LOWER(descricao) LIKE ?)");
+            parametros.add("%" + filtro.getSearch() + "%");
+            parametros.add("%" + filtro.getSearch() + "%");
+        }
+
+        String plano = jdbcTemplate.queryForObject(sql.toString(), String.class, parametros.toArray());
+        try {
+            JsonNode linhas = MAPPER.readTree(plano).path(0).path("Plan").path("Plan Rows");
+            return linhas.isNumber() ? linhas.longValue() : null;
+        } catch (Exception e) {
+            log.warn("Plano do PostgreSQL em formato inesperado: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private Long estimarTabelaH2() {
+        return jdbcTemplate.queryForObject("SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES " +
+                "WHERE UPPER(TABLE_NAME) = 'BENEFICIO' AND TABLE_SCHEMA = SCHEMA()", Long.class);
+    }
+
+    private record ContagemGuardada(long total, long instante) {
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.backend.service;
+
+import com.example.backend.domain.specification.BeneficioSpecification;
+import com.example.backend.model.dto.BeneficioDTO;
+import com.example.backend.model.entidades.Beneficio;
+import com.example.backend.model.enums.FormatoArquivo;
+import com.example.backend.util.Csv;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exportação de todos os beneficios que atendem aos filtros da listagem, escrita direto na saída
+ * enquanto é lida: a consulta é um cursor só de avanço com {@code fetch-size} fixo, projetada em
+ * {@link BeneficioDTO} (sem entidades no contexto de persistência nem no cache de segundo nível), e
+ * cada linha vai para um buffer de tamanho fixo. A memória usada não depende do tamanho da tabela.
+ * <p>
+ * Se o cliente desconecta, a próxima escrita falha, o cursor é fechado e a transação termina.
+ */
+@Slf4j
+@Service
+public class ExportacaoBeneficioService {
+
+    private final EntityManager entityManager;
+    private final BuscaTextualService buscaTextual;
+    private final ObjectMapper objectMapper;
+
+    @Value("${beneficio.exportacao.fetch-size:500}")
+    private int fetchSize = 500;
+
+    public ExportacaoBeneficioService(EntityManager entityManager, BuscaTextualService buscaTextual, ObjectMapper objectMapper) {
+        this.entityManager = entityManager;
+        this.buscaTextual = buscaTextual;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Escreve os beneficios em ordem de id. A transação só de leitura é necessária: sem ela o driver do
+     * PostgreSQL ignora o fetch size e traz o resultado inteiro de uma vez.
+     *
+     * @return quantidade de beneficios escritos
+     */
+    @Transactional(readOnly = true)
+    public long exportar(String nome, String descricao, BigDecimal valor, Boolean ativo, String search,
+                         FormatoArquivo formato, OutputStream saida) throws IOException {
+        long inicio = System.currentTimeMillis();
+        long linhas = 0;
+        try (Stream<BeneficioDTO> beneficios = consultar(filtros(nome, descricao, valor, ativo, search))) {
+            Iterator<BeneficioDTO> cursor = beneficios.iterator();
+            linhas = formato == FormatoArquivo.CSV ? escreverCsv(cursor, saida) : escreverNdjson(cursor, saida);
+        } catch (IOException e) {
+            log.info("Exportação de beneficios interrompida pelo cliente: {}", e.getMessage());
+            throw e;
+        }
+        log.info("Exportação de beneficios em {}: {} linhas em {} ms", formato, linhas, System.currentTimeMillis() - inicio);
+        return linhas;
+    }
+
+    private Specification<Beneficio> filtros(String nome, String descricao, BigDecimal valor, Boolean ativo, String search) {
+        return Specification
+                .where(BeneficioSpecification.hasNome(nome))
+                .and(BeneficioSpecification.hasDescricao(descricao))
+                .and(BeneficioSpecification.hasValor(valor))
+                .and(BeneficioSpecification.isAtivo(ativo))
+                .and(buscaTextual.globalSearch(search));
+    }
+
+    private Stream<BeneficioDTO> consultar(Specification<Beneficio> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BeneficioDTO> query = cb.createQuery(BeneficioDTO.class);
+        Root<Beneficio> root = query.from(Beneficio.class);
+
+        Predicate predicado = spec.toPredicate(root, query, cb);
+        if (predicado != null) {
+            query.where(predicado);
+        }
+        // Substitui a ordem por relevância da busca textual: em ordem de id o banco não precisa ordenar tudo antes da primeira linha.
+        query.select(cb.construct(BeneficioDTO.class,
+                        root.get("id"),
+                        root.get("nome"),
+                        root.get("descricao"),
+                        cb.sum(cb.sum(root.get("valor"), root.get("saldoParticoes")), root.get("saldoPendente")),
+                        root.get("ativo"),
+                        root.get("version")))
+                .orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private long escreverNdjson(Iterator<BeneficioDTO> cursor, OutputStream saida) throws IOException {
+        long linhas = 0;
+        // Sem flush a cada objeto: a saída só é enviada quando o buffer do gerador enche.
+        ObjectWriter writer = objectMapper.writerFor(BeneficioDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            while (cursor.hasNext()) {
+                writer.writeValue(gerador, cursor.next());
+                gerador.writeRaw('\n');
+                linhas++;
+            }
+        }
+        return linhas;
+    }
+
+    private long escreverCsv(Iterator<BeneficioDTO> cursor, OutputStream saida) throws IOException {
+        long linhas = 0;
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        escritor.write("id,nome,descricao,valor,ativo,version\r\n");
+        while (cursor.hasNext()) {
+            BeneficioDTO beneficio = cursor.next();
+            escritor.write(String.valueOf(beneficio.getId()));
+            escritor.write(',');
+            escritor.write(Csv.campo(beneficio.getNome()));
+            escritor.write(',');
+            escritor.write(Csv.campo(beneficio.getDescricao()));
+            escritor.write(',');
+            escritor.write(beneficio.getValor() == null ? "" : beneficio.getValor().toPlainString());
+            escritor.write(',');
+            escritor.write(String.valueOf(beneficio.getAtivo()));
+            escritor.write(',');
+            escritor.write(String.valueOf(beneficio.getVersion()));
+            escritor.write("\r\n");
+            linhas++;
+        }
+        escritor.flush();
+        return linhas;
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.backend.service;
+
+import com.example.backend.domain.event.BeneficioAlteradoEvent;
+import com.example.backend.model.dto.BeneficioDTO;
+import com.example.backend.model.dto.ErroImportacaoDTO;
+import com.example.backend.model.dto.ImportacaoResultadoDTO;
+import com.example.backend.model.entidades.Beneficio;
+import com.example.backend.model.enums.FormatoArquivo;
+import com.example.backend.util.BancoDados;
+import com.example.backend.util.Csv;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.query.NativeQuery;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Importação em lote de beneficios a partir de CSV ou NDJSON, lida e validada registro a registro
+ * enquanto chega. Os registros válidos vão em lotes para uma tabela temporária da transação
+ * ({@code COPY} no PostgreSQL, lotes JDBC nos demais bancos); depois um único UPDATE marca os nomes
+ * que já existem ou se repetem no arquivo (vale o primeiro), e um único INSERT ... SELECT grava o
+ * restante. Nada é gravado em {@code beneficio} se a leitura falhar.
+ */
+@Slf4j
+@Service
+public class ImportacaoBeneficioService {
+
+    private static final String CRIAR_STAGING = "CREATE %s TABLE IF NOT EXISTS beneficio_importacao (" +
+            "linha BIGINT NOT NULL, nome VARCHAR(100) NOT NULL, descricao VARCHAR(255) NOT NULL, " +
+            "valor DECIMAL(15,2) NOT NULL, ativo BOOLEAN NOT NULL, situacao CHAR(1), " +
+            "PRIMARY KEY (nome, linha)) ON COMMIT DROP%s";
+
+    /** E: nome já cadastrado; R: nome repetido em uma linha anterior do arquivo; I: será importado. */
+    private static final String DEDUPLICAR = "UPDATE beneficio_importacao s SET situacao = CASE " +
+            "WHEN EXISTS (SELECT 1 FROM beneficio b WHERE b.nome = s.nome) THEN 'E' " +
+            "WHEN EXISTS (SELECT 1 FROM beneficio_importacao o WHERE o.nome = s.nome AND o.linha < s.linha) THEN 'R' " +
+            "ELSE 'I' END";
+
+    private static final String INSERIR = "INSERT INTO beneficio (id, nome, descricao, valor, ativo, version, particoes) " +
+            "SELECT %s, nome, descricao, valor, ativo, 0, 0 FROM beneficio_importacao WHERE situacao = 'I' ORDER BY linha";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final BancoDados bancoDados;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${beneficio.importacao.lote:5000}")
+    private int lote = 5000;
+
+    @Value("${beneficio.importacao.max-erros:1000}")
+    private int maxErros = 1000;
+
+    public ImportacaoBeneficioService(JdbcTemplate jdbcTemplate, EntityManager entityManager, BancoDados bancoDados, ObjectMapper objectMapper,
+                                      Validator validator, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.bancoDados = bancoDados;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * @throws IllegalArgumentException se o cabeçalho do CSV não tem as colunas obrigatórias
+     */
+    @Transactional(rollbackFor = IOException.class)
+    public ImportacaoResultadoDTO importar(FormatoArquivo formato, InputStream entrada) throws IOException {
+        long inicio = System.currentTimeMillis();
+        boolean postgres = bancoDados.isPostgres();
+        jdbcTemplate.execute(CRIAR_STAGING.formatted(postgres ? "TEMP" : "LOCAL TEMPORARY", postgres ? "" : " TRANSACTIONAL"));
+        jdbcTemplate.update("DELETE FROM beneficio_importacao");
+
+        Carga carga = new Carga(postgres);
+        BufferedReader leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        if (formato == FormatoArquivo.CSV) {
+            lerCsv(leitor, carga);
+        } else {
+            lerNdjson(leitor, carga);
+        }
+        carga.descarregar();
+
+        jdbcTemplate.update(DEDUPLICAR);
+        jdbcTemplate.query("SELECT linha, situacao FROM beneficio_importacao WHERE situacao <> 'I' ORDER BY linha LIMIT ?",
+                rs -> {
+                    carga.erros.add(new ErroImportacaoDTO(rs.getLong("linha"), "E".equals(rs.getString("situacao"))
+                            ? "Já existe um benefício cadastrado com esse nome."
+                            : "Nome repetido em uma linha anterior do arquivo."));
+                }, maxErros);
+        // Pelo Hibernate, para invalidar as listagens guardadas no cache de consultas.
+        long importados = entityManager.createNativeQuery(INSERIR.formatted(bancoDados.proximoValor("beneficio_seq")))
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Beneficio.class)
+                .executeUpdate();
+
+        if (importados > 0) {
+            List<Long> ids = new ArrayList<>();
+            List<String> nomes = new ArrayList<>();
+            jdbcTemplate.query("SELECT b.id, b.nome FROM beneficio b JOIN beneficio_importacao s ON s.nome = b.nome " +
+                    "WHERE s.situacao = 'I'", rs -> {
+                ids.add(rs.getLong(1));
+                nomes.add(rs.getString(2));
+            });
+            eventPublisher.publishEvent(BeneficioAlteradoEvent.inclusoes(ids, nomes));
+        }
+
+        long duracaoMs = Math.max(System.currentTimeMillis() - inicio, 1);
+        long rejeitados = carga.registros - importados;
+        List<ErroImportacaoDTO> erros = carga.erros.stream()
+                .sorted(Comparator.comparingLong(ErroImportacaoDTO::getLinha))
+                .limit(maxErros)
+                .toList();
+        log.info("Importação de beneficios em {}: {} registros, {} importados, {} rejeitados em {} ms",
+                formato, carga.registros, importados, rejeitados, duracaoMs);
+        return new ImportacaoResultadoDTO(carga.registros, importados, rejeitados, duracaoMs,
+                carga.registros * 1000 / duracaoMs, erros);
+    }
+
+    private void lerCsv(BufferedReader leitor, Carga carga) throws IOException {
+        Csv.Leitor csv = new Csv.Leitor(leitor);
+        List<String> cabecalho = csv.proximo();
+        Map<String, Integer> colunas = new HashMap<>();
+        for (int i = 0; cabecalho != null && i < cabecalho.size(); i++) {
+            colunas.put(cabecalho.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!colunas.keySet().containsAll(List.of("nome", "descricao", "valor"))) {
+            throw new IllegalArgumentException("O cabeçalho do CSV deve ter as colunas nome, descricao e valor.");
+        }
+
+        List<String> campos;
+        while (true) {
+            try {
+                campos = csv.proximo();
+            } catch (IllegalArgumentException e) {
+                // O resto do arquivo ficou dentro das aspas: não há como continuar.
+                carga.rejeitar(csv.getLinhaDoRegistro(), e.getMessage());
+                return;
+            }
+            if (campos == null) {
+                return;
+            }
+            long linha = csv.getLinhaDoRegistro();
+            if (campos.size() == 1 && campos.get(0).isBlank()) {
+                continue;
+            }
+            if (campos.size() != cabecalho.size()) {
+                carga.rejeitar(linha, "Quantidade de campos diferente do cabeçalho.");
+                continue;
+            }
+
+            BeneficioDTO dto = new BeneficioDTO();
+            dto.setNome(campos.get(colunas.get("nome")));
+            dto.setDescricao(campos.get(colunas.get("descricao")));
+            String valor = campos.get(colunas.get("valor")).trim();
+            String ativo = colunas.containsKey("ativo") ? campos.get(colunas.get("ativo")).trim() : "";
+            try {
+                dto.setValor(valor.isEmpty() ? null : new BigDecimal(valor));
+            } catch (NumberFormatException e) {
+                carga.rejeitar(linha, "Valor inválido: " + valor + ".");
+                continue;
+            }
+            if (!ativo.isEmpty() && !ativo.equalsIgnoreCase("true") && !ativo.equalsIgnoreCase("false")) {
+                carga.rejeitar(linha, "Ativo deve ser true ou false.");
+                continue;
+            }
+            dto.setAtivo(ativo.isEmpty() ? null : Boolean.valueOf(ativo));
+            carga.adicionar(linha, dto);
+        }
+    }
+
+    private void lerNdjson(BufferedReader leitor, Carga carga) throws IOException {
+        long linha = 0;
+        String texto;
+        while ((texto = leitor.readLine()) != null) {
+            linha++;
+            if (texto.isBlank()) {
+                continue;
+            }
+            try {
+                carga.adicionar(linha, objectMapper.readValue(texto, BeneficioDTO.class));
+            } catch (JsonProcessingException e) {
+                carga.rejeitar(linha, "JSON inválido: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    /** Mesmas validações do cadastro, mais os limites das colunas. */
+    private String validar(BeneficioDTO dto) {
+        List<String> mensagens = validator.validate(dto).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (dto.getNome() != null && dto.getNome().length() > 100) {
+            mensagens.add("Nome deve ter no máximo 100 caracteres.");
+        }
+        if (dto.getDescricao() != null && dto.getDescricao().length() > 255) {
+            mensagens.add("Descrição deve ter no máximo 255 caracteres.");
+        }
+        if (dto.getValor() != null && (dto.getValor().scale() > 2 || dto.getValor().precision() - dto.getValor().scale() > 13)) {
+            mensagens.add("Valor deve ter no máximo 13 dígitos inteiros e 2 decimais.");
+        }
+        return mensagens.isEmpty() ? null : String.join("; ", mensagens);
+    }
+
+    /** Registros válidos a caminho da tabela temporária e os erros encontrados até agora. */
+    private class Carga {
+
+        private final boolean postgres;
+        private final List<Object[]> pendentes = new ArrayList<>();
+        private final List<ErroImportacaoDTO> erros = new ArrayList<>();
+        private long registros;
+
+        private Carga(boolean postgres) {
+            this.postgres = postgres;
+        }
+
+        void adicionar(long linha, BeneficioDTO dto) {
+            String erro = validar(dto);
+            if (erro != null) {
+                rejeitar(linha, erro);
+                return;
+            }
+            registros++;
+            pendentes.add(new Object[]{linha, dto.getNome(), dto.getDescricao(), dto.getValor(),
+                    dto.getAtivo() == null || dto.getAtivo()});
+            if (pendentes.size() >= lote) {
+                descarregar();
+            }
+        }
+
+        /** Só os primeiros {@code max-erros} são guardados; todos contam como rejeitados. */
+        void rejeitar(long linha, String mensagem) {
+            registros++;
+            if (erros.size() < maxErros) {
+                erros.add(new ErroImportacaoDTO(linha, mensagem));
+            }
+        }
+
+        void descarregar() {
+            if (pendentes.isEmpty()) {
+                return;
+            }
+            if (postgres) {
+                copiar();
+            } else {
+                jdbcTemplate.batchUpdate("INSERT INTO beneficio_importacao (linha, nome, descricao, valor, ativo) " +
+                        "VALUES (?, ?, ?, ?, ?)", pendentes);
+            }
+            pendentes.clear();
+        }
+
+        private void copiar() {
+            StringBuilder dados = new StringBuilder(pendentes.size() * 64);
+            for (Object[] registro : pendentes) {
+                dados.append(registro[0]).append(',')
+                        .append(Csv.campo((String) registro[1])).append(',')
+                        .append(Csv.campo((String) registro[2])).append(',')
+                        .append(((BigDecimal) registro[3]).toPlainString()).append(',')
+                        .append(registro[4]).append('\n');
+            }
+            jdbcTemplate.execute((ConnectionCallback<Long>) conexao -> {
+                try {
+                    return conexao.unwrap(PGConnection.class).getCopyAPI().copyIn(
+                            "COPY beneficio_importacao (linha, nome, descricao, valor, ativo) FROM STDIN WITH (FORMAT csv)",
+                            new StringReader(dados.toString()));
+                } catch (IOException e) {
+                    throw new IllegalStateException("Falha no COPY da importação.", e);
+                }
+            });
+        }
+    }
+}
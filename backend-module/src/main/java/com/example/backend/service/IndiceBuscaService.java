@@ -0,0 +1,249 @@
+package com.example.backend.service;
+
+import com.example.backend.config.JanelaReplicacao;
+import com.example.backend.domain.event.BeneficioAlteradoEvent;
+import com.example.backend.domain.repository.BeneficiosRepository;
+import com.example.backend.model.dto.DocumentoBuscaDTO;
+import com.example.backend.model.dto.FiltroBeneficioDTO;
+import com.example.backend.util.IndiceNgrama;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * Busca da listagem em memória, pelo {@link IndiceNgrama}, para que a busca digitada a cada tecla não
+ * vá ao banco: só a página de resultado é lida depois. Desligada por padrão
+ * ({@code beneficio.busca.indice.enabled}).
+ * <p>
+ * O índice é montado ao subir a aplicação, em lotes por id, e reconstruído a cada
+ * {@code reconstrucao-ms} como rede de segurança para gravações feitas fora do serviço. As gravações
+ * do {@link BeneficioService} só marcam os ids alterados depois do commit; a próxima busca relê esses
+ * beneficios em uma consulta e atualiza o índice, sem custo para as transferências. Durante uma
+ * reconstrução os ids alterados são guardados e relidos sobre o índice novo antes da troca. Lidos de
+ * uma réplica logo depois da gravação ({@link JanelaReplicacao}), os ids continuam marcados e são
+ * relidos na busca seguinte, até a réplica ter alcançado a gravação.
+ */
+@Slf4j
+@Service
+public class IndiceBuscaService implements MeterBinder {
+
+    private final BeneficiosRepository repository;
+    private final JanelaReplicacao janelaReplicacao;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /** Id alterado e instante (epoch ms) da última gravação dele. */
+    private final Map<Long, Long> alterados = new ConcurrentHashMap<>();
+    private final Object reconstrucao = new Object();
+    private volatile IndiceNgrama indice;
+    private Set<Long> alteradosNaReconstrucao;
+
+    @Value("${beneficio.busca.indice.enabled:false}")
+    private boolean habilitado;
+
+    @Value("${beneficio.busca.indice.lote:5000}")
+    private int lote = 5000;
+
+    public IndiceBuscaService(BeneficiosRepository repository, JanelaReplicacao janelaReplicacao) {
+        this.repository = repository;
+        this.janelaReplicacao = janelaReplicacao;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (habilitado) {
+            reconstruir();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${beneficio.busca.indice.reconstrucao-ms:3600000}",
+            initialDelayString = "${beneficio.busca.indice.reconstrucao-ms:3600000}")
+    public void reconstruirAgendado() {
+        if (!habilitado) {
+            return;
+        }
+        try {
+            reconstruir();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao reconstruir o índice de busca, o índice atual continua em uso: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Monta um índice novo com todos os beneficios e troca o atual por ele. As buscas continuam
+     * usando o índice anterior enquanto o novo é montado.
+     */
+    public void reconstruir() {
+        synchronized (reconstrucao) {
+            long inicio = System.currentTimeMillis();
+            synchronized (this) {
+                alteradosNaReconstrucao = new HashSet<>();
+            }
+
+            IndiceNgrama novo = new IndiceNgrama();
+            try {
+                Long ultimoId = 0L;
+                List<DocumentoBuscaDTO> documentos;
+                do {
+                    documentos = repository.findDocumentosBusca(ultimoId, PageRequest.of(0, lote));
+                    documentos.forEach(novo::gravar);
+                    if (!documentos.isEmpty()) {
+                        ultimoId = documentos.get(documentos.size() - 1).getId();
+                    }
+                } while (documentos.size() == lote);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    alteradosNaReconstrucao = null;
+                }
+                throw e;
+            }
+
+            synchronized (this) {
+                Set<Long> ids = new HashSet<>(alteradosNaReconstrucao);
+                alteradosNaReconstrucao = null;
+                Map<Long, Long> marcados = Map.copyOf(alterados);
+                ids.addAll(marcados.keySet());
+                List<DocumentoBuscaDTO> documentos = ler(ids);
+                desmarcarLidos(marcados);
+
+                lock.writeLock().lock();
+                try {
+                    aplicar(novo, ids, documentos);
+                    indice = novo;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            log.info("Índice de busca reconstruído: {} beneficios, ~{} KB, {} ms",
+                    novo.tamanho(), novo.memoriaEstimada() / 1024, System.currentTimeMillis() - inicio);
+        }
+    }
+
+    public boolean isPronto() {
+        return habilitado && indice != null;
+    }
+
+    /**
+     * Página de ids que atendem ao filtro, na ordem de relevância, e o total exato; vazio enquanto o
+     * índice não estiver pronto.
+     */
+    public Optional<IndiceNgrama.Resultado> buscar(FiltroBeneficioDTO filtro, int inicio, int limite) {
+        if (!isPronto()) {
+            return Optional.empty();
+        }
+        sincronizar();
+        lock.readLock().lock();
+        try {
+            return Optional.of(indice.buscar(filtro, inicio, limite));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarBeneficio(BeneficioAlteradoEvent evento) {
+        if (habilitado) {
+            long agora = System.currentTimeMillis();
+            // Uma nova marca nunca é igual à anterior: a leitura em andamento não a desmarca.
+            evento.getIds().forEach(id -> alterados.merge(id, agora, (anterior, nova) -> Math.max(nova, anterior + 1)));
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("beneficio.busca.indice.memoria", this, servico -> servico.medir(IndiceNgrama::memoriaEstimada))
+                .description("Memória estimada do índice de busca em memória")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("beneficio.busca.indice.documentos", this, servico -> servico.medir(IndiceNgrama::tamanho))
+                .description("Beneficios no índice de busca em memória")
+                .register(registry);
+    }
+
+    /**
+     * Relê os beneficios alterados desde a última busca. Serializado para que uma leitura mais antiga
+     * nunca sobrescreva uma mais nova do mesmo beneficio.
+     */
+    private synchronized void sincronizar() {
+        if (alterados.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> marcados = Map.copyOf(alterados);
+        List<Long> ids = new ArrayList<>(marcados.keySet());
+        if (alteradosNaReconstrucao != null) {
+            alteradosNaReconstrucao.addAll(ids);
+        }
+        List<DocumentoBuscaDTO> documentos = ler(ids);
+        desmarcarLidos(marcados);
+
+        lock.writeLock().lock();
+        try {
+            aplicar(indice, ids, documentos);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Desmarca os ids lidos, menos os gravados de novo durante a leitura e os que a réplica pode não ter
+     * alcançado: esses são relidos na próxima busca.
+     */
+    private void desmarcarLidos(Map<Long, Long> marcados) {
+        marcados.forEach((id, gravadoEm) -> {
+            if (janelaReplicacao.podeGuardar(gravadoEm)) {
+                alterados.remove(id, gravadoEm);
+            }
+        });
+    }
+
+    private List<DocumentoBuscaDTO> ler(Collection<Long> ids) {
+        List<Long> pendentes = new ArrayList<>(ids);
+        List<DocumentoBuscaDTO> documentos = new ArrayList<>(pendentes.size());
+        for (int inicio = 0; inicio < pendentes.size(); inicio += lote) {
+            documentos.addAll(repository.findDocumentosBuscaByIdIn(
+                    pendentes.subList(inicio, Math.min(inicio + lote, pendentes.size()))));
+        }
+        return documentos;
+    }
+
+    /** Grava os documentos lidos e remove os ids que não existem mais. */
+    private static void aplicar(IndiceNgrama destino, Iterable<Long> ids, List<DocumentoBuscaDTO> documentos) {
+        Set<Long> encontrados = new HashSet<>();
+        for (DocumentoBuscaDTO documento : documentos) {
+            destino.gravar(documento);
+            encontrados.add(documento.getId());
+        }
+        for (Long id : ids) {
+            if (!encontrados.contains(id)) {
+                destino.remover(id);
+            }
+        }
+    }
+
+    private double medir(ToLongFunction<IndiceNgrama> medida) {
+        lock.readLock().lock();
+        try {
+            return indice == null ? 0 : medida.applyAsLong(indice);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
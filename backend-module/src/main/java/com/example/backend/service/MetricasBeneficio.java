@@ -0,0 +1,143 @@
+package com.example.backend.service;
+
+import com.example.backend.exception.DuplicateException;
+import com.example.backend.exception.ResourceNotFoundException;
+import com.example.backend.exception.SaldoInsuficienteException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas do {@link BeneficioService}, baratas o bastante para ficarem ligadas em produção (os timers
+ * são criados uma vez e reaproveitados):
+ * <ul>
+ *     <li>{@code beneficio.operacao} (tags {@code operacao} e {@code resultado}): cada método público,
+ *     medido por fora da retentativa e da transação, com as novas tentativas e o commit;</li>
+ *     <li>{@code beneficio.transferencia.etapa} (tag {@code etapa}): {@code bloqueio} (SELECT ... FOR
+ *     UPDATE dos beneficios e partições), {@code saldo} (lançamentos pendentes e verificação do saldo) e
+ *     {@code commit} (flush e commit da transação);</li>
+ *     <li>{@code beneficio.falhas} (tags {@code operacao} e {@code causa}): falhas por causa, inclusive as
+ *     de cada item de um lote não atômico.</li>
+ * </ul>
+ * Os histogramas de percentis são ligados em {@code management.metrics.distribution.*}.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MetricasBeneficio {
+
+    static final String OPERACAO = "beneficio.operacao";
+    static final String ETAPA = "beneficio.transferencia.etapa";
+    static final String FALHAS = "beneficio.falhas";
+
+    private final MeterRegistry registry;
+    private final Timer bloqueio;
+    private final Timer saldo;
+    private final Timer commit;
+    private final Map<String, Timer> sucessos = new ConcurrentHashMap<>();
+    private final Map<String, Timer> falhas = new ConcurrentHashMap<>();
+
+    public MetricasBeneficio(MeterRegistry registry) {
+        this.registry = registry;
+        this.bloqueio = etapa("bloqueio");
+        this.saldo = etapa("saldo");
+        this.commit = etapa("commit");
+    }
+
+    @Around("execution(public * com.example.backend.service.BeneficioService.*(..))")
+    public Object medir(ProceedingJoinPoint chamada) throws Throwable {
+        String operacao = chamada.getSignature().getName();
+        long inicio = System.nanoTime();
+        try {
+            Object resultado = chamada.proceed();
+            sucessos.computeIfAbsent(operacao, nome -> operacao(nome, "sucesso"))
+                    .record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return resultado;
+        } catch (Throwable e) {
+            falhas.computeIfAbsent(operacao, nome -> operacao(nome, "falha"))
+                    .record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            registrarFalha(operacao, e);
+            throw e;
+        }
+    }
+
+    public Timer bloqueio() {
+        return bloqueio;
+    }
+
+    public Timer saldo() {
+        return saldo;
+    }
+
+    /** Mede o flush e o commit da transação atual, do {@code beforeCommit} até o fim da transação. */
+    public void medirCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long inicio;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                inicio = System.nanoTime();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (inicio != 0) {
+                    commit.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                }
+            }
+        });
+    }
+
+    public void registrarFalha(String operacao, Throwable erro) {
+        registry.counter(FALHAS, "operacao", operacao, "causa", causa(erro)).increment();
+    }
+
+    /** A causa pode vir embrulhada, como na falha de um item de lote atômico. */
+    static String causa(Throwable erro) {
+        for (Throwable atual = erro; atual != null; atual = atual.getCause()) {
+            if (atual instanceof SaldoInsuficienteException) {
+                return "saldo_insuficiente";
+            }
+            if (atual instanceof ResourceNotFoundException) {
+                return "nao_encontrado";
+            }
+            if (atual instanceof DuplicateException) {
+                return "duplicado";
+            }
+            if (atual instanceof ConcurrencyFailureException) {
+                return "concorrencia";
+            }
+        }
+        return erro instanceof IllegalArgumentException ? "invalido" : "erro";
+    }
+
+    private Timer operacao(String operacao, String resultado) {
+        return Timer.builder(OPERACAO)
+                .description("Duração das operações do BeneficioService, com retentativas e commit")
+                .tag("operacao", operacao)
+                .tag("resultado", resultado)
+                .register(registry);
+    }
+
+    private Timer etapa(String etapa) {
+        return Timer.builder(ETAPA)
+                .description("Duração de cada etapa das transferências")
+                .tag("etapa", etapa)
+                .register(registry);
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.backend.service;
+
+import com.example.backend.exception.ResourceNotFoundException;
+import com.example.backend.model.dto.TransferenciaAssincronaDTO;
+import com.example.backend.model.dto.TransferenciaDTO;
+import com.example.backend.model.dto.TransferenciaResultadoDTO;
+import com.example.backend.model.enums.StatusTransferencia;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fila de transferências assíncronas. Cada transferência entra na fila de partição da origem e na
+ * do destino, e um worker por partição aplica os pedidos em lotes de até {@code lote-max} itens ou
+ * {@code espera-max-ms} milissegundos, um commit por lote, via {@link BeneficioService#transferirLote}.
+ * Uma transferência que está em duas filas é aplicada pelo worker que chega a ela por último, quando
+ * o outro já aplicou tudo o que estava antes dela; assim as transferências que tocam um mesmo
+ * beneficio, como origem ou destino, são aplicadas na ordem de chegada.
+ * <p>
+ * O lote sempre bloqueia as linhas em ordem de ID, qualquer que seja {@code beneficio.transfer.mode}:
+ * é o que permite aplicar o grupo em um commit. Os pedidos aceitos ficam só em memória; no
+ * desligamento as filas são esvaziadas, mas uma queda do processo perde os que estavam pendentes.
+ */
+@Slf4j
+@Service
+public class TransferenciaAssincronaService {
+
+    private final BeneficioService service;
+    private final ThreadFactory threadFactory;
+    private final Map<String, TransferenciaAssincronaDTO> situacoes = new ConcurrentHashMap<>();
+    private final Object enfileiramento = new Object();
+
+    @Value("${beneficio.transfer.async.particoes:4}")
+    private int particoes = 4;
+
+    @Value("${beneficio.transfer.async.capacidade:10000}")
+    private int capacidade = 10000;
+
+    @Value("${beneficio.transfer.async.lote-max:100}")
+    private int loteMaximo = 100;
+
+    @Value("${beneficio.transfer.async.espera-max-ms:10}")
+    private long esperaMaximaMs = 10;
+
+    @Value("${beneficio.transfer.async.retencao-ms:600000}")
+    private long retencaoMs = 600000;
+
+    private List<BlockingQueue<Pedido>> filas;
+    private List<Thread> workers;
+    private volatile boolean ativo;
+
+    public TransferenciaAssincronaService(BeneficioService service,
+                                          @Qualifier("filaTransferenciaThreadFactory") ThreadFactory threadFactory) {
+        this.service = service;
+        this.threadFactory = threadFactory;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        filas = new ArrayList<>(particoes);
+        workers = new ArrayList<>(particoes);
+        ativo = true;
+        for (int i = 0; i < particoes; i++) {
+            BlockingQueue<Pedido> fila = new ArrayBlockingQueue<>(capacidade);
+            Thread worker = threadFactory.newThread(() -> consumir(fila));
+            filas.add(fila);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /** Para de aceitar pedidos e aguarda os workers esvaziarem as filas. */
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        ativo = false;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    /**
+     * Valida as regras que não dependem do banco e enfileira a transferência.
+     *
+     * @throws RejectedExecutionException se a fila da partição estiver cheia
+     */
+    public TransferenciaAssincronaDTO enviar(TransferenciaDTO transferencia) {
+        service.validarTransferencia(transferencia.getFromId(), transferencia.getToId(), transferencia.getAmount());
+        if (!ativo) {
+            throw new RejectedExecutionException("Fila de transferências encerrada.");
+        }
+
+        TransferenciaAssincronaDTO situacao = new TransferenciaAssincronaDTO(UUID.randomUUID().toString(),
+                transferencia.getFromId(), transferencia.getToId(), transferencia.getAmount(),
+                StatusTransferencia.PENDENTE, "Transferência aguardando processamento.", LocalDateTime.now(), null);
+        situacoes.put(situacao.getId(), situacao);
+
+        BlockingQueue<Pedido> origem = filas.get(Math.floorMod(Long.hashCode(transferencia.getFromId()), particoes));
+        BlockingQueue<Pedido> destino = filas.get(Math.floorMod(Long.hashCode(transferencia.getToId()), particoes));
+        Pedido pedido = origem == destino
+                ? new Pedido(situacao.getId(), transferencia, null, null)
+                : new Pedido(situacao.getId(), transferencia, new AtomicInteger(2), new CountDownLatch(1));
+        if (!enfileirar(pedido, origem, destino)) {
+            situacoes.remove(situacao.getId());
+            throw new RejectedExecutionException("Fila de transferências cheia, tente novamente mais tarde.");
+        }
+        return situacao;
+    }
+
+    /**
+     * Enfileira nas duas filas de uma vez: pedidos que dividem duas filas ficam na mesma ordem relativa
+     * em ambas, e nenhum worker espera por um pedido que o outro só alcança depois dele.
+     */
+    private boolean enfileirar(Pedido pedido, BlockingQueue<Pedido> origem, BlockingQueue<Pedido> destino) {
+        synchronized (enfileiramento) {
+            if (destino.remainingCapacity() == 0 || !origem.offer(pedido)) {
+                return false;
+            }
+            return origem == destino || destino.offer(pedido);
+        }
+    }
+
+    public Optional<TransferenciaAssincronaDTO> consultar(String id) {
+        return Optional.ofNullable(situacoes.get(id));
+    }
+
+    @Scheduled(fixedDelayString = "${beneficio.transfer.async.limpeza-ms:60000}")
+    public void removerConcluidas() {
+        LocalDateTime limite = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(retencaoMs));
+        situacoes.values().removeIf(s -> s.getConcluidaEm() != null && s.getConcluidaEm().isBefore(limite));
+    }
+
+    private void consumir(BlockingQueue<Pedido> fila) {
+        List<Pedido> lote = new ArrayList<>(loteMaximo);
+        List<Pedido> compartilhados = new ArrayList<>();
+        while (ativo || !fila.isEmpty()) {
+            try {
+                Pedido primeiro = fila.poll(200, TimeUnit.MILLISECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                incluir(primeiro, lote, compartilhados);
+
+                // Group commit: junta o que chegar até completar o lote ou estourar o tempo de espera.
+                long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(esperaMaximaMs);
+                while (lote.size() < loteMaximo) {
+                    long restante = limite - System.nanoTime();
+                    Pedido proximo = restante > 0 ? fila.poll(restante, TimeUnit.NANOSECONDS) : fila.poll();
+                    if (proximo == null) {
+                        break;
+                    }
+                    incluir(proximo, lote, compartilhados);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                aplicar(lote, compartilhados);
+            }
+        }
+    }
+
+    /**
+     * Junta o pedido ao lote. Um pedido que está também em outra fila só entra no lote do worker que
+     * chega a ele por último; o que chega primeiro aplica o próprio lote antes de sinalizar a chegada e
+     * espera o pedido ser aplicado pelo outro.
+     */
+    private void incluir(Pedido pedido, List<Pedido> lote, List<Pedido> compartilhados) throws InterruptedException {
+        if (pedido.chegadas() != null) {
+            if (pedido.chegadas().get() > 1) {
+                aplicar(lote, compartilhados);
+            }
+            if (pedido.chegadas().decrementAndGet() > 0) {
+                pedido.aplicado().await();
+                return;
+            }
+            compartilhados.add(pedido);
+        }
+        lote.add(pedido);
+    }
+
+    /** Aplica o lote e libera os workers que esperam pelos pedidos compartilhados dele, mesmo em falha. */
+    private void aplicar(List<Pedido> lote, List<Pedido> compartilhados) {
+        try {
+            if (!lote.isEmpty()) {
+                processar(lote);
+            }
+        } catch (RuntimeException e) {
+            log.error("Falha inesperada no worker da fila de transferências", e);
+        } finally {
+            compartilhados.forEach(pedido -> pedido.aplicado().countDown());
+            compartilhados.clear();
+            lote.clear();
+        }
+    }
+
+    private void processar(List<Pedido> lote) {
+        List<TransferenciaDTO> transferencias = new ArrayList<>(lote.size());
+        for (Pedido pedido : lote) {
+            transferencias.add(pedido.transferencia());
+        }
+
+        List<TransferenciaResultadoDTO> resultados;
+        try {
+            resultados = service.transferirLote(transferencias, false);
+        } catch (RuntimeException e) {
+            // O lote foi desfeito por inteiro: reaplica um a um para isolar a transferência com problema.
+            log.warn("Lote de {} transferências desfeito, reprocessando individualmente: {}", lote.size(), e.getMessage());
+            for (Pedido pedido : lote) {
+                processarIndividualmente(pedido);
+            }
+            return;
+        }
+
+        // Daqui em diante o lote já foi confirmado: uma falha não pode levar a reaplicá-lo.
+        for (int i = 0; i < lote.size(); i++) {
+            TransferenciaResultadoDTO resultado = resultados.get(i);
+            concluir(lote.get(i).id(),
+                    resultado.isSucesso() ? StatusTransferencia.CONCLUIDA : StatusTransferencia.FALHA,
+                    resultado.getMensagem());
+        }
+    }
+
+    private void processarIndividualmente(Pedido pedido) {
+        TransferenciaDTO transferencia = pedido.transferencia();
+        try {
+            service.transfer(transferencia.getFromId(), transferencia.getToId(), transferencia.getAmount());
+            concluir(pedido.id(), StatusTransferencia.CONCLUIDA, "Transferência executada com sucesso!");
+        } catch (ResourceNotFoundException | IllegalArgumentException | IllegalStateException e) {
+            concluir(pedido.id(), StatusTransferencia.FALHA, e.getMessage());
+        } catch (ConcurrencyFailureException e) {
+            concluir(pedido.id(), StatusTransferencia.FALHA, "Transferência não concluída por concorrência, tente novamente.");
+        } catch (RuntimeException e) {
+            log.error("Erro ao processar a transferência {}", pedido.id(), e);
+            concluir(pedido.id(), StatusTransferencia.FALHA, "Erro interno ao tentar transferir saldo de um beneficio.");
+        }
+    }
+
+    private void concluir(String id, StatusTransferencia status, String mensagem) {
+        situacoes.computeIfPresent(id, (chave, atual) -> new TransferenciaAssincronaDTO(atual.getId(),
+                atual.getFromId(), atual.getToId(), atual.getAmount(), status, mensagem,
+                atual.getCriadaEm(), LocalDateTime.now()));
+    }
+
+    /**
+     * Pedido enfileirado. {@code chegadas} e {@code aplicado} só existem quando origem e destino
+     * caem em filas diferentes.
+     */
+    private record Pedido(String id, TransferenciaDTO transferencia, AtomicInteger chegadas, CountDownLatch aplicado) {
+    }
+}
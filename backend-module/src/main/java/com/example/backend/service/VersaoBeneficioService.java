@@ -0,0 +1,169 @@
+package com.example.backend.service;
+
+import com.example.backend.config.JanelaReplicacao;
+import com.example.backend.domain.event.BeneficioAlteradoEvent;
+import com.example.backend.domain.repository.BeneficioVersaoRepository;
+import com.example.backend.model.dto.VersaoBeneficioDTO;
+import com.example.backend.model.entidades.BeneficioVersao;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Versão da tabela de beneficios para os GETs condicionais, guardada no banco em
+ * {@code BENEFICIO_VERSAO} e por isso a mesma em todas as instâncias e depois de reinicializações.
+ * Cada inclusão, alteração e exclusão do {@link BeneficioService} incrementa uma faixa na própria
+ * transação, logo antes do commit: a versão nova fica visível junto com os dados, e uma resposta nunca
+ * leva uma versão mais nova que os dados lidos, desde que a versão seja obtida antes da consulta. A
+ * compactação do livro de movimentos incrementa depois, em transação própria. Gravações feitas direto
+ * no banco precisam incrementar uma faixa também.
+ * <p>
+ * A faixa vem do menor ID do evento ({@code beneficio.versao.faixas}, padrão 16): gravações simultâneas
+ * em beneficios diferentes raramente disputam a mesma linha, e cada transação publica um único evento,
+ * logo trava uma única faixa.
+ * <p>
+ * Transferências e particionamentos (eventos só de saldo) não gravam no banco: contam em memória, e o
+ * ETag desta instância passa a levar o contador. As outras instâncias só percebem a mudança quando o
+ * contador é publicado no banco, com um incremento a cada {@code beneficio.versao.saldo-ttl-ms} em que
+ * houve transferências: é o atraso máximo com que elas podem responder 304 com saldos antigos.
+ */
+@Slf4j
+@Service
+public class VersaoBeneficioService {
+
+    private final BeneficioVersaoRepository versaoRepository;
+    private final JanelaReplicacao janelaReplicacao;
+
+    /** Transferências confirmadas nesta instância desde que ela subiu. */
+    private final AtomicLong alteracoesSaldo = new AtomicLong();
+    private final AtomicLong saldoAlteradoEm = new AtomicLong();
+    private final AtomicLong ultimoSaldoId = new AtomicLong();
+    private final String instancia = UUID.randomUUID().toString().substring(0, 8);
+    private long saldoPublicado;
+
+    @Value("${beneficio.versao.faixas:16}")
+    private int faixas = 16;
+
+    public VersaoBeneficioService(BeneficioVersaoRepository versaoRepository, JanelaReplicacao janelaReplicacao) {
+        this.versaoRepository = versaoRepository;
+        this.janelaReplicacao = janelaReplicacao;
+    }
+
+    /**
+     * Cria as faixas que faltam, lendo do primário (transação de escrita); outra instância subindo ao
+     * mesmo tempo pode criá-las antes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void criarFaixas() {
+        Set<Integer> existentes = versaoRepository.findAll().stream()
+                .map(BeneficioVersao::getFaixa)
+                .collect(Collectors.toSet());
+        List<BeneficioVersao> novas = IntStream.range(0, faixas)
+                .filter(faixa -> !existentes.contains(faixa))
+                .mapToObj(faixa -> new BeneficioVersao(faixa, 0L, System.currentTimeMillis()))
+                .toList();
+        if (novas.isEmpty()) {
+            return;
+        }
+        try {
+            versaoRepository.saveAll(novas);
+        } catch (DataIntegrityViolationException e) {
+            log.info("Faixas da versão dos beneficios criadas por outra instância: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Pode vir de uma réplica: uma versão atrasada em relação aos dados só faz o cliente guardar dados
+     * mais novos que o ETag, e o {@link #validavel} tira os validadores logo depois de uma gravação. O
+     * contador local é lido antes do banco, e os dois antes da consulta dos dados.
+     */
+    @Transactional(readOnly = true)
+    public VersaoBeneficioDTO atual() {
+        long saldo = alteracoesSaldo.get();
+        long saldoEm = saldoAlteradoEm.get();
+        VersaoBeneficioDTO versao = versaoRepository.findVersao();
+        if (saldo > 0) {
+            versao.setSaldoLocal(instancia + "-" + saldo);
+            versao.setAlteradaEm(Math.max(versao.getAlteradaEm(), saldoEm));
+        }
+        return versao;
+    }
+
+    /**
+     * Se a resposta pode levar os validadores da versão. Com réplicas, uma listagem até
+     * {@code atraso-max-ms} depois da última gravação pode vir de uma réplica que ainda não a tem, e o
+     * cliente guardaria os dados anteriores com o ETag novo; sem validadores ele não guarda nada. A
+     * última gravação é a da versão lida ou a desta instância, que a réplica da versão pode ainda não ter.
+     */
+    public boolean validavel(VersaoBeneficioDTO versao) {
+        return janelaReplicacao.podeGuardar() && janelaReplicacao.podeGuardar(versao.getAlteradaEm());
+    }
+
+    /** Incrementa a faixa do beneficio {@code beneficioId}. */
+    public void registrarAlteracao(Long beneficioId) {
+        versaoRepository.incrementar(Math.floorMod(beneficioId, faixas), System.currentTimeMillis());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void aoAlterarBeneficio(BeneficioAlteradoEvent evento) {
+        if (!evento.isSomenteSaldo()) {
+            registrarAlteracao(menorId(evento.getIds()));
+        }
+    }
+
+    /** Depois do commit: contado antes, uma leitura ainda sem a transferência levaria o ETag novo. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoConfirmarSaldo(BeneficioAlteradoEvent evento) {
+        if (evento.isSomenteSaldo()) {
+            ultimoSaldoId.set(menorId(evento.getIds()));
+            saldoAlteradoEm.accumulateAndGet(System.currentTimeMillis(), Math::max);
+            alteracoesSaldo.incrementAndGet();
+        }
+    }
+
+    /** Publica no banco, com um único incremento, as transferências desta instância desde a última publicação. */
+    @Scheduled(fixedDelayString = "${beneficio.versao.saldo-ttl-ms:5000}")
+    public synchronized void publicarAlteracoesSaldo() {
+        long saldo = alteracoesSaldo.get();
+        if (saldo != saldoPublicado) {
+            registrarAlteracao(ultimoSaldoId.get());
+            saldoPublicado = saldo;
+        }
+    }
+
+    /** {@code W/"<versão>"}, mais a instância e o contador de transferências dela, se houve alguma. */
+    public String etag(VersaoBeneficioDTO versao) {
+        String saldoLocal = versao.getSaldoLocal() != null ? "-" + versao.getSaldoLocal() : "";
+        return "W/\"" + versao.getNumero() + saldoLocal + "\"";
+    }
+
+    /**
+     * {@code Last-Modified} da versão, ou -1 (sem o cabeçalho) se ela é do segundo atual: o cabeçalho
+     * só tem precisão de segundos, e uma gravação ainda neste segundo deixaria um
+     * {@code If-Modified-Since} igual ao da resposta anterior.
+     */
+    public long ultimaModificacao(VersaoBeneficioDTO versao) {
+        long segundo = versao.getAlteradaEm() / 1000;
+        return segundo < System.currentTimeMillis() / 1000 ? segundo * 1000 : -1;
+    }
+
+    private static long menorId(Collection<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).min().orElse(0L);
+    }
+}
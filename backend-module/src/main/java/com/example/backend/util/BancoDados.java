@@ -0,0 +1,39 @@
+package com.example.backend.util;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/** Produto do banco conectado, lido uma vez do metadata do JDBC, para recursos específicos de cada banco. */
+@Component
+public class BancoDados {
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile String nome;
+
+    public BancoDados(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Ex.: {@code PostgreSQL}, {@code H2}. */
+    public String nome() {
+        if (nome == null) {
+            nome = jdbcTemplate.execute((ConnectionCallback<String>) conexao ->
+                    conexao.getMetaData().getDatabaseProductName());
+        }
+        return nome;
+    }
+
+    public boolean isPostgres() {
+        return "PostgreSQL".equals(nome());
+    }
+
+    public boolean isH2() {
+        return "H2".equals(nome());
+    }
+
+    /** Expressão SQL do próximo valor da sequência, para os INSERTs fora do Hibernate. */
+    public String proximoValor(String sequencia) {
+        return isPostgres() ? "nextval('" + sequencia + "')" : "NEXT VALUE FOR " + sequencia;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.backend.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV separado por vírgula (RFC 4180): campos com vírgula, aspas ou quebra de linha vão entre aspas,
+ * com as aspas duplicadas. Usado na exportação, na importação e no COPY do PostgreSQL.
+ */
+public final class Csv {
+
+    private Csv() {
+    }
+
+    /** Campo pronto para escrita: entre aspas só quando necessário; nulo vira vazio. */
+    public static String campo(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            return texto;
+        }
+        return '"' + texto.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Lê um registro por vez, sem carregar o arquivo: um registro entre aspas pode ocupar várias linhas.
+     * Não é thread-safe.
+     */
+    public static class Leitor {
+
+        private final Reader entrada;
+        private long linha = 1;
+        private long linhaDoRegistro;
+        private int proximo = -2;
+
+        /** @param entrada de preferência bufferizada: a leitura é caractere a caractere */
+        public Leitor(Reader entrada) {
+            this.entrada = entrada;
+        }
+
+        /**
+         * @return os campos do próximo registro, ou {@code null} no fim do arquivo
+         * @throws IllegalArgumentException se o arquivo termina dentro de um campo entre aspas
+         */
+        public List<String> proximo() throws IOException {
+            int c = ler();
+            if (c == -1) {
+                return null;
+            }
+            linhaDoRegistro = linha;
+            List<String> campos = new ArrayList<>();
+            StringBuilder campo = new StringBuilder();
+            boolean entreAspas = false;
+            while (true) {
+                if (entreAspas) {
+                    if (c == -1) {
+                        throw new IllegalArgumentException("Aspas não fechadas no registro da linha " + linhaDoRegistro + ".");
+                    }
+                    if (c == '"') {
+                        if (espiar() == '"') {
+                            ler();
+                            campo.append('"');
+                        } else {
+                            entreAspas = false;
+                        }
+                    } else {
+                        campo.append((char) c);
+                    }
+                } else if (c == '"' && campo.isEmpty()) {
+                    entreAspas = true;
+                } else if (c == ',') {
+                    campos.add(campo.toString());
+                    campo.setLength(0);
+                } else if (c == '\r' && espiar() == '\n') {
+                    // \r\n: o \n fecha o registro na próxima volta
+                } else if (c == '\n' || c == -1) {
+                    campos.add(campo.toString());
+                    return campos;
+                } else {
+                    campo.append((char) c);
+                }
+                c = ler();
+            }
+        }
+
+        /** Linha do arquivo (a partir de 1) em que começou o último registro lido. */
+        public long getLinhaDoRegistro() {
+            return linhaDoRegistro;
+        }
+
+        private int ler() throws IOException {
+            int c = proximo != -2 ? proximo : entrada.read();
+            proximo = -2;
+            if (c == '\n') {
+                linha++;
+            }
+            return c;
+        }
+
+        private int espiar() throws IOException {
+            if (proximo == -2) {
+                proximo = entrada.read();
+            }
+            return proximo;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opaco da listagem por keyset: codifica o último id entregue para que o cliente só o
+ * devolva no {@code after} da próxima chamada, sem depender do formato.
+ */
+public final class CursorPaginacao {
+
+    private static final String PREFIXO = "id:";
+
+    private CursorPaginacao() {
+    }
+
+    public static String codificar(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIXO + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** @return o último id entregue, ou {@code null} para a primeira página (cursor vazio) */
+    public static Long decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!texto.startsWith(PREFIXO)) {
+                throw new IllegalArgumentException("Cursor de paginação inválido.");
+            }
+            return Long.valueOf(texto.substring(PREFIXO.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor de paginação inválido.", e);
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.example.backend.util;
+
+import com.example.backend.model.dto.DocumentoBuscaDTO;
+import com.example.backend.model.dto.FiltroBeneficioDTO;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice invertido de trigramas sobre nome e descrição (em minúsculas). Cada documento ocupa uma
+ * posição e cada trigrama guarda, em um {@code int[]} crescente, as posições onde aparece; a busca
+ * cruza as listas dos trigramas do termo e confirma os candidatos com {@code contains}, com o mesmo
+ * resultado dos {@code LIKE '%termo%'} da {@code BeneficioSpecification}. Alterar um documento grava
+ * uma posição nova e marca a antiga como removida, de modo que as listas continuam ordenadas só com
+ * inserções no fim; quando metade das posições está removida o índice é compactado.
+ * <p>
+ * Não é thread-safe: quem o usa controla o acesso.
+ */
+public class IndiceNgrama {
+
+    static final int N = 3;
+
+    private static final int CAPACIDADE_INICIAL = 1024;
+    private static final int REMOVIDOS_MINIMO_COMPACTACAO = 1024;
+    private static final int BITS_ID = 58;
+
+    // Aproximações da JVM de 64 bits com referências comprimidas.
+    private static final int CABECALHO_OBJETO = 16;
+    private static final int CABECALHO_ARRAY = 16;
+    private static final int REFERENCIA = 4;
+    private static final int ENTRADA_MAPA = 32 + REFERENCIA + CABECALHO_OBJETO * 2;
+    private static final int BIG_DECIMAL = 40;
+
+    private long[] ids = new long[CAPACIDADE_INICIAL];
+    private String[] nomes = new String[CAPACIDADE_INICIAL];
+    private String[] descricoes = new String[CAPACIDADE_INICIAL];
+    private Boolean[] ativos = new Boolean[CAPACIDADE_INICIAL];
+    private BigDecimal[] valores = new BigDecimal[CAPACIDADE_INICIAL];
+    private int posicoesUsadas;
+    private int removidos;
+    private long bytesTexto;
+
+    private Map<Long, Integer> posicoes = new HashMap<>();
+    private Map<Long, Postagens> postagens = new HashMap<>();
+
+    /** Inclui o documento ou substitui a versão já indexada com o mesmo id. */
+    public void gravar(DocumentoBuscaDTO documento) {
+        remover(documento.getId());
+        if (posicoesUsadas == ids.length) {
+            crescer(ids.length * 2);
+        }
+
+        int posicao = posicoesUsadas++;
+        String nome = minusculo(documento.getNome());
+        String descricao = minusculo(documento.getDescricao());
+        ids[posicao] = documento.getId();
+        nomes[posicao] = nome;
+        descricoes[posicao] = descricao;
+        ativos[posicao] = documento.getAtivo();
+        valores[posicao] = documento.getValor();
+        posicoes.put(documento.getId(), posicao);
+        bytesTexto += bytes(nome) + bytes(descricao);
+
+        indexar(nome, posicao);
+        indexar(descricao, posicao);
+    }
+
+    public void remover(Long id) {
+        Integer posicao = posicoes.remove(id);
+        if (posicao == null) {
+            return;
+        }
+        bytesTexto -= bytes(nomes[posicao]) + bytes(descricoes[posicao]);
+        nomes[posicao] = null;
+        descricoes[posicao] = null;
+        ativos[posicao] = null;
+        valores[posicao] = null;
+        removidos++;
+
+        if (removidos >= REMOVIDOS_MINIMO_COMPACTACAO && removidos * 2 >= posicoesUsadas) {
+            compactar();
+        }
+    }
+
+    /** Quantidade de documentos indexados. */
+    public int tamanho() {
+        return posicoes.size();
+    }
+
+    /**
+     * Ids que atendem ao filtro, do {@code inicio} até {@code limite} registros, na ordem da busca no
+     * banco: com termo, nome igual, nome começando pelo termo, nome contendo e só a descrição contendo;
+     * empates e buscas sem termo pelo id decrescente. O total é sempre exato.
+     */
+    public Resultado buscar(FiltroBeneficioDTO filtro, int inicio, int limite) {
+        String termo = filtro.getSearch();
+        // Só as inicio + limite maiores chaves (relevância e id) interessam: heap mínimo desse tamanho.
+        int necessarios = (int) Math.min((long) inicio + limite, Integer.MAX_VALUE - 8);
+        long[] heap = new long[Math.min(Math.max(necessarios, 0), 1024)];
+        int noHeap = 0;
+        int encontrados = 0;
+
+        int[] candidatos = termo != null && termo.length() >= N ? candidatos(termo) : null;
+        int total = candidatos != null ? candidatos.length : posicoesUsadas;
+        for (int i = 0; i < total; i++) {
+            int posicao = candidatos != null ? candidatos[i] : i;
+            if (!atende(posicao, filtro)) {
+                continue;
+            }
+            encontrados++;
+            long chave = ((long) relevancia(nomes[posicao], termo) << BITS_ID) | ids[posicao];
+            if (noHeap < necessarios) {
+                if (noHeap == heap.length) {
+                    heap = Arrays.copyOf(heap, (int) Math.min((long) heap.length * 2, necessarios));
+                }
+                heap[noHeap] = chave;
+                subir(heap, noHeap++);
+            } else if (noHeap > 0 && chave > heap[0]) {
+                heap[0] = chave;
+                descer(heap, noHeap);
+            }
+        }
+
+        Arrays.sort(heap, 0, noHeap);
+        List<Long> pagina = new ArrayList<>(Math.max(0, Math.min(limite, noHeap - inicio)));
+        for (int i = noHeap - 1 - inicio; i >= 0 && pagina.size() < limite; i--) {
+            pagina.add(heap[i] & ((1L << BITS_ID) - 1));
+        }
+        return new Resultado(pagina, encontrados);
+    }
+
+    /** Estimativa em bytes da memória ocupada pelos documentos, listas de posições e mapas. */
+    public long memoriaEstimada() {
+        long arrays = 5L * CABECALHO_ARRAY + (long) ids.length * (Long.BYTES + 4L * REFERENCIA + 1);
+        long documentos = (long) posicoes.size() * (ENTRADA_MAPA + BIG_DECIMAL) + bytesTexto;
+        long listas = 0;
+        for (Postagens lista : postagens.values()) {
+            listas += ENTRADA_MAPA + CABECALHO_OBJETO + CABECALHO_ARRAY + (long) lista.posicoes.length * Integer.BYTES;
+        }
+        return arrays + documentos + listas;
+    }
+
+    private void indexar(String texto, int posicao) {
+        if (texto == null) {
+            return;
+        }
+        for (int i = 0; i + N <= texto.length(); i++) {
+            Postagens lista = postagens.computeIfAbsent(trigrama(texto, i), chave -> new Postagens());
+            // A posição nova é a maior já usada, então uma repetição só pode estar no fim da lista.
+            if (lista.tamanho == 0 || lista.posicoes[lista.tamanho - 1] != posicao) {
+                lista.adicionar(posicao);
+            }
+        }
+    }
+
+    /** Interseção das listas dos trigramas do termo, começando pela menor. */
+    private int[] candidatos(String termo) {
+        List<Postagens> listas = new ArrayList<>(termo.length() - N + 1);
+        for (int i = 0; i + N <= termo.length(); i++) {
+            Postagens lista = postagens.get(trigrama(termo, i));
+            if (lista == null) {
+                return new int[0];
+            }
+            listas.add(lista);
+        }
+        listas.sort(Comparator.comparingInt(lista -> lista.tamanho));
+
+        Postagens menor = listas.get(0);
+        int[] candidatos = Arrays.copyOf(menor.posicoes, menor.tamanho);
+        int quantidade = candidatos.length;
+        for (int l = 1; l < listas.size() && quantidade > 0; l++) {
+            Postagens lista = listas.get(l);
+            if (lista == menor) {
+                continue;
+            }
+            int mantidos = 0;
+            if (lista.tamanho / 16 > quantidade) {
+                // Poucos candidatos contra uma lista longa: busca binária.
+                for (int i = 0; i < quantidade; i++) {
+                    if (Arrays.binarySearch(lista.posicoes, 0, lista.tamanho, candidatos[i]) >= 0) {
+                        candidatos[mantidos++] = candidatos[i];
+                    }
+                }
+            } else {
+                int j = 0;
+                for (int i = 0; i < quantidade && j < lista.tamanho; i++) {
+                    while (j < lista.tamanho && lista.posicoes[j] < candidatos[i]) {
+                        j++;
+                    }
+                    if (j < lista.tamanho && lista.posicoes[j] == candidatos[i]) {
+                        candidatos[mantidos++] = candidatos[i];
+                    }
+                }
+            }
+            quantidade = mantidos;
+        }
+        return Arrays.copyOf(candidatos, quantidade);
+    }
+
+    private boolean atende(int posicao, FiltroBeneficioDTO filtro) {
+        String nome = nomes[posicao];
+        if (nome == null) {
+            return false;
+        }
+        String descricao = descricoes[posicao];
+        return (filtro.getSearch() == null || nome.contains(filtro.getSearch())
+                        || (descricao != null && descricao.contains(filtro.getSearch())))
+                && (filtro.getNome() == null || nome.contains(filtro.getNome()))
+                && (filtro.getDescricao() == null || (descricao != null && descricao.contains(filtro.getDescricao())))
+                && (filtro.getAtivo() == null || filtro.getAtivo().equals(ativos[posicao]))
+                && (filtro.getValor() == null || filtro.getValor().compareTo(valores[posicao]) == 0);
+    }
+
+    private static void subir(long[] heap, int i) {
+        while (i > 0 && heap[(i - 1) / 2] > heap[i]) {
+            trocar(heap, i, (i - 1) / 2);
+            i = (i - 1) / 2;
+        }
+    }
+
+    private static void descer(long[] heap, int tamanho) {
+        int i = 0;
+        while (true) {
+            int menor = i;
+            int esquerda = 2 * i + 1;
+            int direita = esquerda + 1;
+            if (esquerda < tamanho && heap[esquerda] < heap[menor]) {
+                menor = esquerda;
+            }
+            if (direita < tamanho && heap[direita] < heap[menor]) {
+                menor = direita;
+            }
+            if (menor == i) {
+                return;
+            }
+            trocar(heap, i, menor);
+            i = menor;
+        }
+    }
+
+    private static void trocar(long[] heap, int i, int j) {
+        long valor = heap[i];
+        heap[i] = heap[j];
+        heap[j] = valor;
+    }
+
+    private static int relevancia(String nome, String termo) {
+        if (termo == null) {
+            return 0;
+        }
+        if (nome.equals(termo)) {
+            return 4;
+        }
+        if (nome.startsWith(termo)) {
+            return 3;
+        }
+        return nome.contains(termo) ? 2 : 1;
+    }
+
+    /** Regrava os documentos vivos em posições contíguas e refaz as listas sem as posições removidas. */
+    private void compactar() {
+        long[] idsAntigos = ids;
+        String[] nomesAntigos = nomes;
+        String[] descricoesAntigas = descricoes;
+        Boolean[] ativosAntigos = ativos;
+        BigDecimal[] valoresAntigos = valores;
+        int usadas = posicoesUsadas;
+
+        int capacidade = Math.max(CAPACIDADE_INICIAL, Integer.highestOneBit(Math.max(1, posicoes.size())) * 2);
+        ids = new long[capacidade];
+        nomes = new String[capacidade];
+        descricoes = new String[capacidade];
+        ativos = new Boolean[capacidade];
+        valores = new BigDecimal[capacidade];
+        posicoes = new HashMap<>();
+        postagens = new HashMap<>();
+        posicoesUsadas = 0;
+        removidos = 0;
+        bytesTexto = 0;
+
+        for (int i = 0; i < usadas; i++) {
+            if (nomesAntigos[i] != null) {
+                gravar(new DocumentoBuscaDTO(idsAntigos[i], nomesAntigos[i], descricoesAntigas[i],
+                        ativosAntigos[i], valoresAntigos[i]));
+            }
+        }
+    }
+
+    private void crescer(int capacidade) {
+        ids = Arrays.copyOf(ids, capacidade);
+        nomes = Arrays.copyOf(nomes, capacidade);
+        descricoes = Arrays.copyOf(descricoes, capacidade);
+        ativos = Arrays.copyOf(ativos, capacidade);
+        valores = Arrays.copyOf(valores, capacidade);
+    }
+
+    private static long trigrama(String texto, int inicio) {
+        return ((long) texto.charAt(inicio) << 32) | ((long) texto.charAt(inicio + 1) << 16) | texto.charAt(inicio + 2);
+    }
+
+    private static String minusculo(String texto) {
+        return texto == null ? null : texto.toLowerCase();
+    }
+
+    private static long bytes(String texto) {
+        // String compacta (Latin-1): objeto, array e um byte por caractere.
+        return texto == null ? 0 : CABECALHO_OBJETO + 8 + CABECALHO_ARRAY + texto.length();
+    }
+
+    /** Página de ids na ordem da busca e o total de documentos que atendem ao filtro. */
+    public record Resultado(List<Long> ids, long total) {
+    }
+
+    private static final class Postagens {
+
+        private int[] posicoes = new int[4];
+        private int tamanho;
+
+        private void adicionar(int posicao) {
+            if (tamanho == posicoes.length) {
+                posicoes = Arrays.copyOf(posicoes, tamanho * 2);
+            }
+            posicoes[tamanho++] = posicao;
+        }
+    }
+}
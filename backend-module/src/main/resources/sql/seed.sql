@@ -1,4 +1,4 @@
-INSERT INTO BENEFICIO (NOME, DESCRICAO, VALOR, ATIVO)
-VALUES ('Beneficio A', 'Descrição A', 1000.00, TRUE),
-       ('Beneficio B', 'Descrição B', 500.00, TRUE)
-ON CONFLICT DO NOTHING;
\ No newline at end of file
+INSERT INTO BENEFICIO (ID, NOME, DESCRICAO, VALOR, ATIVO)
+VALUES (nextval('beneficio_seq'), 'Beneficio A', 'Descrição A', 1000.00, TRUE),
+       (nextval('beneficio_seq'), 'Beneficio B', 'Descrição B', 500.00, TRUE)
+ON CONFLICT DO NOTHING;
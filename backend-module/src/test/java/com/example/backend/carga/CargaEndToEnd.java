@@ -0,0 +1,102 @@
+package com.example.backend.carga;
+
+import com.example.backend.domain.repository.BeneficioMovimentoRepository;
+import com.example.backend.domain.repository.BeneficioSaldoRepository;
+import com.example.backend.domain.repository.BeneficiosRepository;
+import com.example.backend.model.entidades.Beneficio;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de carga de ponta a ponta do {@code BeneficioController}: semeia os beneficios, roda o
+ * {@link GeradorCarga} e falha se o saldo total das contas mudou, se algum saldo ficou negativo,
+ * se algum limite da {@link ConfiguracaoCarga} foi violado ou se houve regressão em relação ao
+ * baseline. O resultado fica em {@code target/carga/resultado.json}.
+ */
+@Tag("carga")
+@TestPropertySource(properties = {
+        "cors.allowed-origins=*",
+        "cors.allowed-methods=*",
+        "cors.allowed-headers=*",
+        "cors.exposed-headers=*",
+        "cors.allow-credentials=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "logging.level.org.springframework.web=WARN",
+        "logging.level.org.springframework.security=WARN"
+})
+abstract class CargaEndToEnd {
+
+    private static final BigDecimal SALDO_INICIAL = BigDecimal.valueOf(100_000);
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private BeneficiosRepository repository;
+
+    @Autowired
+    private BeneficioSaldoRepository saldoRepository;
+
+    @Autowired
+    private BeneficioMovimentoRepository movimentoRepository;
+
+    abstract String banco();
+
+    @Test
+    void deveSuportarCargaMantendoOsInvariantes() throws Exception {
+        ConfiguracaoCarga config = ConfiguracaoCarga.doSistema();
+        ResultadoCarga baseline = config.getBaseline() != null && Files.exists(config.getBaseline())
+                ? ResultadoCarga.ler(config.getBaseline())
+                : null;
+        List<Long> contas = semear(config.getBeneficios());
+
+        ResultadoCarga resultado = new GeradorCarga(porta, config, contas).executar();
+        resultado.salvar(config.getResultado());
+        System.out.println("Carga (" + banco() + "): " + resultado.resumo());
+
+        List<String> falhas = new ArrayList<>();
+
+        BigDecimal esperado = SALDO_INICIAL.multiply(BigDecimal.valueOf(contas.size()));
+        BigDecimal total = repository.findAllById(contas).stream()
+                .map(Beneficio::getValor)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (total.compareTo(esperado) != 0) {
+            falhas.add("Saldo total das contas mudou de " + esperado + " para " + total);
+        }
+        repository.findAll().stream()
+                .filter(b -> b.getValor().signum() < 0)
+                .forEach(b -> falhas.add("Beneficio " + b.getId() + " com saldo negativo: " + b.getValor()));
+
+        falhas.addAll(resultado.verificarLimites(config));
+        if (baseline != null) {
+            falhas.addAll(resultado.compararCom(baseline, config.getTolerancia()));
+        }
+
+        assertTrue(falhas.isEmpty(), "Teste de carga reprovado:\n" + String.join("\n", falhas));
+    }
+
+    private List<Long> semear(int quantidade) {
+        movimentoRepository.deleteAllInBatch();
+        saldoRepository.deleteAllInBatch();
+        repository.deleteAllInBatch();
+
+        List<Beneficio> beneficios = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            beneficios.add(new Beneficio(null, "Conta de carga " + i, "Semeado pelo teste de carga",
+                    SALDO_INICIAL, true, null));
+        }
+        return repository.saveAll(beneficios).stream().map(Beneficio::getId).toList();
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.backend.carga;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class CargaEndToEndH2Test extends CargaEndToEnd {
+
+    @Override
+    String banco() {
+        return "H2";
+    }
+}
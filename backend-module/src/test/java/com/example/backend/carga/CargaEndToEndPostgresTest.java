@@ -0,0 +1,25 @@
+package com.example.backend.carga;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/** Mesma carga contra um PostgreSQL descartável; é ignorado quando não há Docker disponível. */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@ActiveProfiles("test")
+class CargaEndToEndPostgresTest extends CargaEndToEnd {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Override
+    String banco() {
+        return "PostgreSQL";
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.backend.carga;
+
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Mesma carga do {@link CargaEndToEndH2Test} com Tomcat, {@code @Async} e a fila de transferências em
+ * threads virtuais, para comparar a vazão com as threads de plataforma. Só roda em Java 21+: o build
+ * compila para Java 17, onde a propriedade não tem efeito.
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=true")
+@ActiveProfiles("test")
+class CargaEndToEndThreadsVirtuaisTest extends CargaEndToEnd {
+
+    @Override
+    String banco() {
+        return "H2, threads virtuais";
+    }
+}
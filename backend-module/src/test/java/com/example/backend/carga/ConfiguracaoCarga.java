@@ -0,0 +1,62 @@
+package com.example.backend.carga;
+
+import lombok.Data;
+
+import java.nio.file.Path;
+
+/**
+ * Parâmetros do teste de carga. Os valores padrão podem ser trocados por propriedades de sistema
+ * {@code carga.*}, ex.: {@code mvn test -Pcarga -Dcarga.clientes=100 -Dcarga.baseline=carga.json}.
+ */
+@Data
+public class ConfiguracaoCarga {
+
+    /** Beneficios semeados para as transferências; o saldo total deles é o invariante verificado. */
+    private int beneficios = 50;
+    private int clientes = 32;
+    private int requisicoesPorCliente = 100;
+
+    /** Pesos relativos da mistura de operações. */
+    private int pesoListagem = 60;
+    private int pesoCrud = 10;
+    private int pesoTransferencia = 30;
+
+    /** Limites absolutos; zero desliga o limite. */
+    private double maxTaxaErros = 0.01;
+    private double minVazao;
+    private double maxP99Ms;
+
+    /** Resultado anterior para comparação e a piora aceita (0,2 = 20%) antes de acusar regressão. */
+    private Path baseline;
+    private double tolerancia = 0.2;
+
+    private Path resultado = Path.of("target", "carga", "resultado.json");
+
+    public static ConfiguracaoCarga doSistema() {
+        ConfiguracaoCarga config = new ConfiguracaoCarga();
+        config.setBeneficios(Integer.getInteger("carga.beneficios", config.getBeneficios()));
+        config.setClientes(Integer.getInteger("carga.clientes", config.getClientes()));
+        config.setRequisicoesPorCliente(Integer.getInteger("carga.requisicoes-por-cliente", config.getRequisicoesPorCliente()));
+        config.setPesoListagem(Integer.getInteger("carga.peso.listagem", config.getPesoListagem()));
+        config.setPesoCrud(Integer.getInteger("carga.peso.crud", config.getPesoCrud()));
+        config.setPesoTransferencia(Integer.getInteger("carga.peso.transferencia", config.getPesoTransferencia()));
+        config.setMaxTaxaErros(lerDouble("carga.max-taxa-erros", config.getMaxTaxaErros()));
+        config.setMinVazao(lerDouble("carga.min-vazao", config.getMinVazao()));
+        config.setMaxP99Ms(lerDouble("carga.max-p99-ms", config.getMaxP99Ms()));
+        config.setTolerancia(lerDouble("carga.tolerancia", config.getTolerancia()));
+        String baseline = System.getProperty("carga.baseline");
+        if (baseline != null && !baseline.isBlank()) {
+            config.setBaseline(Path.of(baseline));
+        }
+        String resultado = System.getProperty("carga.resultado");
+        if (resultado != null && !resultado.isBlank()) {
+            config.setResultado(Path.of(resultado));
+        }
+        return config;
+    }
+
+    private static double lerDouble(String propriedade, double padrao) {
+        String valor = System.getProperty(propriedade);
+        return valor == null || valor.isBlank() ? padrao : Double.parseDouble(valor);
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.backend.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dispara a mistura de operações da {@link ConfiguracaoCarga} contra {@code /api/v1/beneficios}
+ * a partir de vários clientes HTTP concorrentes. As transferências acontecem só entre as
+ * {@code contas} semeadas; o CRUD cria, altera e exclui beneficios próprios de cada cliente,
+ * para não alterar o saldo total das contas de transferência.
+ */
+public class GeradorCarga {
+
+    private static final long LATENCIA_MAXIMA_US = TimeUnit.MINUTES.toMicros(2);
+
+    private final String base;
+    private final ConfiguracaoCarga config;
+    private final List<Long> contas;
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<OperacaoCarga, Histogram> latencias = new EnumMap<>(OperacaoCarga.class);
+    private final Map<String, AtomicInteger> erros = new ConcurrentHashMap<>();
+    private final AtomicLong sequencia = new AtomicLong();
+
+    public GeradorCarga(int porta, ConfiguracaoCarga config, List<Long> contas) {
+        this.base = "http://localhost:" + porta + "/api/v1/beneficios";
+        this.config = config;
+        this.contas = contas;
+        for (OperacaoCarga operacao : OperacaoCarga.values()) {
+            latencias.put(operacao, new ConcurrentHistogram(LATENCIA_MAXIMA_US, 3));
+        }
+    }
+
+    public ResultadoCarga executar() throws Exception {
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(config.getClientes());
+        List<Future<?>> clientes = new ArrayList<>();
+        for (int c = 0; c < config.getClientes(); c++) {
+            clientes.add(executor.submit(() -> {
+                largada.await();
+                executarCliente();
+                return null;
+            }));
+        }
+
+        long inicio = System.nanoTime();
+        largada.countDown();
+        try {
+            for (Future<?> cliente : clientes) {
+                cliente.get(30, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return resultado((System.nanoTime() - inicio) / 1e9);
+    }
+
+    private void executarCliente() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Long> proprios = new ArrayList<>();
+        int pesoTotal = config.getPesoListagem() + config.getPesoCrud() + config.getPesoTransferencia();
+
+        for (int i = 0; i < config.getRequisicoesPorCliente(); i++) {
+            int sorteio = random.nextInt(pesoTotal);
+            if (sorteio < config.getPesoListagem()) {
+                enviar(OperacaoCarga.LISTAGEM, HttpRequest.newBuilder(
+                        URI.create(base + "/pageable?page=" + random.nextInt(3) + "&size=10")).GET().build());
+            } else if (sorteio < config.getPesoListagem() + config.getPesoCrud()) {
+                executarCrud(random, proprios);
+            } else {
+                int from = random.nextInt(contas.size());
+                int to = (from + 1 + random.nextInt(contas.size() - 1)) % contas.size();
+                enviar(OperacaoCarga.TRANSFERENCIA, HttpRequest.newBuilder(URI.create(base + "/transfer?fromId="
+                                + contas.get(from) + "&toId=" + contas.get(to) + "&amount=" + (1 + random.nextInt(10))))
+                        .PUT(HttpRequest.BodyPublishers.noBody())
+                        .build());
+            }
+        }
+    }
+
+    /** Cria enquanto o cliente tiver poucos beneficios próprios; depois alterna entre alterar e excluir. */
+    private void executarCrud(ThreadLocalRandom random, List<Long> proprios) {
+        if (proprios.isEmpty() || (proprios.size() < 3 && random.nextBoolean())) {
+            String corpo = corpo("Carga " + sequencia.incrementAndGet(), random.nextInt(1, 1000));
+            JsonNode resposta = enviar(OperacaoCarga.CRIACAO, HttpRequest.newBuilder(URI.create(base))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                    .build());
+            if (resposta != null) {
+                proprios.add(resposta.path("dados").path("id").asLong());
+            }
+        } else if (random.nextBoolean()) {
+            Long id = proprios.get(random.nextInt(proprios.size()));
+            enviar(OperacaoCarga.ATUALIZACAO, HttpRequest.newBuilder(URI.create(base + "/" + id))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(corpo("Carga " + sequencia.incrementAndGet(), random.nextInt(1, 1000))))
+                    .build());
+        } else {
+            Long id = proprios.remove(random.nextInt(proprios.size()));
+            enviar(OperacaoCarga.EXCLUSAO, HttpRequest.newBuilder(URI.create(base + "/" + id)).DELETE().build());
+        }
+    }
+
+    private String corpo(String nome, int valor) {
+        return mapper.createObjectNode()
+                .put("nome", nome)
+                .put("descricao", "Beneficio criado pelo teste de carga")
+                .put("valor", valor)
+                .put("ativo", true)
+                .toString();
+    }
+
+    /** @return o corpo da resposta quando o status é o esperado, ou {@code null} em caso de erro */
+    private JsonNode enviar(OperacaoCarga operacao, HttpRequest requisicao) {
+        long inicio = System.nanoTime();
+        try {
+            HttpResponse<String> resposta = http.send(requisicao, HttpResponse.BodyHandlers.ofString());
+            long duracaoUs = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - inicio);
+            if (resposta.statusCode() != operacao.getStatusEsperado()) {
+                registrarErro(operacao + " " + resposta.statusCode());
+                return null;
+            }
+            latencias.get(operacao).recordValue(Math.min(duracaoUs, LATENCIA_MAXIMA_US));
+            return operacao == OperacaoCarga.CRIACAO ? mapper.readTree(resposta.body()) : mapper.nullNode();
+        } catch (IOException e) {
+            registrarErro(operacao + " " + e.getClass().getSimpleName());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Cliente de carga interrompido.", e);
+        }
+    }
+
+    private void registrarErro(String chave) {
+        erros.computeIfAbsent(chave, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    private ResultadoCarga resultado(double segundos) {
+        ResultadoCarga resultado = new ResultadoCarga();
+        long requisicoes = 0;
+        for (Map.Entry<OperacaoCarga, Histogram> entrada : latencias.entrySet()) {
+            Histogram histograma = entrada.getValue();
+            if (histograma.getTotalCount() == 0) {
+                continue;
+            }
+            requisicoes += histograma.getTotalCount();
+            resultado.getOperacoes().put(entrada.getKey(), new ResultadoCarga.Estatistica(histograma.getTotalCount(),
+                    histograma.getValueAtPercentile(50) / 1000.0,
+                    histograma.getValueAtPercentile(99) / 1000.0,
+                    histograma.getValueAtPercentile(99.9) / 1000.0,
+                    histograma.getMaxValue() / 1000.0));
+        }
+        erros.forEach((chave, quantidade) -> resultado.getErros().put(chave, quantidade.get()));
+
+        resultado.setDuracaoSegundos(segundos);
+        resultado.setRequisicoes(requisicoes + resultado.getTotalErros());
+        resultado.setVazao(resultado.getRequisicoes() / segundos);
+        return resultado;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.backend.carga;
+
+/** Operações disparadas pelo gerador de carga e o status HTTP esperado de cada uma. */
+public enum OperacaoCarga {
+
+    LISTAGEM(200),
+    CRIACAO(201),
+    ATUALIZACAO(200),
+    EXCLUSAO(200),
+    TRANSFERENCIA(200);
+
+    private final int statusEsperado;
+
+    OperacaoCarga(int statusEsperado) {
+        this.statusEsperado = statusEsperado;
+    }
+
+    public int getStatusEsperado() {
+        return statusEsperado;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.backend.carga;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Resumo de uma execução do gerador de carga: vazão, latências por operação e erros por
+ * operação/status. É gravado em JSON para servir de baseline das execuções seguintes.
+ */
+@Data
+@NoArgsConstructor
+public class ResultadoCarga {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private double duracaoSegundos;
+    private long requisicoes;
+    private double vazao;
+    private Map<OperacaoCarga, Estatistica> operacoes = new EnumMap<>(OperacaoCarga.class);
+    private Map<String, Integer> erros = new TreeMap<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Estatistica {
+        private long quantidade;
+        private double p50Ms;
+        private double p99Ms;
+        private double p999Ms;
+        private double maxMs;
+    }
+
+    @JsonIgnore
+    public long getTotalErros() {
+        return erros.values().stream().mapToLong(Integer::longValue).sum();
+    }
+
+    @JsonIgnore
+    public double getTaxaErros() {
+        return requisicoes == 0 ? 0 : (double) getTotalErros() / requisicoes;
+    }
+
+    /** Violações dos limites absolutos configurados. */
+    public List<String> verificarLimites(ConfiguracaoCarga config) {
+        List<String> violacoes = new ArrayList<>();
+        if (getTaxaErros() > config.getMaxTaxaErros()) {
+            violacoes.add(String.format("Taxa de erros %.2f%% acima do limite de %.2f%% (%s)",
+                    getTaxaErros() * 100, config.getMaxTaxaErros() * 100, erros));
+        }
+        if (config.getMinVazao() > 0 && vazao < config.getMinVazao()) {
+            violacoes.add(String.format("Vazão de %.1f req/s abaixo do mínimo de %.1f req/s", vazao, config.getMinVazao()));
+        }
+        if (config.getMaxP99Ms() > 0) {
+            operacoes.forEach((operacao, estatistica) -> {
+                if (estatistica.getP99Ms() > config.getMaxP99Ms()) {
+                    violacoes.add(String.format("p99 de %s em %.1f ms acima do limite de %.1f ms",
+                            operacao, estatistica.getP99Ms(), config.getMaxP99Ms()));
+                }
+            });
+        }
+        return violacoes;
+    }
+
+    /** Regressões em relação a uma execução anterior, aceitando uma piora de até {@code tolerancia}. */
+    public List<String> compararCom(ResultadoCarga baseline, double tolerancia) {
+        List<String> regressoes = new ArrayList<>();
+        if (vazao < baseline.getVazao() * (1 - tolerancia)) {
+            regressoes.add(String.format("Vazão caiu de %.1f para %.1f req/s", baseline.getVazao(), vazao));
+        }
+        operacoes.forEach((operacao, atual) -> {
+            Estatistica anterior = baseline.getOperacoes().get(operacao);
+            if (anterior != null && anterior.getQuantidade() > 0 && atual.getP99Ms() > anterior.getP99Ms() * (1 + tolerancia)) {
+                regressoes.add(String.format("p99 de %s subiu de %.1f para %.1f ms", operacao, anterior.getP99Ms(), atual.getP99Ms()));
+            }
+        });
+        return regressoes;
+    }
+
+    public void salvar(Path arquivo) throws IOException {
+        if (arquivo.getParent() != null) {
+            Files.createDirectories(arquivo.getParent());
+        }
+        MAPPER.writeValue(arquivo.toFile(), this);
+    }
+
+    public static ResultadoCarga ler(Path arquivo) throws IOException {
+        return MAPPER.readValue(arquivo.toFile(), ResultadoCarga.class);
+    }
+
+    public String resumo() {
+        StringBuilder texto = new StringBuilder(String.format("%d requisições em %.1f s: %.0f req/s, erros=%s%n",
+                requisicoes, duracaoSegundos, vazao, erros));
+        operacoes.forEach((operacao, e) -> texto.append(String.format(
+                "  %-13s n=%-6d p50=%8.1f ms  p99=%8.1f ms  p999=%8.1f ms  max=%8.1f ms%n",
+                operacao, e.getQuantidade(), e.getP50Ms(), e.getP99Ms(), e.getP999Ms(), e.getMaxMs())));
+        return texto.toString();
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.backend.config;
+
+import com.example.backend.domain.repository.BeneficioMovimentoRepository;
+import com.example.backend.domain.repository.BeneficioSaldoRepository;
+import com.example.backend.domain.repository.BeneficiosRepository;
+import com.example.backend.model.entidades.Beneficio;
+import com.example.backend.service.BeneficioService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "cors.allowed-origins=*",
+        "cors.allowed-methods=*",
+        "cors.allowed-headers=*",
+        "cors.exposed-headers=*",
+        "cors.allow-credentials=false",
+        "beneficio.agendamento.enabled=false",
+        "management.endpoints.web.exposure.include=sql"
+})
+@ActiveProfiles("test")
+class PerfiladorSqlTest {
+
+    @Autowired
+    private BeneficioService service;
+
+    @Autowired
+    private BeneficiosRepository repository;
+
+    @Autowired
+    private BeneficioSaldoRepository saldoRepository;
+
+    @Autowired
+    private BeneficioMovimentoRepository movimentoRepository;
+
+    @Autowired
+    private PerfiladorSqlEndpoint endpoint;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setup() {
+        movimentoRepository.deleteAllInBatch();
+        saldoRepository.deleteAllInBatch();
+        repository.deleteAllInBatch();
+        endpoint.limpar();
+    }
+
+    @Test
+    @DisplayName("Deve registrar tempo, binds, linhas e excesso por instrução normalizada")
+    void deveRegistrarInstrucoesDaTransferencia() {
+        Long origem = repository.save(new Beneficio(null, "Origem", "Origem", new BigDecimal("100.00"), true, null)).getId();
+        Long destino = repository.save(new Beneficio(null, "Destino", "Destino", new BigDecimal("10.00"), true, null)).getId();
+
+        service.transfer(origem, destino, BigDecimal.ONE);
+        service.transfer(origem, destino, BigDecimal.ONE);
+
+        PerfiladorSqlEndpoint.ResumoSql resumo = endpoint.resumo(null);
+        assertEquals(1.0, resumo.amostragem());
+        assertFalse(resumo.lentas().isEmpty());
+        assertTrue(resumo.bloqueantes().stream().allMatch(PerfiladorSql.InstrucaoSql::bloqueia));
+        PerfiladorSql.InstrucaoSql bloqueio = unica(resumo.bloqueantes(), "for update");
+        assertEquals(2, bloqueio.execucoes());
+        assertEquals(2, bloqueio.linhasPorExecucao());
+        assertTrue(bloqueio.bindsPorExecucao() >= 2);
+        assertTrue(bloqueio.tempoMaximoMs() > 0);
+        assertTrue(bloqueio.excessoMs() >= 0);
+        PerfiladorSql.InstrucaoSql atualizacao = unica(resumo.frequentes(), "update beneficio ");
+        assertTrue(atualizacao.linhas() >= 4);
+
+        List<PerfiladorSql.InstrucaoSql> porLinhas = endpoint.ordenado("linhas", 1);
+        assertEquals(1, porLinhas.size());
+        assertNull(endpoint.ordenado("inexistente", null));
+    }
+
+    @Test
+    @DisplayName("Deve contar falhas sem perder as métricas do pool, que seguem o DataSource embrulhado")
+    void deveContarFalhasMantendoPoolAcessivel() throws SQLException {
+        assertInstanceOf(PerfiladorDataSource.class, dataSource);
+        assertThrows(BadSqlGrammarException.class, () -> jdbcTemplate.queryForObject("SELECT * FROM tabela_inexistente WHERE id = 7", Long.class));
+        assertThrows(BadSqlGrammarException.class, () -> jdbcTemplate.queryForObject("SELECT * FROM tabela_inexistente WHERE id = 8", Long.class));
+
+        PerfiladorSql.InstrucaoSql falha = unica(endpoint.ordenado("execucoes", 50), "tabela_inexistente");
+        assertEquals("SELECT * FROM tabela_inexistente WHERE id = ?", falha.sql());
+        assertEquals(2, falha.falhas());
+        assertNotNull(meterRegistry.get("hikaricp.connections.active").gauge());
+        assertTrue(dataSource.unwrap(com.zaxxer.hikari.HikariDataSource.class).isRunning());
+    }
+
+    @Test
+    @DisplayName("Deve normalizar literais e listas IN e extrapolar as contagens pela amostragem")
+    void deveNormalizarEExtrapolar() {
+        assertEquals("select * from beneficio where nome = ? and id in (?...) and valor > ?",
+                PerfiladorSql.normalizar("select *\n  from beneficio where nome = 'O''Brien' and id in (?, ?,?) and valor > -1.5"));
+        assertEquals("select b1_0.id from beneficio b1_0 where b1_0.id=?",
+                PerfiladorSql.normalizar("select b1_0.id from beneficio b1_0 where b1_0.id=?"));
+
+        PerfiladorSql perfilador = new PerfiladorSql(0.25, 1, 60000, 0);
+        perfilador.registrar("select 1", 2_000_000, 0, 1, null);
+        perfilador.registrar("select 2", 1_000_000, 0, 1, null);
+        perfilador.registrar("select 3", 1_000_000, 0, 1, null);
+        perfilador.registrar("delete from beneficio where id = 10", 1_000_000, 0, 0,
+                new SQLException("lock", "55P03"));
+
+        List<PerfiladorSql.InstrucaoSql> top = perfilador.top(PerfiladorSql.Ordem.EXECUCOES, 10);
+        assertEquals(2, top.size());
+        PerfiladorSql.InstrucaoSql select = top.get(0);
+        assertEquals("select ?", select.sql());
+        assertEquals(12, select.execucoes());
+        assertEquals(3, select.amostras());
+        assertEquals(16.0, select.tempoTotalMs());
+        assertEquals(12, select.linhas());
+        PerfiladorSql.InstrucaoSql outras = top.get(1);
+        assertEquals(PerfiladorSql.OUTRAS, outras.sql());
+        assertEquals(4, outras.execucoes());
+        assertEquals(1, outras.falhasBloqueio());
+        // O DELETE somado em (outras) faz o grupo bloqueante, pela SQL real e não pelo nome do grupo.
+        assertTrue(outras.bloqueia());
+        assertEquals(0.0, outras.excessoMs());
+        assertFalse(select.bloqueia());
+        assertThrows(IllegalArgumentException.class, () -> new PerfiladorSql(0, 1, 1, 0));
+    }
+
+    private static PerfiladorSql.InstrucaoSql unica(List<PerfiladorSql.InstrucaoSql> instrucoes, String trecho) {
+        List<PerfiladorSql.InstrucaoSql> encontradas = instrucoes.stream()
+                .filter(instrucao -> instrucao.sql().toLowerCase().contains(trecho))
+                .toList();
+        assertEquals(1, encontradas.size(), () -> trecho + " em " + instrucoes);
+        return encontradas.get(0);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "cors.allowed-origins=*",
+        "cors.allowed-methods=*",
+        "cors.allowed-headers=*",
+        "cors.exposed-headers=*",
+        "cors.allow-credentials=false"
+})
+@ActiveProfiles("test")
+class PoolConexoesConfigTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Deve dimensionar o pool pelos núcleos do banco e pela espera das transações")
+    void deveDimensionarPool() {
+        assertEquals(8, new DimensionamentoPool(4, 1.0).getTamanho());
+        assertEquals(16, new DimensionamentoPool(4, 3.0).getTamanho());
+        assertEquals(2, new DimensionamentoPool(1, 0).getTamanho());
+        assertThrows(IllegalArgumentException.class, () -> new DimensionamentoPool(0, 1.0));
+
+        HikariDataSource pool = new HikariDataSource();
+        Object outro = new Object();
+        DimensionamentoPool dimensionamento = new DimensionamentoPool(4, 0.5);
+        assertSame(pool, dimensionamento.postProcessAfterInitialization(pool, "dataSource"));
+        assertSame(outro, dimensionamento.postProcessAfterInitialization(outro, "outro"));
+        assertEquals(6, pool.getMaximumPoolSize());
+        assertEquals(6, pool.getMinimumIdle());
+    }
+
+    @Test
+    @DisplayName("Deve exportar a espera, a ocupação e o tempo de aquisição do pool")
+    void deveExportarMetricasDoPool() {
+        jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+
+        assertTrue(meterRegistry.get("hikaricp.connections.acquire").timer().count() > 0);
+        assertNotNull(meterRegistry.get("hikaricp.connections.usage").timer());
+        assertNotNull(meterRegistry.get("hikaricp.connections.active").gauge());
+        assertNotNull(meterRegistry.get("hikaricp.connections.idle").gauge());
+        assertNotNull(meterRegistry.get("hikaricp.connections.pending").gauge());
+        assertNotNull(meterRegistry.get("hikaricp.connections.timeout").counter());
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.backend.config;
+
+import com.example.backend.domain.repository.BeneficioMovimentoRepository;
+import com.example.backend.domain.repository.BeneficioSaldoRepository;
+import com.example.backend.domain.repository.BeneficiosRepository;
+import com.example.backend.model.dto.BeneficioDTO;
+import com.example.backend.model.dto.PaginaContagemDTO;
+import com.example.backend.model.enums.TipoContagem;
+import com.example.backend.service.BeneficioService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Roteamento entre primário e réplica com dois bancos H2 em memória. A réplica não recebe as
+ * gravações do primário, então o que cada leitura devolve mostra de qual banco ela veio.
+ */
+@SpringBootTest(properties = {
+        "cors.allowed-origins=*",
+        "cors.allowed-methods=*",
+        "cors.allowed-headers=*",
+        "cors.exposed-headers=*",
+        "cors.allow-credentials=false",
+        "beneficio.agendamento.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:primario;DB_CLOSE_DELAY=-1",
+        "beneficio.replicas.enabled=true",
+        "beneficio.replicas.urls=" + ReplicaLeituraConfigTest.URL_REPLICA + ";IFEXISTS=TRUE",
+        "beneficio.replicas.verificacao-ms=3600000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReplicaLeituraConfigTest {
+
+    static final String URL_REPLICA = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+    static {
+        // a réplica precisa existir antes do contexto subir: a URL da aplicação tem IFEXISTS
+        new JdbcTemplate(new DriverManagerDataSource(URL_REPLICA, "sa", "")).execute("SELECT 1");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BeneficioService service;
+
+    @Autowired
+    private BeneficiosRepository repository;
+
+    @Autowired
+    private BeneficioSaldoRepository saldoRepository;
+
+    @Autowired
+    private BeneficioMovimentoRepository movimentoRepository;
+
+    @Autowired
+    private RoteamentoDataSource roteamento;
+
+    @Autowired
+    @Qualifier("primarioDataSource")
+    private DataSource primario;
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(URL_REPLICA, "sa", ""));
+
+    @BeforeEach
+    void setup() {
+        movimentoRepository.deleteAllInBatch();
+        saldoRepository.deleteAllInBatch();
+        repository.deleteAllInBatch();
+
+        replica.execute("DROP ALL OBJECTS");
+        for (String comando : new JdbcTemplate(primario).queryForList("SCRIPT NODATA", String.class)) {
+            replica.execute(comando);
+        }
+        replica.update("INSERT INTO beneficio (id, nome, descricao, valor, ativo, version, particoes) " +
+                "VALUES (1, 'Somente na réplica', 'Replica', 10, TRUE, 0, 0)");
+        roteamento.verificarReplicas();
+    }
+
+    @AfterEach
+    void limpar() {
+        RoteamentoDataSource.usarPrimario(false);
+    }
+
+    @Test
+    @DisplayName("Deve ler das réplicas nas transações só de leitura e gravar no primário")
+    void deveLerDaReplicaEGravarNoPrimario() {
+        service.inserirBeneficio(new BeneficioDTO(null, "No primário", "Primario", BigDecimal.TEN, true, null));
+
+        assertEquals(List.of("Somente na réplica"), nomes(service.listarTodos()));
+        assertEquals(List.of("No primário"),
+                new JdbcTemplate(primario).queryForList("SELECT nome FROM beneficio", String.class));
+
+        RoteamentoDataSource.usarPrimario(true);
+        assertEquals(List.of("No primário"), nomes(service.listarTodos()));
+    }
+
+    @Test
+    @DisplayName("Deve ler do primário dentro da janela após uma gravação do cliente")
+    void deveLerDoPrimarioAposGravar() throws Exception {
+        Cookie cookie = mockMvc.perform(post("/api/v1/beneficios")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nome\":\"Novo\",\"descricao\":\"Recém-criado\",\"valor\":10,\"ativo\":true}"))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().httpOnly(LeituraPosEscritaFilter.COOKIE, true))
+                .andReturn().getResponse().getCookie(LeituraPosEscritaFilter.COOKIE);
+        assertNotNull(cookie);
+
+        mockMvc.perform(get("/api/v1/beneficios").cookie(cookie))
+                .andExpect(jsonPath("$.dados[*].nome", contains("Novo")));
+        mockMvc.perform(get("/api/v1/beneficios"))
+                .andExpect(jsonPath("$.dados[*].nome", contains("Somente na réplica")));
+        mockMvc.perform(get("/api/v1/beneficios")
+                        .cookie(new Cookie(LeituraPosEscritaFilter.COOKIE, String.valueOf(System.currentTimeMillis() - 1))))
+                .andExpect(jsonPath("$.dados[*].nome", contains("Somente na réplica")));
+    }
+
+    @Test
+    @DisplayName("Deve ler do primário com a réplica fora do ar e voltar a ela depois da verificação")
+    void deveVoltarAoPrimarioSemReplica() throws InterruptedException {
+        service.inserirBeneficio(new BeneficioDTO(null, "No primário", "Primario", BigDecimal.TEN, true, null));
+        replica.execute("SHUTDOWN");
+        // o Hikari só revalida uma conexão parada há mais de 500 ms
+        Thread.sleep(600);
+
+        assertEquals(List.of("No primário"), nomes(service.listarTodos()));
+        assertEquals(0, roteamento.replicasSaudaveis());
+
+        setup();
+        // o pool da réplica tenta reconectar com espera crescente (até 5 s), como faria a verificação periódica
+        for (int i = 0; i < 10 && roteamento.replicasSaudaveis() == 0; i++) {
+            roteamento.verificarReplicas();
+        }
+        assertEquals(1, roteamento.replicasSaudaveis());
+        assertEquals(List.of("Somente na réplica"), nomes(service.listarTodos()));
+    }
+
+    @Test
+    @DisplayName("Não deve guardar em cache nem validar com ETag o que a réplica leu logo após uma gravação")
+    void naoDeveGuardarLeiturasDeReplicaLogoAposGravacao() throws Exception {
+        replica.update("INSERT INTO beneficio (id, nome, descricao, valor, ativo, version, particoes) " +
+                "VALUES (2, 'Segundo na réplica', 'Replica', 10, TRUE, 0, 0)");
+        service.inserirBeneficio(new BeneficioDTO(null, "No primário", "Primario", BigDecimal.TEN, true, null));
+
+        mockMvc.perform(get("/api/v1/beneficios/pageable"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+        PaginaContagemDTO<BeneficioDTO> antes = service.listarPaginado(null, null, null, true, null, 0, 1, TipoContagem.EXATA);
+        assertEquals(2, antes.getTotalElements());
+
+        // a réplica alcança o primário: nem a página nem o total podem vir do cache
+        replica.update("INSERT INTO beneficio (id, nome, descricao, valor, ativo, version, particoes) " +
+                "VALUES (3, 'Replicado', 'Replica', 10, TRUE, 0, 0)");
+        PaginaContagemDTO<BeneficioDTO> depois = service.listarPaginado(null, null, null, true, null, 0, 1, TipoContagem.EXATA);
+        assertEquals(List.of("Replicado"), nomes(depois.getContent()));
+        assertEquals(3, depois.getTotalElements());
+
+        mockMvc.perform(get("/api/v1/beneficios/pageable")
+                        .cookie(new Cookie(LeituraPosEscritaFilter.COOKIE, String.valueOf(System.currentTimeMillis() + 60000))))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+    }
+
+    private static List<String> nomes(List<BeneficioDTO> beneficios) {
+        return beneficios.stream().map(BeneficioDTO::getNome).toList();
+    }
+}
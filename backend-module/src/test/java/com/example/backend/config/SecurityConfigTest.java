@@ -0,0 +1,58 @@
+package com.example.backend.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Actuator: {@code health} e {@code info} abertos, o resto só para {@code beneficio.actuator.redes}.
+ */
+@SpringBootTest(properties = {
+        "cors.allowed-origins=*",
+        "cors.allowed-methods=*",
+        "cors.allowed-headers=*",
+        "cors.exposed-headers=*",
+        "cors.allow-credentials=false",
+        "beneficio.agendamento.enabled=false",
+        "beneficio.actuator.redes=10.1.0.0/16"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SecurityConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("Deve restringir as métricas do actuator às redes configuradas e manter o health aberto")
+    void deveRestringirActuatorPorRede() throws Exception {
+        mockMvc.perform(get("/actuator/health").with(origem("192.168.0.5")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics").with(origem("192.168.0.5")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").with(origem("10.1.2.3")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Não deve expor o perfil de SQL por padrão")
+    void naoDeveExporPerfilSql() throws Exception {
+        mockMvc.perform(get("/actuator/sql").with(origem("10.1.2.3")))
+                .andExpect(status().isNotFound());
+    }
+
+    private static RequestPostProcessor origem(String endereco) {
+        return request -> {
+            request.setRemoteAddr(endereco);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.backend.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThreadsVirtuaisMetricsTest {
+
+    @Test
+    void deveRegistrarMedidoresMesmoSemThreadsVirtuais() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ThreadsVirtuaisMetrics metrics = new ThreadsVirtuaisMetrics(false, Duration.ofMillis(20));
+
+        metrics.bindTo(registry);
+
+        assertEquals(0, registry.get("jvm.threads.virtual.pinned").timer().count());
+        assertEquals(0, registry.get("jvm.threads.virtual.submit.failed").counter().count());
+        metrics.destroy();
+    }
+
+    @Test
+    void deveUsarThreadsDePlataformaQuandoModoVirtualDesligado() {
+        MockEnvironment environment = new MockEnvironment().withProperty("spring.threads.virtual.enabled", "false");
+
+        ThreadFactory fabrica = new ThreadsVirtuaisConfig().filaTransferenciaThreadFactory(environment);
+        Thread thread = fabrica.newThread(() -> { });
+
+        assertTrue(thread.getName().startsWith("transferencia-fila-"));
+        assertTrue(thread.isDaemon());
+    }
+}
@@ -1,10 +1,27 @@
 package com.example.backend.controller;
 
+import com.example.backend.config.JanelaReplicacao;
+import com.example.backend.domain.repository.BeneficioVersaoRepository;
 import com.example.backend.exception.DuplicateException;
 import com.example.backend.exception.ResourceNotFoundException;
 import com.example.backend.model.dto.BeneficioDTO;
-import com.example.backend.model.entidades.Beneficio;
+import com.example.backend.model.dto.ErroImportacaoDTO;
+import com.example.backend.model.dto.ImportacaoResultadoDTO;
+import com.example.backend.model.dto.PaginaContagemDTO;
+import com.example.backend.model.dto.PaginaCursorDTO;
+import com.example.backend.model.dto.TransferenciaAssincronaDTO;
+import com.example.backend.model.dto.TransferenciaDTO;
+import com.example.backend.model.dto.TransferenciaLoteDTO;
+import com.example.backend.model.dto.TransferenciaResultadoDTO;
+import com.example.backend.model.dto.VersaoBeneficioDTO;
+import com.example.backend.model.enums.StatusTransferencia;
+import com.example.backend.model.enums.TipoContagem;
+import com.example.backend.model.enums.FormatoArquivo;
 import com.example.backend.service.BeneficioService;
+import com.example.backend.service.ExportacaoBeneficioService;
+import com.example.backend.service.ImportacaoBeneficioService;
+import com.example.backend.service.TransferenciaAssincronaService;
+import com.example.backend.service.VersaoBeneficioService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,26 +30,39 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(BeneficioController.class)
+@Import({VersaoBeneficioService.class, JanelaReplicacao.class})
 @ActiveProfiles("test")
 @WithMockUser
 class BeneficioControllerTest {
@@ -43,14 +73,27 @@ class BeneficioControllerTest {
     @MockBean
     private BeneficioService service;
 
+    @MockBean
+    private TransferenciaAssincronaService transferenciaAssincronaService;
+
+    @MockBean
+    private ExportacaoBeneficioService exportacaoService;
+
+    @MockBean
+    private ImportacaoBeneficioService importacaoService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @MockBean
+    private BeneficioVersaoRepository versaoRepository;
+
     private BeneficioDTO dto;
 
     @BeforeEach
     void setup() {
         dto = new BeneficioDTO(1L, "Beneficio Teste", "Descricao Teste", BigDecimal.valueOf(100.00), true, 0L);
+        when(versaoRepository.findVersao()).thenReturn(new VersaoBeneficioDTO(7L, 0L));
     }
 
     @Test
@@ -68,23 +111,146 @@ class BeneficioControllerTest {
     @Test
     @DisplayName("Deve listar benefícios paginados")
     void deveListarPaginado() throws Exception {
-        Beneficio b = new Beneficio();
-        b.setId(1L);
-        b.setNome("Teste A");
-        b.setDescricao("Desc A");
-        b.setValor(BigDecimal.valueOf(10));
-        b.setAtivo(true);
+        BeneficioDTO b = new BeneficioDTO(1L, "Teste A", "Desc A", BigDecimal.valueOf(10), true, 0L);
 
-        Page<Beneficio> page = new PageImpl<>(List.of(b), PageRequest.of(0, 10), 1);
+        PaginaContagemDTO<BeneficioDTO> page = new PaginaContagemDTO<>(List.of(b), PageRequest.of(0, 10), 1, TipoContagem.EXATA);
 
-        when(service.listarPaginado(any(), any(), any(), any(), any(), anyInt(), anyInt()))
+        when(service.listarPaginado(any(), any(), any(), any(), any(), anyInt(), anyInt(), any()))
                 .thenReturn(page);
 
         mockMvc.perform(get("/api/v1/beneficios/pageable"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content[0].id").value(1))
                 .andExpect(jsonPath("$.content[0].nome").value("Teste A"))
-                .andExpect(jsonPath("$.content[0].ativo").value(true));
+                .andExpect(jsonPath("$.content[0].ativo").value(true))
+                .andExpect(jsonPath("$.tipoContagem").value("EXATA"));
+    }
+
+    @Test
+    @DisplayName("Deve repassar a estratégia de contagem pedida na listagem paginada")
+    void deveListarPaginadoComContagemEstimada() throws Exception {
+        PaginaContagemDTO<BeneficioDTO> page = new PaginaContagemDTO<>(List.of(), PageRequest.of(0, 10), 120_000, TipoContagem.ESTIMADA);
+
+        when(service.listarPaginado(any(), any(), any(), any(), any(), anyInt(), anyInt(), eq(TipoContagem.ESTIMADA)))
+                .thenReturn(page);
+
+        mockMvc.perform(get("/api/v1/beneficios/pageable").param("contagem", "ESTIMADA"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(120_000))
+                .andExpect(jsonPath("$.tipoContagem").value("ESTIMADA"));
+    }
+
+    @Test
+    @DisplayName("Deve responder 304 sem consultar quando o ETag da listagem ainda é o atual")
+    void deveResponderNaoModificadoComEtagAtual() throws Exception {
+        when(service.listarPaginado(any(), any(), any(), any(), any(), anyInt(), anyInt(), any()))
+                .thenReturn(new PaginaContagemDTO<>(List.of(), PageRequest.of(0, 10), 0, TipoContagem.EXATA));
+
+        String etag = mockMvc.perform(get("/api/v1/beneficios/pageable"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/beneficios/pageable").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        verify(service, times(1)).listarPaginado(any(), any(), any(), any(), any(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Deve responder a listagem completa com ETag novo depois de uma gravação")
+    void deveResponderListagemDepoisDeGravacao() throws Exception {
+        when(service.listarTodos()).thenReturn(List.of(dto));
+
+        String etag = mockMvc.perform(get("/api/v1/beneficios"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        when(versaoRepository.findVersao()).thenReturn(new VersaoBeneficioDTO(8L, System.currentTimeMillis()));
+
+        String novo = mockMvc.perform(get("/api/v1/beneficios").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dados[0].nome").value("Beneficio Teste"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotEquals(etag, novo);
+    }
+
+    @Test
+    @DisplayName("Deve exportar em CSV como anexo, escrevendo a resposta de forma assíncrona")
+    void deveExportarCsv() throws Exception {
+        when(exportacaoService.exportar(any(), any(), any(), eq(true), any(), eq(FormatoArquivo.CSV), any()))
+                .thenAnswer(invocacao -> {
+                    invocacao.getArgument(6, OutputStream.class)
+                            .write("id,nome\r\n1,Teste\r\n".getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        MvcResult resultado = mockMvc.perform(get("/api/v1/beneficios/export").param("formato", "CSV").param("ativo", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv;charset=UTF-8"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"beneficios.csv\""))
+                .andExpect(content().string("id,nome\r\n1,Teste\r\n"));
+    }
+
+    @Test
+    @DisplayName("Deve importar CSV pelo Content-Type e retornar os rejeitados")
+    void deveImportarCsv() throws Exception {
+        when(importacaoService.importar(eq(FormatoArquivo.CSV), any()))
+                .thenReturn(new ImportacaoResultadoDTO(2, 1, 1, 5, 400,
+                        List.of(new ErroImportacaoDTO(3, "Já existe um benefício cadastrado com esse nome."))));
+
+        mockMvc.perform(post("/api/v1/beneficios/import").with(csrf())
+                        .contentType("text/csv")
+                        .content("nome,descricao,valor\nA,A,1\nB,B,2\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sucesso").value(true))
+                .andExpect(jsonPath("$.dados.importados").value(1))
+                .andExpect(jsonPath("$.dados.erros[0].linha").value(3));
+    }
+
+    @Test
+    @DisplayName("Deve retornar 400 ao importar CSV com cabeçalho inválido")
+    void deveRetornar400AoImportarCabecalhoInvalido() throws Exception {
+        when(importacaoService.importar(eq(FormatoArquivo.CSV), any()))
+                .thenThrow(new IllegalArgumentException("O cabeçalho do CSV deve ter as colunas nome, descricao e valor."));
+
+        mockMvc.perform(post("/api/v1/beneficios/import").with(csrf())
+                        .contentType("text/csv;charset=UTF-8")
+                        .content("a,b\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.sucesso").value(false));
+    }
+
+    @Test
+    @DisplayName("Deve listar benefícios por cursor quando o parâmetro after é enviado")
+    void deveListarPorCursor() throws Exception {
+        BeneficioDTO b = new BeneficioDTO(5L, "Teste A", "Desc A", BigDecimal.valueOf(10), true, 0L);
+        when(service.listarPorCursor(any(), any(), any(), any(), any(), eq(""), eq(1), eq(false)))
+                .thenReturn(new PaginaCursorDTO<>(List.of(b), 1, "aWQ6NQ", null));
+
+        mockMvc.perform(get("/api/v1/beneficios/pageable").param("after", "").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(5))
+                .andExpect(jsonPath("$.proximoCursor").value("aWQ6NQ"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Deve retornar 400 para cursor inválido")
+    void deveFalharComCursorInvalido() throws Exception {
+        when(service.listarPorCursor(any(), any(), any(), any(), any(), eq("xyz"), anyInt(), anyBoolean()))
+                .thenThrow(new IllegalArgumentException("Cursor de paginação inválido."));
+
+        mockMvc.perform(get("/api/v1/beneficios/pageable").param("after", "xyz"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.sucesso").value(false))
+                .andExpect(jsonPath("$.mensagem").value("Cursor de paginação inválido."));
     }
 
     @Test
@@ -267,4 +433,97 @@ class BeneficioControllerTest {
                         .value("Erro interno ao tentar transferir saldo de um beneficio."))
                 .andExpect(jsonPath("$.dados").isEmpty());
     }
+
+    @Test
+    @DisplayName("Deve transferir saldos em lote e retornar o resultado de cada item")
+    void deveTransferirLote() throws Exception {
+        TransferenciaDTO ok = new TransferenciaDTO(1L, 2L, BigDecimal.valueOf(10));
+        TransferenciaDTO falha = new TransferenciaDTO(2L, 3L, BigDecimal.valueOf(10));
+        when(service.transferirLote(anyList(), eq(false))).thenReturn(List.of(
+                TransferenciaResultadoDTO.sucesso(0, ok),
+                TransferenciaResultadoDTO.falha(1, falha, "Beneficio de destino não encontrada ou inativo.")));
+
+        mockMvc.perform(post("/api/v1/beneficios/transfers:batch")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TransferenciaLoteDTO(List.of(ok, falha), false))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sucesso").value(true))
+                .andExpect(jsonPath("$.mensagem").value("Lote processado: 1 de 2 transferências executadas."))
+                .andExpect(jsonPath("$.dados[1].sucesso").value(false))
+                .andExpect(jsonPath("$.dados[1].indice").value(1));
+    }
+
+    @Test
+    @DisplayName("Deve retornar 400 quando um lote atômico não puder ser executado")
+    void deveFalharLoteAtomico() throws Exception {
+        when(service.transferirLote(anyList(), eq(true)))
+                .thenThrow(new IllegalArgumentException("Transferência 0 do lote não executada: Saldo insuficiente no benefício de origem."));
+
+        mockMvc.perform(post("/api/v1/beneficios/transfers:batch")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TransferenciaLoteDTO(
+                                List.of(new TransferenciaDTO(1L, 2L, BigDecimal.valueOf(10))), true))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.sucesso").value(false))
+                .andExpect(jsonPath("$.dados").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve retornar 409 quando a transferência esgota as retentativas por concorrência")
+    void deveRetornar409AoTransferirComConflito() throws Exception {
+        Mockito.doThrow(new OptimisticLockingFailureException("versão alterada"))
+                .when(service).transfer(1L, 2L, BigDecimal.valueOf(100));
+
+        mockMvc.perform(put("/api/v1/beneficios/transfer")
+                        .with(csrf())
+                        .param("fromId", "1")
+                        .param("toId", "2")
+                        .param("amount", "100"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.sucesso").value(false));
+    }
+
+    @Test
+    @DisplayName("Deve enfileirar transferência assíncrona e retornar 202")
+    void deveEnfileirarTransferenciaAssincrona() throws Exception {
+        TransferenciaDTO transferencia = new TransferenciaDTO(1L, 2L, BigDecimal.valueOf(10));
+        when(transferenciaAssincronaService.enviar(any(TransferenciaDTO.class))).thenReturn(
+                new TransferenciaAssincronaDTO("abc", 1L, 2L, BigDecimal.valueOf(10), StatusTransferencia.PENDENTE,
+                        "Transferência aguardando processamento.", LocalDateTime.now(), null));
+
+        mockMvc.perform(post("/api/v1/beneficios/transfers:async")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transferencia)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/v1/beneficios/transfers/abc"))
+                .andExpect(jsonPath("$.dados.id").value("abc"))
+                .andExpect(jsonPath("$.dados.status").value("PENDENTE"));
+    }
+
+    @Test
+    @DisplayName("Deve retornar 503 quando a fila de transferências estiver cheia")
+    void deveRetornar503ComFilaCheia() throws Exception {
+        when(transferenciaAssincronaService.enviar(any(TransferenciaDTO.class)))
+                .thenThrow(new RejectedExecutionException("Fila de transferências cheia, tente novamente mais tarde."));
+
+        mockMvc.perform(post("/api/v1/beneficios/transfers:async")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TransferenciaDTO(1L, 2L, BigDecimal.valueOf(10)))))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.sucesso").value(false));
+    }
+
+    @Test
+    @DisplayName("Deve retornar 404 para transferência assíncrona desconhecida")
+    void deveRetornar404ParaTransferenciaDesconhecida() throws Exception {
+        when(transferenciaAssincronaService.consultar("xyz")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/v1/beneficios/transfers/xyz"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.mensagem").value("Transferência não encontrada ou expirada."));
+    }
 }
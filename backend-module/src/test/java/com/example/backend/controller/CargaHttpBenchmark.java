@@ -0,0 +1,102 @@
+package com.example.backend.controller;
+
+import com.example.backend.carga.ConfiguracaoCarga;
+import com.example.backend.carga.GeradorCarga;
+import com.example.backend.carga.OperacaoCarga;
+import com.example.backend.carga.ResultadoCarga;
+import com.example.backend.domain.repository.BeneficioMovimentoRepository;
+import com.example.backend.domain.repository.BeneficioSaldoRepository;
+import com.example.backend.domain.repository.BeneficiosRepository;
+import com.example.backend.model.entidades.Beneficio;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Carga HTTP de alta concorrência sobre {@code PUT /transfer} (poucos beneficios, muita disputa de
+ * lock) e {@code GET /pageable}. As subclasses sobem o contexto com threads de plataforma ou virtuais.
+ */
+@Tag("benchmark")
+@TestPropertySource(properties = {
+        "cors.allowed-origins=*",
+        "cors.allowed-methods=*",
+        "cors.allowed-headers=*",
+        "cors.exposed-headers=*",
+        "cors.allow-credentials=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "logging.level.org.springframework.web=WARN",
+        "logging.level.org.springframework.security=WARN"
+})
+abstract class CargaHttpBenchmark {
+
+    private static final int CONTAS = 20;
+    private static final int CLIENTES = 50;
+    private static final int REQUISICOES_POR_CLIENTE = 40;
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private BeneficiosRepository repository;
+
+    @Autowired
+    private BeneficioSaldoRepository saldoRepository;
+
+    @Autowired
+    private BeneficioMovimentoRepository movimentoRepository;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private List<Long> ids;
+
+    abstract String modo();
+
+    @BeforeEach
+    void setup() {
+        movimentoRepository.deleteAllInBatch();
+        saldoRepository.deleteAllInBatch();
+        repository.deleteAllInBatch();
+        ids = new ArrayList<>();
+        for (int i = 0; i < CONTAS; i++) {
+            Beneficio b = new Beneficio();
+            b.setNome("Conta " + i);
+            b.setDescricao("Carga HTTP");
+            b.setValor(BigDecimal.valueOf(1_000_000));
+            b.setAtivo(true);
+            ids.add(repository.save(b).getId());
+        }
+    }
+
+    @Test
+    void medirCargaTransferenciaEListagem() throws Exception {
+        ConfiguracaoCarga config = new ConfiguracaoCarga();
+        config.setClientes(CLIENTES);
+        config.setRequisicoesPorCliente(REQUISICOES_POR_CLIENTE);
+        config.setPesoListagem(50);
+        config.setPesoCrud(0);
+        config.setPesoTransferencia(50);
+
+        ResultadoCarga resultado = new GeradorCarga(porta, config, ids).executar();
+        System.out.printf("%s: pinned=%d | %s", modo(),
+                registry.get("jvm.threads.virtual.pinned").timer().count(), resultado.resumo());
+
+        // Erros (409 por retentativas esgotadas, 500 por timeout de conexão) são reportados, não falham a medição.
+        assertTrue(resultado.getOperacoes().containsKey(OperacaoCarga.TRANSFERENCIA)
+                && resultado.getOperacoes().containsKey(OperacaoCarga.LISTAGEM));
+        BigDecimal total = repository.findAllById(ids).stream().map(Beneficio::getValor).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, BigDecimal.valueOf(1_000_000L * CONTAS).compareTo(total));
+    }
+}
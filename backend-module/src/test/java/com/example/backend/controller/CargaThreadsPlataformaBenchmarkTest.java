@@ -0,0 +1,16 @@
+package com.example.backend.controller;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+@ActiveProfiles("test")
+class CargaThreadsPlataformaBenchmarkTest extends CargaHttpBenchmark {
+
+    @Override
+    String modo() {
+        return "Threads de plataforma";
+    }
+}
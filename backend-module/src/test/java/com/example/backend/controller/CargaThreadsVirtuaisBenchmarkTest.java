@@ -0,0 +1,19 @@
+package com.example.backend.controller;
+
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+@EnabledForJreRange(min = JRE.JAVA_21)
+@ActiveProfiles("test")
+class CargaThreadsVirtuaisBenchmarkTest extends CargaHttpBenchmark {
+
+    @Override
+    String modo() {
+        return "Threads virtuais";
+    }
+}
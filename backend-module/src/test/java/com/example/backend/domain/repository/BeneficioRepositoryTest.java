@@ -1,25 +1,49 @@
 package com.example.backend.domain.repository;
 
+import com.example.backend.config.JanelaReplicacao;
+import com.example.backend.domain.specification.BeneficioSpecification;
+import com.example.backend.model.dto.BeneficioDTO;
+import com.example.backend.model.dto.DocumentoBuscaDTO;
 import com.example.backend.model.entidades.Beneficio;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
+@Import(JanelaReplicacao.class)
 @ActiveProfiles("test")
 public class BeneficioRepositoryTest {
 
     @Autowired
     private BeneficiosRepository repository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
     /**
      * Cria um objeto Beneficio (não salva automaticamente no banco)
      */
@@ -99,6 +123,143 @@ public class BeneficioRepositoryTest {
         bloqueado.ifPresent(ben -> assertEquals("Beneficio Teste G", ben.getNome()));
     }
 
+    @Test
+    @DisplayName("Deve bloquear beneficios ativos em lote ordenados por ID")
+    void deveBloquearBeneficiosAtivosEmLoteOrdenados() {
+        Beneficio b1 = repository.save(criarBeneficio("Beneficio Teste H", "Descricao Teste H", true));
+        Beneficio b2 = repository.save(criarBeneficio("Beneficio Teste I", "Descricao Teste I", false));
+        Beneficio b3 = repository.save(criarBeneficio("Beneficio Teste J", "Descricao Teste J", true));
+
+        List<Beneficio> bloqueados = repository.findAllByIdInAndAtivoTrueForUpdate(
+                List.of(b3.getId(), b2.getId(), b1.getId()));
+
+        assertEquals(List.of(b1.getId(), b3.getId()), bloqueados.stream().map(Beneficio::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Deve debitar atomicamente apenas quando houver saldo")
+    void deveDebitarAtomicamenteApenasComSaldo() {
+        Beneficio salvo = repository.saveAndFlush(criarBeneficio("Beneficio Teste K", "Descricao Teste K", true));
+
+        assertEquals(1, repository.debitar(salvo.getId(), BigDecimal.valueOf(100.00)));
+        assertEquals(0, repository.debitar(salvo.getId(), BigDecimal.valueOf(100.00)));
+        assertEquals(1, repository.creditar(salvo.getId(), BigDecimal.valueOf(25.00)));
+    }
+
+    @Test
+    @DisplayName("Não deve debitar nem creditar beneficio inativo")
+    void naoDeveMovimentarBeneficioInativo() {
+        Beneficio salvo = repository.saveAndFlush(criarBeneficio("Beneficio Teste L", "Descricao Teste L", false));
+
+        assertEquals(0, repository.debitar(salvo.getId(), BigDecimal.ONE));
+        assertEquals(0, repository.creditar(salvo.getId(), BigDecimal.ONE));
+    }
+
+    @Test
+    @DisplayName("Deve percorrer a listagem por keyset sem repetir nem pular registros")
+    void devePercorrerPorKeyset() {
+        for (int i = 0; i < 5; i++) {
+            repository.save(criarBeneficio("Beneficio Keyset " + i, "Descricao Keyset", i != 2));
+        }
+        Specification<Beneficio> filtros = Specification.where(BeneficioSpecification.hasDescricao("keyset"))
+                .and(BeneficioSpecification.isAtivo(true));
+
+        List<Long> vistos = new ArrayList<>();
+        Long ultimoId = null;
+        List<Beneficio> pagina;
+        do {
+            pagina = repository.findBy(filtros.and(BeneficioSpecification.idMenorQue(ultimoId)),
+                    query -> query.sortBy(Sort.by("id").descending()).limit(2).all());
+            pagina.forEach(b -> vistos.add(b.getId()));
+            ultimoId = pagina.isEmpty() ? null : pagina.get(pagina.size() - 1).getId();
+        } while (pagina.size() == 2);
+
+        List<Long> esperados = repository.findAll(filtros, Sort.by("id").descending()).stream().map(Beneficio::getId).toList();
+        assertEquals(4, vistos.size());
+        assertEquals(esperados, vistos);
+    }
+
+    @Test
+    @DisplayName("Deve buscar uma página por offset sem contar o total")
+    void deveBuscarPaginaPorOffset() {
+        for (int i = 0; i < 5; i++) {
+            repository.save(criarBeneficio("Beneficio Offset " + i, "Descricao Offset", true));
+        }
+        Specification<Beneficio> filtros = Specification.where(BeneficioSpecification.hasDescricao("offset"));
+        List<Long> todos = repository.findAll(filtros, Sort.by("id").descending()).stream().map(Beneficio::getId).toList();
+
+        Window<Beneficio> segunda = repository.findBy(filtros,
+                query -> query.sortBy(Sort.by("id").descending()).limit(2).scroll(ScrollPosition.offset(2)));
+        Window<Beneficio> terceira = repository.findBy(filtros,
+                query -> query.sortBy(Sort.by("id").descending()).limit(2).scroll(ScrollPosition.offset(4)));
+
+        assertEquals(todos.subList(2, 4), segunda.getContent().stream().map(Beneficio::getId).toList());
+        assertTrue(segunda.hasNext());
+        assertEquals(todos.subList(4, 5), terceira.getContent().stream().map(Beneficio::getId).toList());
+        assertFalse(terceira.hasNext());
+    }
+
+    @Test
+    @DisplayName("Deve projetar a página em BeneficioDTO com os filtros, a ordem e sem entidades gerenciadas")
+    void deveProjetarPaginaEmDTO() {
+        for (int i = 0; i < 5; i++) {
+            repository.save(criarBeneficio("Beneficio Projecao " + i, "Descricao Projecao", i != 3));
+        }
+        Beneficio exato = repository.save(criarBeneficio("projecao", "Outra descricao", true));
+        repository.flush();
+        entityManager.clear();
+        Specification<Beneficio> filtros = Specification.where(BeneficioSpecification.hasDescricao("projecao"))
+                .and(BeneficioSpecification.isAtivo(true));
+        List<Long> todos = repository.findAll(filtros, Sort.by("id").descending()).stream().map(Beneficio::getId).toList();
+        entityManager.clear();
+
+        List<BeneficioDTO> segunda = repository.findDTOs(filtros, Sort.by("id").descending(), 2, 2);
+        List<BeneficioDTO> relevancia = repository.findDTOs(BeneficioSpecification.globalSearch("projecao", false),
+                Sort.unsorted(), 0, 10);
+
+        assertEquals(todos.subList(2, 4), segunda.stream().map(BeneficioDTO::getId).toList());
+        assertEquals(0, new BigDecimal("150.00").compareTo(segunda.get(0).getValor()));
+        assertEquals(exato.getId(), relevancia.get(0).getId());
+        assertEquals(6, relevancia.size());
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    @DisplayName("Deve ler os documentos do índice de busca em lotes por id, com o saldo total")
+    void deveLerDocumentosDeBuscaEmLotes() {
+        Long anterior = repository.save(criarBeneficio("Beneficio Indice 0", "Descricao Indice", true)).getId();
+        Beneficio primeiro = repository.save(criarBeneficio("Beneficio Indice 1", "Descricao Indice", true));
+        Beneficio segundo = repository.save(criarBeneficio("Beneficio Indice 2", "Descricao Indice", false));
+        repository.save(criarBeneficio("Beneficio Indice 3", "Descricao Indice", true));
+
+        List<DocumentoBuscaDTO> lote = repository.findDocumentosBusca(anterior, PageRequest.of(0, 2));
+
+        assertEquals(List.of(primeiro.getId(), segundo.getId()), lote.stream().map(DocumentoBuscaDTO::getId).toList());
+        assertEquals("Beneficio Indice 2", lote.get(1).getNome());
+        assertFalse(lote.get(1).getAtivo());
+        assertEquals(0, new BigDecimal("150.00").compareTo(lote.get(1).getValor()));
+        assertEquals(1, repository.findDocumentosBuscaByIdIn(List.of(segundo.getId(), -1L)).size());
+    }
+
+    @Test
+    @DisplayName("Deve gerar ids em blocos da sequência e agrupar os INSERTs em lotes JDBC")
+    void deveAgruparInsertsEmLotes() {
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Beneficio> beneficios = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            beneficios.add(criarBeneficio("Beneficio Lote " + i, "Descricao Lote", true));
+        }
+        estatisticas.clear();
+
+        List<Beneficio> salvos = repository.saveAll(beneficios);
+        repository.flush();
+
+        assertEquals(120, estatisticas.getEntityInsertCount());
+        // 3 lotes de INSERT (50, 50 e 20) e 3 chamadas à sequência, no lugar de 120 INSERTs
+        assertTrue(estatisticas.getPrepareStatementCount() <= 6, "Statements: " + estatisticas.getPrepareStatementCount());
+        assertEquals(salvos.get(0).getId() + 49, salvos.get(49).getId());
+    }
+
     @Test
     @DisplayName("Deve lançar exceção ao tentar salvar nome nulo (violação de integridade)")
     void deveLancarExcecaoQuandoNomeForNulo() {
@@ -1,5 +1,6 @@
 package com.example.backend.domain.specification;
 
+import com.example.backend.config.JanelaReplicacao;
 import com.example.backend.domain.repository.BeneficiosRepository;
 import com.example.backend.model.entidades.Beneficio;
 import org.junit.jupiter.api.BeforeEach;
@@ -7,6 +8,8 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -16,6 +19,7 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
+@Import(JanelaReplicacao.class)
 @ActiveProfiles("test")
 class BeneficioSpecificationTest {
 
@@ -115,4 +119,40 @@ class BeneficioSpecificationTest {
 
         assertEquals(3, result.size());
     }
+
+    @Test
+    @DisplayName("Deve ordenar a busca global por relevância sem trigramas (H2)")
+    void deveOrdenarBuscaGlobalPorRelevancia() {
+        salvar("Auxilio Vale", "Ajuda de custo");
+        salvar("Cesta basica", "Substitui o vale refeicao");
+        salvar("Vale", "Beneficio curto");
+        salvar("Vale Alimentacao", "Cartao");
+
+        Specification<Beneficio> spec = BeneficioSpecification.globalSearch("VALE", false);
+        List<String> nomes = repository.findAll(spec).stream().map(Beneficio::getNome).toList();
+
+        assertEquals(List.of("Vale", "Vale Alimentacao", "Auxilio Vale", "Cesta basica"), nomes);
+        assertEquals(4, repository.count(spec));
+    }
+
+    @Test
+    @DisplayName("Deve manter a ordenação explícita sobre a relevância")
+    void deveManterOrdenacaoExplicitaNaBuscaGlobal() {
+        Beneficio primeiro = salvar("Vale", "Beneficio curto");
+        Beneficio segundo = salvar("Auxilio Vale", "Ajuda de custo");
+
+        List<Beneficio> result = repository.findAll(BeneficioSpecification.globalSearch("vale", false),
+                Sort.by("id").descending());
+
+        assertEquals(List.of(segundo.getId(), primeiro.getId()), result.stream().map(Beneficio::getId).toList());
+    }
+
+    private Beneficio salvar(String nome, String descricao) {
+        Beneficio b = new Beneficio();
+        b.setNome(nome);
+        b.setDescricao(descricao);
+        b.setValor(BigDecimal.TEN);
+        b.setAtivo(true);
+        return repository.save(b);
+    }
 }
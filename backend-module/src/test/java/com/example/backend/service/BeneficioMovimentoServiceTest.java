@@ -0,0 +1,153 @@
+package com.example.backend.service;
+
+import com.example.backend.domain.repository.BeneficioMovimentoRepository;
+import com.example.backend.domain.repository.BeneficiosRepository;
+import com.example.backend.exception.ResourceNotFoundException;
+import com.example.backend.model.dto.SaldoPendenteDTO;
+import com.example.backend.model.entidades.Beneficio;
+import com.example.backend.model.entidades.BeneficioMovimento;
+import com.example.backend.util.BancoDados;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class BeneficioMovimentoServiceTest {
+
+    @Mock
+    private BeneficiosRepository repository;
+
+    @Mock
+    private BeneficioMovimentoRepository movimentoRepository;
+
+    @Mock
+    private BeneficioParticaoService particaoService;
+
+    @Mock
+    private BancoDados bancoDados;
+
+    @InjectMocks
+    private BeneficioMovimentoService service;
+
+    private Beneficio origem;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        origem = new Beneficio(1L, "Origem", "Teste", BigDecimal.valueOf(100.00), true, 0L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void deveGravarDebitoECreditoSemAlterarValor() {
+        when(repository.findByIdAndAtivoTrueForUpdate(1L)).thenReturn(Optional.of(origem));
+        when(repository.findByIdAndAtivoTrueForShare(2L)).thenReturn(Optional.of(new Beneficio()));
+
+        service.transferir(1L, 2L, BigDecimal.valueOf(40.00));
+
+        ArgumentCaptor<List<BeneficioMovimento>> captor = ArgumentCaptor.forClass(List.class);
+        verify(movimentoRepository).saveAll(captor.capture());
+        List<BeneficioMovimento> lancamentos = captor.getValue();
+        assertEquals(2, lancamentos.size());
+        assertEquals(BigDecimal.valueOf(-40.00), lancamentos.get(0).getValor());
+        assertEquals(1L, lancamentos.get(0).getBeneficioId());
+        assertEquals(BigDecimal.valueOf(40.00), lancamentos.get(1).getValor());
+        assertEquals(2L, lancamentos.get(1).getBeneficioId());
+        assertEquals(lancamentos.get(0).getTransferencia(), lancamentos.get(1).getTransferencia());
+        assertEquals(BigDecimal.valueOf(100.00), origem.getValorBase());
+    }
+
+    @Test
+    void deveConsiderarMovimentosPendentesNaVerificacaoDeSaldo() {
+        // A fórmula lida junto com o lock pode estar desatualizada: vale a soma relida depois dele.
+        origem.setSaldoPendente(BigDecimal.ZERO);
+        when(repository.findByIdAndAtivoTrueForUpdate(1L)).thenReturn(Optional.of(origem));
+        when(movimentoRepository.somarPendentes(List.of(1L)))
+                .thenReturn(List.of(new SaldoPendenteDTO(1L, BigDecimal.valueOf(-70.00))));
+        when(repository.findByIdAndAtivoTrueForShare(2L)).thenReturn(Optional.of(new Beneficio()));
+
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+                () -> service.transferir(1L, 2L, BigDecimal.valueOf(40.00)));
+
+        assertEquals("Saldo insuficiente no benefício de origem.", erro.getMessage());
+        verify(movimentoRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void deveLancarErroQuandoDestinoInexistente() {
+        when(repository.findByIdAndAtivoTrueForUpdate(1L)).thenReturn(Optional.of(origem));
+        when(repository.findByIdAndAtivoTrueForShare(2L)).thenReturn(Optional.empty());
+
+        ResourceNotFoundException erro = assertThrows(ResourceNotFoundException.class,
+                () -> service.transferir(1L, 2L, BigDecimal.valueOf(40.00)));
+
+        assertEquals("Beneficio de destino não encontrada ou inativo.", erro.getMessage());
+        verify(movimentoRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void deveBloquearOrigemEDestinoEmOrdemDeId() {
+        Beneficio origemMaior = new Beneficio(5L, "Origem", "Teste", BigDecimal.valueOf(100.00), true, 0L);
+        when(repository.findByIdAndAtivoTrueForUpdate(5L)).thenReturn(Optional.of(origemMaior));
+        when(repository.findByIdAndAtivoTrueForShare(2L)).thenReturn(Optional.of(new Beneficio()));
+
+        service.transferir(5L, 2L, BigDecimal.valueOf(40.00));
+
+        InOrder ordem = inOrder(repository);
+        ordem.verify(repository).findByIdAndAtivoTrueForShare(2L);
+        ordem.verify(repository).findByIdAndAtivoTrueForUpdate(5L);
+    }
+
+    @Test
+    void deveSerializarDebitosPeloLockConsultivoNoPostgres() {
+        when(bancoDados.isPostgres()).thenReturn(true);
+        when(repository.findByIdAndAtivoTrueForShare(1L)).thenReturn(Optional.of(origem));
+        when(repository.findByIdAndAtivoTrueForShare(2L)).thenReturn(Optional.of(new Beneficio()));
+
+        service.transferir(1L, 2L, BigDecimal.valueOf(40.00));
+
+        InOrder ordem = inOrder(movimentoRepository, repository);
+        ordem.verify(movimentoRepository).bloquearDebitos(1L);
+        ordem.verify(repository).findByIdAndAtivoTrueForShare(1L);
+        ordem.verify(movimentoRepository).somarPendentes(List.of(1L));
+        verify(repository, never()).findByIdAndAtivoTrueForUpdate(anyLong());
+        verify(movimentoRepository).saveAll(anyList());
+    }
+
+    @Test
+    void deveManterPendentesDeBeneficioInexistente() {
+        when(repository.findByIdForUpdate(9L)).thenReturn(Optional.empty());
+
+        assertEquals(0, service.compactar(9L));
+        verify(movimentoRepository, never()).findPendentesForUpdate(anyLong());
+    }
+
+    @Test
+    void deveCompactarPendentesNoValor() {
+        origem.setSaldoPendente(BigDecimal.valueOf(15.00));
+        List<BeneficioMovimento> pendentes = new ArrayList<>(List.of(
+                new BeneficioMovimento(1L, "a", BigDecimal.valueOf(25.00)),
+                new BeneficioMovimento(1L, "b", BigDecimal.valueOf(-10.00))));
+        when(repository.findByIdForUpdate(1L)).thenReturn(Optional.of(origem));
+        when(movimentoRepository.findPendentesForUpdate(1L)).thenReturn(pendentes);
+
+        int compactados = service.compactar(1L);
+
+        assertEquals(2, compactados);
+        assertEquals(BigDecimal.valueOf(115.00), origem.getValorBase());
+        assertEquals(0, BigDecimal.valueOf(115.00).compareTo(origem.getValor()));
+        assertTrue(pendentes.stream().allMatch(BeneficioMovimento::getCompactado));
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.backend.service;
+
+import com.example.backend.domain.repository.BeneficioSaldoRepository;
+import com.example.backend.domain.repository.BeneficiosRepository;
+import com.example.backend.model.dto.BeneficioParticaoDTO;
+import com.example.backend.model.entidades.Beneficio;
+import com.example.backend.model.entidades.BeneficioSaldo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class BeneficioParticaoServiceTest {
+
+    @Mock
+    private BeneficiosRepository repository;
+
+    @Mock
+    private BeneficioSaldoRepository saldoRepository;
+
+    @InjectMocks
+    private BeneficioParticaoService service;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void deveCreditarPrimeiroQuandoDestinoTemIdMenor() {
+        BeneficioParticaoDTO origem = new BeneficioParticaoDTO(5L, true, 1);
+        when(repository.creditar(2L, BigDecimal.TEN)).thenReturn(1);
+        when(saldoRepository.debitar(5L, 0, BigDecimal.TEN)).thenReturn(1);
+
+        service.transferir(5L, 2L, BigDecimal.TEN, List.of(origem));
+
+        InOrder ordem = inOrder(repository, saldoRepository);
+        ordem.verify(repository).creditar(2L, BigDecimal.TEN);
+        ordem.verify(saldoRepository).debitar(5L, 0, BigDecimal.TEN);
+    }
+
+    @Test
+    void deveDebitarPrimeiroQuandoOrigemTemIdMenor() {
+        BeneficioParticaoDTO destino = new BeneficioParticaoDTO(5L, true, 1);
+        when(repository.debitar(2L, BigDecimal.TEN)).thenReturn(1);
+        when(saldoRepository.creditar(5L, 0, BigDecimal.TEN)).thenReturn(1);
+
+        service.transferir(2L, 5L, BigDecimal.TEN, List.of(destino));
+
+        InOrder ordem = inOrder(repository, saldoRepository);
+        ordem.verify(repository).debitar(2L, BigDecimal.TEN);
+        ordem.verify(saldoRepository).creditar(5L, 0, BigDecimal.TEN);
+    }
+
+    @Test
+    void deveRecusarParticionarQuandoDesabilitado() {
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class, () -> service.particionar(1L, 4));
+
+        assertEquals("Saldo particionado desabilitado (beneficio.particoes.enabled=false).", erro.getMessage());
+        verify(repository, never()).findAllByIdInAndAtivoTrueForUpdate(anyList());
+    }
+
+    @Test
+    void deveIncorporarParticoesEmValorQuandoDesabilitado() {
+        Beneficio beneficio = new Beneficio(1L, "Quente", "Quente", new BigDecimal("10.00"), false, 0L);
+        beneficio.setParticoes(2);
+        beneficio.setSaldoParticoes(new BigDecimal("40.00"));
+        List<BeneficioSaldo> saldos = List.of(
+                new BeneficioSaldo(10L, 1L, 0, new BigDecimal("15.00")),
+                new BeneficioSaldo(11L, 1L, 1, new BigDecimal("25.00")));
+        when(repository.findIdsParticionados()).thenReturn(List.of(1L));
+        when(repository.findByIdForUpdate(1L)).thenReturn(Optional.of(beneficio));
+        when(saldoRepository.findAllByBeneficioIdForUpdate(1L)).thenReturn(saldos);
+
+        service.incorporarParticoes();
+
+        assertEquals(0, new BigDecimal("50.00").compareTo(beneficio.getValor()));
+        assertEquals(0, beneficio.getParticoes());
+        verify(saldoRepository).deleteAll(saldos);
+    }
+
+    @Test
+    void naoDeveIncorporarParticoesQuandoHabilitado() {
+        ReflectionTestUtils.setField(service, "particoesHabilitadas", true);
+
+        service.incorporarParticoes();
+
+        verify(repository, never()).findIdsParticionados();
+    }
+}
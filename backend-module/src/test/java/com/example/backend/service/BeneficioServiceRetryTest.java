@@ -0,0 +1,90 @@
+package com.example.backend.service;
+
+import com.example.backend.config.RetryConfig;
+import com.example.backend.domain.repository.BeneficiosRepository;
+import com.example.backend.model.entidades.Beneficio;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig({RetryConfig.class, BeneficioService.class, MetricasBeneficio.class, SimpleMeterRegistry.class})
+@TestPropertySource(properties = {
+        "beneficio.transfer.retry.max-attempts=3",
+        "beneficio.transfer.retry.delay-ms=1",
+        "beneficio.transfer.retry.max-delay-ms=2"
+})
+class BeneficioServiceRetryTest {
+
+    @Autowired
+    private BeneficioService service;
+
+    @MockBean
+    private BeneficiosRepository repository;
+
+    @MockBean
+    private BeneficioParticaoService particaoService;
+
+    @MockBean
+    private BeneficioMovimentoService movimentoService;
+
+    @MockBean
+    private ContagemBeneficioService contagemService;
+
+    @MockBean
+    private BuscaTextualService buscaTextual;
+
+    @MockBean
+    private IndiceBuscaService indiceBusca;
+
+    @Test
+    @DisplayName("Deve repetir a transferência após falha transitória de lock")
+    void deveRepetirTransferenciaAposFalhaDeLock() {
+        Beneficio origem = new Beneficio(1L, "Origem", "Teste", BigDecimal.valueOf(200.00), true, 0L);
+        Beneficio destino = new Beneficio(2L, "Destino", "Teste", BigDecimal.valueOf(100.00), true, 0L);
+
+        when(repository.findAllByIdInAndAtivoTrueForUpdate(anyCollection()))
+                .thenThrow(new CannotAcquireLockException("deadlock detected"))
+                .thenReturn(List.of(origem, destino));
+
+        service.transfer(1L, 2L, BigDecimal.valueOf(50.00));
+
+        assertEquals(BigDecimal.valueOf(150.00), origem.getValor());
+        verify(repository, times(2)).findAllByIdInAndAtivoTrueForUpdate(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Deve desistir após o número máximo de tentativas")
+    void deveDesistirAposMaximoDeTentativas() {
+        when(repository.findAllByIdInAndAtivoTrueForUpdate(anyCollection()))
+                .thenThrow(new CannotAcquireLockException("lock timeout"));
+
+        assertThrows(CannotAcquireLockException.class,
+                () -> service.transfer(1L, 2L, BigDecimal.valueOf(50.00)));
+        verify(repository, times(3)).findAllByIdInAndAtivoTrueForUpdate(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Não deve repetir falhas de negócio")
+    void naoDeveRepetirFalhaDeNegocio() {
+        Beneficio origem = new Beneficio(1L, "Origem", "Teste", BigDecimal.valueOf(10.00), true, 0L);
+        Beneficio destino = new Beneficio(2L, "Destino", "Teste", BigDecimal.valueOf(100.00), true, 0L);
+
+        when(repository.findAllByIdInAndAtivoTrueForUpdate(anyCollection())).thenReturn(List.of(origem, destino));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.transfer(1L, 2L, BigDecimal.valueOf(50.00)));
+        verify(repository, times(1)).findAllByIdInAndAtivoTrueForUpdate(anyCollection());
+    }
+}
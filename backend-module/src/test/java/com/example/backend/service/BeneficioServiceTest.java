@@ -4,17 +4,32 @@ import com.example.backend.domain.repository.BeneficiosRepository;
 import com.example.backend.exception.DuplicateException;
 import com.example.backend.exception.ResourceNotFoundException;
 import com.example.backend.model.dto.BeneficioDTO;
+import com.example.backend.domain.event.BeneficioAlteradoEvent;
+import com.example.backend.model.dto.BeneficioParticaoDTO;
+import com.example.backend.model.dto.FiltroBeneficioDTO;
+import com.example.backend.model.dto.TransferenciaDTO;
+import com.example.backend.model.dto.TransferenciaResultadoDTO;
 import com.example.backend.model.entidades.Beneficio;
+import com.example.backend.model.entidades.BeneficioSaldo;
+import com.example.backend.model.enums.ModoTransferencia;
+import com.example.backend.model.enums.TipoContagem;
+import com.example.backend.util.CursorPaginacao;
+import com.example.backend.util.IndiceNgrama;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,12 +41,36 @@ public class BeneficioServiceTest {
     @Mock
     private BeneficiosRepository repository;
 
+    @Mock
+    private BeneficioParticaoService particaoService;
+
+    @Mock
+    private BeneficioMovimentoService movimentoService;
+
+    @Mock
+    private ContagemBeneficioService contagemService;
+
+    @Mock
+    private BuscaTextualService buscaTextual;
+
+    @Mock
+    private IndiceBuscaService indiceBusca;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private MetricasBeneficio metricas = new MetricasBeneficio(new SimpleMeterRegistry());
+
     @InjectMocks
     private BeneficioService service;
 
     private Beneficio beneficioBase1;
     private Beneficio beneficioBase2;
     private BeneficioDTO beneficioDTOBase;
+    private BeneficioDTO dto1;
+    private BeneficioDTO dto2;
+    private BeneficioDTO dto3;
 
     @BeforeEach
     void setup() {
@@ -40,6 +79,10 @@ public class BeneficioServiceTest {
         beneficioBase1 = new Beneficio(1L, "Beneficio Teste A", "Descricao Teste A", BigDecimal.valueOf(100.00), true, 0L);
         beneficioBase2 = new Beneficio(2L, "Beneficio Teste B", "Descricao Teste B", BigDecimal.valueOf(200.00), true, 0L);
 
+        dto1 = new BeneficioDTO(1L, "Beneficio Teste A", "Descricao Teste A", BigDecimal.valueOf(100.00), true, 0L);
+        dto2 = new BeneficioDTO(2L, "Beneficio Teste B", "Descricao Teste B", BigDecimal.valueOf(200.00), true, 0L);
+        dto3 = new BeneficioDTO(3L, "Beneficio Teste C", "Descricao Teste C", BigDecimal.valueOf(300.00), true, 0L);
+
         beneficioDTOBase = new BeneficioDTO();
         beneficioDTOBase.setId(1L);
         beneficioDTOBase.setNome("Beneficio Teste A");
@@ -51,27 +94,120 @@ public class BeneficioServiceTest {
 
     @Test
     void deveListarTodosOsBeneficios() {
-        when(repository.findAll()).thenReturn(List.of(beneficioBase1, beneficioBase2));
+        when(repository.findAllDTOs()).thenReturn(List.of(dto1, dto2));
 
         var result = service.listarTodos();
 
         assertEquals(2, result.size());
         assertEquals("Beneficio Teste A", result.get(0).getNome());
         assertEquals("Beneficio Teste B", result.get(1).getNome());
-        verify(repository, times(1)).findAll();
+        verify(repository, never()).findAll();
     }
 
     @Test
     void deveListarBeneficiosPaginados() {
-        Pageable pageable = PageRequest.of(0, 10, Sort.by("id").descending());
-        Page<Beneficio> pageMock = new PageImpl<>(List.of(beneficioBase1, beneficioBase2));
-
-        when(repository.findAll(any(Specification.class), eq(pageable))).thenReturn(pageMock);
+        when(repository.findDTOs(any(), eq(Sort.by("id").descending()), eq(0L), eq(11))).thenReturn(List.of(dto1, dto2));
 
-        var result = service.listarPaginado(null, null, null, null, null, 0, 10);
+        var result = service.listarPaginado(null, null, null, null, null, 0, 10, null);
 
         assertEquals(2, result.getTotalElements());
-        verify(repository, times(1)).findAll(any(Specification.class), eq(pageable));
+        assertEquals(TipoContagem.EXATA, result.getTipoContagem());
+        verify(repository, never()).findAll(any(Specification.class), any(Pageable.class));
+        verifyNoInteractions(contagemService);
+    }
+
+    @Test
+    void deveUsarContagemExataQuandoHaProximaPagina() {
+        when(repository.findDTOs(any(), any(), anyLong(), eq(3))).thenReturn(List.of(dto1, dto2, dto3));
+        when(contagemService.contarExato(eq(FiltroBeneficioDTO.de("VALE", null, null, true, null)), any())).thenReturn(42L);
+
+        var result = service.listarPaginado("VALE", null, null, true, null, 0, 2, TipoContagem.EXATA);
+
+        assertEquals(42, result.getTotalElements());
+        assertEquals(21, result.getTotalPages());
+        assertEquals(TipoContagem.EXATA, result.getTipoContagem());
+    }
+
+    @Test
+    void deveUsarEstimativaQuandoSolicitada() {
+        when(repository.findDTOs(any(), any(), anyLong(), eq(3))).thenReturn(List.of(dto1, dto2, dto3));
+        when(contagemService.estimar(any())).thenReturn(Optional.of(50_000L));
+
+        var result = service.listarPaginado(null, null, null, null, null, 0, 2, TipoContagem.ESTIMADA);
+
+        assertEquals(50_000, result.getTotalElements());
+        assertEquals(TipoContagem.ESTIMADA, result.getTipoContagem());
+        verify(contagemService, never()).contarExato(any(), any());
+    }
+
+    @Test
+    void deveContarExatoQuandoNaoHaEstimativa() {
+        when(repository.findDTOs(any(), any(), anyLong(), eq(3))).thenReturn(List.of(dto1, dto2, dto3));
+        when(contagemService.estimar(any())).thenReturn(Optional.empty());
+        when(contagemService.contarExato(any(), any())).thenReturn(7L);
+
+        var result = service.listarPaginado(null, null, BigDecimal.TEN, null, null, 0, 2, TipoContagem.ESTIMADA);
+
+        assertEquals(7, result.getTotalElements());
+        assertEquals(TipoContagem.EXATA, result.getTipoContagem());
+    }
+
+    @Test
+    void deveInformarSoOMinimoSemContagem() {
+        when(repository.findDTOs(any(), any(), anyLong(), eq(3))).thenReturn(List.of(dto1, dto2, dto3));
+
+        var result = service.listarPaginado(null, null, null, null, null, 1, 2, TipoContagem.NENHUMA);
+
+        assertEquals(5, result.getTotalElements());
+        assertTrue(result.hasNext());
+        assertEquals(TipoContagem.NENHUMA, result.getTipoContagem());
+        verifyNoInteractions(contagemService);
+    }
+
+    @Test
+    void deveBuscarPeloIndiceEmMemoriaEHidratarSoAPagina() {
+        when(indiceBusca.buscar(FiltroBeneficioDTO.de(null, null, null, true, "Teste"), 2, 2))
+                .thenReturn(Optional.of(new IndiceNgrama.Resultado(List.of(2L, 1L), 9)));
+        when(repository.findDTOsByIdIn(List.of(2L, 1L))).thenReturn(List.of(dto1, dto2));
+
+        var result = service.listarPaginado(null, null, null, true, "Teste", 1, 2, TipoContagem.EXATA);
+
+        assertEquals(List.of(dto2, dto1), result.getContent());
+        assertEquals(9, result.getTotalElements());
+        assertEquals(TipoContagem.EXATA, result.getTipoContagem());
+        verify(repository, never()).findDTOs(any(), any(), anyLong(), anyInt());
+        verifyNoInteractions(contagemService);
+    }
+
+    @Test
+    void deveListarPorCursorSemContarTotal() {
+        when(repository.findDTOs(any(), eq(Sort.by("id").descending()), eq(0L), eq(3))).thenReturn(List.of(dto3, dto2, dto1));
+
+        var result = service.listarPorCursor(null, null, null, null, null, "", 2, false);
+
+        assertEquals(List.of(dto3, dto2), result.getContent());
+        assertEquals(2L, CursorPaginacao.decodificar(result.getProximoCursor()));
+        assertNull(result.getTotalElements());
+        verifyNoInteractions(contagemService);
+    }
+
+    @Test
+    void deveEncerrarCursorNaUltimaPaginaEContarQuandoSolicitado() {
+        when(repository.findDTOs(any(), any(), eq(0L), eq(3))).thenReturn(List.of(dto1));
+        when(contagemService.contarExato(any(), any())).thenReturn(3L);
+
+        var result = service.listarPorCursor(null, null, null, null, null, CursorPaginacao.codificar(2L), 2, true);
+
+        assertEquals(List.of(dto1), result.getContent());
+        assertNull(result.getProximoCursor());
+        assertEquals(3L, result.getTotalElements());
+    }
+
+    @Test
+    void deveRejeitarCursorInvalido() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.listarPorCursor(null, null, null, null, null, "nao-e-cursor", 10, false));
+        verify(repository, never()).findDTOs(any(), any(), anyLong(), anyInt());
     }
 
     @Test
@@ -83,6 +219,8 @@ public class BeneficioServiceTest {
 
         assertEquals("Beneficio Teste A", result.getNome());
         verify(repository, times(1)).save(any(Beneficio.class));
+        verify(eventPublisher).publishEvent(argThat((Object evento) -> evento instanceof BeneficioAlteradoEvent alterado
+                && !alterado.isSomenteSaldo() && alterado.getIds().equals(List.of(1L))));
     }
 
     @Test
@@ -103,6 +241,34 @@ public class BeneficioServiceTest {
 
         assertEquals("Beneficio Teste A", result.getNome());
         verify(repository).save(any(Beneficio.class));
+        verify(repository).existsByNomeAndIdNotAndAtivoTrue(anyString(), eq(1L));
+        verify(repository, never()).findByIdAndAtivoTrueForUpdate(anyLong());
+        verify(eventPublisher).publishEvent(argThat((Object evento) -> evento instanceof BeneficioAlteradoEvent alterado
+                && alterado.getNomes().contains(beneficioDTOBase.getNome())));
+    }
+
+    @Test
+    void deveAtualizarSemBloqueioNoModoOtimista() {
+        ReflectionTestUtils.setField(service, "modoTransferencia", ModoTransferencia.OTIMISTA);
+        when(repository.findByIdAndAtivoTrue(1L)).thenReturn(Optional.of(beneficioBase1));
+        when(repository.save(any(Beneficio.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        service.atualizarBeneficio(1L, beneficioDTOBase);
+
+        verify(repository, never()).findByIdAndAtivoTrueForUpdate(anyLong());
+        verify(repository).save(beneficioBase1);
+    }
+
+    @Test
+    void deveBloquearBeneficioAoAtualizarNoModoMovimento() {
+        ReflectionTestUtils.setField(service, "modoTransferencia", ModoTransferencia.MOVIMENTO);
+        when(repository.findByIdAndAtivoTrueForUpdate(1L)).thenReturn(Optional.of(beneficioBase1));
+        when(repository.save(any(Beneficio.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        service.atualizarBeneficio(1L, beneficioDTOBase);
+
+        verify(repository, never()).findByIdAndAtivoTrue(anyLong());
+        verify(repository).save(beneficioBase1);
     }
 
     @Test
@@ -122,7 +288,7 @@ public class BeneficioServiceTest {
 
     @Test
     void deveLancarExcecaoAoExcluirBeneficioInexistente() {
-        when(repository.findById(anyLong())).thenReturn(Optional.empty());
+        when(repository.findByIdForUpdate(anyLong())).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> service.excluirBeneficio(1L));
         verify(repository, never()).delete(any(Beneficio.class));
@@ -133,8 +299,7 @@ public class BeneficioServiceTest {
         Beneficio origem = new Beneficio(1L, "Origem", "Teste", BigDecimal.valueOf(200.00), true, 0L);
         Beneficio destino = new Beneficio(2L, "Destino", "Teste", BigDecimal.valueOf(100.00), true, 0L);
 
-        when(repository.findByIdAndAtivoTrueForUpdate(1L)).thenReturn(Optional.of(origem));
-        when(repository.findByIdAndAtivoTrueForUpdate(2L)).thenReturn(Optional.of(destino));
+        when(repository.findAllByIdInAndAtivoTrueForUpdate(List.of(1L, 2L))).thenReturn(List.of(origem, destino));
 
         service.transfer(1L, 2L, BigDecimal.valueOf(50.00));
 
@@ -157,21 +322,215 @@ public class BeneficioServiceTest {
 
     @Test
     void deveLancarErroSeBeneficioOrigemNaoEncontrado() {
-        when(repository.findByIdAndAtivoTrueForUpdate(1L)).thenReturn(Optional.empty());
+        Beneficio destino = new Beneficio(2L, "Destino", "Teste", BigDecimal.valueOf(100.00), true, 0L);
+
+        when(repository.findAllByIdInAndAtivoTrueForUpdate(List.of(1L, 2L))).thenReturn(List.of(destino));
 
         assertThrows(ResourceNotFoundException.class,
                 () -> service.transfer(1L, 2L, BigDecimal.valueOf(10.00)));
     }
 
+    @Test
+    void deveBloquearBeneficiosEmOrdemDeIdNaTransferencia() {
+        Beneficio origem = new Beneficio(2L, "Origem", "Teste", BigDecimal.valueOf(200.00), true, 0L);
+        Beneficio destino = new Beneficio(1L, "Destino", "Teste", BigDecimal.valueOf(100.00), true, 0L);
+
+        when(repository.findAllByIdInAndAtivoTrueForUpdate(List.of(1L, 2L))).thenReturn(List.of(destino, origem));
+
+        service.transfer(2L, 1L, BigDecimal.valueOf(50.00));
+
+        assertEquals(BigDecimal.valueOf(150.00), origem.getValor());
+        assertEquals(BigDecimal.valueOf(150.00), destino.getValor());
+        verify(repository, never()).findByIdAndAtivoTrueForUpdate(anyLong());
+    }
+
     @Test
     void deveLancarErroSeSaldoInsuficiente() {
         Beneficio origem = new Beneficio(1L, "Origem", "Teste", BigDecimal.valueOf(10.00), true, 0L);
         Beneficio destino = new Beneficio(2L, "Destino", "Teste", BigDecimal.valueOf(100.00), true, 0L);
 
-        when(repository.findByIdAndAtivoTrueForUpdate(1L)).thenReturn(Optional.of(origem));
-        when(repository.findByIdAndAtivoTrueForUpdate(2L)).thenReturn(Optional.of(destino));
+        when(repository.findAllByIdInAndAtivoTrueForUpdate(List.of(1L, 2L))).thenReturn(List.of(origem, destino));
 
         assertThrows(IllegalArgumentException.class,
                 () -> service.transfer(1L, 2L, BigDecimal.valueOf(50)));
     }
+
+    @Test
+    void deveTransferirLoteAtomicoComSucesso() {
+        Beneficio origem = new Beneficio(1L, "Origem", "Teste", BigDecimal.valueOf(200.00), true, 0L);
+        Beneficio destino = new Beneficio(2L, "Destino", "Teste", BigDecimal.valueOf(100.00), true, 0L);
+
+        when(repository.findAllByIdInAndAtivoTrueForUpdate(List.of(1L, 2L))).thenReturn(List.of(origem, destino));
+
+        List<TransferenciaResultadoDTO> resultados = service.transferirLote(List.of(
+                new TransferenciaDTO(1L, 2L, BigDecimal.valueOf(50.00)),
+                new TransferenciaDTO(2L, 1L, BigDecimal.valueOf(20.00))), true);
+
+        assertEquals(2, resultados.size());
+        assertTrue(resultados.stream().allMatch(TransferenciaResultadoDTO::isSucesso));
+        assertEquals(BigDecimal.valueOf(170.00), origem.getValor());
+        assertEquals(BigDecimal.valueOf(130.00), destino.getValor());
+        verify(repository, times(1)).findAllByIdInAndAtivoTrueForUpdate(anyCollection());
+        verify(repository, never()).findByIdAndAtivoTrueForUpdate(anyLong());
+    }
+
+    @Test
+    void deveRegistrarFalhaPorItemNoLoteNaoAtomico() {
+        Beneficio origem = new Beneficio(1L, "Origem", "Teste", BigDecimal.valueOf(60.00), true, 0L);
+        Beneficio destino = new Beneficio(2L, "Destino", "Teste", BigDecimal.valueOf(100.00), true, 0L);
+
+        when(repository.findAllByIdInAndAtivoTrueForUpdate(List.of(1L, 2L, 3L))).thenReturn(List.of(origem, destino));
+
+        List<TransferenciaResultadoDTO> resultados = service.transferirLote(List.of(
+                new TransferenciaDTO(1L, 2L, BigDecimal.valueOf(50.00)),
+                new TransferenciaDTO(1L, 2L, BigDecimal.valueOf(50.00)),
+                new TransferenciaDTO(2L, 3L, BigDecimal.valueOf(10.00))), false);
+
+        assertTrue(resultados.get(0).isSucesso());
+        assertFalse(resultados.get(1).isSucesso());
+        assertEquals("Saldo insuficiente no benefício de origem.", resultados.get(1).getMensagem());
+        assertFalse(resultados.get(2).isSucesso());
+        assertEquals("Beneficio de destino não encontrada ou inativo.", resultados.get(2).getMensagem());
+        assertEquals(BigDecimal.valueOf(10.00), origem.getValor());
+        assertEquals(BigDecimal.valueOf(150.00), destino.getValor());
+    }
+
+    @Test
+    void deveLancarErroNoLoteAtomicoComItemInvalido() {
+        Beneficio origem = new Beneficio(1L, "Origem", "Teste", BigDecimal.valueOf(60.00), true, 0L);
+        Beneficio destino = new Beneficio(2L, "Destino", "Teste", BigDecimal.valueOf(100.00), true, 0L);
+
+        when(repository.findAllByIdInAndAtivoTrueForUpdate(List.of(1L, 2L))).thenReturn(List.of(origem, destino));
+
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class, () -> service.transferirLote(List.of(
+                new TransferenciaDTO(1L, 2L, BigDecimal.valueOf(50.00)),
+                new TransferenciaDTO(1L, 1L, BigDecimal.valueOf(5.00))), true));
+
+        assertTrue(erro.getMessage().startsWith("Transferência 1 do lote não executada"));
+    }
+
+    @Test
+    void deveTransferirSemBloqueioNoModoOtimista() {
+        ReflectionTestUtils.setField(service, "modoTransferencia", ModoTransferencia.OTIMISTA);
+        Beneficio origem = new Beneficio(1L, "Origem", "Teste", BigDecimal.valueOf(200.00), true, 3L);
+        Beneficio destino = new Beneficio(2L, "Destino", "Teste", BigDecimal.valueOf(100.00), true, 7L);
+
+        when(repository.findByIdAndAtivoTrue(1L)).thenReturn(Optional.of(origem));
+        when(repository.findByIdAndAtivoTrue(2L)).thenReturn(Optional.of(destino));
+
+        service.transfer(1L, 2L, BigDecimal.valueOf(50.00));
+
+        assertEquals(BigDecimal.valueOf(150.00), origem.getValor());
+        assertEquals(BigDecimal.valueOf(150.00), destino.getValor());
+        verify(repository, never()).findAllByIdInAndAtivoTrueForUpdate(anyCollection());
+        verify(repository, times(2)).save(any(Beneficio.class));
+    }
+
+    @Test
+    void deveTransferirComUpdatesAtomicosNoModoAtomico() {
+        ReflectionTestUtils.setField(service, "modoTransferencia", ModoTransferencia.ATOMICO);
+        when(repository.debitar(1L, BigDecimal.valueOf(50.00))).thenReturn(1);
+        when(repository.creditar(2L, BigDecimal.valueOf(50.00))).thenReturn(1);
+
+        service.transfer(1L, 2L, BigDecimal.valueOf(50.00));
+
+        verify(repository).debitar(1L, BigDecimal.valueOf(50.00));
+        verify(repository).creditar(2L, BigDecimal.valueOf(50.00));
+        verify(repository, never()).findByIdAndAtivoTrue(anyLong());
+        verify(repository, never()).save(any(Beneficio.class));
+    }
+
+    @Test
+    void naoDeveCreditarQuandoDebitoAtomicoFalha() {
+        ReflectionTestUtils.setField(service, "modoTransferencia", ModoTransferencia.ATOMICO);
+        when(repository.debitar(1L, BigDecimal.valueOf(50.00))).thenReturn(0);
+        when(repository.findByIdAndAtivoTrue(1L)).thenReturn(Optional.of(beneficioBase1));
+        when(repository.findByIdAndAtivoTrue(2L)).thenReturn(Optional.of(beneficioBase2));
+
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+                () -> service.transfer(1L, 2L, BigDecimal.valueOf(50.00)));
+
+        assertEquals("Saldo insuficiente no benefício de origem.", erro.getMessage());
+        verify(repository, never()).creditar(anyLong(), any());
+    }
+
+    @Test
+    void deveLancarNaoEncontradoNoModoAtomicoQuandoOrigemInativa() {
+        ReflectionTestUtils.setField(service, "modoTransferencia", ModoTransferencia.ATOMICO);
+        when(repository.creditar(1L, BigDecimal.valueOf(50.00))).thenReturn(1);
+        when(repository.debitar(2L, BigDecimal.valueOf(50.00))).thenReturn(0);
+        when(repository.findByIdAndAtivoTrue(2L)).thenReturn(Optional.empty());
+
+        ResourceNotFoundException erro = assertThrows(ResourceNotFoundException.class,
+                () -> service.transfer(2L, 1L, BigDecimal.valueOf(50.00)));
+
+        assertEquals("Beneficio de origem não encontrada ou inativo.", erro.getMessage());
+    }
+
+    @Test
+    void deveDesviarBeneficioParticionadoAntesDoBloqueioQuandoHabilitado() {
+        ReflectionTestUtils.setField(service, "particoesHabilitadas", true);
+        List<BeneficioParticaoDTO> particionados = List.of(new BeneficioParticaoDTO(2L, true, 8));
+        when(repository.findAllParticionadosByIdIn(List.of(1L, 2L))).thenReturn(particionados);
+
+        service.transfer(1L, 2L, BigDecimal.valueOf(50.00));
+
+        verify(particaoService).transferir(1L, 2L, BigDecimal.valueOf(50.00), particionados);
+        verify(repository, never()).findAllByIdInAndAtivoTrueForUpdate(anyCollection());
+    }
+
+    @Test
+    void deveDebitarParticoesBloqueadasNoModoPessimista() {
+        Beneficio origem = new Beneficio(1L, "Origem", "Teste", BigDecimal.valueOf(10.00), true, 0L);
+        origem.setParticoes(4);
+        Beneficio destino = new Beneficio(2L, "Destino", "Teste", BigDecimal.valueOf(100.00), true, 0L);
+        List<BeneficioSaldo> saldos = List.of(new BeneficioSaldo(10L, 1L, 0, BigDecimal.valueOf(100.00)));
+
+        when(repository.findAllByIdInAndAtivoTrueForUpdate(List.of(1L, 2L))).thenReturn(List.of(origem, destino));
+        when(particaoService.bloquearParticoes(anyCollection())).thenReturn(Map.of(1L, saldos));
+        when(particaoService.debitarBloqueado(origem, saldos, BigDecimal.valueOf(50.00))).thenReturn(true);
+
+        service.transfer(1L, 2L, BigDecimal.valueOf(50.00));
+
+        verify(particaoService).debitarBloqueado(origem, saldos, BigDecimal.valueOf(50.00));
+        assertEquals(BigDecimal.valueOf(150.00), destino.getValor());
+    }
+
+    @Test
+    void deveDebitarParticoesNoModoAtomicoQuandoOrigemParticionada() {
+        ReflectionTestUtils.setField(service, "modoTransferencia", ModoTransferencia.ATOMICO);
+        BeneficioParticaoDTO origem = new BeneficioParticaoDTO(1L, true, 4);
+        when(repository.debitar(1L, BigDecimal.valueOf(50.00))).thenReturn(0);
+        when(repository.findAllParticionadosByIdIn(List.of(1L))).thenReturn(List.of(origem));
+        when(particaoService.debitar(origem, BigDecimal.valueOf(50.00))).thenReturn(true);
+        when(repository.creditar(2L, BigDecimal.valueOf(50.00))).thenReturn(1);
+
+        service.transfer(1L, 2L, BigDecimal.valueOf(50.00));
+
+        verify(repository).creditar(2L, BigDecimal.valueOf(50.00));
+        verify(repository, never()).findByIdAndAtivoTrue(anyLong());
+    }
+
+    @Test
+    void deveGravarLancamentosNoModoMovimento() {
+        ReflectionTestUtils.setField(service, "modoTransferencia", ModoTransferencia.MOVIMENTO);
+
+        service.transfer(1L, 2L, BigDecimal.valueOf(50.00));
+
+        verify(movimentoService).transferir(1L, 2L, BigDecimal.valueOf(50.00));
+        verify(repository, never()).findAllByIdInAndAtivoTrueForUpdate(anyCollection());
+        verify(repository, never()).save(any(Beneficio.class));
+    }
+
+    @Test
+    void deveIncorporarMovimentosPendentesAoAtualizarValor() {
+        beneficioBase1.setSaldoPendente(BigDecimal.valueOf(-30.00));
+        when(repository.findByIdAndAtivoTrue(1L)).thenReturn(Optional.of(beneficioBase1));
+        when(repository.existsByNomeAndIdNotAndAtivoTrue(anyString(), eq(1L))).thenReturn(false);
+        when(repository.save(any(Beneficio.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        service.atualizarBeneficio(1L, beneficioDTOBase);
+
+        verify(movimentoService).incorporarPendentes(beneficioBase1);
+    }
 }
@@ -0,0 +1,160 @@
+package com.example.backend.service;
+
+import com.example.backend.domain.repository.BeneficioMovimentoRepository;
+import com.example.backend.domain.repository.BeneficioSaldoRepository;
+import com.example.backend.domain.repository.BeneficiosRepository;
+import com.example.backend.model.entidades.Beneficio;
+import com.example.backend.model.enums.ModoTransferencia;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de estresse: várias threads transferindo entre poucas contas ao mesmo tempo.
+ * Independente do modo, o saldo total deve se manter e nenhum saldo pode ficar negativo.
+ * As subclasses definem a carga: uma curta no build padrão e a completa em {@code mvn test -Pbenchmark}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "cors.allowed-origins=*",
+        "cors.allowed-methods=*",
+        "cors.allowed-headers=*",
+        "cors.exposed-headers=*",
+        "cors.allow-credentials=false",
+        "beneficio.particoes.enabled=true"
+})
+@ActiveProfiles("test")
+abstract class BeneficioTransferConcorrencia {
+
+    private static final int CONTAS = 10;
+    private static final BigDecimal SALDO_INICIAL = BigDecimal.valueOf(1000);
+
+    @Autowired
+    private BeneficioService service;
+
+    @Autowired
+    private BeneficiosRepository repository;
+
+    @Autowired
+    private BeneficioSaldoRepository saldoRepository;
+
+    @Autowired
+    private BeneficioMovimentoRepository movimentoRepository;
+
+    @Autowired
+    private BeneficioMovimentoCompactador compactador;
+
+    private List<Long> ids;
+
+    abstract int threads();
+
+    abstract int transferenciasPorThread();
+
+    @BeforeEach
+    void setup() {
+        ReflectionTestUtils.setField((Object) AopTestUtils.getTargetObject(service), "particoesHabilitadas", false);
+        // Exclusão em lote: o compactador agendado pode alterar a VERSION dos beneficios a qualquer momento.
+        movimentoRepository.deleteAllInBatch();
+        saldoRepository.deleteAllInBatch();
+        repository.deleteAllInBatch();
+        ids = new ArrayList<>();
+        for (int i = 0; i < CONTAS; i++) {
+            Beneficio b = new Beneficio();
+            b.setNome("Conta " + i);
+            b.setDescricao("Conta de estresse " + i);
+            b.setValor(SALDO_INICIAL);
+            b.setAtivo(true);
+            ids.add(repository.save(b).getId());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(ModoTransferencia.class)
+    @DisplayName("Deve manter o saldo total sob transferências concorrentes")
+    void deveManterSaldoTotalSobConcorrencia(ModoTransferencia modo) throws Exception {
+        executarCarga(modo);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"PESSIMISTA, false", "OTIMISTA, false", "ATOMICO, false", "MOVIMENTO, false", "PESSIMISTA, true"})
+    @DisplayName("Deve manter o saldo total com contas particionadas")
+    void deveManterSaldoTotalComContasParticionadas(ModoTransferencia modo, boolean desvioHabilitado) throws Exception {
+        ReflectionTestUtils.setField((Object) AopTestUtils.getTargetObject(service), "particoesHabilitadas", desvioHabilitado);
+        service.particionarSaldo(ids.get(0), 4);
+        service.particionarSaldo(ids.get(1), 3);
+
+        executarCarga(modo);
+    }
+
+    private void executarCarga(ModoTransferencia modo) throws Exception {
+        ReflectionTestUtils.setField((Object) AopTestUtils.getTargetObject(service), "modoTransferencia", modo);
+
+        AtomicInteger executadas = new AtomicInteger();
+        AtomicInteger conflitos = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads());
+        List<Future<?>> tarefas = new ArrayList<>();
+
+        for (int t = 0; t < threads(); t++) {
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < transferenciasPorThread(); i++) {
+                    Long from = ids.get(random.nextInt(CONTAS));
+                    Long to = ids.get(random.nextInt(CONTAS));
+                    if (from.equals(to)) continue;
+                    try {
+                        service.transfer(from, to, BigDecimal.valueOf(random.nextInt(1, 300)));
+                        executadas.incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        // saldo insuficiente: esperado com valores aleatórios
+                    } catch (ConcurrencyFailureException e) {
+                        conflitos.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        largada.countDown();
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        List<Beneficio> contas = repository.findAllById(ids);
+        BigDecimal total = contas.stream().map(Beneficio::getValor).reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        assertEquals(0, SALDO_INICIAL.multiply(BigDecimal.valueOf(CONTAS)).compareTo(total));
+        assertTrue(contas.stream().allMatch(b -> b.getValor().signum() >= 0));
+        assertTrue(executadas.get() > conflitos.get(),
+                () -> "Modo " + modo + ": " + executadas.get() + " transferências, "
+                        + conflitos.get() + " conflitos esgotaram as retentativas");
+
+        // Depois da compactação o snapshot em VALOR deve manter os mesmos saldos.
+        compactador.compactarPendentes();
+        List<Beneficio> compactadas = repository.findAllById(ids);
+        assertTrue(compactadas.stream().noneMatch(Beneficio::isComMovimentosPendentes));
+        assertEquals(0, total.compareTo(compactadas.stream().map(Beneficio::getValor).reduce(BigDecimal.ZERO, BigDecimal::add)));
+    }
+}
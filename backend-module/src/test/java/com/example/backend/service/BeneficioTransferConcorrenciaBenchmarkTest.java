@@ -0,0 +1,18 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Tag;
+
+/** Carga completa do teste de estresse. Fora do build padrão: {@code mvn test -Pbenchmark}. */
+@Tag("benchmark")
+class BeneficioTransferConcorrenciaBenchmarkTest extends BeneficioTransferConcorrencia {
+
+    @Override
+    int threads() {
+        return 8;
+    }
+
+    @Override
+    int transferenciasPorThread() {
+        return 150;
+    }
+}
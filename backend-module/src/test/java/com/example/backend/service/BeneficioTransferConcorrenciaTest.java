@@ -0,0 +1,15 @@
+package com.example.backend.service;
+
+/** Carga curta do teste de estresse, no build padrão. */
+class BeneficioTransferConcorrenciaTest extends BeneficioTransferConcorrencia {
+
+    @Override
+    int threads() {
+        return 4;
+    }
+
+    @Override
+    int transferenciasPorThread() {
+        return 25;
+    }
+}
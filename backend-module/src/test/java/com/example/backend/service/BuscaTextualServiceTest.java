@@ -0,0 +1,78 @@
+package com.example.backend.service;
+
+import com.example.backend.util.BancoDados;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class BuscaTextualServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private BancoDados bancoDados;
+
+    @InjectMocks
+    private BuscaTextualService service;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void naoDeveConsultarIndicesForaDoPostgres() {
+        when(bancoDados.isPostgres()).thenReturn(false);
+
+        service.verificarIndices();
+
+        assertFalse(service.isTrigrama());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void deveUsarTrigramasSemExecutarDdlNoPostgres() {
+        when(bancoDados.isPostgres()).thenReturn(true);
+        when(jdbcTemplate.queryForObject(contains("pg_extension"), eq(Boolean.class))).thenReturn(true);
+        when(jdbcTemplate.queryForList(contains("indisvalid"), eq(String.class)))
+                .thenReturn(List.of("ix_beneficio_nome_trgm", "ix_beneficio_descricao_trgm"));
+
+        service.verificarIndices();
+
+        assertTrue(service.isTrigrama());
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void deveSeguirPorSimilaridadeSemOsIndices() {
+        when(bancoDados.isPostgres()).thenReturn(true);
+        when(jdbcTemplate.queryForObject(contains("pg_extension"), eq(Boolean.class))).thenReturn(true);
+        when(jdbcTemplate.queryForList(contains("indisvalid"), eq(String.class))).thenReturn(List.of());
+
+        service.verificarIndices();
+
+        assertTrue(service.isTrigrama());
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void deveSeguirSemTrigramasSemAExtensao() {
+        when(bancoDados.isPostgres()).thenReturn(true);
+        when(jdbcTemplate.queryForObject(contains("pg_extension"), eq(Boolean.class))).thenReturn(false);
+
+        service.verificarIndices();
+
+        assertFalse(service.isTrigrama());
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class));
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.backend.service;
+
+import com.example.backend.domain.repository.BeneficioMovimentoRepository;
+import com.example.backend.domain.repository.BeneficioSaldoRepository;
+import com.example.backend.domain.repository.BeneficiosRepository;
+import com.example.backend.model.dto.BeneficioDTO;
+import com.example.backend.model.entidades.Beneficio;
+import com.example.backend.model.enums.ModoTransferencia;
+import com.example.backend.model.enums.TipoContagem;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cache de segundo nível e de consultas de {@link Beneficio}: as leituras repetidas não vão ao
+ * banco e nenhuma leitura depois de uma transferência ou de um particionamento vê o saldo anterior.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "cors.allowed-origins=*",
+        "cors.allowed-methods=*",
+        "cors.allowed-headers=*",
+        "cors.exposed-headers=*",
+        "cors.allow-credentials=false",
+        "beneficio.particoes.enabled=true",
+        "beneficio.cache.segundo-nivel.enabled=true"
+})
+@ActiveProfiles("test")
+class CacheSegundoNivelTest {
+
+    @Autowired
+    private BeneficioService service;
+
+    @Autowired
+    private BeneficiosRepository repository;
+
+    @Autowired
+    private BeneficioSaldoRepository saldoRepository;
+
+    @Autowired
+    private BeneficioMovimentoRepository movimentoRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics estatisticas;
+    private Long origem;
+    private Long destino;
+
+    @BeforeEach
+    void setup() {
+        movimentoRepository.deleteAllInBatch();
+        saldoRepository.deleteAllInBatch();
+        repository.deleteAllInBatch();
+        origem = salvar("Origem L2", BigDecimal.valueOf(100));
+        destino = salvar("Destino L2", BigDecimal.valueOf(50));
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+    }
+
+    @AfterEach
+    void restaurar() {
+        ReflectionTestUtils.setField((Object) AopTestUtils.getTargetObject(service), "modoTransferencia", ModoTransferencia.PESSIMISTA);
+    }
+
+    @Test
+    @DisplayName("Deve ler o beneficio do cache de segundo nível na segunda consulta por id")
+    void deveLerDoCacheNaSegundaConsulta() {
+        repository.findById(origem);
+        long acertos = estatisticas.getDomainDataRegionStatistics("beneficio").getHitCount();
+
+        assertEquals(0, repository.findById(origem).orElseThrow().getValor().compareTo(BigDecimal.valueOf(100)));
+        assertEquals(acertos + 1, estatisticas.getDomainDataRegionStatistics("beneficio").getHitCount());
+    }
+
+    @Test
+    @DisplayName("Deve repetir a listagem paginada pelo cache de consultas")
+    void deveRepetirListagemPeloCacheDeConsultas() {
+        service.listarPaginado(null, null, null, true, null, 0, 10, TipoContagem.NENHUMA);
+        long consultas = estatisticas.getPrepareStatementCount();
+
+        var pagina = service.listarPaginado(null, null, null, true, null, 0, 10, TipoContagem.NENHUMA);
+
+        assertEquals(2, pagina.getContent().size());
+        assertTrue(estatisticas.getQueryCacheHitCount() > 0);
+        assertEquals(consultas, estatisticas.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ModoTransferencia.class)
+    @DisplayName("Não deve ler saldo anterior do cache depois de uma transferência")
+    void naoDeveLerSaldoAnteriorDepoisDaTransferencia(ModoTransferencia modo) {
+        ReflectionTestUtils.setField((Object) AopTestUtils.getTargetObject(service), "modoTransferencia", modo);
+        aquecer();
+
+        service.transfer(origem, destino, BigDecimal.valueOf(30));
+
+        assertSaldos(BigDecimal.valueOf(70), BigDecimal.valueOf(80));
+    }
+
+    @Test
+    @DisplayName("Não deve ler saldo anterior do cache depois de particionar o saldo")
+    void naoDeveLerSaldoAnteriorDepoisDeParticionar() {
+        aquecer();
+
+        service.particionarSaldo(origem, 4);
+        service.transfer(origem, destino, BigDecimal.valueOf(30));
+
+        assertSaldos(BigDecimal.valueOf(70), BigDecimal.valueOf(80));
+        assertTrue(repository.findById(origem).orElseThrow().isParticionado());
+    }
+
+    @Test
+    @DisplayName("Deve publicar as estatísticas por região no Micrometer")
+    void devePublicarEstatisticasPorRegiao() {
+        repository.findById(origem);
+        repository.findById(origem);
+
+        assertNotNull(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tags("region", "beneficio", "result", "hit")
+                .functionCounter());
+        assertNotNull(meterRegistry.find("hibernate.cache.query.requests").functionCounter());
+    }
+
+    /** Coloca os dois beneficios e a listagem nos caches antes da gravação. */
+    private void aquecer() {
+        repository.findById(origem);
+        repository.findById(destino);
+        service.listarPaginado(null, null, null, true, null, 0, 10, TipoContagem.NENHUMA);
+        assertSaldos(BigDecimal.valueOf(100), BigDecimal.valueOf(50));
+    }
+
+    private void assertSaldos(BigDecimal saldoOrigem, BigDecimal saldoDestino) {
+        assertEquals(0, saldoOrigem.compareTo(repository.findById(origem).orElseThrow().getValor()));
+        assertEquals(0, saldoDestino.compareTo(repository.findById(destino).orElseThrow().getValor()));
+
+        var pagina = service.listarPaginado(null, null, null, true, null, 0, 10, TipoContagem.NENHUMA);
+        for (BeneficioDTO beneficio : pagina.getContent()) {
+            BigDecimal esperado = beneficio.getId().equals(origem) ? saldoOrigem : saldoDestino;
+            assertEquals(0, esperado.compareTo(beneficio.getValor()), "Saldo listado de " + beneficio.getNome());
+        }
+    }
+
+    private Long salvar(String nome, BigDecimal valor) {
+        Beneficio beneficio = new Beneficio();
+        beneficio.setNome(nome);
+        beneficio.setDescricao(nome);
+        beneficio.setValor(valor);
+        beneficio.setAtivo(true);
+        return repository.save(beneficio).getId();
+    }
+}
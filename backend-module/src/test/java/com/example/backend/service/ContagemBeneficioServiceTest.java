@@ -0,0 +1,140 @@
+package com.example.backend.service;
+
+import com.example.backend.config.JanelaReplicacao;
+import com.example.backend.domain.event.BeneficioAlteradoEvent;
+import com.example.backend.domain.repository.BeneficiosRepository;
+import com.example.backend.model.dto.FiltroBeneficioDTO;
+import com.example.backend.model.entidades.Beneficio;
+import com.example.backend.util.BancoDados;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ContagemBeneficioServiceTest {
+
+    @Mock
+    private BeneficiosRepository repository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private BancoDados bancoDados;
+
+    @Mock
+    private JanelaReplicacao janelaReplicacao;
+
+    @InjectMocks
+    private ContagemBeneficioService service;
+
+    private final Specification<Beneficio> spec = (root, query, cb) -> null;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(janelaReplicacao.podeGuardar()).thenReturn(true);
+    }
+
+    @Test
+    void naoDeveGuardarContagemDeReplicaLogoAposGravacao() {
+        when(janelaReplicacao.podeGuardar()).thenReturn(false, true);
+        when(repository.count(any(Specification.class))).thenReturn(10L, 11L);
+        FiltroBeneficioDTO filtro = FiltroBeneficioDTO.de(null, null, null, true, null);
+
+        assertEquals(10, service.contarExato(filtro, spec));
+        assertEquals(11, service.contarExato(filtro, spec));
+        assertEquals(11, service.contarExato(filtro, spec));
+
+        verify(repository, times(2)).count(any(Specification.class));
+    }
+
+    @Test
+    void deveGuardarContagemPorFiltroNormalizado() {
+        when(repository.count(any(Specification.class))).thenReturn(10L);
+
+        assertEquals(10, service.contarExato(FiltroBeneficioDTO.de("Vale", null, null, true, " "), spec));
+        assertEquals(10, service.contarExato(FiltroBeneficioDTO.de("VALE", "", null, true, null), spec));
+
+        verify(repository, times(1)).count(any(Specification.class));
+    }
+
+    @Test
+    void deveDescartarContagensAoAlterarCadastro() {
+        when(repository.count(any(Specification.class))).thenReturn(10L, 11L);
+        FiltroBeneficioDTO filtro = FiltroBeneficioDTO.de(null, null, null, true, null);
+
+        service.contarExato(filtro, spec);
+        service.aoAlterarBeneficio(BeneficioAlteradoEvent.cadastro(1L));
+
+        assertEquals(11, service.contarExato(filtro, spec));
+    }
+
+    @Test
+    void deveDescartarSoOsFiltrosPorValorAoTransferir() {
+        when(repository.count(any(Specification.class))).thenReturn(10L, 3L, 4L);
+        FiltroBeneficioDTO porNome = FiltroBeneficioDTO.de("vale", null, null, null, null);
+        FiltroBeneficioDTO porValor = FiltroBeneficioDTO.de(null, null, new BigDecimal("100.00"), null, null);
+
+        service.contarExato(porNome, spec);
+        service.contarExato(porValor, spec);
+        service.aoAlterarBeneficio(BeneficioAlteradoEvent.saldo(List.of(1L, 2L)));
+
+        assertEquals(10, service.contarExato(porNome, spec));
+        assertEquals(4, service.contarExato(FiltroBeneficioDTO.de(null, null, new BigDecimal("100"), null, null), spec));
+        verify(repository, times(3)).count(any(Specification.class));
+    }
+
+    @Test
+    void naoDeveGuardarContagemIniciadaAntesDeUmaAlteracao() {
+        FiltroBeneficioDTO filtro = FiltroBeneficioDTO.de(null, null, null, null, null);
+        when(repository.count(any(Specification.class))).thenAnswer(invocacao -> {
+            service.aoAlterarBeneficio(BeneficioAlteradoEvent.cadastro(1L));
+            return 10L;
+        }).thenReturn(11L);
+
+        assertEquals(10, service.contarExato(filtro, spec));
+        assertEquals(11, service.contarExato(filtro, spec));
+    }
+
+    @Test
+    void deveEstimarTabelaSemFiltrosNoH2() {
+        when(bancoDados.isH2()).thenReturn(true);
+        when(jdbcTemplate.queryForObject(contains("ROW_COUNT_ESTIMATE"), eq(Long.class))).thenReturn(250_000L);
+
+        assertEquals(Optional.of(250_000L), service.estimar(FiltroBeneficioDTO.de(null, null, null, null, null)));
+    }
+
+    @Test
+    void naoDeveEstimarTabelaPequenaNemFiltroPorValor() {
+        when(bancoDados.isH2()).thenReturn(true);
+        when(jdbcTemplate.queryForObject(contains("ROW_COUNT_ESTIMATE"), eq(Long.class))).thenReturn(50L);
+
+        assertTrue(service.estimar(FiltroBeneficioDTO.de(null, null, null, null, null)).isEmpty());
+        assertTrue(service.estimar(FiltroBeneficioDTO.de(null, null, BigDecimal.TEN, null, null)).isEmpty());
+        assertTrue(service.estimar(FiltroBeneficioDTO.de("vale", null, null, null, null)).isEmpty());
+    }
+
+    @Test
+    void deveEstimarFiltrosPeloPlanoNoPostgres() {
+        when(bancoDados.isPostgres()).thenReturn(true);
+        when(jdbcTemplate.queryForObject(startsWith("EXPLAIN (FORMAT JSON)"), eq(String.class), any(Object[].class)))
+                .thenReturn("[{\"Plan\": {\"Node Type\": \"Seq Scan\", \"Plan Rows\": 48211}}]");
+
+        assertEquals(Optional.of(48_211L), service.estimar(FiltroBeneficioDTO.de("vale", null, null, true, null)));
+        verify(jdbcTemplate).queryForObject(
+                eq("EXPLAIN (FORMAT JSON) SELECT 1 FROM beneficio WHERE 1 = 1 AND LOWER(nome) LIKE ? AND ativo = ?"),
+                eq(String.class), eq("%vale%"), eq(true));
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.backend.service;
+
+import com.example.backend.domain.repository.BeneficioMovimentoRepository;
+import com.example.backend.domain.repository.BeneficioSaldoRepository;
+import com.example.backend.domain.repository.BeneficiosRepository;
+import com.example.backend.model.entidades.Beneficio;
+import com.example.backend.model.enums.FormatoArquivo;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "cors.allowed-origins=*",
+        "cors.allowed-methods=*",
+        "cors.allowed-headers=*",
+        "cors.exposed-headers=*",
+        "cors.allow-credentials=false",
+        "beneficio.exportacao.fetch-size=2"
+})
+@ActiveProfiles("test")
+class ExportacaoBeneficioServiceTest {
+
+    @Autowired
+    private ExportacaoBeneficioService service;
+
+    @Autowired
+    private BeneficiosRepository repository;
+
+    @Autowired
+    private BeneficioSaldoRepository saldoRepository;
+
+    @Autowired
+    private BeneficioMovimentoRepository movimentoRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long primeiro;
+
+    @BeforeEach
+    void setup() {
+        movimentoRepository.deleteAllInBatch();
+        saldoRepository.deleteAllInBatch();
+        repository.deleteAllInBatch();
+        primeiro = salvar("Vale \"Refeição\", centro", "Linha 1\nLinha 2", true);
+        for (int i = 0; i < 4; i++) {
+            salvar("Auxilio " + i, "Exportação " + i, true);
+        }
+        salvar("Auxilio inativo", "Exportação inativa", false);
+    }
+
+    @Test
+    @DisplayName("Deve exportar em NDJSON um beneficio por linha, em ordem de id e com os filtros")
+    void deveExportarNdjson() throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        long linhas = service.exportar(null, null, null, true, null, FormatoArquivo.NDJSON, saida);
+
+        List<String> registros = saida.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(5, linhas);
+        assertEquals(5, registros.size());
+        JsonNode registro = objectMapper.readTree(registros.get(0));
+        assertEquals(primeiro, registro.get("id").asLong());
+        assertEquals("Vale \"Refeição\", centro", registro.get("nome").asText());
+        assertEquals(0, new BigDecimal("10.00").compareTo(registro.get("valor").decimalValue()));
+        assertTrue(registro.get("ativo").asBoolean());
+    }
+
+    @Test
+    @DisplayName("Deve exportar em CSV com cabeçalho e campos com vírgula, aspas e quebra de linha entre aspas")
+    void deveExportarCsv() throws IOException {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        long linhas = service.exportar(null, null, null, null, "vale", FormatoArquivo.CSV, saida);
+
+        assertEquals(1, linhas);
+        assertEquals("id,nome,descricao,valor,ativo,version\r\n" +
+                        primeiro + ",\"Vale \"\"Refeição\"\", centro\",\"Linha 1\nLinha 2\",10.00,true,0\r\n",
+                saida.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Deve interromper a exportação quando a escrita para o cliente falha")
+    void deveInterromperQuandoClienteDesconecta() {
+        OutputStream desconectado = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Connection reset by peer");
+            }
+        };
+
+        assertThrows(IOException.class,
+                () -> service.exportar(null, null, null, null, null, FormatoArquivo.CSV, desconectado));
+        // A transação e o cursor foram encerrados: a próxima exportação segue normalmente.
+        assertDoesNotThrow(() -> service.exportar(null, null, null, null, null, FormatoArquivo.NDJSON, OutputStream.nullOutputStream()));
+    }
+
+    private Long salvar(String nome, String descricao, boolean ativo) {
+        Beneficio beneficio = new Beneficio();
+        beneficio.setNome(nome);
+        beneficio.setDescricao(descricao);
+        beneficio.setValor(new BigDecimal("10.00"));
+        beneficio.setAtivo(ativo);
+        return repository.save(beneficio).getId();
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.backend.service;
+
+import com.example.backend.domain.repository.BeneficioMovimentoRepository;
+import com.example.backend.domain.repository.BeneficioSaldoRepository;
+import com.example.backend.domain.repository.BeneficiosRepository;
+import com.example.backend.model.dto.ErroImportacaoDTO;
+import com.example.backend.model.dto.ImportacaoResultadoDTO;
+import com.example.backend.model.entidades.Beneficio;
+import com.example.backend.model.enums.FormatoArquivo;
+import com.example.backend.model.enums.TipoContagem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "cors.allowed-origins=*",
+        "cors.allowed-methods=*",
+        "cors.allowed-headers=*",
+        "cors.exposed-headers=*",
+        "cors.allow-credentials=false",
+        "beneficio.importacao.lote=2",
+        "beneficio.importacao.max-erros=3"
+})
+@ActiveProfiles("test")
+class ImportacaoBeneficioServiceTest {
+
+    @Autowired
+    private ImportacaoBeneficioService service;
+
+    @Autowired
+    private ExportacaoBeneficioService exportacaoService;
+
+    @Autowired
+    private BeneficioService beneficioService;
+
+    @Autowired
+    private BeneficiosRepository repository;
+
+    @Autowired
+    private BeneficioSaldoRepository saldoRepository;
+
+    @Autowired
+    private BeneficioMovimentoRepository movimentoRepository;
+
+    @BeforeEach
+    void setup() {
+        movimentoRepository.deleteAllInBatch();
+        saldoRepository.deleteAllInBatch();
+        repository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Deve importar de volta um CSV exportado, com aspas e quebras de linha")
+    void deveImportarCsvExportado() throws IOException {
+        salvar("Vale \"Refeição\", centro", "Linha 1\nLinha 2", true);
+        salvar("Auxilio inativo", "Inativo", false);
+        salvar("Auxilio 3", "Terceiro", true);
+        ByteArrayOutputStream exportado = new ByteArrayOutputStream();
+        exportacaoService.exportar(null, null, null, null, null, FormatoArquivo.CSV, exportado);
+        repository.deleteAllInBatch();
+
+        ImportacaoResultadoDTO resultado = importar(FormatoArquivo.CSV, exportado.toString(StandardCharsets.UTF_8));
+
+        assertEquals(3, resultado.getRegistros());
+        assertEquals(3, resultado.getImportados());
+        assertEquals(0, resultado.getRejeitados());
+        List<Beneficio> beneficios = repository.findAll().stream().sorted(Comparator.comparing(Beneficio::getId)).toList();
+        assertEquals("Vale \"Refeição\", centro", beneficios.get(0).getNome());
+        assertEquals("Linha 1\nLinha 2", beneficios.get(0).getDescricao());
+        assertFalse(beneficios.get(1).getAtivo());
+        assertEquals(0, new BigDecimal("10.00").compareTo(beneficios.get(2).getValor()));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar só os registros inválidos, com a linha de cada erro")
+    void deveRejeitarRegistrosInvalidos() throws IOException {
+        String csv = "nome,valor,descricao\r\n" +
+                "Auxilio 1,10.50,Primeiro\r\n" +
+                "Auxilio 2,abc,Valor inválido\r\n" +
+                ",5,Sem nome\r\n" +
+                "\r\n" +
+                "Auxilio 4,0,Valor zerado\r\n" +
+                "Auxilio 5,1\r\n" +
+                "Auxilio 6,1.999,Muitas casas\r\n";
+
+        ImportacaoResultadoDTO resultado = importar(FormatoArquivo.CSV, csv);
+
+        assertEquals(6, resultado.getRegistros());
+        assertEquals(1, resultado.getImportados());
+        assertEquals(5, resultado.getRejeitados());
+        assertEquals(List.of(3L, 4L, 6L), resultado.getErros().stream().map(ErroImportacaoDTO::getLinha).toList());
+        assertEquals("Valor inválido: abc.", resultado.getErros().get(0).getMensagem());
+        assertEquals("Campo nome é obrigatório", resultado.getErros().get(1).getMensagem());
+        Beneficio importado = repository.findAll().get(0);
+        assertEquals("Auxilio 1", importado.getNome());
+        assertTrue(importado.getAtivo());
+    }
+
+    @Test
+    @DisplayName("Deve manter a primeira ocorrência do nome e rejeitar nomes já cadastrados")
+    void deveRejeitarNomesRepetidos() throws IOException {
+        salvar("Existente", "Já cadastrado", true);
+        String ndjson = """
+                {"nome":"Novo","descricao":"Primeira","valor":1}
+                {"nome":"Existente","descricao":"Repetido no banco","valor":2}
+
+                {"nome":"Novo","descricao":"Segunda","valor":3}
+                {"nome":"Outro","descricao":"Sem fechar"
+                {"nome":"Outro","descricao":"Terceiro","valor":4,"ativo":false}
+                """;
+
+        ImportacaoResultadoDTO resultado = importar(FormatoArquivo.NDJSON, ndjson);
+
+        assertEquals(5, resultado.getRegistros());
+        assertEquals(2, resultado.getImportados());
+        assertEquals(List.of(2L, 4L, 5L), resultado.getErros().stream().map(ErroImportacaoDTO::getLinha).toList());
+        assertEquals("Já existe um benefício cadastrado com esse nome.", resultado.getErros().get(0).getMensagem());
+        assertEquals("Nome repetido em uma linha anterior do arquivo.", resultado.getErros().get(1).getMensagem());
+        assertEquals("Primeira", repository.findAll().stream()
+                .filter(b -> b.getNome().equals("Novo")).findFirst().orElseThrow().getDescricao());
+        assertEquals(3, repository.count());
+    }
+
+    @Test
+    @DisplayName("Deve recusar CSV sem as colunas obrigatórias no cabeçalho")
+    void deveRecusarCabecalhoInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> importar(FormatoArquivo.CSV, "nome,valor\r\nA,1\r\n"));
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    @DisplayName("Deve refletir a importação no cache de consultas")
+    void deveRefletirImportacaoNoCacheDeConsultas() throws IOException {
+        assertEquals(0, beneficioService.listarPaginado(null, null, null, true, null, 0, 10, TipoContagem.NENHUMA)
+                .getContent().size());
+
+        importar(FormatoArquivo.CSV, "nome,descricao,valor,ativo\nImportado,Via importação,7.25,true\n");
+
+        assertEquals(1, beneficioService.listarPaginado(null, null, null, true, null, 0, 10, TipoContagem.NENHUMA)
+                .getContent().size());
+    }
+
+    private ImportacaoResultadoDTO importar(FormatoArquivo formato, String conteudo) throws IOException {
+        return service.importar(formato, new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void salvar(String nome, String descricao, boolean ativo) {
+        Beneficio beneficio = new Beneficio();
+        beneficio.setNome(nome);
+        beneficio.setDescricao(descricao);
+        beneficio.setValor(BigDecimal.TEN);
+        beneficio.setAtivo(ativo);
+        repository.save(beneficio);
+    }
+}
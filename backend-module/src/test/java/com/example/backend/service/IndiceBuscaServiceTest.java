@@ -0,0 +1,132 @@
+package com.example.backend.service;
+
+import com.example.backend.config.JanelaReplicacao;
+import com.example.backend.domain.event.BeneficioAlteradoEvent;
+import com.example.backend.domain.repository.BeneficiosRepository;
+import com.example.backend.model.dto.DocumentoBuscaDTO;
+import com.example.backend.model.dto.FiltroBeneficioDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class IndiceBuscaServiceTest {
+
+    @Mock
+    private BeneficiosRepository repository;
+
+    @Mock
+    private JanelaReplicacao janelaReplicacao;
+
+    @InjectMocks
+    private IndiceBuscaService service;
+
+    private final FiltroBeneficioDTO busca = FiltroBeneficioDTO.de(null, null, null, null, "vale");
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(service, "habilitado", true);
+        ReflectionTestUtils.setField(service, "lote", 2);
+        when(janelaReplicacao.podeGuardar(anyLong())).thenReturn(true);
+    }
+
+    @Test
+    void deveMontarOIndiceEmLotesPorId() {
+        when(repository.findDocumentosBusca(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(documento(1L, "Vale Refeicao"), documento(2L, "Vale Transporte")));
+        when(repository.findDocumentosBusca(eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(documento(3L, "Plano de Saude")));
+
+        assertTrue(service.buscar(busca, 0, 10).isEmpty());
+        service.reconstruir();
+
+        assertEquals(List.of(2L, 1L), service.buscar(busca, 0, 10).orElseThrow().ids());
+    }
+
+    @Test
+    void deveReleAlteradosSoNaProximaBusca() {
+        when(repository.findDocumentosBusca(eq(0L), any(Pageable.class))).thenReturn(List.of(documento(1L, "Vale Refeicao")));
+        service.reconstruir();
+
+        service.aoAlterarBeneficio(BeneficioAlteradoEvent.saldo(List.of(1L, 2L)));
+        verify(repository, never()).findDocumentosBuscaByIdIn(any());
+
+        when(repository.findDocumentosBuscaByIdIn(any())).thenReturn(List.of(documento(2L, "Vale Cultura")));
+        assertEquals(List.of(2L), service.buscar(busca, 0, 10).orElseThrow().ids());
+        assertEquals(List.of(2L), service.buscar(busca, 0, 10).orElseThrow().ids());
+        verify(repository, times(1)).findDocumentosBuscaByIdIn(argThat(ids -> Set.copyOf(ids).equals(Set.of(1L, 2L))));
+    }
+
+    @Test
+    void deveReleAlteradosLidosDeReplicaAtrasada() {
+        when(repository.findDocumentosBusca(eq(0L), any(Pageable.class))).thenReturn(List.of(documento(1L, "Vale Refeicao")));
+        service.reconstruir();
+        service.aoAlterarBeneficio(BeneficioAlteradoEvent.cadastro(1L));
+
+        when(janelaReplicacao.podeGuardar(anyLong())).thenReturn(false, true);
+        when(repository.findDocumentosBuscaByIdIn(any()))
+                .thenReturn(List.of(documento(1L, "Vale Refeicao")), List.of(documento(1L, "Plano de Saude")));
+        assertEquals(List.of(1L), service.buscar(busca, 0, 10).orElseThrow().ids());
+        assertTrue(service.buscar(busca, 0, 10).orElseThrow().ids().isEmpty());
+        assertTrue(service.buscar(busca, 0, 10).orElseThrow().ids().isEmpty());
+        verify(repository, times(2)).findDocumentosBuscaByIdIn(any());
+    }
+
+    @Test
+    void deveAplicarAlteracoesFeitasDuranteAReconstrucao() {
+        when(repository.findDocumentosBusca(eq(0L), any(Pageable.class))).thenReturn(List.of(documento(1L, "Vale Refeicao")));
+        service.reconstruir();
+
+        when(repository.findDocumentosBusca(eq(0L), any(Pageable.class))).thenAnswer(invocacao -> {
+            // Gravação confirmada e já sincronizada no índice antigo enquanto o novo era montado.
+            service.aoAlterarBeneficio(BeneficioAlteradoEvent.cadastro(1L));
+            service.buscar(busca, 0, 10);
+            return List.of(documento(1L, "Vale Refeicao"));
+        });
+        when(repository.findDocumentosBuscaByIdIn(any())).thenReturn(List.of());
+        service.reconstruir();
+
+        assertTrue(service.buscar(busca, 0, 10).orElseThrow().ids().isEmpty());
+    }
+
+    @Test
+    void deveManterOIndiceAnteriorSeAReconstrucaoFalhar() {
+        when(repository.findDocumentosBusca(eq(0L), any(Pageable.class))).thenReturn(List.of(documento(1L, "Vale Refeicao")));
+        service.reconstruir();
+        when(repository.findDocumentosBusca(eq(0L), any(Pageable.class))).thenThrow(new IllegalStateException("banco fora"));
+
+        service.reconstruirAgendado();
+
+        assertEquals(List.of(1L), service.buscar(busca, 0, 10).orElseThrow().ids());
+    }
+
+    @Test
+    void deveInformarMemoriaEDocumentosDoIndice() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        service.bindTo(registry);
+        assertEquals(0, registry.get("beneficio.busca.indice.memoria").gauge().value());
+
+        when(repository.findDocumentosBusca(eq(0L), any(Pageable.class))).thenReturn(List.of(documento(1L, "Vale Refeicao")));
+        service.reconstruir();
+
+        assertTrue(registry.get("beneficio.busca.indice.memoria").gauge().value() > 0);
+        assertEquals(1, registry.get("beneficio.busca.indice.documentos").gauge().value());
+    }
+
+    private static DocumentoBuscaDTO documento(Long id, String nome) {
+        return new DocumentoBuscaDTO(id, nome, "Descricao", true, BigDecimal.TEN);
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.backend.service;
+
+import com.example.backend.domain.repository.BeneficioMovimentoRepository;
+import com.example.backend.domain.repository.BeneficioSaldoRepository;
+import com.example.backend.domain.repository.BeneficiosRepository;
+import com.example.backend.exception.DuplicateException;
+import com.example.backend.exception.ResourceNotFoundException;
+import com.example.backend.exception.SaldoInsuficienteException;
+import com.example.backend.model.dto.BeneficioDTO;
+import com.example.backend.model.dto.TransferenciaDTO;
+import com.example.backend.model.entidades.Beneficio;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "cors.allowed-origins=*",
+        "cors.allowed-methods=*",
+        "cors.allowed-headers=*",
+        "cors.exposed-headers=*",
+        "cors.allow-credentials=false",
+        "beneficio.agendamento.enabled=false"
+})
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class MetricasBeneficioTest {
+
+    @Autowired
+    private BeneficioService service;
+
+    @Autowired
+    private BeneficiosRepository repository;
+
+    @Autowired
+    private BeneficioSaldoRepository saldoRepository;
+
+    @Autowired
+    private BeneficioMovimentoRepository movimentoRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PrometheusMeterRegistry prometheus;
+
+    private Long origem;
+    private Long destino;
+
+    @BeforeEach
+    void setup() {
+        movimentoRepository.deleteAllInBatch();
+        saldoRepository.deleteAllInBatch();
+        repository.deleteAllInBatch();
+        origem = repository.save(new Beneficio(null, "Origem", "Origem", new BigDecimal("100.00"), true, null)).getId();
+        destino = repository.save(new Beneficio(null, "Destino", "Destino", new BigDecimal("10.00"), true, null)).getId();
+    }
+
+    @Test
+    @DisplayName("Deve medir a transferência e cada etapa: bloqueio, saldo e commit")
+    void deveMedirTransferenciaPorEtapa() {
+        List<String> etapas = List.of("bloqueio", "saldo", "commit");
+        long sucessos = operacoes("transfer", "sucesso");
+        List<Long> antes = etapas.stream().map(this::etapa).toList();
+
+        service.transfer(origem, destino, BigDecimal.ONE);
+
+        assertEquals(sucessos + 1, operacoes("transfer", "sucesso"));
+        for (int i = 0; i < etapas.size(); i++) {
+            assertTrue(etapa(etapas.get(i)) > antes.get(i), etapas.get(i));
+        }
+        assertTrue(prometheus.scrape().contains("beneficio_operacao_seconds_bucket{operacao=\"transfer\""));
+    }
+
+    @Test
+    @DisplayName("Deve contar as falhas por causa, inclusive as de itens de lote")
+    void deveContarFalhasPorCausa() {
+        double saldoInsuficiente = falhas("transfer", "saldo_insuficiente");
+        double naoEncontrado = falhas("transfer", "nao_encontrado");
+        double duplicado = falhas("inserirBeneficio", "duplicado");
+        double lote = falhas("transferirLote", "saldo_insuficiente");
+        long falhasTransfer = operacoes("transfer", "falha");
+
+        assertThrows(SaldoInsuficienteException.class, () -> service.transfer(origem, destino, new BigDecimal("500")));
+        assertThrows(ResourceNotFoundException.class, () -> service.transfer(origem, -1L, BigDecimal.ONE));
+        assertThrows(DuplicateException.class, () -> service.inserirBeneficio(
+                new BeneficioDTO(null, "Origem", "Repetido", BigDecimal.ONE, true, null)));
+        service.transferirLote(List.of(new TransferenciaDTO(destino, origem, new BigDecimal("500"))), false);
+        assertThrows(IllegalArgumentException.class, () -> service.transferirLote(
+                List.of(new TransferenciaDTO(destino, origem, new BigDecimal("500"))), true));
+
+        assertEquals(saldoInsuficiente + 1, falhas("transfer", "saldo_insuficiente"));
+        assertEquals(naoEncontrado + 1, falhas("transfer", "nao_encontrado"));
+        assertEquals(duplicado + 1, falhas("inserirBeneficio", "duplicado"));
+        assertEquals(lote + 2, falhas("transferirLote", "saldo_insuficiente"));
+        assertEquals(falhasTransfer + 2, operacoes("transfer", "falha"));
+    }
+
+    @Test
+    void deveClassificarCausaPelaCadeiaDeExcecoes() {
+        assertEquals("saldo_insuficiente", MetricasBeneficio.causa(
+                new IllegalArgumentException("Transferência 0 do lote não executada", new SaldoInsuficienteException())));
+        assertEquals("concorrencia", MetricasBeneficio.causa(new PessimisticLockingFailureException("lock")));
+        assertEquals("invalido", MetricasBeneficio.causa(new IllegalArgumentException("valor")));
+        assertEquals("erro", MetricasBeneficio.causa(new IllegalStateException("?")));
+    }
+
+    /** Os medidores são globais no contexto compartilhado: os testes comparam antes e depois. */
+    private double falhas(String operacao, String causa) {
+        return meterRegistry.counter(MetricasBeneficio.FALHAS, "operacao", operacao, "causa", causa).count();
+    }
+
+    private long operacoes(String operacao, String resultado) {
+        return meterRegistry.timer(MetricasBeneficio.OPERACAO, "operacao", operacao, "resultado", resultado).count();
+    }
+
+    private long etapa(String etapa) {
+        return meterRegistry.timer(MetricasBeneficio.ETAPA, "etapa", etapa).count();
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.backend.service;
+
+import com.example.backend.domain.repository.BeneficioMovimentoRepository;
+import com.example.backend.domain.repository.BeneficioSaldoRepository;
+import com.example.backend.domain.repository.BeneficiosRepository;
+import com.example.backend.model.entidades.Beneficio;
+import com.example.backend.model.enums.ModoTransferencia;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Vazão de transferências para um único beneficio "quente", com e sem saldo particionado.
+ * Fora do build padrão: {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "cors.allowed-origins=*",
+        "cors.allowed-methods=*",
+        "cors.allowed-headers=*",
+        "cors.exposed-headers=*",
+        "cors.allow-credentials=false",
+        "beneficio.particoes.enabled=true",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@ActiveProfiles("test")
+class SaldoParticionadoBenchmarkTest {
+
+    private static final int TRANSFERENCIAS_POR_THREAD = 200;
+    private static final BigDecimal SALDO_ORIGEM = BigDecimal.valueOf(1_000_000);
+    private static final BigDecimal VALOR = BigDecimal.ONE;
+
+    @Autowired
+    private BeneficioService service;
+
+    @Autowired
+    private BeneficiosRepository repository;
+
+    @Autowired
+    private BeneficioSaldoRepository saldoRepository;
+
+    @Autowired
+    private BeneficioMovimentoRepository movimentoRepository;
+
+    private Object alvo;
+
+    @BeforeEach
+    void setup() {
+        alvo = AopTestUtils.getTargetObject(service);
+        // Exclusão em lote: o compactador agendado pode alterar a VERSION dos beneficios a qualquer momento.
+        movimentoRepository.deleteAllInBatch();
+        saldoRepository.deleteAllInBatch();
+        repository.deleteAllInBatch();
+    }
+
+    @AfterEach
+    void restaurar() {
+        ReflectionTestUtils.setField(alvo, "modoTransferencia", ModoTransferencia.PESSIMISTA);
+        ReflectionTestUtils.setField(alvo, "particoesHabilitadas", false);
+    }
+
+    @ParameterizedTest(name = "{0} com {1} partições e {2} threads")
+    @CsvSource({
+            "PESSIMISTA, 0, 1", "PESSIMISTA, 0, 4", "PESSIMISTA, 0, 16",
+            "ATOMICO, 0, 1", "ATOMICO, 0, 4", "ATOMICO, 0, 16",
+            "MOVIMENTO, 0, 1", "MOVIMENTO, 0, 4", "MOVIMENTO, 0, 16",
+            "PESSIMISTA, 16, 1", "PESSIMISTA, 16, 4", "PESSIMISTA, 16, 16"
+    })
+    @DisplayName("Vazão de créditos concorrentes em um beneficio quente")
+    void medirVazaoNoBeneficioQuente(ModoTransferencia modo, int particoes, int threads) throws Exception {
+        ReflectionTestUtils.setField(alvo, "modoTransferencia", modo);
+        ReflectionTestUtils.setField(alvo, "particoesHabilitadas", particoes > 0);
+
+        Long quente = criar("Quente", BigDecimal.ZERO);
+        if (particoes > 0) {
+            service.particionarSaldo(quente, particoes);
+        }
+        List<Long> origens = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            origens.add(criar("Origem " + i, SALDO_ORIGEM));
+        }
+
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (Long origem : origens) {
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < TRANSFERENCIAS_POR_THREAD; i++) {
+                    service.transfer(origem, quente, VALOR);
+                }
+                return null;
+            }));
+        }
+
+        long inicio = System.nanoTime();
+        largada.countDown();
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get(5, TimeUnit.MINUTES);
+        }
+        long duracaoNs = System.nanoTime() - inicio;
+        executor.shutdown();
+
+        int total = threads * TRANSFERENCIAS_POR_THREAD;
+        System.out.printf("%-10s particoes=%-3d threads=%-3d %8.0f transferências/s%n",
+                modo, particoes, threads, total / (duracaoNs / 1e9));
+
+        Beneficio resultado = repository.findById(quente).orElseThrow();
+        assertEquals(0, BigDecimal.valueOf(total).compareTo(resultado.getValor()));
+    }
+
+    private Long criar(String nome, BigDecimal valor) {
+        Beneficio b = new Beneficio();
+        b.setNome(nome);
+        b.setDescricao("Benchmark de particionamento");
+        b.setValor(valor);
+        b.setAtivo(true);
+        return repository.save(b).getId();
+    }
+}
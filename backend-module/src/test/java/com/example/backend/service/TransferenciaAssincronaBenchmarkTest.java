@@ -0,0 +1,133 @@
+package com.example.backend.service;
+
+import com.example.backend.domain.repository.BeneficioMovimentoRepository;
+import com.example.backend.domain.repository.BeneficioSaldoRepository;
+import com.example.backend.domain.repository.BeneficiosRepository;
+import com.example.backend.model.dto.TransferenciaAssincronaDTO;
+import com.example.backend.model.dto.TransferenciaDTO;
+import com.example.backend.model.entidades.Beneficio;
+import com.example.backend.model.enums.StatusTransferencia;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Vazão sustentada de transferências síncronas (um commit por transferência) contra a fila
+ * assíncrona (um commit por lote). Fora do build padrão: {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "cors.allowed-origins=*",
+        "cors.allowed-methods=*",
+        "cors.allowed-headers=*",
+        "cors.exposed-headers=*",
+        "cors.allow-credentials=false",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@ActiveProfiles("test")
+class TransferenciaAssincronaBenchmarkTest {
+
+    private static final int CONTAS = 50;
+    private static final int CLIENTES = 8;
+    private static final int TRANSFERENCIAS_POR_CLIENTE = 300;
+
+    @Autowired
+    private BeneficioService service;
+
+    @Autowired
+    private TransferenciaAssincronaService assincrona;
+
+    @Autowired
+    private BeneficiosRepository repository;
+
+    @Autowired
+    private BeneficioSaldoRepository saldoRepository;
+
+    @Autowired
+    private BeneficioMovimentoRepository movimentoRepository;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    void setup() {
+        movimentoRepository.deleteAllInBatch();
+        saldoRepository.deleteAllInBatch();
+        repository.deleteAllInBatch();
+        ids = new ArrayList<>();
+        for (int i = 0; i < CONTAS; i++) {
+            Beneficio b = new Beneficio();
+            b.setNome("Conta " + i);
+            b.setDescricao("Benchmark da fila assíncrona");
+            b.setValor(BigDecimal.valueOf(1_000_000));
+            b.setAtivo(true);
+            ids.add(repository.save(b).getId());
+        }
+    }
+
+    @ParameterizedTest(name = "assíncrono={0}")
+    @ValueSource(booleans = {false, true})
+    @DisplayName("Vazão sustentada: síncrono x fila com group commit")
+    void medirVazao(boolean assincrono) throws Exception {
+        ConcurrentLinkedQueue<String> enviadas = new ConcurrentLinkedQueue<>();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTES);
+        List<Future<?>> tarefas = new ArrayList<>();
+
+        for (int c = 0; c < CLIENTES; c++) {
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERENCIAS_POR_CLIENTE; i++) {
+                    Long from = ids.get(random.nextInt(CONTAS));
+                    Long to = ids.get(random.nextInt(CONTAS));
+                    if (from.equals(to)) to = ids.get((ids.indexOf(from) + 1) % CONTAS);
+                    if (assincrono) {
+                        enviadas.add(assincrona.enviar(new TransferenciaDTO(from, to, BigDecimal.ONE)).getId());
+                    } else {
+                        service.transfer(from, to, BigDecimal.ONE);
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long inicio = System.nanoTime();
+        largada.countDown();
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get(5, TimeUnit.MINUTES);
+        }
+        for (String id : enviadas) {
+            TransferenciaAssincronaDTO situacao;
+            while ((situacao = assincrona.consultar(id).orElseThrow()).getStatus() == StatusTransferencia.PENDENTE) {
+                Thread.sleep(1);
+            }
+            assertEquals(StatusTransferencia.CONCLUIDA, situacao.getStatus(), situacao.getMensagem());
+        }
+        long duracaoNs = System.nanoTime() - inicio;
+        executor.shutdown();
+
+        int total = CLIENTES * TRANSFERENCIAS_POR_CLIENTE;
+        System.out.printf("%s: %d transferências, %8.0f transferências/s%n",
+                assincrono ? "Assíncrono (group commit)" : "Síncrono", total, total / (duracaoNs / 1e9));
+    }
+}
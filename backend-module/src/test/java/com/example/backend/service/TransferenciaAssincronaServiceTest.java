@@ -0,0 +1,175 @@
+package com.example.backend.service;
+
+import com.example.backend.model.dto.TransferenciaAssincronaDTO;
+import com.example.backend.model.dto.TransferenciaDTO;
+import com.example.backend.model.dto.TransferenciaResultadoDTO;
+import com.example.backend.model.enums.StatusTransferencia;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TransferenciaAssincronaServiceTest {
+
+    @Mock
+    private BeneficioService beneficioService;
+
+    private TransferenciaAssincronaService service;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        service = new TransferenciaAssincronaService(beneficioService, new CustomizableThreadFactory("fila-teste-"));
+        ReflectionTestUtils.setField(service, "particoes", 1);
+        ReflectionTestUtils.setField(service, "capacidade", 100);
+        ReflectionTestUtils.setField(service, "loteMaximo", 50);
+        ReflectionTestUtils.setField(service, "esperaMaximaMs", 200L);
+    }
+
+    @AfterEach
+    void encerrar() throws InterruptedException {
+        service.encerrar();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void deveAplicarTransferenciasEnfileiradasEmLote() throws Exception {
+        when(beneficioService.transferirLote(anyList(), eq(false))).thenAnswer(inv -> {
+            List<TransferenciaDTO> lote = inv.getArgument(0);
+            List<TransferenciaResultadoDTO> resultados = new ArrayList<>();
+            for (int i = 0; i < lote.size(); i++) {
+                resultados.add(TransferenciaResultadoDTO.sucesso(i, lote.get(i)));
+            }
+            return resultados;
+        });
+        service.iniciar();
+
+        List<TransferenciaAssincronaDTO> enviadas = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            enviadas.add(service.enviar(new TransferenciaDTO(1L, 2L, BigDecimal.ONE)));
+        }
+
+        for (TransferenciaAssincronaDTO enviada : enviadas) {
+            assertEquals(StatusTransferencia.CONCLUIDA, aguardar(enviada.getId()).getStatus());
+        }
+        // As 10 chegaram dentro da janela de espera: no máximo alguns commits, não um por transferência.
+        verify(beneficioService, atMost(3)).transferirLote(anyList(), eq(false));
+    }
+
+    @Test
+    void deveReprocessarIndividualmenteQuandoLoteFalha() throws Exception {
+        when(beneficioService.transferirLote(anyList(), eq(false)))
+                .thenThrow(new CannotAcquireLockException("lock timeout"));
+        doThrow(new IllegalArgumentException("Saldo insuficiente no benefício de origem."))
+                .when(beneficioService).transfer(3L, 4L, BigDecimal.TEN);
+        service.iniciar();
+
+        TransferenciaAssincronaDTO ok = service.enviar(new TransferenciaDTO(1L, 2L, BigDecimal.ONE));
+        TransferenciaAssincronaDTO falha = service.enviar(new TransferenciaDTO(3L, 4L, BigDecimal.TEN));
+
+        assertEquals(StatusTransferencia.CONCLUIDA, aguardar(ok.getId()).getStatus());
+        TransferenciaAssincronaDTO situacao = aguardar(falha.getId());
+        assertEquals(StatusTransferencia.FALHA, situacao.getStatus());
+        assertEquals("Saldo insuficiente no benefício de origem.", situacao.getMensagem());
+    }
+
+    @Test
+    void naoDeveReaplicarLoteJaConfirmado() throws Exception {
+        // Resultado incompleto: a falha acontece depois do commit e não pode levar ao reprocessamento.
+        when(beneficioService.transferirLote(anyList(), eq(false))).thenReturn(List.of());
+        service.iniciar();
+
+        service.enviar(new TransferenciaDTO(1L, 2L, BigDecimal.ONE));
+
+        verify(beneficioService, timeout(2000)).transferirLote(anyList(), eq(false));
+        Thread.sleep(100);
+        verify(beneficioService, never()).transfer(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void deveOrdenarTransferenciasDoMesmoBeneficioEntreParticoes() throws Exception {
+        // Com 2 partições os ids ímpares caem na 1 e os pares na 0.
+        ReflectionTestUtils.setField(service, "particoes", 2);
+        ReflectionTestUtils.setField(service, "esperaMaximaMs", 10L);
+        TransferenciaDTO primeira = new TransferenciaDTO(3L, 1L, BigDecimal.ONE);
+        TransferenciaDTO segunda = new TransferenciaDTO(2L, 1L, BigDecimal.ONE);
+        TransferenciaDTO terceira = new TransferenciaDTO(2L, 4L, BigDecimal.ONE);
+        List<TransferenciaDTO> aplicadas = Collections.synchronizedList(new ArrayList<>());
+        when(beneficioService.transferirLote(anyList(), eq(false))).thenAnswer(inv -> {
+            List<TransferenciaDTO> lote = inv.getArgument(0);
+            if (lote.contains(primeira)) {
+                Thread.sleep(300);
+            }
+            aplicadas.addAll(lote);
+            List<TransferenciaResultadoDTO> resultados = new ArrayList<>();
+            for (int i = 0; i < lote.size(); i++) {
+                resultados.add(TransferenciaResultadoDTO.sucesso(i, lote.get(i)));
+            }
+            return resultados;
+        });
+        service.iniciar();
+
+        List<TransferenciaAssincronaDTO> enviadas = List.of(service.enviar(primeira), service.enviar(segunda),
+                service.enviar(terceira));
+
+        for (TransferenciaAssincronaDTO enviada : enviadas) {
+            assertEquals(StatusTransferencia.CONCLUIDA, aguardar(enviada.getId()).getStatus());
+        }
+        assertEquals(List.of(primeira, segunda, terceira), aplicadas);
+    }
+
+    @Test
+    void deveRejeitarQuandoFilaCheia() throws Exception {
+        ReflectionTestUtils.setField(service, "capacidade", 1);
+        when(beneficioService.transferirLote(anyList(), eq(false))).thenAnswer(inv -> {
+            Thread.sleep(500);
+            return List.of();
+        });
+        service.iniciar();
+
+        assertThrows(RejectedExecutionException.class, () -> {
+            for (int i = 0; i < 10; i++) {
+                service.enviar(new TransferenciaDTO(1L, 2L, BigDecimal.ONE));
+            }
+        });
+    }
+
+    @Test
+    void deveValidarAntesDeEnfileirar() {
+        doThrow(new IllegalArgumentException("Conta de origem e destino devem ser diferentes!"))
+                .when(beneficioService).validarTransferencia(1L, 1L, BigDecimal.ONE);
+        service.iniciar();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.enviar(new TransferenciaDTO(1L, 1L, BigDecimal.ONE)));
+        verify(beneficioService, never()).transferirLote(anyList(), anyBoolean());
+    }
+
+    private TransferenciaAssincronaDTO aguardar(String id) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < limite) {
+            TransferenciaAssincronaDTO situacao = service.consultar(id).orElseThrow();
+            if (situacao.getStatus() != StatusTransferencia.PENDENTE) {
+                return situacao;
+            }
+            Thread.sleep(10);
+        }
+        fail("Transferência " + id + " não foi processada");
+        return null;
+    }
+}
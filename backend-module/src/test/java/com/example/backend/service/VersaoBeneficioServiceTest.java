@@ -0,0 +1,112 @@
+package com.example.backend.service;
+
+import com.example.backend.domain.repository.BeneficioMovimentoRepository;
+import com.example.backend.domain.repository.BeneficioSaldoRepository;
+import com.example.backend.domain.repository.BeneficioVersaoRepository;
+import com.example.backend.domain.repository.BeneficiosRepository;
+import com.example.backend.exception.DuplicateException;
+import com.example.backend.model.dto.BeneficioDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "cors.allowed-origins=*",
+        "cors.allowed-methods=*",
+        "cors.allowed-headers=*",
+        "cors.exposed-headers=*",
+        "cors.allow-credentials=false",
+        "beneficio.agendamento.enabled=false"
+})
+@ActiveProfiles("test")
+class VersaoBeneficioServiceTest {
+
+    @Autowired
+    private VersaoBeneficioService versaoService;
+
+    @Autowired
+    private BeneficioService beneficioService;
+
+    @Autowired
+    private BeneficioVersaoRepository versaoRepository;
+
+    @Autowired
+    private BeneficiosRepository repository;
+
+    @Autowired
+    private BeneficioSaldoRepository saldoRepository;
+
+    @Autowired
+    private BeneficioMovimentoRepository movimentoRepository;
+
+    @BeforeEach
+    void setup() {
+        movimentoRepository.deleteAllInBatch();
+        saldoRepository.deleteAllInBatch();
+        repository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Deve incrementar a versão do banco no commit das gravações e não nas recusadas")
+    void deveIncrementarVersaoNoCommit() {
+        assertEquals(16, versaoRepository.count());
+        long inicial = versaoService.atual().getNumero();
+
+        BeneficioDTO dto = new BeneficioDTO(null, "Versionado", "Teste", BigDecimal.TEN, true, null);
+        BeneficioDTO salvo = beneficioService.inserirBeneficio(dto);
+        assertEquals(inicial + 1, versaoService.atual().getNumero());
+
+        assertThrows(DuplicateException.class, () -> beneficioService.inserirBeneficio(dto));
+        assertEquals(inicial + 1, versaoService.atual().getNumero());
+
+        beneficioService.excluirBeneficio(salvo.getId());
+        assertEquals(inicial + 2, versaoService.atual().getNumero());
+        assertTrue(versaoService.atual().getAlteradaEm() > 0);
+    }
+
+    @Test
+    @DisplayName("Deve incrementar a faixa do beneficio gravado")
+    void deveIncrementarFaixaDoBeneficio() {
+        BeneficioDTO salvo = beneficioService.inserirBeneficio(
+                new BeneficioDTO(null, "Na faixa", "Teste", BigDecimal.TEN, true, null));
+        int faixa = Math.floorMod(salvo.getId(), 16);
+        long antes = versaoRepository.findById(faixa).orElseThrow().getNumero();
+
+        beneficioService.excluirBeneficio(salvo.getId());
+
+        assertEquals(antes + 1, versaoRepository.findById(faixa).orElseThrow().getNumero());
+    }
+
+    @Test
+    @DisplayName("Deve contar transferências em memória e publicá-las no banco com um único incremento")
+    void deveContarTransferenciasEmMemoria() {
+        BeneficioDTO origem = beneficioService.inserirBeneficio(
+                new BeneficioDTO(null, "Origem", "Teste", BigDecimal.TEN, true, null));
+        BeneficioDTO destino = beneficioService.inserirBeneficio(
+                new BeneficioDTO(null, "Destino", "Teste", BigDecimal.TEN, true, null));
+        versaoService.publicarAlteracoesSaldo();
+        long inicial = versaoService.atual().getNumero();
+        String etag = versaoService.etag(versaoService.atual());
+
+        beneficioService.transfer(origem.getId(), destino.getId(), BigDecimal.ONE);
+        String primeira = versaoService.etag(versaoService.atual());
+        beneficioService.transfer(origem.getId(), destino.getId(), BigDecimal.ONE);
+        String segunda = versaoService.etag(versaoService.atual());
+
+        assertEquals(inicial, versaoService.atual().getNumero());
+        assertNotEquals(etag, primeira);
+        assertNotEquals(primeira, segunda);
+
+        versaoService.publicarAlteracoesSaldo();
+        versaoService.publicarAlteracoesSaldo();
+        assertEquals(inicial + 1, versaoService.atual().getNumero());
+        assertNotEquals(segunda, versaoService.etag(versaoService.atual()));
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvTest {
+
+    @Test
+    void deveColocarEntreAspasSoQuandoNecessario() {
+        assertEquals("Vale", Csv.campo("Vale"));
+        assertEquals("\"Vale, \"\"A\"\"\"", Csv.campo("Vale, \"A\""));
+        assertEquals("\"Linha 1\nLinha 2\"", Csv.campo("Linha 1\nLinha 2"));
+        assertEquals("", Csv.campo(null));
+    }
+
+    @Test
+    void deveLerDeVoltaOQueFoiEscrito() throws IOException {
+        String linha = String.join(",", Csv.campo("Vale, \"A\""), Csv.campo("Linha 1\r\nLinha 2"), "") + "\r\n";
+        Csv.Leitor leitor = new Csv.Leitor(new StringReader("nome,descricao,valor\r\n" + linha + "B,C,1"));
+
+        assertEquals(List.of("nome", "descricao", "valor"), leitor.proximo());
+        assertEquals(List.of("Vale, \"A\"", "Linha 1\r\nLinha 2", ""), leitor.proximo());
+        assertEquals(2, leitor.getLinhaDoRegistro());
+        assertEquals(List.of("B", "C", "1"), leitor.proximo());
+        assertEquals(4, leitor.getLinhaDoRegistro());
+        assertNull(leitor.proximo());
+    }
+
+    @Test
+    void deveFalharComAspasNaoFechadas() throws IOException {
+        Csv.Leitor leitor = new Csv.Leitor(new StringReader("a,b\n\"aberto,c\n"));
+
+        leitor.proximo();
+        assertThrows(IllegalArgumentException.class, leitor::proximo);
+    }
+}
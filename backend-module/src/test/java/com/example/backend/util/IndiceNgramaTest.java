@@ -0,0 +1,93 @@
+package com.example.backend.util;
+
+import com.example.backend.model.dto.DocumentoBuscaDTO;
+import com.example.backend.model.dto.FiltroBeneficioDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndiceNgramaTest {
+
+    private IndiceNgrama indice;
+
+    @BeforeEach
+    void setup() {
+        indice = new IndiceNgrama();
+        indice.gravar(new DocumentoBuscaDTO(1L, "Cesta basica", "Inclui vale", true, new BigDecimal("50.00")));
+        indice.gravar(new DocumentoBuscaDTO(2L, "Auxilio Vale", "Transporte", true, new BigDecimal("100.00")));
+        indice.gravar(new DocumentoBuscaDTO(3L, "Vale Alimentacao", "Mercado", false, new BigDecimal("100.00")));
+        indice.gravar(new DocumentoBuscaDTO(4L, "Vale", "Generico", true, new BigDecimal("100")));
+        indice.gravar(new DocumentoBuscaDTO(5L, "Plano de saude", "Cobertura", true, new BigDecimal("300.00")));
+    }
+
+    @Test
+    void deveOrdenarPorRelevanciaComoABuscaNoBanco() {
+        IndiceNgrama.Resultado resultado = indice.buscar(filtro(null, null, "VALE"), 0, 10);
+
+        assertEquals(List.of(4L, 3L, 2L, 1L), resultado.ids());
+        assertEquals(4, resultado.total());
+    }
+
+    @Test
+    void deveFiltrarAtivoEValorEmMemoria() {
+        IndiceNgrama.Resultado resultado = indice.buscar(filtro(true, new BigDecimal("100.0"), "vale"), 0, 10);
+
+        assertEquals(List.of(4L, 2L), resultado.ids());
+    }
+
+    @Test
+    void devePaginarComTotalExato() {
+        IndiceNgrama.Resultado resultado = indice.buscar(filtro(null, null, "vale"), 1, 2);
+
+        assertEquals(List.of(3L, 2L), resultado.ids());
+        assertEquals(4, resultado.total());
+    }
+
+    @Test
+    void deveBuscarTermoCurtoSemTrigramas() {
+        assertEquals(List.of(5L), indice.buscar(filtro(null, null, "de"), 0, 10).ids());
+    }
+
+    @Test
+    void deveConfirmarCandidatosDosTrigramas() {
+        // "ale" e "lim" existem, mas não em sequência.
+        assertTrue(indice.buscar(filtro(null, null, "alelim"), 0, 10).ids().isEmpty());
+        assertTrue(indice.buscar(filtro(null, null, "xyz"), 0, 10).ids().isEmpty());
+    }
+
+    @Test
+    void deveAtualizarERemoverIncrementalmente() {
+        indice.gravar(new DocumentoBuscaDTO(4L, "Refeicao", "Generico", true, new BigDecimal("100")));
+        indice.remover(1L);
+
+        assertEquals(List.of(3L, 2L), indice.buscar(filtro(null, null, "vale"), 0, 10).ids());
+        assertEquals(List.of(4L), indice.buscar(filtro(null, null, "refei"), 0, 10).ids());
+        assertEquals(4, indice.tamanho());
+    }
+
+    @Test
+    void deveCompactarAposMuitasRemocoesSemPerderDocumentos() {
+        long memoriaInicial = indice.memoriaEstimada();
+        for (long id = 100; id < 5100; id++) {
+            indice.gravar(new DocumentoBuscaDTO(id, "Temporario " + id, "Remover", true, BigDecimal.ONE));
+        }
+        long memoriaCheia = indice.memoriaEstimada();
+        for (long id = 100; id < 5100; id++) {
+            indice.remover(id);
+        }
+
+        assertTrue(memoriaCheia > memoriaInicial);
+        assertTrue(indice.memoriaEstimada() < memoriaCheia);
+        assertEquals(5, indice.tamanho());
+        assertEquals(List.of(4L, 3L, 2L, 1L), indice.buscar(filtro(null, null, "vale"), 0, 10).ids());
+        assertTrue(indice.buscar(filtro(null, null, "temporario"), 0, 10).ids().isEmpty());
+    }
+
+    private static FiltroBeneficioDTO filtro(Boolean ativo, BigDecimal valor, String search) {
+        return FiltroBeneficioDTO.de(null, null, valor, ativo, search);
+    }
+}
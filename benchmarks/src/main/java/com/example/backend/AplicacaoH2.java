@@ -0,0 +1,54 @@
+package com.example.backend;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sobe a aplicação sem servidor web, em um H2 em memória próprio e com os logs de SQL desligados,
+ * para os benchmarks que precisam do contexto do Spring (JPA, transações, repositórios). Com a
+ * variável de ambiente {@code BENCHMARK_DATASOURCE_URL} (e {@code _USERNAME}/{@code _PASSWORD}) usa
+ * esse banco no lugar do H2, ex.: um PostgreSQL descartável; as tabelas são recriadas a cada fork.
+ */
+public final class AplicacaoH2 {
+
+    private AplicacaoH2() {
+    }
+
+    public static ConfigurableApplicationContext iniciar(Map<String, Object> propriedades) {
+        Map<String, Object> padrao = new HashMap<>();
+        String url = System.getenv("BENCHMARK_DATASOURCE_URL");
+        if (url == null || url.isBlank()) {
+            padrao.put("spring.datasource.url", "jdbc:h2:mem:benchmark-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        } else {
+            padrao.put("spring.datasource.url", url);
+            padrao.put("spring.datasource.username", System.getenv().getOrDefault("BENCHMARK_DATASOURCE_USERNAME", ""));
+            padrao.put("spring.datasource.password", System.getenv().getOrDefault("BENCHMARK_DATASOURCE_PASSWORD", ""));
+        }
+        padrao.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        padrao.put("spring.jpa.show-sql", "false");
+        padrao.put("logging.level.root", "WARN");
+        padrao.put("logging.level.org.hibernate.SQL", "WARN");
+        padrao.put("logging.level.org.hibernate.type.descriptor.sql.BasicBinder", "WARN");
+        padrao.put("logging.level.org.springframework.web", "WARN");
+        padrao.put("logging.level.org.springframework.security", "WARN");
+        padrao.put("spring.main.banner-mode", "off");
+        padrao.put("cors.allowed-origins", "*");
+        padrao.put("cors.allowed-methods", "GET,POST,PUT,DELETE");
+        padrao.put("cors.allowed-headers", "*");
+        padrao.put("cors.exposed-headers", "Location");
+        padrao.put("cors.allow-credentials", "false");
+        padrao.putAll(propriedades);
+
+        // Como argumentos de linha de comando, para prevalecer sobre o application.properties.
+        String[] argumentos = padrao.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(argumentos);
+    }
+}
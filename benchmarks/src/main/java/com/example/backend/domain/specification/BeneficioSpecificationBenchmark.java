@@ -0,0 +1,75 @@
+package com.example.backend.domain.specification;
+
+import com.example.backend.AplicacaoH2;
+import com.example.backend.model.entidades.Beneficio;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Montagem dos predicados da listagem paginada: composição das {@link Specification} como em
+ * {@code BeneficioService.listarPaginado} e conversão em {@link Predicate} no CriteriaBuilder do Hibernate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BeneficioSpecificationBenchmark {
+
+    private ConfigurableApplicationContext contexto;
+    private CriteriaBuilder cb;
+
+    @Setup
+    public void iniciar() {
+        contexto = AplicacaoH2.iniciar(Map.of("beneficio.agendamento.enabled", "false"));
+        cb = contexto.getBean(EntityManagerFactory.class).getCriteriaBuilder();
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public Predicate semFiltros() {
+        return montar(null, null, null, null, null);
+    }
+
+    @Benchmark
+    public Predicate todosOsFiltros() {
+        return montar("vale", "mercado", new BigDecimal("500.00"), true, null);
+    }
+
+    @Benchmark
+    public Predicate buscaGlobal() {
+        return montar(null, null, null, true, "alimenta");
+    }
+
+    private Predicate montar(String nome, String descricao, BigDecimal valor, Boolean ativo, String search) {
+        Specification<Beneficio> spec = Specification
+                .where(BeneficioSpecification.hasNome(nome))
+                .and(BeneficioSpecification.hasDescricao(descricao))
+                .and(BeneficioSpecification.hasValor(valor))
+                .and(BeneficioSpecification.isAtivo(ativo))
+                .and(BeneficioSpecification.globalSearch(search));
+
+        CriteriaQuery<Beneficio> query = cb.createQuery(Beneficio.class);
+        Root<Beneficio> root = query.from(Beneficio.class);
+        return spec.toPredicate(root, query, cb);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.backend.service;
+
+import com.example.backend.model.dto.BeneficioDTO;
+import com.example.backend.model.entidades.Beneficio;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/** Conversão entidade ↔ DTO feita pelo {@link BeneficioService} em toda leitura e gravação. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BeneficioConversaoBenchmark {
+
+    private BeneficioService service;
+    private Beneficio beneficio;
+    private BeneficioDTO dto;
+
+    @Setup
+    public void preparar() {
+        // A conversão não acessa o repositório nem os serviços auxiliares.
+        service = new BeneficioService(null, null, null, null, null, null, null, null);
+        beneficio = new Beneficio(42L, "Vale Alimentação", "Benefício para compras em supermercados",
+                new BigDecimal("500.00"), true, 3L);
+        dto = new BeneficioDTO(42L, "Vale Alimentação", "Benefício para compras em supermercados",
+                new BigDecimal("500.00"), true, 3L);
+    }
+
+    @Benchmark
+    public BeneficioDTO convertToDTO() {
+        return service.convertToDTO(beneficio);
+    }
+
+    @Benchmark
+    public Beneficio convertToEntity() {
+        return service.convertToEntity(dto);
+    }
+}
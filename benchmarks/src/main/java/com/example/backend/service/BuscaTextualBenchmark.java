@@ -0,0 +1,111 @@
+package com.example.backend.service;
+
+import com.example.backend.AplicacaoH2;
+import com.example.backend.domain.repository.BeneficiosRepository;
+import com.example.backend.domain.specification.BeneficioSpecification;
+import com.example.backend.model.dto.BeneficioDTO;
+import com.example.backend.model.dto.DocumentoBuscaDTO;
+import com.example.backend.model.dto.FiltroBeneficioDTO;
+import com.example.backend.model.enums.TipoContagem;
+import com.example.backend.util.BancoDados;
+import com.example.backend.util.IndiceNgrama;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca global de 20 registros sobre {@code linhas} beneficios: o LIKE da
+ * {@link BeneficioSpecification#globalSearch(String)} ordenado por id, como era a listagem, contra a
+ * {@link BuscaTextualService} usada pelo {@link BeneficioService#listarPaginado}, ambos sem contagem, e
+ * contra o {@link IndiceNgrama} em memória, que já traz o total, mais a leitura da página pelo id.
+ * "alimentacao" aparece em boa parte das linhas; "77777" em poucas, o que obriga o LIKE a varrer a
+ * tabela inteira. No H2 as duas fazem varredura; a diferença aparece no PostgreSQL com pg_trgm
+ * ({@code BENCHMARK_DATASOURCE_URL}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BuscaTextualBenchmark {
+
+    private static final String NOME = "CASE MOD(x, 5) WHEN 0 THEN 'Vale alimentacao ' WHEN 1 THEN 'Auxilio saude ' " +
+            "WHEN 2 THEN 'Vale transporte ' WHEN 3 THEN 'Bolsa educacao ' ELSE 'Auxilio moradia ' END || x";
+    private static final String DESCRICAO = "'Beneficio numero ' || x || CASE MOD(x, 7) " +
+            "WHEN 0 THEN ' com cobertura de alimentacao' WHEN 1 THEN ' pago mensalmente' ELSE ' sem observacoes' END";
+
+    @Param({"1000000"})
+    private int linhas;
+
+    @Param({"alimentacao", "77777"})
+    private String termo;
+
+    private ConfigurableApplicationContext contexto;
+    private BeneficiosRepository repository;
+    private BeneficioService service;
+    private IndiceNgrama indice;
+
+    @Setup
+    public void iniciar() {
+        // Sem o cache de consultas, que devolveria a mesma página sem ir ao banco.
+        contexto = AplicacaoH2.iniciar(Map.of(
+                "beneficio.agendamento.enabled", "false",
+                "spring.jpa.properties.hibernate.cache.use_query_cache", "false"));
+        repository = contexto.getBean(BeneficiosRepository.class);
+        service = contexto.getBean(BeneficioService.class);
+
+        JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        BancoDados bancoDados = contexto.getBean(BancoDados.class);
+        boolean postgres = bancoDados.isPostgres();
+        String origem = postgres ? "generate_series(1, ?) AS x" : "SYSTEM_RANGE(1, ?) AS g(x)";
+        jdbcTemplate.update("INSERT INTO beneficio (id, nome, descricao, valor, ativo, version, particoes) " +
+                "SELECT " + bancoDados.proximoValor("beneficio_seq") + ", " + NOME + ", " + DESCRICAO +
+                ", 100, TRUE, 0, 0 FROM " + origem, linhas);
+        if (postgres) {
+            jdbcTemplate.execute("ANALYZE beneficio");
+        }
+
+        indice = new IndiceNgrama();
+        List<DocumentoBuscaDTO> documentos;
+        long ultimoId = 0;
+        do {
+            documentos = repository.findDocumentosBusca(ultimoId, PageRequest.of(0, 10000));
+            documentos.forEach(indice::gravar);
+            ultimoId = documentos.isEmpty() ? ultimoId : documentos.get(documentos.size() - 1).getId();
+        } while (!documentos.isEmpty());
+        System.out.printf("%nÍndice em memória: %d documentos, ~%d MB%n", indice.tamanho(), indice.memoriaEstimada() >> 20);
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<BeneficioDTO> like() {
+        return repository.findDTOs(BeneficioSpecification.globalSearch(termo), Sort.by("id").descending(), 0, 20);
+    }
+
+    @Benchmark
+    public List<BeneficioDTO> buscaTextual() {
+        return service.listarPaginado(null, null, null, null, termo, 0, 20, TipoContagem.NENHUMA).getContent();
+    }
+
+    @Benchmark
+    public List<BeneficioDTO> indiceEmMemoria() {
+        IndiceNgrama.Resultado resultado = indice.buscar(FiltroBeneficioDTO.de(null, null, null, null, termo), 0, 20);
+        return repository.findDTOsByIdIn(resultado.ids());
+    }
+}
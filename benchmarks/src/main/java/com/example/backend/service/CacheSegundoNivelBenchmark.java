@@ -0,0 +1,99 @@
+package com.example.backend.service;
+
+import com.example.backend.AplicacaoH2;
+import com.example.backend.domain.repository.BeneficiosRepository;
+import com.example.backend.model.dto.BeneficioDTO;
+import com.example.backend.model.entidades.Beneficio;
+import com.example.backend.model.enums.TipoContagem;
+import com.example.backend.util.BancoDados;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leituras de {@code linhas} beneficios com o cache de segundo nível e o de consultas desligados e
+ * ligados ({@code l2}): as 10 primeiras páginas da listagem dos ativos, a consulta por id e uma
+ * transferência seguida da leitura dos dois beneficios, que mede o custo das travas no cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CacheSegundoNivelBenchmark {
+
+    private static final int PAGINAS = 10;
+
+    @Param({"false", "true"})
+    private String l2;
+
+    @Param({"10000"})
+    private int linhas;
+
+    private ConfigurableApplicationContext contexto;
+    private BeneficioService service;
+    private BeneficiosRepository repository;
+    private long[] ids;
+
+    @Setup
+    public void iniciar() {
+        contexto = AplicacaoH2.iniciar(Map.of(
+                "beneficio.agendamento.enabled", "false",
+                "beneficio.cache.segundo-nivel.enabled", l2));
+        service = contexto.getBean(BeneficioService.class);
+        repository = contexto.getBean(BeneficiosRepository.class);
+
+        JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        BancoDados bancoDados = contexto.getBean(BancoDados.class);
+        String origem = bancoDados.isPostgres() ? "generate_series(1, ?) AS x" : "SYSTEM_RANGE(1, ?) AS g(x)";
+        jdbcTemplate.update("INSERT INTO beneficio (id, nome, descricao, valor, ativo, version, particoes) " +
+                "SELECT " + bancoDados.proximoValor("beneficio_seq") + ", 'Beneficio ' || x, 'Beneficio numero ' || x, " +
+                "1000000, MOD(x, 10) <> 0, 0, 0 FROM " + origem, linhas);
+        ids = jdbcTemplate.queryForList("SELECT id FROM beneficio WHERE ativo = TRUE", Long.class).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<BeneficioDTO> listagem() {
+        int pagina = ThreadLocalRandom.current().nextInt(PAGINAS);
+        return service.listarPaginado(null, null, null, true, null, pagina, 20, TipoContagem.EXATA).getContent();
+    }
+
+    @Benchmark
+    public Beneficio buscaPorId() {
+        return repository.findById(sortear()).orElseThrow();
+    }
+
+    @Benchmark
+    public BigDecimal transferenciaELeitura() {
+        long origem = sortear();
+        long destino = sortear();
+        if (origem != destino) {
+            service.transfer(origem, destino, BigDecimal.ONE);
+        }
+        return repository.findById(origem).orElseThrow().getValor()
+                .add(repository.findById(destino).orElseThrow().getValor());
+    }
+
+    private long sortear() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
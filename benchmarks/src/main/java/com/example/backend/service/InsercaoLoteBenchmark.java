@@ -0,0 +1,72 @@
+package com.example.backend.service;
+
+import com.example.backend.AplicacaoH2;
+import com.example.backend.domain.repository.BeneficiosRepository;
+import com.example.backend.model.entidades.Beneficio;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inclusão de {@code registros} beneficios em uma transação pelo {@code saveAll}, com os INSERTs um a
+ * um ({@code batchSize} 1) e em lotes JDBC de 50. Com ids de IDENTITY o Hibernate executa cada INSERT
+ * no {@code persist} para ler o id gerado, e o {@code batch_size} não tem efeito.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class InsercaoLoteBenchmark {
+
+    @Param({"1", "50"})
+    private String batchSize;
+
+    @Param({"1000"})
+    private int registros;
+
+    private ConfigurableApplicationContext contexto;
+    private BeneficiosRepository repository;
+    private int rodada;
+
+    @Setup
+    public void iniciar() {
+        contexto = AplicacaoH2.iniciar(Map.of(
+                "beneficio.agendamento.enabled", "false",
+                "spring.jpa.properties.hibernate.jdbc.batch_size", batchSize));
+        repository = contexto.getBean(BeneficiosRepository.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void limpar() {
+        repository.deleteAllInBatch();
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<Beneficio> saveAll() {
+        rodada++;
+        List<Beneficio> beneficios = new ArrayList<>(registros);
+        for (int i = 0; i < registros; i++) {
+            beneficios.add(new Beneficio(null, "Lote " + rodada + "-" + i, "Beneficio incluído em lote",
+                    BigDecimal.TEN, true, null));
+        }
+        return repository.saveAll(beneficios);
+    }
+}
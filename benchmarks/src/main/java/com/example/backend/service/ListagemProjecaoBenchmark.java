@@ -0,0 +1,91 @@
+package com.example.backend.service;
+
+import com.example.backend.AplicacaoH2;
+import com.example.backend.domain.repository.BeneficiosRepository;
+import com.example.backend.domain.specification.BeneficioSpecification;
+import com.example.backend.model.entidades.Beneficio;
+import com.example.backend.util.BancoDados;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uma página de {@code tamanho} beneficios ativos entre {@code linhas}, em uma transação só de leitura,
+ * como a listagem lia antes (entidades pelo {@code findBy} da {@code Specification}) e como lê agora
+ * (projeção em {@code BeneficioDTO} pelo {@code findDTOs}). Os caches de segundo nível e de consultas
+ * ficam desligados para que toda página venha do banco; a alocação por página sai do {@code -prof gc}
+ * ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ListagemProjecaoBenchmark {
+
+    private static final int PAGINAS = 10;
+
+    @Param({"20", "100"})
+    private int tamanho;
+
+    @Param({"10000"})
+    private int linhas;
+
+    private ConfigurableApplicationContext contexto;
+    private BeneficiosRepository repository;
+    private TransactionTemplate leitura;
+    private Specification<Beneficio> filtros;
+
+    @Setup
+    public void iniciar() {
+        contexto = AplicacaoH2.iniciar(Map.of(
+                "beneficio.agendamento.enabled", "false",
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache", "false",
+                "spring.jpa.properties.hibernate.cache.use_query_cache", "false"));
+        repository = contexto.getBean(BeneficiosRepository.class);
+        leitura = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+        leitura.setReadOnly(true);
+        filtros = Specification.where(BeneficioSpecification.isAtivo(true));
+
+        JdbcTemplate jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        BancoDados bancoDados = contexto.getBean(BancoDados.class);
+        String origem = bancoDados.isPostgres() ? "generate_series(1, ?) AS x" : "SYSTEM_RANGE(1, ?) AS g(x)";
+        jdbcTemplate.update("INSERT INTO beneficio (id, nome, descricao, valor, ativo, version, particoes) " +
+                "SELECT " + bancoDados.proximoValor("beneficio_seq") + ", 'Beneficio ' || x, 'Beneficio numero ' || x, " +
+                "1000, MOD(x, 10) <> 0, 0, 0 FROM " + origem, linhas);
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<?> entidades() {
+        int offset = ThreadLocalRandom.current().nextInt(PAGINAS) * tamanho;
+        return leitura.execute(status -> repository.findBy(filtros, query -> query.sortBy(Sort.by("id").descending())
+                .limit(tamanho).scroll(ScrollPosition.offset(offset)).getContent()));
+    }
+
+    @Benchmark
+    public List<?> projecao() {
+        int offset = ThreadLocalRandom.current().nextInt(PAGINAS) * tamanho;
+        return leitura.execute(status -> repository.findDTOs(filtros, Sort.by("id").descending(), offset, tamanho + 1));
+    }
+}
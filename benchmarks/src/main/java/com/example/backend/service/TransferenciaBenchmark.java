@@ -0,0 +1,71 @@
+package com.example.backend.service;
+
+import com.example.backend.AplicacaoH2;
+import com.example.backend.domain.repository.BeneficiosRepository;
+import com.example.backend.model.entidades.Beneficio;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BeneficioService#transfer} de ponta a ponta (transação, lock e flush) no H2 embarcado, em
+ * cada modo de transferência. Os pares são sorteados entre {@code contas} beneficios com saldo
+ * suficiente para nunca falhar por saldo insuficiente.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TransferenciaBenchmark {
+
+    @Param({"PESSIMISTA", "OTIMISTA", "ATOMICO", "MOVIMENTO"})
+    private String modo;
+
+    @Param({"100"})
+    private int contas;
+
+    private ConfigurableApplicationContext contexto;
+    private BeneficioService service;
+    private long[] ids;
+
+    @Setup
+    public void iniciar() {
+        contexto = AplicacaoH2.iniciar(Map.of("beneficio.transfer.mode", modo));
+        service = contexto.getBean(BeneficioService.class);
+
+        List<Beneficio> beneficios = new ArrayList<>(contas);
+        for (int i = 0; i < contas; i++) {
+            beneficios.add(new Beneficio(null, "Benchmark " + i, "Conta do benchmark de transferência",
+                    new BigDecimal("1000000000.00"), true, null));
+        }
+        ids = contexto.getBean(BeneficiosRepository.class).saveAll(beneficios).stream()
+                .mapToLong(Beneficio::getId)
+                .toArray();
+    }
+
+    @TearDown
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public void transfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(ids.length);
+        int to = (from + 1 + random.nextInt(ids.length - 1)) % ids.length;
+        service.transfer(ids[from], ids[to], BigDecimal.ONE);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.backend.util;
+
+import com.example.backend.model.dto.BeneficioDTO;
+import com.example.backend.model.entidades.Beneficio;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização das respostas mais comuns da API com o mesmo {@link ObjectMapper} padrão do Spring MVC:
+ * a lista em {@link ApiGenericResponse} e a página de entidades de {@code /pageable}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SerializacaoJsonBenchmark {
+
+    @Param({"10", "100"})
+    private int tamanho;
+
+    private ObjectMapper mapper;
+    private ApiGenericResponse<List<BeneficioDTO>> resposta;
+    private Page<Beneficio> pagina;
+
+    @Setup
+    public void preparar() {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<BeneficioDTO> dtos = new ArrayList<>(tamanho);
+        List<Beneficio> beneficios = new ArrayList<>(tamanho);
+        for (int i = 1; i <= tamanho; i++) {
+            BigDecimal valor = BigDecimal.valueOf(100L + i, 2);
+            dtos.add(new BeneficioDTO((long) i, "Beneficio " + i, "Descrição do beneficio " + i, valor, true, 0L));
+            beneficios.add(new Beneficio((long) i, "Beneficio " + i, "Descrição do beneficio " + i, valor, true, 0L));
+        }
+
+        resposta = new ApiGenericResponse<>(true, "Benefícios listados com sucesso!", dtos);
+        pagina = new PageImpl<>(beneficios, PageRequest.of(0, tamanho, Sort.by("id").descending()), tamanho * 10L);
+    }
+
+    @Benchmark
+    public byte[] respostaGenerica() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(resposta);
+    }
+
+    @Benchmark
+    public byte[] paginaDeEntidades() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(pagina);
+    }
+}
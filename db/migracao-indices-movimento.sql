@@ -0,0 +1,8 @@
+-- Troca o indice composto (BENEFICIO_ID, COMPACTADO) de BENEFICIO_MOVIMENTO pelo indice do extrato e pelo
+-- indice parcial dos pendentes do schema.sql. Roda com a aplicacao no ar, fora de transacao (psql sem -1):
+-- CONCURRENTLY nao bloqueia os INSERTs do livro. Os novos sao criados antes de remover o antigo.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS IX_BENEFICIO_MOVIMENTO_BENEFICIO ON BENEFICIO_MOVIMENTO (BENEFICIO_ID);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS IX_BENEFICIO_MOVIMENTO_PENDENTE_PARCIAL ON BENEFICIO_MOVIMENTO (BENEFICIO_ID)
+  WHERE COMPACTADO = FALSE;
+DROP INDEX CONCURRENTLY IF EXISTS IX_BENEFICIO_MOVIMENTO_PENDENTE;
+ALTER INDEX IX_BENEFICIO_MOVIMENTO_PENDENTE_PARCIAL RENAME TO IX_BENEFICIO_MOVIMENTO_PENDENTE;
@@ -0,0 +1,23 @@
+-- Migra um banco criado com o schema antigo (ID GENERATED ALWAYS AS IDENTITY) para as sequencias em
+-- blocos de 50 do schema.sql. Roda uma vez, com a aplicacao parada: as tabelas ficam travadas ate o
+-- COMMIT e cada sequencia continua depois do maior id existente.
+BEGIN;
+
+LOCK TABLE BENEFICIO, BENEFICIO_SALDO, BENEFICIO_MOVIMENTO IN ACCESS EXCLUSIVE MODE;
+
+ALTER TABLE BENEFICIO ALTER COLUMN ID DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS BENEFICIO_SEQ INCREMENT BY 50 OWNED BY BENEFICIO.ID;
+SELECT setval('beneficio_seq', COALESCE((SELECT MAX(ID) FROM BENEFICIO), 0) + 1, false);
+ALTER TABLE BENEFICIO ALTER COLUMN ID SET DEFAULT nextval('beneficio_seq');
+
+ALTER TABLE BENEFICIO_SALDO ALTER COLUMN ID DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS BENEFICIO_SALDO_SEQ INCREMENT BY 50 OWNED BY BENEFICIO_SALDO.ID;
+SELECT setval('beneficio_saldo_seq', COALESCE((SELECT MAX(ID) FROM BENEFICIO_SALDO), 0) + 1, false);
+ALTER TABLE BENEFICIO_SALDO ALTER COLUMN ID SET DEFAULT nextval('beneficio_saldo_seq');
+
+ALTER TABLE BENEFICIO_MOVIMENTO ALTER COLUMN ID DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS BENEFICIO_MOVIMENTO_SEQ INCREMENT BY 50 OWNED BY BENEFICIO_MOVIMENTO.ID;
+SELECT setval('beneficio_movimento_seq', COALESCE((SELECT MAX(ID) FROM BENEFICIO_MOVIMENTO), 0) + 1, false);
+ALTER TABLE BENEFICIO_MOVIMENTO ALTER COLUMN ID SET DEFAULT nextval('beneficio_movimento_seq');
+
+COMMIT;
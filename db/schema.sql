@@ -1,8 +1,61 @@
+-- Ids de sequencias em blocos de 50: a aplicacao reserva um bloco por nextval (otimizador pooled-lo) e
+-- agrupa os INSERTs em lotes JDBC. INSERTs diretos usam o DEFAULT, que reserva um bloco por linha.
+-- Bancos criados com GENERATED ALWAYS AS IDENTITY: db/migracao-sequencias.sql
+CREATE SEQUENCE BENEFICIO_SEQ INCREMENT BY 50;
+CREATE SEQUENCE BENEFICIO_SALDO_SEQ INCREMENT BY 50;
+CREATE SEQUENCE BENEFICIO_MOVIMENTO_SEQ INCREMENT BY 50;
+
 CREATE TABLE BENEFICIO (
-  ID BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+  ID BIGINT DEFAULT nextval('beneficio_seq') PRIMARY KEY,
   NOME VARCHAR(100) NOT NULL,
   DESCRICAO VARCHAR(255),
   VALOR DECIMAL(15,2) NOT NULL,
   ATIVO BOOLEAN DEFAULT TRUE,
-  VERSION BIGINT DEFAULT 0
+  VERSION BIGINT DEFAULT 0,
+  PARTICOES INT DEFAULT 0
+);
+
+-- Nome duplicado: verificacao do cadastro e deduplicacao da importacao em lote
+CREATE INDEX IX_BENEFICIO_NOME ON BENEFICIO (NOME);
+
+-- Indices de trigramas para os LIKE '%termo%' da busca em nome e descricao. A aplicacao so verifica se
+-- existem ao subir. Em um banco ja em uso, rode estes tres comandos fora de transacao (psql sem -1):
+-- CONCURRENTLY nao bloqueia as gravacoes na tabela. Se um deles falhar, o indice fica invalido:
+-- DROP INDEX CONCURRENTLY e repita. A extensao exige um usuario com permissao de cria-la.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS IX_BENEFICIO_NOME_TRGM ON BENEFICIO USING gin (lower(NOME) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS IX_BENEFICIO_DESCRICAO_TRGM ON BENEFICIO USING gin (lower(DESCRICAO) gin_trgm_ops);
+
+CREATE TABLE BENEFICIO_SALDO (
+  ID BIGINT DEFAULT nextval('beneficio_saldo_seq') PRIMARY KEY,
+  BENEFICIO_ID BIGINT NOT NULL REFERENCES BENEFICIO (ID),
+  PARTICAO INT NOT NULL,
+  VALOR DECIMAL(15,2) NOT NULL,
+  CONSTRAINT UK_BENEFICIO_SALDO_PARTICAO UNIQUE (BENEFICIO_ID, PARTICAO)
+);
+
+-- Livro de movimentos: sem FK para BENEFICIO, para que o INSERT do credito nao dispute lock
+-- com a linha do beneficio e o historico sobreviva a exclusao do beneficio.
+CREATE TABLE BENEFICIO_MOVIMENTO (
+  ID BIGINT DEFAULT nextval('beneficio_movimento_seq') PRIMARY KEY,
+  BENEFICIO_ID BIGINT NOT NULL,
+  TRANSFERENCIA VARCHAR(36) NOT NULL,
+  VALOR DECIMAL(15,2) NOT NULL,
+  DATA_HORA TIMESTAMP NOT NULL,
+  COMPACTADO BOOLEAN NOT NULL DEFAULT FALSE
+);
+
+-- Extrato do beneficio (GET /{id}/movimentos), com os lancamentos ja compactados
+CREATE INDEX IX_BENEFICIO_MOVIMENTO_BENEFICIO ON BENEFICIO_MOVIMENTO (BENEFICIO_ID);
+-- Pendentes de compactacao (saldo lido, compactador, lock dos pendentes): parcial, so com as poucas linhas
+-- ainda nao compactadas. O @Index da entidade nao expressa o WHERE; este indice so existe por este script.
+-- Bancos criados antes: db/migracao-indices-movimento.sql
+CREATE INDEX IX_BENEFICIO_MOVIMENTO_PENDENTE ON BENEFICIO_MOVIMENTO (BENEFICIO_ID) WHERE COMPACTADO = FALSE;
+
+-- Versao da tabela de beneficios para os GETs condicionais: soma das faixas, incrementadas pelas
+-- gravacoes antes do commit. A aplicacao cria as faixas que faltarem (beneficio.versao.faixas) ao subir.
+CREATE TABLE BENEFICIO_VERSAO (
+  FAIXA INT PRIMARY KEY,
+  NUMERO BIGINT NOT NULL,
+  ALTERADA_EM BIGINT NOT NULL
 );
@@ -1,37 +1,137 @@
 package com.example.ejb;
 
+import jakarta.annotation.Resource;
+import jakarta.ejb.SessionContext;
 import jakarta.ejb.Stateless;
+import jakarta.ejb.TransactionAttribute;
+import jakarta.ejb.TransactionAttributeType;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PessimisticLockException;
+import jakarta.transaction.Status;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
 import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Stateless
-@TransactionAttribute(TransactionAttributeType.Required)
 public class BeneficioEjbService {
 
+    private static final int MAX_TENTATIVAS = 4;
+    private static final long ESPERA_INICIAL_MS = 20;
+    private static final long ESPERA_MAXIMA_MS = 500;
+
     @PersistenceContext
     private EntityManager em;
 
+    @Resource
+    private SessionContext context;
+
+    @Resource
+    private TransactionSynchronizationRegistry transacoes;
+
+    /**
+     * Transfere saldo entre beneficios. Sem transação do chamador, cada tentativa roda em uma
+     * transação nova e falhas transitórias de lock (deadlock, timeout, serialização) são repetidas
+     * com backoff exponencial aleatório. Dentro de uma transação do chamador executa uma única vez,
+     * pois a transação já estaria marcada para rollback.
+     */
+    @TransactionAttribute(TransactionAttributeType.SUPPORTS)
     public void transfer(Long fromId, Long toId, BigDecimal amount) {
-        Beneficio from = em.find(Beneficio.class, fromId, LockModeType.PESSIMISTIC_WRITE);
-        Beneficio to   = em.find(Beneficio.class, toId, LockModeType.PESSIMISTIC_WRITE);
+        if (transacoes.getTransactionStatus() != Status.STATUS_NO_TRANSACTION) {
+            executarTransferencia(fromId, toId, amount);
+            return;
+        }
 
-        if (from == null || to == null) {
-            throw new IllegalArgumentException("Conta de origem ou destino não existem!");
+        BeneficioEjbService self = context.getBusinessObject(BeneficioEjbService.class);
+        long espera = ESPERA_INICIAL_MS;
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                self.transferEmNovaTransacao(fromId, toId, amount);
+                return;
+            } catch (RuntimeException e) {
+                if (tentativa >= MAX_TENTATIVAS || !isFalhaTransitoria(e)) {
+                    throw e;
+                }
+                aguardar(ThreadLocalRandom.current().nextLong(espera / 2, espera + 1));
+                espera = Math.min(espera * 2, ESPERA_MAXIMA_MS);
+            }
+        }
+    }
+
+    @TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+    public void transferEmNovaTransacao(Long fromId, Long toId, BigDecimal amount) {
+        executarTransferencia(fromId, toId, amount);
+        em.flush();
+    }
+
+    private void executarTransferencia(Long fromId, Long toId, BigDecimal amount) {
+        if (fromId == null || toId == null || fromId.equals(toId)) {
+            throw new IllegalArgumentException("Conta de origem e destino devem ser diferentes!");
         }
 
         if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Valor ínvalido para transferência!");
         }
 
-        if (from.getValor().compareTo(amount)) {
+        // Uma única consulta, em ordem de ID: todas as transferências travam as linhas na mesma ordem.
+        List<Beneficio> bloqueados = em.createQuery(
+                        "SELECT b FROM Beneficio b WHERE b.id IN :ids ORDER BY b.id", Beneficio.class)
+                .setParameter("ids", List.of(fromId, toId))
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+
+        Beneficio from = null;
+        Beneficio to = null;
+        for (Beneficio beneficio : bloqueados) {
+            if (beneficio.getId().equals(fromId)) from = beneficio;
+            if (beneficio.getId().equals(toId)) to = beneficio;
+        }
+
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Conta de origem ou destino não existem!");
+        }
+
+        if (from.getValor().compareTo(amount) < 0) {
             throw new IllegalArgumentException("Saldo insuficiente para transferência!");
         }
 
         from.setValor(from.getValor().subtract(amount));
         to.setValor(to.getValor().add(amount));
+    }
+
+    private static boolean isFalhaTransitoria(Throwable erro) {
+        for (Throwable causa = erro; causa != null; causa = causa.getCause()) {
+            if (causa instanceof PessimisticLockException
+                    || causa instanceof LockTimeoutException
+                    || causa instanceof OptimisticLockException) {
+                return true;
+            }
+            if (causa instanceof SQLException sql && sql.getSQLState() != null) {
+                // 40001 = serialization_failure, 40P01 = deadlock_detected, 55P03 = lock_not_available
+                String estado = sql.getSQLState();
+                if (estado.equals("40001") || estado.equals("40P01") || estado.equals("55P03")) {
+                    return true;
+                }
+            }
+            if (causa.getCause() == causa) {
+                break;
+            }
+        }
+        return false;
+    }
 
-        em.merge(from);
-        em.merge(to);
+    private static void aguardar(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Transferência interrompida durante a retentativa.", e);
+        }
     }
 }
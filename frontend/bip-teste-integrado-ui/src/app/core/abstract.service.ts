@@ -1,8 +1,9 @@
 import { Content } from '@/shared/classes/content';
 import { Page } from '@/shared/classes/page';
-import { HttpClient, HttpHeaders, HttpParams } from '@angular/common/http';
+import { PageCursor } from '@/shared/classes/page-cursor';
+import { HttpClient, HttpErrorResponse, HttpHeaders, HttpParams, HttpResponse } from '@angular/common/http';
 import { inject, Injectable } from '@angular/core';
-import { Observable } from 'rxjs';
+import { catchError, map, Observable, of, throwError } from 'rxjs';
 import { environment } from 'src/environments/environment.local.ts';
 
 @Injectable({
@@ -10,12 +11,18 @@ import { environment } from 'src/environments/environment.local.ts';
 })
 export abstract class AbstractService<RESPONSE, RESUME> {
 
+    /** Quantidade de respostas guardadas para os GETs condicionais. */
+    private static readonly MAX_RESPOSTAS = 50;
+
     protected readonly http = inject(HttpClient);
 
+    /** Última resposta de cada URL de listagem com os validadores (ETag / Last-Modified) recebidos. */
+    private readonly respostas = new Map<string, RespostaGuardada>();
+
     protected abstract get resource(): string;
 
     public listarTodos(httpParams?: HttpParams): Observable<Content<RESUME>> {
-        return this.http.get<Content<RESUME>>(this.endpoint, { params: httpParams });
+        return this.getCondicional<Content<RESUME>>(this.endpoint, httpParams ?? new HttpParams());
     }
 
     public listarPaginado(params: Map<string, any>, page: Page<any>): Observable<Page<RESUME>> {
@@ -27,7 +34,25 @@ export abstract class AbstractService<RESPONSE, RESUME> {
 
         httpParams = httpParams.set('page', String(page.number ?? 0));
 
-        return this.http.get<Page<RESUME>>(`${this.endpoint}/pageable`, { params: httpParams });
+        return this.getCondicional<Page<RESUME>>(`${this.endpoint}/pageable`, httpParams);
+    }
+
+    /**
+     * Listagem por cursor (keyset) para rolagem infinita: passe o proximoCursor da resposta anterior,
+     * ou nada na primeira chamada. O total só é contado quando contar = true.
+     */
+    public listarPorCursor(params: Map<string, any>, size: number, cursor?: string | null, contar = false): Observable<PageCursor<RESUME>> {
+        let httpParams = new HttpParams();
+
+        if (params) params.forEach((value, key) => httpParams = httpParams.set(key, value));
+
+        httpParams = httpParams
+            .set('after', cursor ?? '')
+            .set('size', String(size));
+
+        if (contar) httpParams = httpParams.set('count', 'true');
+
+        return this.getCondicional<PageCursor<RESUME>>(`${this.endpoint}/pageable`, httpParams);
     }
 
     public adicionar(data: any): Observable<Content<RESPONSE>> {
@@ -42,8 +67,49 @@ export abstract class AbstractService<RESPONSE, RESUME> {
         return this.http.delete<Content<RESUME>>(`${this.endpoint}/${id}`);
     }
 
+    /**
+     * GET com If-None-Match / If-Modified-Since da última resposta da mesma URL. Com 304 o backend não
+     * consulta nem serializa nada e a resposta guardada é devolvida no lugar.
+     */
+    protected getCondicional<T>(url: string, params: HttpParams): Observable<T> {
+        const chave = `${url}?${params.toString()}`;
+        const guardada = this.respostas.get(chave);
+
+        let headers = new HttpHeaders();
+        if (guardada?.etag) headers = headers.set('If-None-Match', guardada.etag);
+        else if (guardada?.lastModified) headers = headers.set('If-Modified-Since', guardada.lastModified);
+
+        return this.http.get<T>(url, { params, headers, observe: 'response' }).pipe(
+            map((resposta: HttpResponse<T>) => {
+                this.guardar(chave, resposta);
+                return resposta.body as T;
+            }),
+            catchError((erro: HttpErrorResponse) => erro.status === 304 && guardada
+                ? of(guardada.corpo as T)
+                : throwError(() => erro))
+        );
+    }
+
+    private guardar(chave: string, resposta: HttpResponse<unknown>): void {
+        const etag = resposta.headers.get('ETag');
+        const lastModified = resposta.headers.get('Last-Modified');
+        this.respostas.delete(chave);
+        if (!etag && !lastModified) return;
+
+        if (this.respostas.size >= AbstractService.MAX_RESPOSTAS) {
+            this.respostas.delete(this.respostas.keys().next().value!);
+        }
+        this.respostas.set(chave, { etag, lastModified, corpo: resposta.body });
+    }
+
     protected get endpoint(): string {
         return `${environment.apiUrl}/api/v1/${this.resource}`;
     }
 
 }
+
+interface RespostaGuardada {
+    etag: string | null;
+    lastModified: string | null;
+    corpo: unknown;
+}
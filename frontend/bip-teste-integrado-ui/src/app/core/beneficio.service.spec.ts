@@ -6,6 +6,7 @@ import { Content } from '@/shared/classes/content';
 import { Beneficio } from '@/shared/models/beneficio';
 import { environment } from 'src/environments/environment.local.ts';
 import { Page } from '@/shared/classes/page';
+import { PageCursor } from '@/shared/classes/page-cursor';
 
 describe('BeneficioService', () => {
     let service: BeneficioService;
@@ -83,6 +84,62 @@ describe('BeneficioService', () => {
         req.flush(mockResponse);
     });
 
+    it('deve listar beneficios por cursor', () => {
+        const params = new Map<string, any>([['ativo', true]]);
+
+        const mockResponse: PageCursor<Beneficio> = {
+            size: 10,
+            proximoCursor: 'aWQ6MQ',
+            content: [
+                {
+                    id: 1,
+                    nome: 'Beneficio Teste',
+                    descricao: 'Descricao Teste',
+                    valor: 500,
+                    ativo: true,
+                    version: 0
+                }
+            ]
+        };
+
+        service.listarPorCursor(params, 10).subscribe(res => {
+            expect(res).toEqual(mockResponse);
+        });
+
+        const req = httpMock.expectOne(`${environment.apiUrl}/api/v1/beneficios/pageable?ativo=true&after=&size=10`);
+
+        expect(req.request.method).toBe('GET');
+        req.flush(mockResponse);
+    });
+
+    it('deve enviar o cursor e pedir o total na listagem por cursor', () => {
+        service.listarPorCursor(new Map(), 5, 'aWQ6MQ', true).subscribe();
+
+        const req = httpMock.expectOne(`${environment.apiUrl}/api/v1/beneficios/pageable?after=aWQ6MQ&size=5&count=true`);
+
+        expect(req.request.method).toBe('GET');
+        req.flush({ content: [], size: 5, proximoCursor: null, totalElements: 0 });
+    });
+
+    it('deve reenviar o ETag e devolver a resposta guardada quando o backend responde 304', () => {
+        const url = `${environment.apiUrl}/api/v1/beneficios/pageable?ativo=true&size=10&page=0`;
+        const params = new Map<string, any>([['ativo', true]]);
+        const page: Page<Beneficio> = { number: 0, size: 10, totalElements: 0, content: [] };
+        const mockResponse: Page<Beneficio> = { number: 0, size: 10, totalElements: 0, content: [] };
+
+        service.listarPaginado(params, page).subscribe();
+        const primeira = httpMock.expectOne(url);
+        expect(primeira.request.headers.has('If-None-Match')).toBeFalse();
+        primeira.flush(mockResponse, { headers: { ETag: 'W/"abc-1"' } });
+
+        service.listarPaginado(params, page).subscribe(res => {
+            expect(res).toEqual(mockResponse);
+        });
+        const segunda = httpMock.expectOne(url);
+        expect(segunda.request.headers.get('If-None-Match')).toBe('W/"abc-1"');
+        segunda.flush(null, { status: 304, statusText: 'Not Modified' });
+    });
+
     it('deve adicionar um beneficio', () => {
         const newBeneficio: Beneficio = {
             id: 2,
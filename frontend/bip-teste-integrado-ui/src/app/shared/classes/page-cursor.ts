@@ -0,0 +1,11 @@
+export class PageCursor<T> {
+    public content: T[] = [];
+
+    public size: number = 10;
+
+    /** Cursor opaco da próxima página; nulo quando não há mais registros. */
+    public proximoCursor?: string | null;
+
+    /** Só vem preenchido quando a consulta pede o total (count=true). */
+    public totalElements?: number | null;
+}
@@ -10,6 +10,9 @@ export class Page<T> {
 
     public totalElements?: number = 0;
 
+    /** EXATA, ESTIMADA (totalElements aproximado) ou NENHUMA (só o mínimo conhecido). */
+    public tipoContagem?: 'EXATA' | 'ESTIMADA' | 'NENHUMA';
+
     public totalPages?: number;
 
     public firts?: string;